@@ -0,0 +1,59 @@
+package com.example.catalog_benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.service.AnimeFilters;
+import com.example.catalog_service.service.TmdbResponseParser;
+
+/**
+ * The anime predicates applied to a page of results in searchAnime,
+ * getTrendingAnime and searchTvShows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeFilterBenchmark {
+
+    private List<TvShow> trending;
+    private List<TvShow> search;
+
+    @Setup
+    public void setUp() throws IOException {
+        TmdbResponseParser parser = new TmdbResponseParser();
+        trending = parser.parseTvShowPage(new ByteArrayInputStream(Fixtures.bytes("trending/tv/week"))).getResults();
+        search = parser.parseTvShowPage(new ByteArrayInputStream(Fixtures.bytes("search/tv"))).getResults();
+    }
+
+    @Benchmark
+    public List<TvShow> trendingAnime() {
+        return trending.stream().filter(AnimeFilters::isTrendingAnime).toList();
+    }
+
+    @Benchmark
+    public List<TvShow> searchAnime() {
+        return search.stream().filter(AnimeFilters::isAnimeSearchMatch).toList();
+    }
+
+    @Benchmark
+    public List<TvShow> searchTvExcludingAnime() {
+        return search.stream().filter(tvShow -> !AnimeFilters.isJapaneseAnimation(tvShow)).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.catalog_benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.catalog_service.controller.MovieController;
+import com.example.catalog_service.controller.SearchController;
+import com.example.catalog_service.controller.TvShowController;
+import com.example.catalog_service.service.SearchService;
+import com.example.catalog_service.service.TmdbService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Controller call plus JSON serialization of the response body with the
+ * MVC-equivalent ObjectMapper, i.e. everything a request costs apart from
+ * TMDB I/O and the servlet stack. Upstream payloads are re-parsed per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerSerializationBenchmark {
+
+    private MovieController movieController;
+    private TvShowController tvShowController;
+    private SearchController searchController;
+
+    @Setup
+    public void setUp() {
+        TmdbService tmdbService = FixtureTmdbService.create();
+        movieController = new MovieController();
+        Fixtures.inject(movieController, "tmdbService", tmdbService);
+        tvShowController = new TvShowController();
+        Fixtures.inject(tvShowController, "tmdbService", tmdbService);
+
+        SearchService searchService = new SearchService();
+        Fixtures.inject(searchService, "tmdbService", tmdbService);
+        searchController = new SearchController();
+        Fixtures.inject(searchController, "searchService", searchService);
+    }
+
+    @Benchmark
+    public byte[] movieDetailPage() throws JsonProcessingException {
+        return Fixtures.MAPPER.writeValueAsBytes(movieController.getMovieById(550L).getBody());
+    }
+
+    @Benchmark
+    public byte[] tvShowDetailPage() throws JsonProcessingException {
+        return Fixtures.MAPPER.writeValueAsBytes(tvShowController.getTvShowById(1399L).getBody());
+    }
+
+    @Benchmark
+    public byte[] trendingTvFeed() throws JsonProcessingException {
+        return Fixtures.MAPPER.writeValueAsBytes(tvShowController.getTrendingTvShows(1).getBody());
+    }
+
+    @Benchmark
+    public byte[] unifiedSearch() throws JsonProcessingException {
+        return Fixtures.MAPPER.writeValueAsBytes(searchController.searchAll("night", 1).getBody());
+    }
+}
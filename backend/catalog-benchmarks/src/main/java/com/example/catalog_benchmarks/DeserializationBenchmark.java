@@ -0,0 +1,95 @@
+package com.example.catalog_benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.TvShowResponse;
+import com.example.catalog_service.service.TmdbResponseParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Deserialization cost of the TMDB payloads behind the detail pages and feeds,
+ * including databind vs. the streaming parser for the payloads it handles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    private TmdbResponseParser parser;
+    private byte[] movieDetails;
+    private byte[] movieCredits;
+    private byte[] movieSimilar;
+    private byte[] tvDetails;
+    private byte[] animeDetails;
+    private byte[] trendingTv;
+    private byte[] externalIds;
+
+    @Setup
+    public void setUp() {
+        parser = new TmdbResponseParser();
+        movieDetails = Fixtures.bytes("movie/550");
+        movieCredits = Fixtures.bytes("movie/550/credits");
+        movieSimilar = Fixtures.bytes("movie/550/similar");
+        tvDetails = Fixtures.bytes("tv/1399");
+        animeDetails = Fixtures.bytes("tv/37854");
+        trendingTv = Fixtures.bytes("trending/tv/week");
+        externalIds = Fixtures.bytes("person/287/external_ids");
+    }
+
+    @Benchmark
+    public DetailedMovie detailedMovie() throws IOException {
+        DetailedMovie movie = Fixtures.MAPPER.readValue(movieDetails, DetailedMovie.class);
+        movie.setCredits(Fixtures.MAPPER.readValue(movieCredits, DetailedMovie.Credits.class));
+        movie.setSimilar(Fixtures.MAPPER.readValue(movieSimilar, DetailedMovie.Similar.class));
+        return movie;
+    }
+
+    @Benchmark
+    public DetailedTvShow detailedTvShow() throws IOException {
+        return Fixtures.MAPPER.readValue(tvDetails, DetailedTvShow.class);
+    }
+
+    @Benchmark
+    public DetailedTvShow detailedAnime() throws IOException {
+        return Fixtures.MAPPER.readValue(animeDetails, DetailedTvShow.class);
+    }
+
+    @Benchmark
+    public TvShowResponse tvPageDatabind() throws IOException {
+        return Fixtures.MAPPER.readValue(trendingTv, TvShowResponse.class);
+    }
+
+    @Benchmark
+    public TvShowResponse tvPageStreaming() throws IOException {
+        return parser.parseTvShowPage(new ByteArrayInputStream(trendingTv));
+    }
+
+    @Benchmark
+    public String imdbIdJsonNode() throws IOException {
+        JsonNode response = Fixtures.MAPPER.readValue(externalIds, JsonNode.class);
+        return response.get("imdb_id").asText();
+    }
+
+    @Benchmark
+    public String imdbIdStreaming() throws IOException {
+        return parser.parseImdbId(new ByteArrayInputStream(externalIds));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.catalog_benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.example.tmdb_stub.FixtureStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Answers RestTemplate requests in-process with what the tmdb-stub server
+ * would send for them, so TmdbClient and everything above it run as in
+ * production without network I/O. Each URL's body is rendered once and
+ * replayed after that, so only the catalog side is measured.
+ */
+final class FixtureRequestFactory implements ClientHttpRequestFactory {
+
+    private static final byte[] NOT_FOUND =
+        "{\"success\":false,\"status_code\":34,\"status_message\":\"The resource you requested could not be found.\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final FixtureStore fixtures = FixtureStore.load(null, Fixtures.MAPPER);
+    private final Map<URI, byte[]> bodies = new ConcurrentHashMap<>();
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod method) {
+        return new AbstractClientHttpRequest() {
+            @Override
+            public HttpMethod getMethod() {
+                return method;
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            protected OutputStream getBodyInternal(HttpHeaders headers) {
+                return new ByteArrayOutputStream();
+            }
+
+            @Override
+            protected ClientHttpResponse executeInternal(HttpHeaders headers) {
+                byte[] body = bodies.computeIfAbsent(uri, FixtureRequestFactory.this::render);
+                return new FixtureResponse(body == NOT_FOUND ? HttpStatus.NOT_FOUND : HttpStatus.OK, body);
+            }
+        };
+    }
+
+    private byte[] render(URI uri) {
+        JsonNode body = fixtures.respond(uri);
+        if (body == null) {
+            return NOT_FOUND;
+        }
+        try {
+            return Fixtures.MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record FixtureResponse(HttpStatus status, byte[] body) implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return status.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.catalog_benchmarks;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.catalog_service.cache.CacheTier;
+import com.example.catalog_service.cache.CatalogCache;
+import com.example.catalog_service.cache.CatalogCacheProperties;
+import com.example.catalog_service.cache.FeedPrefetcher;
+import com.example.catalog_service.config.AnimeIndexProperties;
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.service.AnimeIndex;
+import com.example.catalog_service.service.TmdbClient;
+import com.example.catalog_service.service.TmdbResponseParser;
+import com.example.catalog_service.service.TmdbService;
+import com.example.catalog_service.similar.SimilarTitles;
+import com.example.catalog_service.similar.SimilarTitlesProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The real TmdbService, wired the way the container would, with TMDB answered
+ * from the fixtures by {@link FixtureRequestFactory}. Searches, feeds and detail
+ * pages run their production code, so SearchService and the controllers can be
+ * measured without network I/O. The catalog cache and prefetching are off,
+ * so every call re-parses its upstream payloads, like a cache miss would,
+ * and the anime index is left unbuilt, so anime search filters TMDB's results.
+ */
+final class FixtureTmdbService {
+
+    private FixtureTmdbService() {
+    }
+
+    static TmdbService create() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TmdbProperties tmdbProperties = new TmdbProperties();
+        // the path is what FixtureRequestFactory answers by; nothing is sent to the host
+        tmdbProperties.setBaseUrl("https://api.themoviedb.org/3");
+        tmdbProperties.setApiKey("fixtures");
+        CatalogCacheProperties cacheProperties = new CatalogCacheProperties();
+        cacheProperties.setEnabled(false);
+        cacheProperties.getPrefetch().setEnabled(false);
+        TmdbResponseParser responseParser = new TmdbResponseParser();
+        SimilarTitles similarTitles = new SimilarTitles(new SimilarTitlesProperties(), meterRegistry);
+        AnimeIndexProperties animeIndexProperties = new AnimeIndexProperties();
+
+        TmdbClient tmdbClient = new TmdbClient(new RestTemplate(new FixtureRequestFactory()), meterRegistry,
+            tmdbProperties);
+        CatalogCache catalogCache = new CatalogCache(cacheProperties, tmdbProperties, meterRegistry,
+            new StaticListableBeanFactory().getBeanProvider(CacheTier.class));
+
+        TmdbService tmdbService = new TmdbService();
+        Fixtures.inject(tmdbService, "tmdbClient", tmdbClient);
+        Fixtures.inject(tmdbService, "tmdbProperties", tmdbProperties);
+        Fixtures.inject(tmdbService, "responseParser", responseParser);
+        Fixtures.inject(tmdbService, "catalogCache", catalogCache);
+        Fixtures.inject(tmdbService, "feedPrefetcher",
+            new FeedPrefetcher(catalogCache, cacheProperties, tmdbClient, tmdbProperties, meterRegistry));
+        Fixtures.inject(tmdbService, "animeIndex", new AnimeIndex(tmdbClient, tmdbProperties, responseParser,
+            animeIndexProperties, similarTitles, meterRegistry));
+        Fixtures.inject(tmdbService, "animeIndexProperties", animeIndexProperties);
+        Fixtures.inject(tmdbService, "similarTitles", similarTitles);
+        return tmdbService;
+    }
+}
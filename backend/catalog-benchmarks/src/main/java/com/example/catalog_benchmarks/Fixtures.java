@@ -0,0 +1,58 @@
+package com.example.catalog_benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Access to the TMDB fixtures copied from {@code backend/tmdb-fixtures} and
+ * small helpers for wiring catalog-service beans without a Spring context.
+ */
+final class Fixtures {
+
+    /** Configured the same way Spring Boot configures the MVC and RestTemplate mappers. */
+    static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private Fixtures() {
+    }
+
+    /**
+     * Raw bytes of a fixture, e.g. {@code bytes("movie/550/credits")}.
+     */
+    static byte[] bytes(String path) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + path + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture " + path);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static <T> T read(String path, Class<T> type) {
+        try {
+            return MAPPER.readValue(bytes(path), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Set an {@code @Autowired} field the way the container would.
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + fieldName + " on " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
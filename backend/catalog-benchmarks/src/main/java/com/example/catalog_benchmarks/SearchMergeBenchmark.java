@@ -0,0 +1,78 @@
+package com.example.catalog_benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.service.SearchService;
+import com.example.catalog_service.service.TmdbService;
+
+/**
+ * SearchService.searchAll: once over the real TmdbService answered from the
+ * fixtures, so page parsing, filtering and trailer lookups are included
+ * ({@code searchAll}), once with its results pre-computed so only the
+ * enrichment and merging is measured ({@code mergeOnly}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchMergeBenchmark {
+
+    private SearchService fromFixtures;
+    private SearchService preParsed;
+
+    @Setup
+    public void setUp() {
+        TmdbService fixtureService = FixtureTmdbService.create();
+        fromFixtures = new SearchService();
+        Fixtures.inject(fromFixtures, "tmdbService", fixtureService);
+
+        List<Movie> movies = fixtureService.searchMovies("night", 1);
+        List<TvShow> tvShows = fixtureService.searchTvShows("night", 1);
+        List<TvShow> anime = fixtureService.searchAnime("night", 1);
+        TmdbService cannedService = new TmdbService() {
+            @Override
+            public List<Movie> searchMovies(String query, int page) {
+                return movies;
+            }
+
+            @Override
+            public List<TvShow> searchTvShows(String query, int page) {
+                return tvShows;
+            }
+
+            @Override
+            public List<TvShow> searchAnime(String query, int page) {
+                return anime;
+            }
+        };
+        preParsed = new SearchService();
+        Fixtures.inject(preParsed, "tmdbService", cannedService);
+    }
+
+    @Benchmark
+    public Map<String, Object> searchAll() {
+        return fromFixtures.searchAll("night", 1);
+    }
+
+    @Benchmark
+    public Map<String, Object> mergeOnly() {
+        return preParsed.searchAll("night", 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.catalog_benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.catalog_service.similar.SimilarityIndex;
+import com.example.catalog_service.similar.TitleFeatures;
+
+/**
+ * Latency of one similar-titles query (top 20 of {@code titles} indexed
+ * titles), which replaces a TMDB /similar call on every detail page. Titles
+ * are synthetic: random genres, keywords, languages, dates and popularity
+ * with a fixed seed, so runs are comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarIndexBenchmark {
+
+    private static final int[] GENRES = {12, 14, 16, 18, 27, 28, 35, 53, 80, 99, 878, 9648, 10749, 10751};
+    private static final String[] LANGUAGES = {"en", "en", "en", "ja", "ko", "fr", "es", "de", "hi", "zh"};
+
+    @Param({"1000", "20000"})
+    private int titles;
+
+    private SimilarityIndex<Long> index;
+    private float[] query;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SimilarityIndex<>(titles);
+        for (long id = 0; id < titles; id++) {
+            index.put(id, randomTitle(random), id, false);
+        }
+        query = randomTitle(random);
+    }
+
+    @Benchmark
+    public List<Long> nearestToIndexedTitle() {
+        next = (next + 7919) % titles;
+        return index.nearest(next, 20);
+    }
+
+    @Benchmark
+    public List<Long> nearestToVector() {
+        return index.nearest(query, 20);
+    }
+
+    private static float[] randomTitle(Random random) {
+        List<Integer> genres = new ArrayList<>();
+        for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+            genres.add(GENRES[random.nextInt(GENRES.length)]);
+        }
+        List<Integer> keywords = new ArrayList<>();
+        for (int i = 0, count = random.nextInt(12); i < count; i++) {
+            keywords.add(random.nextInt(300_000));
+        }
+        String date = (1950 + random.nextInt(76)) + "-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10);
+        return TitleFeatures.vector(genres, keywords, LANGUAGES[random.nextInt(LANGUAGES.length)], date,
+            random.nextDouble() * 500);
+    }
+}
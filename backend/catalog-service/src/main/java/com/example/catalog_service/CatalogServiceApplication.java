@@ -3,17 +3,33 @@ package com.example.catalog_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.catalog_service.config.TmdbProperties;
+
+import java.net.http.HttpClient;
+
 @SpringBootApplication
+@EnableScheduling
 public class CatalogServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(CatalogServiceApplication.class, args);
     }
 
+    /**
+     * Backed by the JDK HttpClient, whose calls give up when the calling thread is
+     * interrupted, so fan-out tasks cancelled at the request deadline stop waiting on TMDB.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(TmdbProperties tmdbProperties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(tmdbProperties.getConnectTimeout())
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(tmdbProperties.getRequestTimeout());
+        return new RestTemplate(requestFactory);
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.catalog_service.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * What a cache entry holds; ids are only unique within a region, and each region has its own positive TTL.
+ */
+public enum CacheRegion {
+    MOVIE("movie", CatalogCacheProperties::getDetailsTtl),
+    MOVIE_DETAILS("movie_details", CatalogCacheProperties::getDetailsTtl),
+    TV_DETAILS("tv_details", CatalogCacheProperties::getDetailsTtl),
+    PERSON_IMDB("person_imdb", CatalogCacheProperties::getPersonTtl),
+    POPULAR_MOVIES("popular_movies", CatalogCacheProperties::getFeedTtl),
+    POPULAR_TV("popular_tv", CatalogCacheProperties::getFeedTtl),
+    TRENDING_TV("trending_tv", CatalogCacheProperties::getFeedTtl),
+    ANIME("anime", CatalogCacheProperties::getFeedTtl),
+    TRENDING_ANIME("trending_anime", CatalogCacheProperties::getFeedTtl);
+
+    private final String tag;
+    private final Function<CatalogCacheProperties, Duration> ttl;
+
+    CacheRegion(String tag, Function<CatalogCacheProperties, Duration> ttl) {
+        this.tag = tag;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Name used in keys and metric tags.
+     */
+    public String tag() {
+        return tag;
+    }
+
+    Duration ttl(CatalogCacheProperties properties) {
+        return ttl.apply(properties);
+    }
+
+    /**
+     * The region with this tag, or null if there is none.
+     */
+    static CacheRegion fromTag(String tag) {
+        for (CacheRegion region : values()) {
+            if (region.tag.equals(tag)) {
+                return region;
+            }
+        }
+        return null;
+    }
+}
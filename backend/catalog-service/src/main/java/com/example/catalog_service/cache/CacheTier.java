@@ -0,0 +1,83 @@
+package com.example.catalog_service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A cache behind the in-memory {@link CatalogCache}, consulted when its own
+ * entries miss: private to this replica ({@link DiskCacheTier}) or shared by
+ * all replicas ({@link RedisCacheTier}). Implementations handle their own
+ * failures: a tier that can't be used behaves like an empty one.
+ */
+public interface CacheTier {
+
+    /**
+     * The tier's entry for a key, with the time it has left; empty when there is none or the tier can't be used.
+     */
+    Optional<Entry> get(CacheRegion region, String id);
+
+    /**
+     * Store an entry; a shared tier also tells the other replicas to drop their own copy of the key.
+     */
+    void put(CacheRegion region, String id, Entry entry);
+
+    /**
+     * Remove a key; a shared tier removes it for every replica.
+     */
+    void invalidate(CacheRegion region, String id);
+
+    /**
+     * Drop this tier's copy of a key another replica changed. Shared tiers already have the new state.
+     */
+    default void forget(CacheRegion region, String id) {
+    }
+
+    /**
+     * Drop everything this tier holds for itself, after invalidations may have been missed.
+     */
+    default void forgetAll() {
+    }
+
+    /**
+     * Claim the load of a missing key for {@code lease}, so other replicas wait
+     * for its value instead of asking TMDB too. Tiers private to this replica always grant it.
+     *
+     * @return false when another replica holds the claim
+     */
+    default boolean claim(CacheRegion region, String id, Duration lease) {
+        return true;
+    }
+
+    /**
+     * Give up a claim once the value is stored (or the load failed).
+     */
+    default void release(CacheRegion region, String id) {
+    }
+
+    /**
+     * Receive the invalidations published by other replicas; tiers private to this replica have none.
+     */
+    default void listen(Listener listener) {
+    }
+
+    /**
+     * @param value the cached value, null for a negative entry
+     * @param ttl how long the entry has left
+     * @param computeNanos how long the loader took, which sets how early the entry is refreshed
+     */
+    record Entry(Object value, Duration ttl, long computeNanos) {
+    }
+
+    interface Listener {
+
+        /**
+         * Another replica stored or removed this key.
+         */
+        void invalidated(CacheRegion region, String id);
+
+        /**
+         * Invalidations may have been missed (the subscription dropped), so nothing local can be trusted.
+         */
+        void reset();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.catalog_service.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Binary form of the entries kept in cache tiers: a short header (format,
+ * negative flag, expiry as epoch millis, compute time) followed by the value
+ * as Smile, with repeated names and short strings (languages, departments,
+ * countries) written once per value. Values are decoded to the type their
+ * region holds; fields a replica doesn't know are ignored, so replicas on
+ * different versions can share a cache and a new version can read the disk
+ * cache an old one left behind.
+ */
+final class CacheValueCodec {
+
+    private static final byte FORMAT = 1;
+    private static final byte VALUE = 0;
+    private static final byte NEGATIVE = 1;
+    private static final int HEADER_BYTES = 2 + Long.BYTES * 2;
+
+    private final ObjectMapper mapper;
+    private final Map<CacheRegion, JavaType> types = new EnumMap<>(CacheRegion.class);
+    private final LongSupplier wallClock;
+
+    /**
+     * @param wallClock epoch millis; expiry crosses replicas, so it can't be a nanoTime clock
+     */
+    CacheValueCodec(LongSupplier wallClock) {
+        SmileFactory smile = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        this.mapper = new ObjectMapper(smile)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.wallClock = wallClock;
+        TypeFactory typeFactory = mapper.getTypeFactory();
+        for (CacheRegion region : CacheRegion.values()) {
+            types.put(region, switch (region) {
+                case MOVIE -> typeFactory.constructType(Movie.class);
+                case MOVIE_DETAILS -> typeFactory.constructType(DetailedMovie.class);
+                case TV_DETAILS -> typeFactory.constructType(DetailedTvShow.class);
+                case PERSON_IMDB -> typeFactory.constructType(String.class);
+                case POPULAR_MOVIES -> typeFactory.constructCollectionType(List.class, Movie.class);
+                case POPULAR_TV, TRENDING_TV, ANIME, TRENDING_ANIME ->
+                    typeFactory.constructCollectionType(List.class, TvShow.class);
+            });
+        }
+    }
+
+    byte[] encode(CacheTier.Entry entry) throws IOException {
+        byte[] value = entry.value() == null ? new byte[0] : mapper.writeValueAsBytes(entry.value());
+        return ByteBuffer.allocate(HEADER_BYTES + value.length)
+            .put(FORMAT)
+            .put(entry.value() == null ? NEGATIVE : VALUE)
+            .putLong(wallClock.getAsLong() + entry.ttl().toMillis())
+            .putLong(entry.computeNanos())
+            .put(value)
+            .array();
+    }
+
+    /**
+     * @return null when the bytes are in another format or the entry has expired
+     */
+    CacheTier.Entry decode(CacheRegion region, byte[] bytes) throws IOException {
+        return decode(region, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decode an entry stored at {@code offset} of a larger array.
+     *
+     * @return null when the bytes are in another format or the entry has expired
+     */
+    CacheTier.Entry decode(CacheRegion region, byte[] bytes, int offset, int length) throws IOException {
+        long expiresAt = expiresAt(bytes, offset, length);
+        long remainingMillis = expiresAt - wallClock.getAsLong();
+        if (expiresAt == Long.MIN_VALUE || remainingMillis <= 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        buffer.get();
+        boolean negative = buffer.get() == NEGATIVE;
+        buffer.getLong();
+        long computeNanos = buffer.getLong();
+        Object value = negative ? null
+            : mapper.readValue(bytes, offset + HEADER_BYTES, length - HEADER_BYTES, types.get(region));
+        return new CacheTier.Entry(value, Duration.ofMillis(remainingMillis), computeNanos);
+    }
+
+    /**
+     * When an encoded entry expires, in epoch millis, without decoding its value; {@code Long.MIN_VALUE}
+     * when the bytes are in another format.
+     */
+    static long expiresAt(byte[] bytes, int offset, int length) {
+        if (length < HEADER_BYTES || bytes[offset] != FORMAT) {
+            return Long.MIN_VALUE;
+        }
+        return ByteBuffer.wrap(bytes, offset + 2, Long.BYTES).getLong();
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.catalog_service.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.exception.DeadlineExceededException;
+import com.example.catalog_service.exception.TmdbNotFoundException;
+import com.example.catalog_service.model.PooledStrings;
+import com.example.catalog_service.model.StringPool;
+import com.example.catalog_service.service.TmdbRequestContext;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory cache for TMDB lookups, keyed by {@link CacheRegion} and id.
+ *
+ * Besides values it remembers definite misses: when the loader returns null or
+ * TMDB answers 404 ({@link TmdbNotFoundException}), a negative entry is kept
+ * for {@code catalog.cache.not-found-ttl}, so repeated requests for ids that
+ * don't exist stop reaching TMDB. Any other failure (timeouts, 5xx, 429) is
+ * passed on and nothing is cached, so an outage is never remembered as "not found".
+ * Values assembled while part of the request was degraded (see
+ * {@link TmdbRequestContext#markDegraded()}) are returned but not cached either.
+ *
+ * Hot entries don't expire under load. Each hit may trigger an early refresh
+ * with a probability that rises as the entry nears expiry, weighted by how long
+ * the value took to compute (XFetch): a value that took 2s to build starts
+ * refreshing seconds before it expires, a 50ms one only just before. Refreshes
+ * run one at a time on a single background thread while readers keep getting
+ * the current value. Concurrent misses for the same key share one load.
+ *
+ * Behind it there may be further {@link CacheTier}s, nearest first: a
+ * {@link DiskCacheTier} that keeps entries across restarts, and a
+ * {@link RedisCacheTier} shared by all replicas. Every stored entry is also
+ * written to them, and a miss looks through them before loading; a hit in a
+ * farther tier is copied into the nearer ones. With a shared tier a value is
+ * fetched from TMDB once for all replicas rather than once per replica: the
+ * replica that claims a missing key loads it while the others wait for its
+ * value. Entries other replicas store or invalidate are dropped here and from
+ * the local tiers when their invalidation message arrives.
+ *
+ * Titles held here keep their references to {@link StringPool#SHARED} strings
+ * counted as live from when they are stored until they are evicted, replaced or
+ * invalidated, and the bytes each one's references save are recorded as
+ * {@code catalog.stringpool.title.saved} tagged with region.
+ *
+ * Lookups are counted as {@code catalog.cache.requests} tagged with region and
+ * result (hit, negative_hit, l2_hit, miss, coalesced); background refreshes as
+ * {@code catalog.cache.refreshes} tagged with region and outcome.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    // How often a replica waiting for another one's load looks for its value
+    private static final long SHARED_POLL_MILLIS = 20;
+
+    private final CatalogCacheProperties properties;
+    private final TmdbProperties tmdbProperties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final DoubleSupplier random;
+    private final Executor refresher;
+    private final List<CacheTier> tiers;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Set<Key> refreshQueued = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CatalogCache(CatalogCacheProperties properties, TmdbProperties tmdbProperties, MeterRegistry meterRegistry,
+            ObjectProvider<CacheTier> tiers) {
+        this(properties, tmdbProperties, meterRegistry, System::nanoTime,
+            () -> 1.0 - ThreadLocalRandom.current().nextDouble(),
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("catalog-cache-refresh").daemon().factory()),
+            tiers.orderedStream().toList());
+    }
+
+    /**
+     * @param random uniform in (0, 1]
+     * @param refresher runs early refreshes; expected to run them one at a time
+     * @param tiers further tiers, nearest first
+     */
+    CatalogCache(CatalogCacheProperties properties, TmdbProperties tmdbProperties, MeterRegistry meterRegistry,
+            LongSupplier clock, DoubleSupplier random, Executor refresher, List<CacheTier> tiers) {
+        this.properties = properties;
+        this.tmdbProperties = tmdbProperties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.random = random;
+        this.refresher = refresher;
+        this.tiers = tiers;
+        CacheTier.Listener listener = new CacheTier.Listener() {
+            @Override
+            public void invalidated(CacheRegion region, String id) {
+                remove(new Key(region, id));
+                tiers.forEach(tier -> tier.forget(region, id));
+            }
+
+            @Override
+            public void reset() {
+                entries.keySet().forEach(CatalogCache.this::remove);
+                tiers.forEach(CacheTier::forgetAll);
+            }
+        };
+        tiers.forEach(tier -> tier.listen(listener));
+    }
+
+    /**
+     * The cached value for {@code id}, or the loader's result. On a hit the loader
+     * may be run again later on the refresh thread, so it must not depend on the
+     * calling request beyond its id.
+     *
+     * @param loader fetches the value; returns null or throws {@link TmdbNotFoundException} when it doesn't exist
+     * @return empty when the value doesn't exist (now, or at the time of a cached 404)
+     */
+    public <T> Optional<T> get(CacheRegion region, Object id, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return Optional.ofNullable(load(region, id, loader, false).value());
+        }
+        Key key = Key.of(region, id);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long remainingNanos = entry.expiresAt - clock.getAsLong();
+            if (remainingNanos > 0) {
+                count(region, entry.value == null ? "negative_hit" : "hit");
+                if (entry.onFirstHit != null && entries.replace(key, entry, entry.withoutHook())) {
+                    entry.onFirstHit.run();
+                }
+                if (entry.value != null && refreshEarly(entry, remainingNanos)) {
+                    scheduleRefresh(key, loader);
+                }
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return Optional.ofNullable(value);
+            }
+        }
+        return loadOnce(key, loader);
+    }
+
+    /**
+     * XFetch: refresh when {@code computeTime * beta * -ln(random)} reaches the time left.
+     */
+    private boolean refreshEarly(Entry entry, long remainingNanos) {
+        double beta = properties.getEarlyRefreshBeta();
+        return beta > 0 && entry.computeNanos * beta * -Math.log(random.getAsDouble()) >= remainingNanos;
+    }
+
+    /**
+     * Load a missing key, or wait for the load already in flight for it.
+     */
+    private <T> Optional<T> loadOnce(Key key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            count(key.region, "coalesced");
+            @SuppressWarnings("unchecked")
+            T value = (T) await(key, inFlight);
+            return Optional.ofNullable(value);
+        }
+        try {
+            Entry shared = readTiers(key);
+            if (shared != null) {
+                count(key.region, "l2_hit");
+                mine.complete(shared.value);
+                @SuppressWarnings("unchecked")
+                T value = (T) shared.value;
+                return Optional.ofNullable(value);
+            }
+            count(key.region, "miss");
+            T value = loadClaimed(key, loader, null).value();
+            mine.complete(value);
+            return Optional.ofNullable(value);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Wait for another thread's load, no longer than the current request's deadline.
+     */
+    private Object await(Key key, CompletableFuture<Object> inFlight) {
+        TmdbRequestContext context = TmdbRequestContext.current();
+        try {
+            if (context == null) {
+                return inFlight.get();
+            }
+            return inFlight.get(Math.max(0, context.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline passed waiting for " + key.region.tag() + " " + key.id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Interrupted waiting for " + key.region.tag() + " " + key.id);
+        }
+    }
+
+    private void scheduleRefresh(Key key, Supplier<?> loader) {
+        if (loading.containsKey(key) || !refreshQueued.add(key)) {
+            return;
+        }
+        refresher.execute(() -> {
+            refreshQueued.remove(key);
+            countRefresh(key.region, loadInBackground(key, loader, null));
+        });
+    }
+
+    /**
+     * Load a value the current request doesn't need yet (e.g. the next page of a
+     * feed), on the calling thread, unless it is already cached or being loaded.
+     *
+     * @param onFirstHit run once, by the first request that reads the prefetched value
+     * @return what happened: success, degraded, failure, or cached when there was nothing to do
+     */
+    public String prefetch(CacheRegion region, Object id, Supplier<?> loader, Runnable onFirstHit) {
+        if (!properties.isEnabled()) {
+            return "cached";
+        }
+        Key key = Key.of(region, id);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - clock.getAsLong() > 0) {
+            return "cached";
+        }
+        if (!loading.containsKey(key) && readTiers(key) != null) {
+            return "cached";
+        }
+        return loadInBackground(key, loader, onFirstHit);
+    }
+
+    /**
+     * Load an entry outside of any request, with a fresh request budget. On failure the
+     * current value, if any, is kept until it expires.
+     */
+    private String loadInBackground(Key key, Supplier<?> loader, Runnable onFirstHit) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, mine) != null) {
+            return "cached";
+        }
+        TmdbRequestContext context = TmdbRequestContext.open(tmdbProperties.getRequestTimeout());
+        try {
+            Loaded<?> loaded = loadClaimed(key, loader, onFirstHit);
+            mine.complete(loaded.value());
+            if (loaded.shared()) {
+                return "cached";
+            }
+            return loaded.stored() ? "success" : "degraded";
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            logger.debug("Background load of {} {} failed: {}", key.region.tag(), key.id, e.getMessage());
+            return "failure";
+        } finally {
+            context.close();
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Load a key missing here and in every tier. With a shared tier only the replica
+     * that claims the key calls the loader; the others wait for its value, and load it
+     * themselves if it doesn't show up within the request's deadline.
+     */
+    private <T> Loaded<T> loadClaimed(Key key, Supplier<T> loader, Runnable onFirstHit) {
+        if (tiers.isEmpty()) {
+            return load(key.region, key.id, loader, true, onFirstHit);
+        }
+        Duration lease = tmdbProperties.getRequestTimeout();
+        boolean claimed = tiers.stream().allMatch(tier -> tier.claim(key.region, key.id, lease));
+        if (!claimed) {
+            Entry shared = awaitTiers(key, lease);
+            if (shared != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) shared.value;
+                return new Loaded<>(value, true, true);
+            }
+        }
+        try {
+            return load(key.region, key.id, loader, true, onFirstHit);
+        } finally {
+            if (claimed) {
+                tiers.forEach(tier -> tier.release(key.region, key.id));
+            }
+        }
+    }
+
+    /**
+     * Poll the tiers for a value another replica is loading, for no longer than its
+     * claim lasts or the current request has left.
+     */
+    private Entry awaitTiers(Key key, Duration lease) {
+        TmdbRequestContext context = TmdbRequestContext.current();
+        long waitNanos = context == null ? lease.toNanos() : Math.min(lease.toNanos(), context.remainingNanos());
+        long deadline = System.nanoTime() + waitNanos;
+        while (deadline - System.nanoTime() > 0) {
+            try {
+                Thread.sleep(SHARED_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Entry shared = readTiers(key);
+            if (shared != null) {
+                return shared;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The nearest tier's entry for a key, copied here and into the tiers before it so the
+     * next lookup finds it sooner; null when no tier has it.
+     */
+    private Entry readTiers(Key key) {
+        for (int i = 0; i < tiers.size(); i++) {
+            Optional<CacheTier.Entry> found = tiers.get(i).get(key.region, key.id);
+            if (found.isPresent()) {
+                for (CacheTier nearer : tiers.subList(0, i)) {
+                    nearer.put(key.region, key.id, found.get());
+                }
+                Entry entry = new Entry(found.get().value(), clock.getAsLong() + found.get().ttl().toNanos(),
+                    found.get().computeNanos(), null);
+                store(key, entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private <T> Loaded<T> load(CacheRegion region, Object id, Supplier<T> loader, boolean store) {
+        return load(region, id, loader, store, null);
+    }
+
+    private <T> Loaded<T> load(CacheRegion region, Object id, Supplier<T> loader, boolean store, Runnable onFirstHit) {
+        TmdbRequestContext context = TmdbRequestContext.current();
+        int degradedBefore = context != null ? context.getDegradedCount() : 0;
+        long start = clock.getAsLong();
+        T value;
+        try {
+            value = loader.get();
+        } catch (TmdbNotFoundException e) {
+            value = null;
+        }
+        boolean degraded = context != null && context.getDegradedCount() != degradedBefore;
+        if (!store || degraded) {
+            return new Loaded<>(value, false, false);
+        }
+        put(Key.of(region, id), value, clock.getAsLong() - start, value != null ? onFirstHit : null);
+        return new Loaded<>(value, true, false);
+    }
+
+    /**
+     * Store a value, or a negative entry when {@code value} is null, here and in every tier.
+     */
+    public void put(CacheRegion region, Object id, Object value) {
+        put(Key.of(region, id), value, 0, null);
+    }
+
+    private void put(Key key, Object value, long computeNanos, Runnable onFirstHit) {
+        Duration ttl = value == null ? properties.getNotFoundTtl() : key.region.ttl(properties);
+        store(key, new Entry(value, clock.getAsLong() + ttl.toNanos(), computeNanos, onFirstHit));
+        CacheTier.Entry stored = new CacheTier.Entry(value, ttl, computeNanos);
+        tiers.forEach(tier -> tier.put(key.region, key.id, stored));
+    }
+
+    private void store(Key key, Entry entry) {
+        if (entries.size() >= properties.getMaxEntries()) {
+            evict();
+        }
+        if (entry.value instanceof PooledStrings title) {
+            long saved = StringPool.SHARED.retain(title);
+            DistributionSummary.builder("catalog.stringpool.title.saved")
+                .baseUnit("bytes")
+                .tag("region", key.region.tag())
+                .register(meterRegistry)
+                .record(saved);
+        }
+        released(entries.put(key, entry));
+    }
+
+    /**
+     * Drop an entry here and in every tier; a shared tier tells the other replicas to drop theirs.
+     */
+    public void invalidate(CacheRegion region, Object id) {
+        Key key = Key.of(region, id);
+        remove(key);
+        tiers.forEach(tier -> tier.invalidate(key.region, key.id));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop expired entries; if that is not enough, drop an arbitrary tenth of the rest.
+     */
+    private void evict() {
+        long now = clock.getAsLong();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt - now <= 0 && entries.remove(key, entry)) {
+                released(entry);
+            }
+        });
+        int excess = entries.size() - properties.getMaxEntries() * 9 / 10;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            remove(keys.next());
+        }
+    }
+
+    private void remove(Key key) {
+        released(entries.remove(key));
+    }
+
+    /**
+     * Stop counting the pooled strings of an entry no longer held here.
+     */
+    private void released(Entry entry) {
+        if (entry != null && entry.value instanceof PooledStrings title) {
+            StringPool.SHARED.release(title);
+        }
+    }
+
+    private void count(CacheRegion region, String result) {
+        meterRegistry.counter("catalog.cache.requests", "region", region.tag(), "result", result).increment();
+    }
+
+    private void countRefresh(CacheRegion region, String outcome) {
+        meterRegistry.counter("catalog.cache.refreshes", "region", region.tag(), "outcome", outcome).increment();
+    }
+
+    /**
+     * Ids are kept as strings, the form they take in the tiers and in invalidation messages.
+     */
+    private record Key(CacheRegion region, String id) {
+
+        static Key of(CacheRegion region, Object id) {
+            return new Key(region, String.valueOf(id));
+        }
+    }
+
+    /**
+     * @param value the cached value, null for a negative entry
+     * @param computeNanos how long the loader took, which sets how early the entry is refreshed
+     * @param onFirstHit set on prefetched entries until a request reads them
+     */
+    private record Entry(Object value, long expiresAt, long computeNanos, Runnable onFirstHit) {
+
+        Entry withoutHook() {
+            return new Entry(value, expiresAt, computeNanos, null);
+        }
+    }
+
+    /**
+     * @param stored whether the value is now cached
+     * @param shared whether it came from another replica's load rather than this one's
+     */
+    private record Loaded<T>(T value, boolean stored, boolean shared) {
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.catalog_service.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "catalog.cache")
+public class CatalogCacheProperties {
+    private boolean enabled = true;
+    
+    // Movie and TV detail pages
+    private Duration detailsTtl = Duration.ofMinutes(30);
+    
+    // Home feed pages (popular, trending, anime)
+    private Duration feedTtl = Duration.ofMinutes(10);
+    
+    // Person IMDb ids hardly ever change
+    private Duration personTtl = Duration.ofHours(24);
+    
+    // TMDB 404s; short so a title that appears upstream shows up soon
+    private Duration notFoundTtl = Duration.ofMinutes(5);
+    
+    private int maxEntries = 20_000;
+    
+    // How eagerly hot entries are refreshed before they expire; 0 turns early refresh off
+    private double earlyRefreshBeta = 1.0;
+    
+    private final Prefetch prefetch = new Prefetch();
+    
+    private final L2 l2 = new L2();
+    
+    private final Disk disk = new Disk();
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public Duration getDetailsTtl() {
+        return detailsTtl;
+    }
+    
+    public void setDetailsTtl(Duration detailsTtl) {
+        this.detailsTtl = detailsTtl;
+    }
+    
+    public Duration getFeedTtl() {
+        return feedTtl;
+    }
+    
+    public void setFeedTtl(Duration feedTtl) {
+        this.feedTtl = feedTtl;
+    }
+    
+    public Duration getPersonTtl() {
+        return personTtl;
+    }
+    
+    public void setPersonTtl(Duration personTtl) {
+        this.personTtl = personTtl;
+    }
+    
+    public Duration getNotFoundTtl() {
+        return notFoundTtl;
+    }
+    
+    public void setNotFoundTtl(Duration notFoundTtl) {
+        this.notFoundTtl = notFoundTtl;
+    }
+    
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+    
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+    
+    public Prefetch getPrefetch() {
+        return prefetch;
+    }
+    
+    public L2 getL2() {
+        return l2;
+    }
+    
+    public Disk getDisk() {
+        return disk;
+    }
+    
+    /**
+     * Settings for fetching feed page N+1 after page N was served.
+     */
+    public static class Prefetch {
+        private boolean enabled = true;
+        
+        // Prefetches waiting for the prefetch thread; more are dropped
+        private int queueSize = 32;
+        
+        // Prefetches per feed after which the hit rate is checked
+        private int evaluationWindow = 50;
+        
+        // Below this share of prefetched pages actually read, the feed stops prefetching for a while
+        private double minHitRate = 0.3;
+        
+        private Duration cooldown = Duration.ofMinutes(10);
+        
+        // Skip prefetching while TMDB calls in the last second exceed this share of tmdb.rate-limit
+        private double maxRateUtilization = 0.7;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getQueueSize() {
+            return queueSize;
+        }
+        
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+        
+        public int getEvaluationWindow() {
+            return evaluationWindow;
+        }
+        
+        public void setEvaluationWindow(int evaluationWindow) {
+            this.evaluationWindow = evaluationWindow;
+        }
+        
+        public double getMinHitRate() {
+            return minHitRate;
+        }
+        
+        public void setMinHitRate(double minHitRate) {
+            this.minHitRate = minHitRate;
+        }
+        
+        public Duration getCooldown() {
+            return cooldown;
+        }
+        
+        public void setCooldown(Duration cooldown) {
+            this.cooldown = cooldown;
+        }
+        
+        public double getMaxRateUtilization() {
+            return maxRateUtilization;
+        }
+        
+        public void setMaxRateUtilization(double maxRateUtilization) {
+            this.maxRateUtilization = maxRateUtilization;
+        }
+    }
+    
+    /**
+     * Settings for the Redis cache shared by all replicas, behind each replica's in-memory cache.
+     */
+    public static class L2 {
+        private boolean enabled = false;
+        
+        private String host = "localhost";
+        
+        private int port = 6379;
+        
+        // Sent with AUTH when not blank
+        private String password = "";
+        
+        // Connect and command timeout; a slow Redis counts as a miss, not a slow request
+        private Duration timeout = Duration.ofMillis(250);
+        
+        // Connections for commands, besides the one subscribed to invalidations
+        private int poolSize = 8;
+        
+        private String keyPrefix = "catalog-cache:";
+        
+        private String channel = "catalog-cache-invalidations";
+        
+        // After a failed command, Redis is skipped for this long
+        private Duration retryAfter = Duration.ofSeconds(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getHost() {
+            return host;
+        }
+        
+        public void setHost(String host) {
+            this.host = host;
+        }
+        
+        public int getPort() {
+            return port;
+        }
+        
+        public void setPort(int port) {
+            this.port = port;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public Duration getTimeout() {
+            return timeout;
+        }
+        
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+        
+        public int getPoolSize() {
+            return poolSize;
+        }
+        
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+        
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+        
+        public String getChannel() {
+            return channel;
+        }
+        
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+        
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+        
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+    
+    /**
+     * Settings for the on-disk cache that keeps entries across restarts, between the in-memory cache and Redis.
+     */
+    public static class Disk {
+        private boolean enabled = false;
+        
+        // Keep it on a volume that survives deploys
+        private String directory = "data/catalog-cache";
+        
+        // Each segment is one memory-mapped file of this size (at most 1GB)
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        
+        // Past this many segments the oldest one is dropped, with whatever it still holds
+        private int maxSegments = 16;
+        
+        // Full segments with less than this share of live bytes are rewritten into the current one
+        private double compactionThreshold = 0.5;
+        
+        private Duration compactionInterval = Duration.ofMinutes(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getDirectory() {
+            return directory;
+        }
+        
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+        
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+        
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+        
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+        
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+        
+        public double getCompactionThreshold() {
+            return compactionThreshold;
+        }
+        
+        public void setCompactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+        }
+        
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+        
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.catalog_service.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link CacheTier} on local disk, so a restarted replica starts warm instead
+ * of sending its whole working set to TMDB again. Turned on with
+ * {@code catalog.cache.disk.enabled}.
+ *
+ * Entries go into append-only segment files of {@code segment-size}, each
+ * memory-mapped, as records of {@code [length][CRC32C][kind][key][entry]}
+ * where the entry is encoded by {@link CacheValueCodec}. The length is written
+ * last, so a record cut short by a crash reads as the end of the segment.
+ * Invalidations append a tombstone. An in-memory index maps each key to its
+ * latest record; reads copy the record out and check its checksum.
+ *
+ * At startup the index is rebuilt by scanning the segments oldest first,
+ * skipping expired entries and stopping at the first bad checksum in each.
+ * Full segments whose live share falls below {@code compaction-threshold}
+ * are rewritten into the current one every {@code compaction-interval}; past
+ * {@code max-segments} the oldest segment is dropped.
+ *
+ * Failures are counted as {@code catalog.cache.disk.errors} tagged with
+ * operation and make the tier act empty rather than fail requests.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(prefix = "catalog.cache.disk", name = "enabled", havingValue = "true")
+public class DiskCacheTier implements CacheTier, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskCacheTier.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.seg");
+    private static final int RECORD_HEADER = Integer.BYTES * 2;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    private static final byte PUT = 0;
+    private static final byte TOMBSTONE = 1;
+
+    private final CatalogCacheProperties.Disk settings;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier wallClock;
+    private final CacheValueCodec codec;
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private volatile boolean usable;
+    private Segment active;
+
+    @Autowired
+    public DiskCacheTier(CatalogCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getDisk(), meterRegistry, System::currentTimeMillis);
+    }
+
+    /**
+     * @param wallClock epoch millis, which entry expiry is kept in
+     */
+    DiskCacheTier(CatalogCacheProperties.Disk settings, MeterRegistry meterRegistry, LongSupplier wallClock) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.wallClock = wallClock;
+        this.codec = new CacheValueCodec(wallClock);
+        this.directory = Path.of(settings.getDirectory());
+        this.segmentSize = (int) Math.min(settings.getSegmentSize().toBytes(), MAX_SEGMENT_SIZE);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            recover();
+            usable = true;
+            logger.info("Disk cache loaded {} entries from {} segments in {} ms", index.size(), segments.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            count("open");
+            logger.warn("Disk cache at {} unavailable, running without it: {}", directory, e.getMessage());
+        }
+        Gauge.builder("catalog.cache.disk.entries", index, Map::size)
+            .description("Keys held by the disk cache")
+            .register(meterRegistry);
+        Gauge.builder("catalog.cache.disk.segments", segments, Map::size)
+            .description("Segment files of the disk cache")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Entry> get(CacheRegion region, String id) {
+        String key = key(region, id);
+        Location location = index.get(key);
+        if (location == null) {
+            return Optional.empty();
+        }
+        if (location.expiresAt - wallClock.getAsLong() <= 0) {
+            drop(key, location);
+            return Optional.empty();
+        }
+        byte[] body = location.segment.read(location.offset);
+        if (body == null) {
+            count("checksum");
+            drop(key, location);
+            return Optional.empty();
+        }
+        int valueOffset = 3 + ByteBuffer.wrap(body, 1, 2).getShort();
+        try {
+            return Optional.ofNullable(codec.decode(region, body, valueOffset, body.length - valueOffset));
+        } catch (IOException e) {
+            count("decode");
+            drop(key, location);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(CacheRegion region, String id, Entry entry) {
+        if (!usable || entry.ttl().toMillis() <= 0) {
+            return;
+        }
+        byte[] value;
+        try {
+            value = codec.encode(entry);
+        } catch (IOException e) {
+            count("encode");
+            return;
+        }
+        synchronized (this) {
+            String key = key(region, id);
+            Location location = append(PUT, key, value, 0, value.length);
+            if (location != null) {
+                index(key, location);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, String id) {
+        forget(region, id);
+    }
+
+    @Override
+    public synchronized void forget(CacheRegion region, String id) {
+        String key = key(region, id);
+        Location previous = index.remove(key);
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.size);
+            // so the entry doesn't come back at the next startup
+            append(TOMBSTONE, key, new byte[0], 0, 0);
+        }
+    }
+
+    @Override
+    public synchronized void forgetAll() {
+        if (!usable) {
+            return;
+        }
+        index.clear();
+        for (Segment segment : List.copyOf(segments.values())) {
+            delete(segment);
+        }
+        try {
+            active = open(1);
+        } catch (IOException e) {
+            fail("open", e);
+        }
+    }
+
+    /**
+     * Rewrite the live records of mostly-dead full segments into the current one, and delete them.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cache.disk.compaction-interval:5m}")
+    public void compact() {
+        if (!usable) {
+            return;
+        }
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (segment != active && segment.liveBytes.get() < segment.capacity * settings.getCompactionThreshold()) {
+                compact(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        usable = false;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Copy a segment's live records (and, unless it is the oldest, the tombstones of keys
+     * still gone) to the current segment, one lock at a time so puts aren't held up, then delete it.
+     */
+    private void compact(Segment segment) {
+        long now = wallClock.getAsLong();
+        int moved = 0;
+        int offset = 0;
+        byte[] body;
+        while ((body = segment.read(offset)) != null) {
+            int size = RECORD_HEADER + body.length;
+            String key = keyOf(body);
+            synchronized (this) {
+                if (!segments.containsKey(segment.id)) {
+                    // dropped as the oldest while this ran
+                    return;
+                }
+                Location current = index.get(key);
+                if (body[0] == PUT && current != null && current.segment == segment && current.offset == offset
+                        && current.expiresAt - now > 0) {
+                    int valueOffset = 3 + key.getBytes(StandardCharsets.UTF_8).length;
+                    Location location = append(PUT, key, body, valueOffset, body.length - valueOffset);
+                    if (location != null) {
+                        index(key, location);
+                        moved++;
+                    }
+                } else if (body[0] == TOMBSTONE && current == null && segment.id != segments.firstKey()) {
+                    // with the key live again, its newer PUT is later on disk and the tombstone must not follow it
+                    append(TOMBSTONE, key, body, body.length, 0);
+                }
+            }
+            offset += size;
+        }
+        synchronized (this) {
+            if (segment == active || !segments.containsKey(segment.id)) {
+                return;
+            }
+            // anything that still points here failed to move
+            index.values().removeIf(location -> location.segment == segment);
+            delete(segment);
+        }
+        meterRegistry.counter("catalog.cache.disk.compactions").increment();
+        logger.debug("Compacted disk cache segment {}: moved {} entries", segment.id, moved);
+    }
+
+    /**
+     * Open every segment and index its records, oldest first so later records win.
+     */
+    private void recover() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+        long now = wallClock.getAsLong();
+        for (int id : ids) {
+            Segment segment = open(id);
+            int offset = 0;
+            byte[] body;
+            while ((body = segment.read(offset)) != null) {
+                String key = keyOf(body);
+                int size = RECORD_HEADER + body.length;
+                int valueOffset = 3 + key.getBytes(StandardCharsets.UTF_8).length;
+                long expiresAt = CacheValueCodec.expiresAt(body, valueOffset, body.length - valueOffset);
+                if (body[0] == PUT && expiresAt != Long.MIN_VALUE && expiresAt - now > 0) {
+                    index(key, new Location(segment, offset, size, expiresAt));
+                } else {
+                    // a tombstone, or an expired newer value that hides the older ones
+                    Location previous = index.remove(key);
+                    if (previous != null) {
+                        previous.segment.liveBytes.addAndGet(-previous.size);
+                    }
+                }
+                offset += size;
+            }
+            segment.position = offset;
+            active = segment;
+        }
+        if (active == null) {
+            active = open(1);
+        }
+    }
+
+    /**
+     * Append a record to the current segment, moving to a new one when it is full.
+     *
+     * @return where it went, or null if it couldn't be written
+     */
+    private Location append(byte kind, String key, byte[] source, int offset, int length) {
+        if (!usable && active == null) {
+            return null;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 3 + keyBytes.length + length;
+        int size = RECORD_HEADER + bodyLength;
+        if (size > segmentSize) {
+            return null;
+        }
+        try {
+            if (active.position + size > active.capacity) {
+                roll();
+            }
+        } catch (IOException e) {
+            fail("append", e);
+            return null;
+        }
+        byte[] body = ByteBuffer.allocate(bodyLength)
+            .put(kind)
+            .putShort((short) keyBytes.length)
+            .put(keyBytes)
+            .put(source, offset, length)
+            .array();
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        Segment segment = active;
+        int position = segment.position;
+        segment.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.buffer.put(position + RECORD_HEADER, body);
+        // the length goes last: until it is written the record reads as the end of the segment
+        segment.buffer.putInt(position, bodyLength);
+        segment.position = position + size;
+        long expiresAt = kind == PUT ? CacheValueCodec.expiresAt(source, offset, length) : 0;
+        return new Location(segment, position, size, expiresAt);
+    }
+
+    private void roll() throws IOException {
+        while (segments.size() >= Math.max(2, settings.getMaxSegments())) {
+            Segment oldest = segments.firstEntry().getValue();
+            index.values().removeIf(location -> location.segment == oldest);
+            delete(oldest);
+            meterRegistry.counter("catalog.cache.disk.evictions").increment();
+        }
+        active = open(segments.lastKey() + 1);
+    }
+
+    private void index(String key, Location location) {
+        Location previous = index.put(key, location);
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.size);
+        }
+        location.segment.liveBytes.addAndGet(location.size);
+    }
+
+    private synchronized void drop(String key, Location location) {
+        if (index.remove(key, location)) {
+            location.segment.liveBytes.addAndGet(-location.size);
+        }
+    }
+
+    private Segment open(int id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%08d.seg", id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            long capacity = Math.min(Math.max(channel.size(), segmentSize), MAX_SEGMENT_SIZE);
+            Segment segment = new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.id);
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            count("delete");
+        }
+    }
+
+    private void fail(String operation, IOException e) {
+        count(operation);
+        usable = false;
+        logger.warn("Disk cache {} failed, running without it: {}", operation, e.getMessage());
+    }
+
+    private void count(String operation) {
+        meterRegistry.counter("catalog.cache.disk.errors", "operation", operation).increment();
+    }
+
+    private static String key(CacheRegion region, String id) {
+        return region.tag() + ":" + id;
+    }
+
+    private static String keyOf(byte[] body) {
+        int length = ByteBuffer.wrap(body, 1, 2).getShort();
+        return new String(body, 3, length, StandardCharsets.UTF_8);
+    }
+
+    private record Location(Segment segment, int offset, int size, long expiresAt) {
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicLong liveBytes = new AtomicLong();
+        // where the next record goes; only moved under the tier's lock
+        private int position;
+
+        Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+
+        /**
+         * The body of the record at {@code offset}; null at the end of the data or when its checksum is wrong.
+         */
+        byte[] read(int offset) {
+            if (offset + RECORD_HEADER > capacity) {
+                return null;
+            }
+            int length = buffer.getInt(offset);
+            if (length < 3 || offset + RECORD_HEADER + length > capacity) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            buffer.get(offset + RECORD_HEADER, body);
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? body : null;
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException | RuntimeException e) {
+                // the mapping stays valid until it is collected; nothing else to release
+            }
+        }
+    }
+}
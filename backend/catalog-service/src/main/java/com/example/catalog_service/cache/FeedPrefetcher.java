@@ -0,0 +1,167 @@
+package com.example.catalog_service.cache;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.service.TmdbClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads the next page of a feed into the {@link CatalogCache} after a page was
+ * served, on a single low-priority thread, so a user scrolling on gets it from
+ * the cache.
+ *
+ * Prefetching is optional work and backs off on its own: it is skipped while
+ * TMDB calls in the last second are near {@code tmdb.rate-limit}, and a feed
+ * whose prefetched pages are mostly never read stops prefetching for
+ * {@code catalog.cache.prefetch.cooldown}. Prefetches are counted as
+ * {@code catalog.prefetch.issued}, pages read as {@code catalog.prefetch.used},
+ * skips as {@code catalog.prefetch.skipped} (by reason), and the share of the last
+ * window's prefetches that were read is the {@code catalog.prefetch.hit.rate} gauge.
+ */
+@Component
+public class FeedPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedPrefetcher.class);
+
+    private final CatalogCache cache;
+    private final CatalogCacheProperties.Prefetch settings;
+    private final int rateLimit;
+    private final LongSupplier callRate;
+    private final LongSupplier clock;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final Map<CacheRegion, FeedStats> feeds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FeedPrefetcher(CatalogCache cache, CatalogCacheProperties properties, TmdbClient tmdbClient,
+            TmdbProperties tmdbProperties, MeterRegistry meterRegistry) {
+        this(cache, properties.getPrefetch(), tmdbProperties.getRateLimit(), tmdbClient::getRecentCallRate,
+            System::nanoTime, meterRegistry,
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getPrefetch().getQueueSize()),
+                Thread.ofPlatform().name("catalog-prefetch").daemon().priority(Thread.MIN_PRIORITY).factory()));
+    }
+
+    /**
+     * @param callRate TMDB calls in the last second
+     * @param executor runs prefetches; rejects work when its queue is full
+     */
+    FeedPrefetcher(CatalogCache cache, CatalogCacheProperties.Prefetch settings, int rateLimit, LongSupplier callRate,
+            LongSupplier clock, MeterRegistry meterRegistry, Executor executor) {
+        this.cache = cache;
+        this.settings = settings;
+        this.rateLimit = rateLimit;
+        this.callRate = callRate;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a load of {@code id} (the next page) unless the feed or TMDB says not to.
+     */
+    public void prefetch(CacheRegion region, Object id, Supplier<?> loader) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        FeedStats feed = feeds.computeIfAbsent(region, this::register);
+        if (feed.pausedUntil - clock.getAsLong() > 0) {
+            skip(region, "paused");
+            return;
+        }
+        if (nearRateLimit()) {
+            skip(region, "rate_limit");
+            return;
+        }
+        try {
+            executor.execute(() -> run(region, id, loader, feed));
+        } catch (RejectedExecutionException e) {
+            skip(region, "queue_full");
+        }
+    }
+
+    private void run(CacheRegion region, Object id, Supplier<?> loader, FeedStats feed) {
+        // the rate may have climbed while this waited in the queue
+        if (nearRateLimit()) {
+            skip(region, "rate_limit");
+            return;
+        }
+        String outcome = cache.prefetch(region, id, loader, () -> used(region, feed));
+        if (outcome.equals("cached")) {
+            skip(region, "cached");
+            return;
+        }
+        meterRegistry.counter("catalog.prefetch.issued", "feed", region.tag(), "outcome", outcome).increment();
+        if (outcome.equals("success")) {
+            issued(region, feed);
+        }
+    }
+
+    private boolean nearRateLimit() {
+        return callRate.getAsLong() >= rateLimit * settings.getMaxRateUtilization();
+    }
+
+    private void used(CacheRegion region, FeedStats feed) {
+        feed.used.incrementAndGet();
+        meterRegistry.counter("catalog.prefetch.used", "feed", region.tag()).increment();
+    }
+
+    /**
+     * Count a stored prefetch and, once a window is full, pause the feed if too few were read.
+     */
+    private void issued(CacheRegion region, FeedStats feed) {
+        int issued = feed.issued.incrementAndGet();
+        if (issued < settings.getEvaluationWindow()) {
+            return;
+        }
+        int used = feed.used.getAndSet(0);
+        feed.issued.set(0);
+        feed.hitRate = Math.min(1.0, (double) used / issued);
+        if (feed.hitRate < settings.getMinHitRate()) {
+            feed.pausedUntil = clock.getAsLong() + settings.getCooldown().toNanos();
+            logger.info("Pausing {} prefetch for {}: only {} of {} prefetched pages were read",
+                region.tag(), settings.getCooldown(), used, issued);
+        }
+    }
+
+    private void skip(CacheRegion region, String reason) {
+        meterRegistry.counter("catalog.prefetch.skipped", "feed", region.tag(), "reason", reason).increment();
+    }
+
+    private FeedStats register(CacheRegion region) {
+        FeedStats feed = new FeedStats(clock.getAsLong());
+        Gauge.builder("catalog.prefetch.hit.rate", feed, stats -> stats.hitRate)
+            .description("Share of the last window of prefetched pages that were read")
+            .tag("feed", region.tag())
+            .register(meterRegistry);
+        return feed;
+    }
+
+    private static final class FeedStats {
+        private final AtomicInteger issued = new AtomicInteger();
+        private final AtomicInteger used = new AtomicInteger();
+        private volatile double hitRate = Double.NaN;
+        private volatile long pausedUntil;
+
+        FeedStats(long now) {
+            this.pausedUntil = now;
+        }
+    }
+}
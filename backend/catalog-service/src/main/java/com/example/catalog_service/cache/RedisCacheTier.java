@@ -0,0 +1,273 @@
+package com.example.catalog_service.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link CacheTier} on a Redis server (or anything speaking its protocol),
+ * turned on with {@code catalog.cache.l2.enabled}.
+ *
+ * Entries are stored under {@code <key-prefix><region>:<id>} with Redis expiring
+ * them at the same TTL as the in-memory cache, encoded by {@link CacheValueCodec}.
+ * Every put and invalidate is published on {@code channel} as
+ * {@code "<instance> <region> <id>"}; each replica keeps one connection subscribed
+ * and drops its in-memory copy of keys other instances changed. Load claims are
+ * {@code SET NX PX} on {@code <key-prefix>claim:<region>:<id>}.
+ *
+ * Commands use a small pool of connections with a short timeout. When one fails,
+ * Redis is skipped for {@code retry-after}, during which gets miss, claims are
+ * granted and puts are dropped, so an outage costs TMDB calls but never requests.
+ * Failures are counted as {@code catalog.cache.l2.errors} tagged with operation,
+ * and received invalidations as {@code catalog.cache.l2.invalidations}.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(prefix = "catalog.cache.l2", name = "enabled", havingValue = "true")
+public class RedisCacheTier implements CacheTier, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheTier.class);
+
+    private final CatalogCacheProperties.L2 settings;
+    private final MeterRegistry meterRegistry;
+    private final CacheValueCodec codec = new CacheValueCodec(System::currentTimeMillis);
+    private final String instance = UUID.randomUUID().toString();
+    private final BlockingQueue<RespConnection> idle;
+    private final Semaphore connections;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long unavailableUntil = System.nanoTime();
+    private volatile boolean closed;
+    private volatile RespConnection subscription;
+    private Thread subscriber;
+
+    public RedisCacheTier(CatalogCacheProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getL2();
+        this.meterRegistry = meterRegistry;
+        this.idle = new ArrayBlockingQueue<>(settings.getPoolSize());
+        this.connections = new Semaphore(settings.getPoolSize());
+    }
+
+    @Override
+    public Optional<Entry> get(CacheRegion region, String id) {
+        byte[] bytes = call("get", connection -> (byte[]) connection.call("GET", key(region, id)), null);
+        if (bytes == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(codec.decode(region, bytes));
+        } catch (IOException e) {
+            // written by a replica with an incompatible model; it is replaced on the next load
+            count("decode");
+            logger.debug("Could not decode shared {} {}: {}", region.tag(), id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(CacheRegion region, String id, Entry entry) {
+        long ttlMillis = entry.ttl().toMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = codec.encode(entry);
+        } catch (IOException e) {
+            count("encode");
+            logger.debug("Could not encode {} {}: {}", region.tag(), id, e.getMessage());
+            return;
+        }
+        call("put", connection -> {
+            connection.call("SET", key(region, id), bytes, "PX", Long.toString(ttlMillis));
+            return connection.call("PUBLISH", settings.getChannel(), message(region, id));
+        }, null);
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, String id) {
+        call("invalidate", connection -> {
+            connection.call("DEL", key(region, id));
+            return connection.call("PUBLISH", settings.getChannel(), message(region, id));
+        }, null);
+    }
+
+    @Override
+    public boolean claim(CacheRegion region, String id, Duration lease) {
+        return call("claim", connection -> "OK".equals(connection.call("SET", claimKey(region, id), instance,
+            "NX", "PX", Long.toString(Math.max(1, lease.toMillis())))), true);
+    }
+
+    @Override
+    public void release(CacheRegion region, String id) {
+        call("release", connection -> connection.call("DEL", claimKey(region, id)), null);
+    }
+
+    @Override
+    public synchronized void listen(Listener listener) {
+        listeners.add(listener);
+        if (subscriber == null) {
+            subscriber = Thread.ofPlatform().name("catalog-cache-invalidations").daemon().start(this::subscribe);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        RespConnection current = subscription;
+        if (current != null) {
+            current.close();
+        }
+        RespConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Stay subscribed to the invalidation channel, reconnecting after failures. Whatever
+     * was published while the subscription was down is lost, so listeners are reset
+     * once it is back.
+     */
+    private void subscribe() {
+        boolean missed = false;
+        while (!closed) {
+            try (RespConnection connection = connect()) {
+                subscription = connection;
+                if (closed) {
+                    return;
+                }
+                connection.send("SUBSCRIBE", settings.getChannel());
+                connection.read();
+                connection.setReadTimeout(Duration.ZERO);
+                if (missed) {
+                    listeners.forEach(Listener::reset);
+                }
+                logger.info("Subscribed to shared cache invalidations on {}", settings.getChannel());
+                while (!closed) {
+                    if (connection.read() instanceof Object[] push && push.length == 3
+                            && push[2] instanceof byte[] payload) {
+                        received(new String(payload, StandardCharsets.UTF_8));
+                    }
+                }
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                missed = true;
+                count("subscribe");
+                logger.warn("Shared cache invalidations unavailable, retrying in {}: {}",
+                    settings.getRetryAfter(), e.getMessage());
+                try {
+                    Thread.sleep(settings.getRetryAfter().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            } finally {
+                subscription = null;
+            }
+        }
+    }
+
+    private void received(String message) {
+        String[] parts = message.split(" ", 3);
+        if (parts.length != 3 || parts[0].equals(instance)) {
+            return;
+        }
+        CacheRegion region = CacheRegion.fromTag(parts[1]);
+        if (region == null) {
+            return;
+        }
+        meterRegistry.counter("catalog.cache.l2.invalidations", "region", region.tag()).increment();
+        listeners.forEach(listener -> listener.invalidated(region, parts[2]));
+    }
+
+    /**
+     * Run a command on a pooled connection; on any failure return {@code fallback} and skip Redis for a while.
+     */
+    private <T> T call(String operation, Command<T> command, T fallback) {
+        if (closed || unavailableUntil - System.nanoTime() > 0) {
+            return fallback;
+        }
+        try {
+            if (!connections.tryAcquire(settings.getTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                count(operation);
+                return fallback;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+        RespConnection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = connect();
+            }
+            T result = command.run(connection);
+            if (!idle.offer(connection)) {
+                connection.close();
+            }
+            return result;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            count(operation);
+            unavailableUntil = System.nanoTime() + settings.getRetryAfter().toNanos();
+            logger.warn("Shared cache {} failed, skipping Redis for {}: {}", operation, settings.getRetryAfter(),
+                e.getMessage());
+            return fallback;
+        } finally {
+            connections.release();
+        }
+    }
+
+    private RespConnection connect() throws IOException {
+        RespConnection connection = new RespConnection(settings.getHost(), settings.getPort(), settings.getTimeout());
+        if (settings.getPassword() != null && !settings.getPassword().isBlank()) {
+            try {
+                connection.call("AUTH", settings.getPassword());
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private String key(CacheRegion region, String id) {
+        return settings.getKeyPrefix() + region.tag() + ":" + id;
+    }
+
+    private String claimKey(CacheRegion region, String id) {
+        return settings.getKeyPrefix() + "claim:" + region.tag() + ":" + id;
+    }
+
+    private String message(CacheRegion region, String id) {
+        return instance + " " + region.tag() + " " + id;
+    }
+
+    private void count(String operation) {
+        meterRegistry.counter("catalog.cache.l2.errors", "operation", operation).increment();
+    }
+
+    @FunctionalInterface
+    private interface Command<T> {
+        T run(RespConnection connection) throws IOException;
+    }
+}
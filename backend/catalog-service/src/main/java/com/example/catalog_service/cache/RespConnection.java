@@ -0,0 +1,148 @@
+package com.example.catalog_service.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * One connection speaking the Redis protocol (RESP2): commands go out as arrays
+ * of bulk strings, replies come back as String (simple strings), Long, byte[]
+ * (bulk strings, null for nil) or Object[] (arrays). Only used by one thread at a time.
+ */
+final class RespConnection implements AutoCloseable {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    RespConnection(String host, int port, Duration timeout) throws IOException {
+        socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+            socket.setSoTimeout((int) timeout.toMillis());
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = new BufferedOutputStream(socket.getOutputStream());
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Send a command and read its reply.
+     *
+     * @param args Strings or byte arrays
+     * @throws ServerError when Redis answers with an error
+     */
+    Object call(Object... args) throws IOException {
+        send(args);
+        return read();
+    }
+
+    void send(Object... args) throws IOException {
+        writeHeader('*', args.length);
+        for (Object arg : args) {
+            byte[] bytes = arg instanceof byte[] raw ? raw : arg.toString().getBytes(StandardCharsets.UTF_8);
+            writeHeader('$', bytes.length);
+            out.write(bytes);
+            out.write(CRLF);
+        }
+        out.flush();
+    }
+
+    Object read() throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            throw new EOFException("Redis closed the connection");
+        }
+        String line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                throw new ServerError(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                byte[] bytes = in.readNBytes(length);
+                if (bytes.length < length || in.read() != '\r' || in.read() != '\n') {
+                    throw new EOFException("Truncated bulk reply from Redis");
+                }
+                return bytes;
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                Object[] items = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    items[i] = read();
+                }
+                return items;
+            }
+            default:
+                throw new IOException("Unexpected reply type '" + (char) type + "' from Redis");
+        }
+    }
+
+    /**
+     * How long a read may block; zero waits forever (for subscriptions).
+     */
+    void setReadTimeout(Duration timeout) throws IOException {
+        socket.setSoTimeout((int) timeout.toMillis());
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+    }
+
+    private void writeHeader(char type, int length) throws IOException {
+        out.write(type);
+        out.write(Integer.toString(length).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new EOFException("Redis closed the connection");
+            }
+            line.append((char) c);
+        }
+        if (in.read() != '\n') {
+            throw new IOException("Malformed reply from Redis");
+        }
+        return line.toString();
+    }
+
+    /**
+     * An error reply; the connection is still usable.
+     */
+    static final class ServerError extends IOException {
+        ServerError(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.catalog_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "catalog.anime")
+public class AnimeIndexProperties {
+    private boolean indexEnabled = true;
+    
+    // Popular anime only lists shows first aired on or after this date (ISO yyyy-MM-dd)
+    private String firstAirDateFrom = "2023-01-01";
+    
+    // Shows need this many votes to be indexed, which keeps out obscure and misfiled titles
+    private int minVoteCount = 100;
+    
+    // /discover/tv pages (20 shows each) read by a full build, most popular first
+    private int indexPages = 50;
+    
+    // Pages re-read by an incremental refresh, where popularity moves the most
+    private int refreshPages = 5;
+    
+    // /trending/tv/week pages scanned for trending anime
+    private int trendingPages = 5;
+    
+    // Read by @Scheduled as ${catalog.anime.refresh-interval}
+    private Duration refreshInterval = Duration.ofMinutes(15);
+    
+    // A full build also drops shows that fell out of the top pages
+    private Duration fullRebuildInterval = Duration.ofHours(6);
+    
+    public boolean isIndexEnabled() {
+        return indexEnabled;
+    }
+    
+    public void setIndexEnabled(boolean indexEnabled) {
+        this.indexEnabled = indexEnabled;
+    }
+    
+    public String getFirstAirDateFrom() {
+        return firstAirDateFrom;
+    }
+    
+    public void setFirstAirDateFrom(String firstAirDateFrom) {
+        this.firstAirDateFrom = firstAirDateFrom;
+    }
+    
+    public int getMinVoteCount() {
+        return minVoteCount;
+    }
+    
+    public void setMinVoteCount(int minVoteCount) {
+        this.minVoteCount = minVoteCount;
+    }
+    
+    public int getIndexPages() {
+        return indexPages;
+    }
+    
+    public void setIndexPages(int indexPages) {
+        this.indexPages = indexPages;
+    }
+    
+    public int getRefreshPages() {
+        return refreshPages;
+    }
+    
+    public void setRefreshPages(int refreshPages) {
+        this.refreshPages = refreshPages;
+    }
+    
+    public int getTrendingPages() {
+        return trendingPages;
+    }
+    
+    public void setTrendingPages(int trendingPages) {
+        this.trendingPages = trendingPages;
+    }
+    
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+    
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+    
+    public Duration getFullRebuildInterval() {
+        return fullRebuildInterval;
+    }
+    
+    public void setFullRebuildInterval(Duration fullRebuildInterval) {
+        this.fullRebuildInterval = fullRebuildInterval;
+    }
+}
@@ -1,10 +1,31 @@
 package com.example.catalog_service.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
+import com.example.catalog_service.model.StringPool;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 @Configuration
 @EnableConfigurationProperties({JwtProperties.class, TmdbProperties.class})
 public class AppConfig {
     
-}
\ No newline at end of file
+    /**
+     * Size of the shared string pool and the bytes sharing its strings saves now
+     */
+    @Bean
+    public MeterBinder stringPoolMetrics() {
+        return registry -> {
+            Gauge.builder("catalog.stringpool.size", StringPool.SHARED, StringPool::size)
+                .description("Distinct strings held by the canonical string pool")
+                .register(registry);
+            Gauge.builder("catalog.stringpool.saved", StringPool.SHARED, StringPool::savedBytes)
+                .description("Bytes saved by sharing one copy of each pooled string across the titles held in the catalog cache")
+                .baseUnit("bytes")
+                .register(registry);
+        };
+    }
+}
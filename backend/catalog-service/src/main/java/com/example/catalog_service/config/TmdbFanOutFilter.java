@@ -0,0 +1,80 @@
+package com.example.catalog_service.config;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.catalog_service.service.TmdbRequestContext;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link TmdbRequestContext} for each catalog API request and, once
+ * the response is written, records how many TMDB calls it took as
+ * {@code tmdb.fanout}, tagged with the matched route (e.g. {@code /api/catalog/movies/{id}}).
+ *
+ * The request's deadline is {@code tmdb.request-timeout} from now, or sooner
+ * if the caller sends {@code X-Request-Timeout} in milliseconds.
+ */
+@Component
+public class TmdbFanOutFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TmdbProperties tmdbProperties;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/catalog/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        TmdbRequestContext context = TmdbRequestContext.open(budget(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            context.close();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("tmdb.fanout")
+                .description("TMDB calls made to serve one catalog request")
+                .baseUnit("calls")
+                .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(500.0)
+                .register(meterRegistry)
+                .record(context.getTmdbCalls());
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        Duration configured = tmdbProperties.getRequestTimeout();
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return configured;
+        }
+        try {
+            Duration requested = Duration.ofMillis(Long.parseLong(header.trim()));
+            return requested.isNegative() || requested.compareTo(configured) > 0 ? configured : requested;
+        } catch (NumberFormatException e) {
+            return configured;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.catalog_service.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -9,6 +11,16 @@ public class TmdbProperties {
     private String apiKey;
     private String baseUrl;
     
+    // Budget for all TMDB work behind one incoming request; callers may ask for less with X-Request-Timeout
+    private Duration requestTimeout = Duration.ofSeconds(8);
+    
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    
+    // Calls per second TMDB lets one API key make (about 50), less some headroom; optional work backs off near it
+    private int rateLimit = 40;
+    
+    private final Hedging hedging = new Hedging();
+    
     public String getApiKey() {
         return apiKey;
     }
@@ -24,4 +36,92 @@ public class TmdbProperties {
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
     }
+    
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+    
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+    
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+    
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+    
+    public int getRateLimit() {
+        return rateLimit;
+    }
+    
+    public void setRateLimit(int rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+    
+    public Hedging getHedging() {
+        return hedging;
+    }
+    
+    /**
+     * Settings for hedged TMDB calls: when a call is still waiting after the
+     * endpoint's recent p95, send a duplicate and take whichever answers first.
+     */
+    public static class Hedging {
+        private boolean enabled = false;
+        
+        // Hedges allowed per primary call; 0.05 caps the extra TMDB load at about 5%
+        private double budgetRatio = 0.05;
+        
+        // Latency percentile after which a hedge is sent
+        private double percentile = 0.95;
+        
+        // Samples an endpoint needs before it is hedged at all
+        private int minSamples = 100;
+        
+        // Never hedge sooner than this, whatever the percentile says
+        private Duration minDelay = Duration.ofMillis(20);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+        
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+        
+        public double getPercentile() {
+            return percentile;
+        }
+        
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+        
+        public int getMinSamples() {
+            return minSamples;
+        }
+        
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+        
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+        
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.catalog_service.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.catalog_service.service.Feed;
+import com.example.catalog_service.service.FeedService;
+
+@RestController
+@RequestMapping("api/catalog/feed")
+public class FeedController {
+
+    @Autowired
+    private FeedService feedService;
+
+    /**
+     * One screen of a feed for infinite scroll, filled from as many TMDB pages as needed
+     *
+     * @param feed popular-movies, popular-tv, trending-tv, anime, trending-anime, movie-search, tv-search or anime-search
+     * @param limit items wanted (at most 100)
+     * @param cursor nextCursor of the previous screen; omit for the first one
+     * @param query search terms, for the search feeds
+     * @return the items and the cursor of the next screen (null at the end)
+     */
+    @GetMapping("/{feed}")
+    public ResponseEntity<?> getFeed(
+            @PathVariable String feed,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String query) {
+        Optional<Feed> known = Feed.fromPath(feed);
+        if (known.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(feedService.getFeed(known.get(), query, limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
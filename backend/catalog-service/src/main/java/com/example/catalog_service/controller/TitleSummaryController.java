@@ -0,0 +1,40 @@
+package com.example.catalog_service.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.catalog_service.service.TitleSummaryService;
+
+@RestController
+@RequestMapping("api/catalog/summaries")
+public class TitleSummaryController {
+
+    @Autowired
+    private TitleSummaryService titleSummaryService;
+
+    /**
+     * Card-sized summaries of many titles at once, e.g. {@code ?movies=603,604&tvshows=1399}
+     *
+     * @param movies movie ids, at most 200
+     * @param tvshows TV show ids, at most 200
+     * @return the titles found by id, under {@code movies} and {@code tvShows}
+     */
+    @GetMapping
+    public ResponseEntity<?> getSummaries(
+            @RequestParam(defaultValue = "") List<Long> movies,
+            @RequestParam(defaultValue = "") List<Long> tvshows) {
+        try {
+            return ResponseEntity.ok(titleSummaryService.getSummaries(movies, tvshows));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
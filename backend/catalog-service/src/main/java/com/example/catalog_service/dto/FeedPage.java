@@ -0,0 +1,12 @@
+package com.example.catalog_service.dto;
+
+import java.util.List;
+
+/**
+ * One screen of a feed.
+ *
+ * @param items up to the requested number of movies or TV shows
+ * @param nextCursor pass back as {@code cursor} to continue; null at the end of the feed
+ */
+public record FeedPage(List<?> items, String nextCursor) {
+}
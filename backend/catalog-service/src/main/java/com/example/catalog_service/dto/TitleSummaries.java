@@ -0,0 +1,12 @@
+package com.example.catalog_service.dto;
+
+import java.util.Map;
+
+/**
+ * Summaries of the titles asked for, by id.
+ *
+ * @param movies the movies found; ids TMDB doesn't know, or that weren't loaded in time, are missing
+ * @param tvShows the TV shows found, in the same way
+ */
+public record TitleSummaries(Map<Long, TitleSummary> movies, Map<Long, TitleSummary> tvShows) {
+}
@@ -0,0 +1,42 @@
+package com.example.catalog_service.dto;
+
+import java.util.List;
+
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.Movie;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * What a watchlist card shows of a movie or TV show, under the same names as
+ * the full details; movies have a title and release date, TV shows a name,
+ * first air date and seasons.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TitleSummary(
+        Long id,
+        String title,
+        String name,
+        @JsonProperty("poster_path") String posterPath,
+        @JsonProperty("backdrop_path") String backdropPath,
+        @JsonProperty("release_date") String releaseDate,
+        @JsonProperty("first_air_date") String firstAirDate,
+        @JsonProperty("vote_average") Double voteAverage,
+        @JsonProperty("genre_ids") List<Integer> genreIds,
+        @JsonProperty("number_of_seasons") Integer numberOfSeasons,
+        List<DetailedTvShow.Season> seasons) {
+
+    public static TitleSummary of(Movie movie) {
+        return new TitleSummary(movie.getId(), movie.getTitle(), null, movie.getPosterPath(), movie.getBackdropPath(),
+            movie.getReleaseDate(), null, movie.getVoteAverage(), movie.getGenreIds(), null, null);
+    }
+
+    public static TitleSummary of(DetailedTvShow tvShow) {
+        List<Integer> genreIds = tvShow.getGenres() == null
+            ? null
+            : tvShow.getGenres().stream().map(DetailedTvShow.Genre::getId).toList();
+        return new TitleSummary(tvShow.getId(), null, tvShow.getName(), tvShow.getPosterPath(),
+            tvShow.getBackdropPath(), null, tvShow.getFirstAirDate(), tvShow.getVoteAverage(), genreIds,
+            tvShow.getNumberOfSeasons(), tvShow.getSeasons());
+    }
+}
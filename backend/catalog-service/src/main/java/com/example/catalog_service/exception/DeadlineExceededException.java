@@ -0,0 +1,11 @@
+package com.example.catalog_service.exception;
+
+/**
+ * Thrown instead of calling TMDB once the incoming request's deadline has passed.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.catalog_service.exception;
+
+/**
+ * TMDB answered 404: the title or person does not exist. Unlike timeouts and
+ * 5xx responses this is a definite answer, so it may be cached.
+ */
+public class TmdbNotFoundException extends RuntimeException {
+
+    public TmdbNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.catalog_service.model;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * Deserializes a string field through {@link StringPool#SHARED}, so repeated
+ * values such as "Director" or "JP" share one instance across all cached titles.
+ */
+public class CanonicalStringDeserializer extends StdScalarDeserializer<String> {
+
+    public CanonicalStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return StringPool.SHARED.canonicalize(StringDeserializer.instance.deserialize(parser, context));
+    }
+}
@@ -2,16 +2,19 @@ package com.example.catalog_service.model;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class DetailedMovie {
+public class DetailedMovie implements PooledStrings {
     private Long id;
     private String title;
     private String overview;
     private String tagline;
+    @JsonDeserialize(using = CanonicalStringDeserializer.class)
     private String status;
     private String homepage;
     
@@ -42,6 +45,10 @@ public class DetailedMovie {
     @JsonProperty("popularity")
     private Double popularity;
     
+    @JsonProperty("original_language")
+    @JsonDeserialize(using = CanonicalStringDeserializer.class)
+    private String originalLanguage;
+    
     @JsonProperty("belongs_to_collection")
     private Map<String, Object> belongsToCollection;
     
@@ -58,12 +65,15 @@ public class DetailedMovie {
     
     private Credits credits;
     private Similar similar;
+    // Requested with append_to_response=keywords
+    private Keywords keywords;
     private String trailerUrl;
 
     // Nested classes for complex properties
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Genre {
         private Integer id;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public Integer getId() { return id; }
@@ -76,12 +86,14 @@ public class DetailedMovie {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductionCompany {
         private Integer id;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         @JsonProperty("logo_path")
         private String logoPath;
         
         @JsonProperty("origin_country")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String originCountry;
         
         public Integer getId() { return id; }
@@ -100,8 +112,10 @@ public class DetailedMovie {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductionCountry {
         @JsonProperty("iso_3166_1")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String iso;
         
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public String getIso() { return iso; }
@@ -114,11 +128,14 @@ public class DetailedMovie {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class SpokenLanguage {
         @JsonProperty("english_name")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String englishName;
         
         @JsonProperty("iso_639_1")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String iso;
         
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public String getEnglishName() { return englishName; }
@@ -173,6 +190,7 @@ public class DetailedMovie {
     public static class Crew {
         private Integer id;
         private String name;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String job;
         private String imdbId;
         
@@ -203,6 +221,26 @@ public class DetailedMovie {
         public void setResults(List<SimilarMovie> results) { this.results = results; }
     }
     
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Keywords {
+        private List<Keyword> keywords;
+        
+        public List<Keyword> getKeywords() { return keywords; }
+        public void setKeywords(List<Keyword> keywords) { this.keywords = keywords; }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Keyword {
+        private Integer id;
+        private String name;
+        
+        public Integer getId() { return id; }
+        public void setId(Integer id) { this.id = id; }
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+    
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class SimilarMovie {
         private Integer id;
@@ -404,6 +442,22 @@ public class DetailedMovie {
         this.similar = similar;
     }
     
+    public String getOriginalLanguage() {
+        return originalLanguage;
+    }
+    
+    public void setOriginalLanguage(String originalLanguage) {
+        this.originalLanguage = originalLanguage;
+    }
+    
+    public Keywords getKeywords() {
+        return keywords;
+    }
+    
+    public void setKeywords(Keywords keywords) {
+        this.keywords = keywords;
+    }
+    
     public String getTrailerUrl() {
         return trailerUrl;
     }
@@ -411,4 +465,35 @@ public class DetailedMovie {
     public void setTrailerUrl(String trailerUrl) {
         this.trailerUrl = trailerUrl;
     }
+
+    @Override
+    public void forEachPooledString(Consumer<String> action) {
+        action.accept(status);
+        action.accept(originalLanguage);
+        if (genres != null) {
+            genres.forEach(genre -> action.accept(genre.getName()));
+        }
+        if (productionCompanies != null) {
+            productionCompanies.forEach(company -> {
+                action.accept(company.getName());
+                action.accept(company.getOriginCountry());
+            });
+        }
+        if (productionCountries != null) {
+            productionCountries.forEach(country -> {
+                action.accept(country.getIso());
+                action.accept(country.getName());
+            });
+        }
+        if (spokenLanguages != null) {
+            spokenLanguages.forEach(language -> {
+                action.accept(language.getEnglishName());
+                action.accept(language.getIso());
+                action.accept(language.getName());
+            });
+        }
+        if (credits != null && credits.getCrew() != null) {
+            credits.getCrew().forEach(crewMember -> action.accept(crewMember.getJob()));
+        }
+    }
 }
\ No newline at end of file
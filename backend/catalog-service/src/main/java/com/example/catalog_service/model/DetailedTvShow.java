@@ -2,16 +2,19 @@ package com.example.catalog_service.model;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class DetailedTvShow {
+public class DetailedTvShow implements PooledStrings {
     private Long id;
     private String name;
     private String overview;
     private String tagline;
+    @JsonDeserialize(using = CanonicalStringDeserializer.class)
     private String status;
     private String homepage;
     
@@ -46,9 +49,11 @@ public class DetailedTvShow {
     private Boolean inProduction;
     
     @JsonProperty("origin_country")
+    @JsonDeserialize(contentUsing = CanonicalStringDeserializer.class)
     private List<String> originCountry;
     
     @JsonProperty("original_language")
+    @JsonDeserialize(using = CanonicalStringDeserializer.class)
     private String originalLanguage;
     
     @JsonProperty("original_name")
@@ -58,6 +63,7 @@ public class DetailedTvShow {
     private List<Integer> episodeRunTime;
     
     @JsonProperty("type")
+    @JsonDeserialize(using = CanonicalStringDeserializer.class)
     private String type;  // TV show type (e.g., scripted, reality, etc.)
     
     private List<Genre> genres;
@@ -81,6 +87,8 @@ public class DetailedTvShow {
     
     private Credits credits;
     private Similar similar;
+    // Requested with append_to_response=keywords
+    private Keywords keywords;
     private String trailerUrl;
     
     // Nested classes for complex properties
@@ -151,12 +159,14 @@ public class DetailedTvShow {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Network {
         private Integer id;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         @JsonProperty("logo_path")
         private String logoPath;
         
         @JsonProperty("origin_country")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String originCountry;
         
         public Integer getId() { return id; }
@@ -175,6 +185,7 @@ public class DetailedTvShow {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Genre {
         private Integer id;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public Integer getId() { return id; }
@@ -187,12 +198,14 @@ public class DetailedTvShow {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductionCompany {
         private Integer id;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         @JsonProperty("logo_path")
         private String logoPath;
         
         @JsonProperty("origin_country")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String originCountry;
         
         public Integer getId() { return id; }
@@ -211,8 +224,10 @@ public class DetailedTvShow {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProductionCountry {
         @JsonProperty("iso_3166_1")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String iso;
         
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public String getIso() { return iso; }
@@ -225,11 +240,14 @@ public class DetailedTvShow {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class SpokenLanguage {
         @JsonProperty("english_name")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String englishName;
         
         @JsonProperty("iso_639_1")
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String iso;
         
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String name;
         
         public String getEnglishName() { return englishName; }
@@ -284,6 +302,7 @@ public class DetailedTvShow {
     public static class Crew {
         private Integer id;
         private String name;
+        @JsonDeserialize(using = CanonicalStringDeserializer.class)
         private String job;
         private String imdbId;
         
@@ -314,6 +333,26 @@ public class DetailedTvShow {
         public void setResults(List<SimilarTvShow> results) { this.results = results; }
     }
     
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Keywords {
+        private List<Keyword> results;
+        
+        public List<Keyword> getResults() { return results; }
+        public void setResults(List<Keyword> results) { this.results = results; }
+    }
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Keyword {
+        private Integer id;
+        private String name;
+        
+        public Integer getId() { return id; }
+        public void setId(Integer id) { this.id = id; }
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+    
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class SimilarTvShow {
         private Integer id;
@@ -579,6 +618,14 @@ public class DetailedTvShow {
         this.similar = similar;
     }
     
+    public Keywords getKeywords() {
+        return keywords;
+    }
+    
+    public void setKeywords(Keywords keywords) {
+        this.keywords = keywords;
+    }
+    
     public String getTrailerUrl() {
         return trailerUrl;
     }
@@ -586,4 +633,45 @@ public class DetailedTvShow {
     public void setTrailerUrl(String trailerUrl) {
         this.trailerUrl = trailerUrl;
     }
-}
+
+    @Override
+    public void forEachPooledString(Consumer<String> action) {
+        action.accept(status);
+        action.accept(type);
+        action.accept(originalLanguage);
+        if (originCountry != null) {
+            originCountry.forEach(action);
+        }
+        if (networks != null) {
+            networks.forEach(network -> {
+                action.accept(network.getName());
+                action.accept(network.getOriginCountry());
+            });
+        }
+        if (genres != null) {
+            genres.forEach(genre -> action.accept(genre.getName()));
+        }
+        if (productionCompanies != null) {
+            productionCompanies.forEach(company -> {
+                action.accept(company.getName());
+                action.accept(company.getOriginCountry());
+            });
+        }
+        if (productionCountries != null) {
+            productionCountries.forEach(country -> {
+                action.accept(country.getIso());
+                action.accept(country.getName());
+            });
+        }
+        if (spokenLanguages != null) {
+            spokenLanguages.forEach(language -> {
+                action.accept(language.getEnglishName());
+                action.accept(language.getIso());
+                action.accept(language.getName());
+            });
+        }
+        if (credits != null && credits.getCrew() != null) {
+            credits.getCrew().forEach(crewMember -> action.accept(crewMember.getJob()));
+        }
+    }
+}
\ No newline at end of file
@@ -27,6 +27,12 @@ public class Movie {
     @JsonProperty("genre_ids")
     private List<Integer> genreIds;
     
+    @JsonProperty("original_language")
+    private String originalLanguage;
+    
+    @JsonProperty("popularity")
+    private Double popularity;
+    
     // Added for trailer functionality
     private String trailerUrl;
     
@@ -108,6 +114,22 @@ public class Movie {
         this.genreIds = genreIds;
     }
     
+    public String getOriginalLanguage() {
+        return originalLanguage;
+    }
+    
+    public void setOriginalLanguage(String originalLanguage) {
+        this.originalLanguage = originalLanguage;
+    }
+    
+    public Double getPopularity() {
+        return popularity;
+    }
+    
+    public void setPopularity(Double popularity) {
+        this.popularity = popularity;
+    }
+    
     public String getTrailerUrl() {
         return trailerUrl;
     }
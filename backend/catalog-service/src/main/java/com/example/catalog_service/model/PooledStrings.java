@@ -0,0 +1,22 @@
+package com.example.catalog_service.model;
+
+import java.util.function.Consumer;
+
+/**
+ * A title whose low-cardinality strings are read through {@link StringPool#SHARED},
+ * so the catalog cache can count the references it holds to pooled strings.
+ */
+public interface PooledStrings {
+
+    /**
+     * Hand every string field that is read through the pool to {@code action}, nulls included.
+     */
+    void forEachPooledString(Consumer<String> action);
+
+    /**
+     * The bytes this title's references to pooled strings would take as copies of their own.
+     */
+    default long canonicalStringSavings() {
+        return StringPool.SHARED.savedBytes(this);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.catalog_service.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded intern pool for low-cardinality strings in TMDB payloads
+ * (crew jobs, genre/network/company names, country and language codes).
+ *
+ * Only short values are pooled, and once the pool is full new values are
+ * returned as-is, so a hostile or unexpected payload cannot grow it without limit.
+ *
+ * Each pooled string counts its live references: those held by titles in
+ * the in-memory catalog cache, which {@link #retain} when a title is stored and
+ * {@link #release} when it is evicted, replaced or invalidated. Titles read and
+ * thrown away, and refreshes of a title already cached, don't count, so
+ * {@link #savedBytes()} is the memory sharing saves now.
+ */
+public final class StringPool {
+
+    public static final StringPool SHARED = new StringPool(8192, 64);
+
+    private final ConcurrentHashMap<String, Pooled> pool = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final int maxLength;
+
+    public StringPool(int maxEntries, int maxLength) {
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Return the pooled instance equal to the given value, pooling it if there is room.
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        Pooled pooled = pool.get(value);
+        if (pooled == null) {
+            if (pool.size() >= maxEntries) {
+                return value;
+            }
+            pooled = pool.computeIfAbsent(value, Pooled::new);
+        }
+        return pooled.value;
+    }
+
+    /**
+     * Count the title's references to pooled strings as live.
+     *
+     * @return the bytes they save: what they would take as copies of their own
+     */
+    public long retain(PooledStrings title) {
+        long[] saved = new long[1];
+        title.forEachPooledString(value -> {
+            Pooled pooled = pooledInstance(value);
+            if (pooled != null) {
+                pooled.references.increment();
+                saved[0] += retainedSize(value);
+            }
+        });
+        return saved[0];
+    }
+
+    /**
+     * Stop counting the references of a title {@link #retain retained} before.
+     */
+    public void release(PooledStrings title) {
+        title.forEachPooledString(value -> {
+            Pooled pooled = pooledInstance(value);
+            if (pooled != null) {
+                pooled.references.decrement();
+            }
+        });
+    }
+
+    /**
+     * The bytes the title's references to pooled strings would take as copies of their own.
+     */
+    public long savedBytes(PooledStrings title) {
+        long[] saved = new long[1];
+        title.forEachPooledString(value -> {
+            if (pooledInstance(value) != null) {
+                saved[0] += retainedSize(value);
+            }
+        });
+        return saved[0];
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Bytes that every live reference having its own copy would take beyond the
+     * one pooled copy: the sum over pooled strings of (live references - 1) x size.
+     */
+    public long savedBytes() {
+        long saved = 0;
+        for (Pooled pooled : pool.values()) {
+            saved += Math.max(0, pooled.references.sum() - 1) * retainedSize(pooled.value);
+        }
+        return saved;
+    }
+
+    /**
+     * The pool's entry when {@code value} is the pooled instance itself; strings that
+     * were never pooled, or are equal copies, aren't shared and save nothing.
+     */
+    private Pooled pooledInstance(String value) {
+        if (value == null) {
+            return null;
+        }
+        Pooled pooled = pool.get(value);
+        return pooled != null && pooled.value == value ? pooled : null;
+    }
+
+    /**
+     * Approximate retained size of a string on a 64-bit JVM with compressed
+     * oops and compact strings: the String header plus its backing byte array.
+     */
+    static long retainedSize(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        long payload = latin1 ? value.length() : value.length() * 2L;
+        return 24 + align(16 + payload);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static final class Pooled {
+
+        private final String value;
+        private final LongAdder references = new LongAdder();
+
+        private Pooled(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -159,4 +159,27 @@ public class TvShow {
     public void setTrailerUrl(String trailerUrl) {
         this.trailerUrl = trailerUrl;
     }
+
+    /**
+     * A copy of this show that can be changed without changing this one
+     */
+    public TvShow copy() {
+        TvShow copy = new TvShow();
+        copy.id = id;
+        copy.name = name;
+        copy.overview = overview;
+        copy.posterPath = posterPath;
+        copy.backdropPath = backdropPath;
+        copy.firstAirDate = firstAirDate;
+        copy.voteAverage = voteAverage;
+        copy.voteCount = voteCount;
+        copy.genreIds = genreIds;
+        copy.originCountry = originCountry;
+        copy.originalLanguage = originalLanguage;
+        copy.originalName = originalName;
+        copy.popularity = popularity;
+        copy.trailerUrl = trailerUrl;
+        copy.contentType = contentType;
+        return copy;
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.catalog_service.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks the replica that owns a key by rendezvous (highest random weight)
+ * hashing with bounded loads.
+ *
+ * Every replica ranks the replicas for a key the same way, by a hash of the
+ * key and the replica's address, and the first in that ranking owns the key.
+ * Adding or removing a replica only moves the keys it gains or loses. To keep
+ * a hot key from overloading its owner, a replica already holding more than
+ * {@code loadFactor} times its fair share of the requests in flight is passed
+ * over for the next one in the ranking. Loads are as seen from this replica:
+ * the requests it serves itself and those it has forwarded and not yet had
+ * answered. Replicas marked down are skipped until their time is up.
+ */
+public class RendezvousRouter {
+
+    private final Node[] nodes;
+    private final double loadFactor;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param replicas replica addresses, the same on every replica
+     * @param loadFactor how far past an even share of the load a replica may go, at least 1
+     * @param clock nanoTime, for marking replicas down
+     */
+    public RendezvousRouter(List<String> replicas, double loadFactor, LongSupplier clock) {
+        this.nodes = replicas.stream().distinct().map(Node::new).toArray(Node[]::new);
+        this.loadFactor = Math.max(1.0, loadFactor);
+        this.clock = clock;
+    }
+
+    /**
+     * The replica for a key: its owner unless that one is down or over its share of the load.
+     * The caller must {@link #release} it once the request is done.
+     */
+    public String acquire(String key) {
+        long keyHash = hash(key);
+        Node[] ranked = nodes.clone();
+        Arrays.sort(ranked, Comparator.comparingLong((Node node) -> mix(keyHash ^ node.hash)).reversed());
+        long now = clock.getAsLong();
+        int live = 0;
+        for (Node node : ranked) {
+            live += node.isUp(now) ? 1 : 0;
+        }
+        // a replica may take its share of the load including this request, rounded up
+        int capacity = (int) Math.ceil(loadFactor * (inFlight.get() + 1) / Math.max(live, 1));
+        Node chosen = ranked[0];
+        for (Node node : ranked) {
+            if (node.isUp(now) && node.inFlight.get() < capacity) {
+                chosen = node;
+                break;
+            }
+        }
+        chosen.inFlight.incrementAndGet();
+        inFlight.incrementAndGet();
+        return chosen.address;
+    }
+
+    /**
+     * Count a request a replica serves without having been chosen here, such as one forwarded to this
+     * replica by another; {@link #release} it the same way.
+     */
+    public void hold(String replica) {
+        Node node = node(replica);
+        if (node != null) {
+            node.inFlight.incrementAndGet();
+            inFlight.incrementAndGet();
+        }
+    }
+
+    public void release(String replica) {
+        Node node = node(replica);
+        if (node != null) {
+            node.inFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * The replica that owns a key when every replica is up and none is loaded.
+     */
+    public String owner(String key) {
+        long keyHash = hash(key);
+        Node best = null;
+        long bestScore = 0;
+        for (Node node : nodes) {
+            long score = mix(keyHash ^ node.hash);
+            if (best == null || score > bestScore) {
+                best = node;
+                bestScore = score;
+            }
+        }
+        return best == null ? null : best.address;
+    }
+
+    /**
+     * Leave a replica out of the ranking for a while, after a call to it failed.
+     */
+    public void markDown(String replica, long forNanos) {
+        Node node = node(replica);
+        if (node != null) {
+            node.downUntil.set(clock.getAsLong() + forNanos);
+            node.down = true;
+        }
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    private Node node(String replica) {
+        for (Node node : nodes) {
+            if (node.address.equals(replica)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 64-bit FNV-1a, the same on every JVM (unlike {@code String.hashCode} spread over a long).
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, so scores for nearby hashes are unrelated.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Node {
+        private final String address;
+        private final long hash;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong downUntil = new AtomicLong();
+        private volatile boolean down;
+
+        Node(String address) {
+            this.address = address;
+            this.hash = hash(address);
+        }
+
+        boolean isUp(long now) {
+            if (down && downUntil.get() - now <= 0) {
+                down = false;
+            }
+            return !down;
+        }
+    }
+}
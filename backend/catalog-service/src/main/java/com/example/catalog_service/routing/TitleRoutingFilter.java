@@ -0,0 +1,203 @@
+package com.example.catalog_service.routing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.catalog_service.config.TmdbFanOutFilter;
+import com.example.catalog_service.config.TmdbProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends each movie and TV show detail request to the replica that owns the
+ * title, so a title is fetched from TMDB and cached by one replica instead of
+ * by every replica nginx happens to pick. Turned on with
+ * {@code catalog.routing.enabled}; every replica needs the same
+ * {@code catalog.routing.replicas}.
+ *
+ * Owners are chosen by {@link RendezvousRouter}. A request this replica owns
+ * is served here; any other is forwarded to its owner, marked with
+ * {@code X-Catalog-Routed} so the owner serves it rather than forwarding it
+ * again, and the owner's response is copied back. When the owner can't be
+ * reached the request is served here and the owner is skipped for
+ * {@code retry-after}; when it is reached but doesn't answer in time the
+ * caller gets 504, since serving it here too would only double the wait.
+ *
+ * Requests are counted as {@code catalog.routing.requests} tagged with
+ * outcome (local, forwarded, fallback, timeout).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "catalog.routing", name = "enabled", havingValue = "true")
+public class TitleRoutingFilter extends OncePerRequestFilter {
+
+    public static final String ROUTED_HEADER = "X-Catalog-Routed";
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleRoutingFilter.class);
+
+    private static final Pattern TITLE_PATH = Pattern.compile("/api/catalog/(movies|tvshows|tvshows/anime)/(\\d+)");
+    private static final List<String> FORWARDED_HEADERS =
+        List.of("Accept", "Authorization", TmdbFanOutFilter.TIMEOUT_HEADER);
+    private static final Set<String> HOP_BY_HOP_HEADERS =
+        Set.of("connection", "content-length", "keep-alive", "transfer-encoding", "upgrade");
+
+    private final TitleRoutingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RendezvousRouter router;
+    private final HttpClient httpClient;
+    private final Duration forwardTimeout;
+    private final String self;
+
+    public TitleRoutingFilter(TitleRoutingProperties properties, TmdbProperties tmdbProperties,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.self = trimSlash(properties.getSelf());
+        List<String> replicas = properties.getReplicas().stream().map(TitleRoutingFilter::trimSlash).toList();
+        if (!replicas.contains(self)) {
+            logger.warn("catalog.routing.self {} is not one of catalog.routing.replicas {}; serving every title here",
+                self, replicas);
+            replicas = List.of(self);
+        }
+        this.router = new RendezvousRouter(replicas, properties.getLoadFactor(), System::nanoTime);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(properties.getConnectTimeout())
+            .build();
+        // the owner gives up at its own deadline; the extra second covers the hop
+        this.forwardTimeout = tmdbProperties.getRequestTimeout().plusSeconds(1);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !TITLE_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String replica;
+        if (request.getHeader(ROUTED_HEADER) != null) {
+            replica = self;
+            router.hold(self);
+        } else {
+            replica = router.acquire(key(request.getRequestURI()));
+        }
+        try {
+            if (replica.equals(self)) {
+                count("local");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (forward(replica, request, response)) {
+                return;
+            }
+        } finally {
+            router.release(replica);
+        }
+        count("fallback");
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Send the request to its owner and copy the answer into {@code response}.
+     *
+     * @return false when the owner couldn't be reached and nothing was written
+     */
+    private boolean forward(String replica, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String query = request.getQueryString();
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(
+                URI.create(replica + request.getRequestURI() + (query == null ? "" : "?" + query)))
+            .timeout(forwardTimeout)
+            .header(ROUTED_HEADER, self)
+            .GET();
+        for (String name : FORWARDED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                forwarded.header(name, value);
+            }
+        }
+        HttpResponse<byte[]> answer;
+        try {
+            answer = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpConnectTimeoutException e) {
+            return unreachable(replica, e);
+        } catch (HttpTimeoutException e) {
+            count("timeout");
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Owner replica did not answer in time");
+            return true;
+        } catch (IOException e) {
+            return unreachable(replica, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return true;
+        }
+        count("forwarded");
+        response.setStatus(answer.statusCode());
+        answer.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.setContentLength(answer.body().length);
+        response.getOutputStream().write(answer.body());
+        return true;
+    }
+
+    private boolean unreachable(String replica, IOException e) {
+        router.markDown(replica, properties.getRetryAfter().toNanos());
+        logger.warn("Catalog replica {} unreachable, serving its titles here for {}: {}", replica,
+            properties.getRetryAfter(), e.toString());
+        return false;
+    }
+
+    RendezvousRouter router() {
+        return router;
+    }
+
+    /**
+     * Movies and TV shows have separate ids, and the anime route reads the same TV details.
+     */
+    static String key(String path) {
+        Matcher matcher = TITLE_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return path;
+        }
+        return (matcher.group(1).equals("movies") ? "movie:" : "tv:") + matcher.group(2);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("catalog.routing.requests", "outcome", outcome).increment();
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
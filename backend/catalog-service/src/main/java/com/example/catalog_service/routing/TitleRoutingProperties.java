@@ -0,0 +1,76 @@
+package com.example.catalog_service.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "catalog.routing")
+public class TitleRoutingProperties {
+    private boolean enabled = false;
+
+    // This replica's base URL as the other replicas reach it; must be one of the replicas
+    private String self = "";
+
+    // Base URLs of every catalog replica, this one included, the same list on each
+    private List<String> replicas = new ArrayList<>();
+
+    // A replica takes at most this multiple of an even share of the requests in flight
+    private double loadFactor = 1.25;
+
+    private Duration connectTimeout = Duration.ofMillis(500);
+
+    // After a forward fails to connect, that replica is skipped this long
+    private Duration retryAfter = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public void setSelf(String self) {
+        this.self = self;
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<String> replicas) {
+        this.replicas = replicas;
+    }
+
+    public double getLoadFactor() {
+        return loadFactor;
+    }
+
+    public void setLoadFactor(double loadFactor) {
+        this.loadFactor = loadFactor;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
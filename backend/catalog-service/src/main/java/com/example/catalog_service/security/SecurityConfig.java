@@ -36,7 +36,8 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers(
                     "/api/catalog/**",
-                    "/actuator/health"
+                    "/actuator/health",
+                    "/actuator/prometheus"
                 ).permitAll()
                 
                 
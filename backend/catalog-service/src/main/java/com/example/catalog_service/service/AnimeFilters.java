@@ -0,0 +1,61 @@
+package com.example.catalog_service.service;
+
+import java.util.List;
+
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.TvShow;
+
+/**
+ * Predicates used to tell anime apart from other TV shows in TMDB results.
+ * TMDB has no anime type, so these combine the animation genre with Japanese
+ * origin country and/or original language.
+ */
+public final class AnimeFilters {
+
+    public static final int ANIMATION_GENRE_ID = 16;
+
+    private AnimeFilters() {
+    }
+
+    /**
+     * Used by TV search to drop anime: animated AND produced in Japan.
+     */
+    public static boolean isJapaneseAnimation(TvShow tvShow) {
+        List<Integer> genres = tvShow.getGenreIds();
+        List<String> origin = tvShow.getOriginCountry();
+        return (genres != null && genres.contains(ANIMATION_GENRE_ID)) &&
+               (origin != null && origin.contains("JP"));
+    }
+
+    /**
+     * Used by anime search: animated AND (produced in Japan OR originally in Japanese).
+     */
+    public static boolean isAnimeSearchMatch(TvShow tvShow) {
+        List<Integer> genres = tvShow.getGenreIds();
+        List<String> origin = tvShow.getOriginCountry();
+        String lang = tvShow.getOriginalLanguage();
+
+        boolean isAnimated = genres != null && genres.contains(ANIMATION_GENRE_ID);
+        boolean isJapaneseOrigin = (origin != null && origin.contains("JP")) || "ja".equalsIgnoreCase(lang);
+
+        return isAnimated && isJapaneseOrigin;
+    }
+
+    /**
+     * Used by trending anime: originally in Japanese AND animated.
+     */
+    public static boolean isTrendingAnime(TvShow tvShow) {
+        return "ja".equals(tvShow.getOriginalLanguage()) &&
+               (tvShow.getGenreIds() != null && tvShow.getGenreIds().contains(ANIMATION_GENRE_ID));
+    }
+
+    /**
+     * Used by the anime detail page: originally in Japanese AND tagged with the animation genre.
+     */
+    public static boolean isAnime(DetailedTvShow show) {
+        boolean isJapanese = "ja".equals(show.getOriginalLanguage());
+        boolean isAnimation = show.getGenres() != null &&
+                             show.getGenres().stream().anyMatch(genre -> genre.getId() == ANIMATION_GENRE_ID);
+        return isJapanese && isAnimation;
+    }
+}
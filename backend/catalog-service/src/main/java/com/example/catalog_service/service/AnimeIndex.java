@@ -0,0 +1,333 @@
+package com.example.catalog_service.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.catalog_service.config.AnimeIndexProperties;
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.model.TvShowResponse;
+import com.example.catalog_service.similar.SimilarTitles;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory index of the popular anime on TMDB, so the anime feeds and anime
+ * search are answered without walking TMDB's discover and trending pages (most
+ * of whose shows the anime filters throw away) on every request.
+ *
+ * A full build reads {@code catalog.anime.index-pages} pages of Japanese
+ * animation by popularity; every {@code catalog.anime.refresh-interval} after
+ * that only the first {@code refresh-pages} are re-read and merged in, and the
+ * trending list is rebuilt. A full build runs again every
+ * {@code full-rebuild-interval} to drop shows that have fallen out of the top.
+ *
+ * Each build publishes an immutable {@link Snapshot} of arrays sorted
+ * by popularity, so readers never lock and never see a half-built index. Until
+ * the first build completes, or if it keeps failing, the lookups return empty
+ * and callers go to TMDB as before. The number of indexed shows is the
+ * {@code catalog.anime.index.size} gauge; builds are counted as
+ * {@code catalog.anime.index.builds} tagged with type and outcome.
+ */
+@Component
+public class AnimeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnimeIndex.class);
+
+    static final int PAGE_SIZE = 20;
+
+    // Air day of shows TMDB has no date for, and the cut-off when none is configured
+    private static final int UNKNOWN_DAY = Integer.MIN_VALUE;
+
+    private final TmdbClient tmdbClient;
+    private final TmdbProperties tmdbProperties;
+    private final TmdbResponseParser responseParser;
+    private final AnimeIndexProperties properties;
+    private final SimilarTitles similarTitles;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public AnimeIndex(TmdbClient tmdbClient, TmdbProperties tmdbProperties, TmdbResponseParser responseParser,
+            AnimeIndexProperties properties, SimilarTitles similarTitles, MeterRegistry meterRegistry) {
+        this(tmdbClient, tmdbProperties, responseParser, properties, similarTitles, meterRegistry, System::nanoTime);
+    }
+
+    AnimeIndex(TmdbClient tmdbClient, TmdbProperties tmdbProperties, TmdbResponseParser responseParser,
+            AnimeIndexProperties properties, SimilarTitles similarTitles, MeterRegistry meterRegistry,
+            LongSupplier clock) {
+        this.tmdbClient = tmdbClient;
+        this.tmdbProperties = tmdbProperties;
+        this.responseParser = responseParser;
+        this.properties = properties;
+        this.similarTitles = similarTitles;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        Gauge.builder("catalog.anime.index.size", this, index -> {
+                Snapshot current = index.snapshot;
+                return current != null ? current.shows.length : 0;
+            })
+            .description("Anime shows held by the in-memory index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rebuild the index: in full when it is missing or due, otherwise by merging in the most popular pages.
+     * Failures are logged and the previous snapshot keeps being served.
+     */
+    @Scheduled(fixedDelayString = "${catalog.anime.refresh-interval:15m}")
+    public void refresh() {
+        if (!properties.isIndexEnabled()) {
+            return;
+        }
+        Snapshot current = snapshot;
+        boolean full = current == null
+            || clock.getAsLong() - current.builtAt >= properties.getFullRebuildInterval().toNanos();
+        String type = full ? "full" : "incremental";
+        try {
+            Map<Long, TvShow> shows = new LinkedHashMap<>();
+            if (!full) {
+                for (TvShow show : current.shows) {
+                    shows.put(show.getId(), show);
+                }
+            }
+            for (TvShow show : readPopular(full ? properties.getIndexPages() : properties.getRefreshPages())) {
+                shows.put(show.getId(), show);
+            }
+            List<TvShow> trending = readTrending(shows);
+            snapshot = Snapshot.build(shows.values(), trending, firstAirDayFrom(), clock.getAsLong());
+            meterRegistry.counter("catalog.anime.index.builds", "type", type, "outcome", "success").increment();
+            logger.info("Built {} anime index: {} shows, {} trending", type, shows.size(), trending.size());
+        } catch (RuntimeException e) {
+            meterRegistry.counter("catalog.anime.index.builds", "type", type, "outcome", "failure").increment();
+            logger.warn("Error building {} anime index, keeping the previous one: {}", type, e.getMessage());
+        }
+    }
+
+    /**
+     * One page of the most popular anime first aired on or after {@code catalog.anime.first-air-date-from}
+     *
+     * @return empty until the index is built
+     */
+    public Optional<List<TvShow>> popular(int page) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.page(current.recent, page));
+    }
+
+    /**
+     * One page of this week's trending anime, in TMDB's trending order
+     *
+     * @return empty until the index is built
+     */
+    public Optional<List<TvShow>> trending(int page) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(slice(current.trending, page));
+    }
+
+    /**
+     * One page of indexed anime with a word starting with each word of {@code query} in their name or
+     * original name, most popular first
+     *
+     * @return empty until the index is built, or when no indexed show matches (TMDB may still know one)
+     */
+    public Optional<List<TvShow>> search(String query, int page) {
+        Snapshot current = snapshot;
+        if (current == null || query == null || query.isBlank()) {
+            return Optional.empty();
+        }
+        int[] matches = current.search(normalize(query).split("\\s+"));
+        return matches.length == 0 ? Optional.empty() : Optional.of(current.page(matches, page));
+    }
+
+    private List<TvShow> readPopular(int pages) {
+        List<TvShow> shows = new ArrayList<>();
+        for (int page = 1; page <= pages; page++) {
+            String url = UriComponentsBuilder
+                .fromUriString(tmdbProperties.getBaseUrl() + "/discover/tv")
+                .queryParam("api_key", tmdbProperties.getApiKey())
+                .queryParam("with_original_language", "ja")
+                .queryParam("with_genres", AnimeFilters.ANIMATION_GENRE_ID)
+                .queryParam("sort_by", "popularity.desc")
+                .queryParam("vote_count.gte", properties.getMinVoteCount())
+                .queryParam("page", page)
+                .build()
+                .toUriString();
+            TvShowResponse response = fetch("discover", url);
+            if (response == null || response.getResults() == null) {
+                break;
+            }
+            shows.addAll(response.getResults());
+            similarTitles.indexTvShows(response.getResults());
+            if (page >= response.getTotal_pages()) {
+                break;
+            }
+        }
+        return shows;
+    }
+
+    /**
+     * The anime among this week's trending TV shows, reusing indexed copies where there are some
+     */
+    private List<TvShow> readTrending(Map<Long, TvShow> indexed) {
+        List<TvShow> trending = new ArrayList<>();
+        for (int page = 1; page <= properties.getTrendingPages(); page++) {
+            String url = UriComponentsBuilder
+                .fromUriString(tmdbProperties.getBaseUrl() + "/trending/tv/week")
+                .queryParam("api_key", tmdbProperties.getApiKey())
+                .queryParam("page", page)
+                .build()
+                .toUriString();
+            TvShowResponse response = fetch("trending", url);
+            if (response == null || response.getResults() == null) {
+                break;
+            }
+            for (TvShow show : response.getResults()) {
+                if (AnimeFilters.isTrendingAnime(show)) {
+                    trending.add(indexed.getOrDefault(show.getId(), show));
+                }
+            }
+            if (page >= response.getTotal_pages()) {
+                break;
+            }
+        }
+        return trending;
+    }
+
+    private TvShowResponse fetch(String endpoint, String url) {
+        return tmdbClient.get(endpoint, url, response -> responseParser.parseTvShowPage(response.getBody()));
+    }
+
+    private int firstAirDayFrom() {
+        String from = properties.getFirstAirDateFrom();
+        return from == null || from.isBlank() ? UNKNOWN_DAY : (int) LocalDate.parse(from).toEpochDay();
+    }
+
+    private static List<TvShow> slice(TvShow[] shows, int page) {
+        int from = (Math.max(page, 1) - 1) * PAGE_SIZE;
+        if (from >= shows.length) {
+            return List.of();
+        }
+        return List.of(Arrays.copyOfRange(shows, from, Math.min(from + PAGE_SIZE, shows.length)));
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int airDay(String firstAirDate) {
+        if (firstAirDate == null || firstAirDate.isEmpty()) {
+            return UNKNOWN_DAY;
+        }
+        try {
+            return (int) LocalDate.parse(firstAirDate).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return UNKNOWN_DAY;
+        }
+    }
+
+    /**
+     * One build of the index. Shows are sorted by popularity, most popular first,
+     * and {@code names[i]} is the search key of {@code shows[i]}.
+     */
+    private static final class Snapshot {
+        private final TvShow[] shows;
+        // lowercased "name original_name", for search
+        private final String[] names;
+        // positions of the shows first aired on or after the configured date
+        private final int[] recent;
+        private final TvShow[] trending;
+        private final long builtAt;
+
+        private Snapshot(TvShow[] shows, String[] names, int[] recent, TvShow[] trending, long builtAt) {
+            this.shows = shows;
+            this.names = names;
+            this.recent = recent;
+            this.trending = trending;
+            this.builtAt = builtAt;
+        }
+
+        static Snapshot build(Iterable<TvShow> indexed, List<TvShow> trending, int recentFrom, long builtAt) {
+            List<TvShow> sorted = new ArrayList<>();
+            indexed.forEach(sorted::add);
+            sorted.sort(Comparator.comparingDouble(Snapshot::popularityOf).reversed());
+
+            int size = sorted.size();
+            TvShow[] shows = sorted.toArray(new TvShow[0]);
+            String[] names = new String[size];
+            int[] recent = new int[size];
+            int recentCount = 0;
+            for (int i = 0; i < size; i++) {
+                TvShow show = shows[i];
+                names[i] = normalize(nullToEmpty(show.getName()) + " " + nullToEmpty(show.getOriginalName()));
+                if (recentFrom == UNKNOWN_DAY || airDay(show.getFirstAirDate()) >= recentFrom) {
+                    recent[recentCount++] = i;
+                }
+            }
+            return new Snapshot(shows, names, Arrays.copyOf(recent, recentCount),
+                trending.toArray(new TvShow[0]), builtAt);
+        }
+
+        /**
+         * Positions of the shows whose names have a word starting with each token
+         */
+        int[] search(String[] tokens) {
+            int[] matches = new int[names.length];
+            int count = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (containsAll(names[i], tokens)) {
+                    matches[count++] = i;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        List<TvShow> page(int[] positions, int page) {
+            int from = (Math.max(page, 1) - 1) * PAGE_SIZE;
+            if (from >= positions.length) {
+                return List.of();
+            }
+            int to = Math.min(from + PAGE_SIZE, positions.length);
+            List<TvShow> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(shows[positions[i]]);
+            }
+            return result;
+        }
+
+        private static boolean containsAll(String name, String[] tokens) {
+            for (String token : tokens) {
+                if (!name.startsWith(token) && !name.contains(" " + token)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static double popularityOf(TvShow show) {
+            return show.getPopularity() != null ? show.getPopularity() : 0.0;
+        }
+
+        private static String nullToEmpty(String text) {
+            return text != null ? text : "";
+        }
+    }
+}
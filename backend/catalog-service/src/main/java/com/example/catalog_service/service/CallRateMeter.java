@@ -0,0 +1,45 @@
+package com.example.catalog_service.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Calls per second over the last second, counted in ten 100ms buckets. A bucket
+ * is reset when the clock comes round to it again; concurrent calls racing that
+ * reset may be lost, which is fine for a rate used to back off optional work.
+ */
+class CallRateMeter {
+
+    private static final int BUCKETS = 10;
+    private static final long BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LongSupplier clock;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+
+    CallRateMeter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    void record() {
+        long epoch = clock.getAsLong() / BUCKET_NANOS;
+        int bucket = (int) Math.floorMod(epoch, (long) BUCKETS);
+        long previous = epochs.get(bucket);
+        if (previous != epoch && epochs.compareAndSet(bucket, previous, epoch)) {
+            counts.set(bucket, 0);
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    long perSecond() {
+        long epoch = clock.getAsLong() / BUCKET_NANOS;
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (epoch - epochs.get(bucket) < BUCKETS) {
+                total += counts.get(bucket);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.catalog_service.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent successful call latencies per TMDB endpoint, kept in a fixed ring
+ * of samples. The percentile is recomputed from the ring every
+ * {@value #RECOMPUTE_EVERY} samples, so reading it is just a volatile load.
+ */
+class EndpointLatencyTracker {
+
+    static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    EndpointLatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(String endpoint, long latencyNanos) {
+        windows.computeIfAbsent(endpoint, key -> new Window()).record(latencyNanos);
+    }
+
+    /**
+     * The tracked percentile of recent latencies, or -1 with fewer than {@code minSamples} samples.
+     */
+    long percentileNanos(String endpoint, int minSamples) {
+        Window window = windows.get(endpoint);
+        if (window == null || window.count.get() < minSamples) {
+            return -1;
+        }
+        return window.percentileNanos;
+    }
+
+    private final class Window {
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+        private final AtomicLong count = new AtomicLong();
+        private volatile long percentileNanos;
+
+        void record(long latencyNanos) {
+            long n = count.getAndIncrement();
+            samples.set((int) (n % WINDOW), latencyNanos);
+            // recompute early on so a fresh endpoint gets an estimate quickly
+            if (n < RECOMPUTE_EVERY || n % RECOMPUTE_EVERY == 0) {
+                recompute(Math.min(n + 1, WINDOW));
+            }
+        }
+
+        private void recompute(long size) {
+            long[] sorted = new long[(int) size];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.catalog_service.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.example.catalog_service.cache.CacheRegion;
+
+/**
+ * The lists served by {@code GET /api/catalog/feed/{feed}}.
+ */
+public enum Feed {
+    POPULAR_MOVIES("popular-movies", CacheRegion.POPULAR_MOVIES, 20),
+    POPULAR_TV("popular-tv", CacheRegion.POPULAR_TV, 20),
+    TRENDING_TV("trending-tv", CacheRegion.TRENDING_TV, 20),
+    ANIME("anime", CacheRegion.ANIME, 20),
+    // trending/tv/week keeps only the Japanese animation, often two or three shows a page
+    TRENDING_ANIME("trending-anime", CacheRegion.TRENDING_ANIME, 3),
+    MOVIE_SEARCH("movie-search", null, 20),
+    TV_SEARCH("tv-search", null, 18),
+    ANIME_SEARCH("anime-search", null, 5);
+
+    private final String path;
+    private final CacheRegion region;
+    private final int expectedItemsPerPage;
+
+    Feed(String path, CacheRegion region, int expectedItemsPerPage) {
+        this.path = path;
+        this.region = region;
+        this.expectedItemsPerPage = expectedItemsPerPage;
+    }
+
+    public static Optional<Feed> fromPath(String path) {
+        return Arrays.stream(values()).filter(feed -> feed.path.equals(path)).findFirst();
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * The cached home feed behind this feed, or null for searches.
+     */
+    CacheRegion region() {
+        return region;
+    }
+
+    boolean isSearch() {
+        return region == null;
+    }
+
+    /**
+     * A first guess at how many items one TMDB page yields after filtering, before any were measured.
+     */
+    int expectedItemsPerPage() {
+        return expectedItemsPerPage;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.catalog_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Where a feed continues: the next TMDB page to read and how many of its
+ * (filtered) items were already returned. Clients get it as an opaque
+ * base64url token and send it back unchanged.
+ */
+public record FeedCursor(Feed feed, int page, int offset) {
+
+    public static FeedCursor start(Feed feed) {
+        return new FeedCursor(feed, 1, 0);
+    }
+
+    public String encode() {
+        String state = feed.path() + ":" + page + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(state.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token is malformed or belongs to another feed
+     */
+    public static FeedCursor decode(String token, Feed feed) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(feed.path())) {
+            throw new IllegalArgumentException("Invalid cursor for feed " + feed.path());
+        }
+        try {
+            FeedCursor cursor = new FeedCursor(feed, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            if (cursor.page < 1 || cursor.offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor for feed " + feed.path());
+            }
+            return cursor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor for feed " + feed.path());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.catalog_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.dto.FeedPage;
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.MovieResponse;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.model.TvShowResponse;
+
+/**
+ * Assembles screens of a {@link Feed} from as many TMDB pages as it takes to
+ * fill them, so a client asking for 50 trending anime gets 50 even though each
+ * TMDB page only yields a few. Pages are read in parallel, in batches sized by
+ * how many items the feed's pages have been yielding, and where to continue is
+ * returned as a {@link FeedCursor}.
+ */
+@Service
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    static final int MAX_LIMIT = 100;
+
+    // TMDB pages one request may read, however few items they yield
+    static final int MAX_PAGES_PER_REQUEST = 10;
+
+    // TMDB rejects list requests past page 500
+    private static final int LAST_TMDB_PAGE = 500;
+
+    @Autowired
+    private TmdbService tmdbService;
+
+    @Autowired
+    private TmdbProperties tmdbProperties;
+
+    // Page reads block on TMDB (or on a cache load), so each gets a virtual thread
+    private final ExecutorService pageReader = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Recent items per TMDB page after filtering, per feed
+    private final Map<Feed, Double> itemsPerPage = new ConcurrentHashMap<>();
+
+    /**
+     * Up to {@code limit} items of {@code feed}, starting where {@code cursorToken} left off.
+     *
+     * @param query search terms, required for search feeds and ignored otherwise
+     * @param cursorToken a previous page's {@link FeedPage#nextCursor()}, or null to start
+     * @throws IllegalArgumentException for a missing query or a cursor that doesn't belong to this feed
+     */
+    public FeedPage getFeed(Feed feed, String query, int limit, String cursorToken) {
+        if (feed.isSearch() && (query == null || query.isBlank())) {
+            throw new IllegalArgumentException("Feed " + feed.path() + " needs a query");
+        }
+        int wanted = Math.max(1, Math.min(limit, MAX_LIMIT));
+        FeedCursor cursor = cursorToken == null || cursorToken.isEmpty()
+            ? FeedCursor.start(feed)
+            : FeedCursor.decode(cursorToken, feed);
+
+        List<Object> items = new ArrayList<>();
+        int page = cursor.page();
+        int offset = cursor.offset();
+        int pagesRead = 0;
+        // searches say how many pages they have; read one before fanning out
+        int lastPage = feed.isSearch() ? page : LAST_TMDB_PAGE;
+        while (items.size() < wanted && pagesRead < MAX_PAGES_PER_REQUEST) {
+            int batch = Math.min(pagesToRequest(feed, wanted - items.size()), MAX_PAGES_PER_REQUEST - pagesRead);
+            batch = Math.max(1, Math.min(batch, lastPage - page + 1));
+            for (Chunk chunk : read(feed, query, page, batch)) {
+                if (chunk == null) {
+                    // failed or out of time: return what we have and retry this page on the next request
+                    return finish(feed, query, items, new FeedCursor(feed, page, offset));
+                }
+                pagesRead++;
+                lastPage = chunk.lastPage();
+                recordYield(feed, chunk.items().size());
+                List<?> unseen = chunk.items().subList(Math.min(offset, chunk.items().size()), chunk.items().size());
+                int take = Math.min(wanted - items.size(), unseen.size());
+                items.addAll(unseen.subList(0, take));
+                if (take < unseen.size()) {
+                    return finish(feed, query, items, new FeedCursor(feed, page, offset + take));
+                }
+                if (page >= lastPage) {
+                    return finish(feed, query, items, null);
+                }
+                page++;
+                offset = 0;
+            }
+        }
+        return finish(feed, query, items, new FeedCursor(feed, page, offset));
+    }
+
+    /**
+     * Search results come without trailers; look them up only for the items actually returned
+     */
+    @SuppressWarnings("unchecked")
+    private FeedPage finish(Feed feed, String query, List<Object> items, FeedCursor next) {
+        String description = feed.path() + " '" + query + "'";
+        switch (feed) {
+            case MOVIE_SEARCH -> tmdbService.addMovieTrailers((List<Movie>) (List<?>) items, description);
+            case TV_SEARCH, ANIME_SEARCH -> tmdbService.addTvTrailers((List<TvShow>) (List<?>) items, description);
+            default -> {
+                // home feed pages are cached with their trailers
+            }
+        }
+        return new FeedPage(items, next != null ? next.encode() : null);
+    }
+
+    /**
+     * How many pages should yield {@code missing} more items, judging by recent pages
+     */
+    private int pagesToRequest(Feed feed, int missing) {
+        double perPage = itemsPerPage.getOrDefault(feed, (double) feed.expectedItemsPerPage());
+        return (int) Math.ceil(missing / Math.max(1.0, perPage));
+    }
+
+    private void recordYield(Feed feed, int items) {
+        itemsPerPage.merge(feed, (double) items, (average, latest) -> 0.8 * average + 0.2 * latest);
+    }
+
+    /**
+     * Read {@code count} pages from {@code firstPage} in parallel within the request deadline.
+     *
+     * @return one chunk per page, in order; null where the read failed or ran out of time
+     */
+    private Chunk[] read(Feed feed, String query, int firstPage, int count) {
+        Chunk[] chunks = new Chunk[count];
+        List<Callable<Void>> reads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            reads.add(TmdbRequestContext.wrap(() -> {
+                try {
+                    chunks[index] = readPage(feed, query, firstPage + index);
+                } catch (RuntimeException e) {
+                    logger.warn("Error reading page {} of feed {}: {}", firstPage + index, feed.path(), e.getMessage());
+                }
+                return null;
+            }));
+        }
+        TmdbRequestContext context = TmdbRequestContext.current();
+        long remainingNanos = context != null ? context.remainingNanos() : tmdbProperties.getRequestTimeout().toNanos();
+        try {
+            pageReader.invokeAll(reads, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return chunks;
+    }
+
+    private Chunk readPage(Feed feed, String query, int page) {
+        return switch (feed) {
+            case MOVIE_SEARCH -> {
+                MovieResponse response = tmdbService.searchMoviePage(query, page);
+                yield response == null || response.getResults() == null
+                    ? new Chunk(List.of(), page)
+                    : new Chunk(response.getResults(), lastPage(response.getTotal_pages()));
+            }
+            case TV_SEARCH -> tvChunk(tmdbService.searchTvShowPage(query, page), page,
+                tvShow -> !AnimeFilters.isJapaneseAnimation(tvShow));
+            case ANIME_SEARCH -> tvChunk(tmdbService.searchTvShowPage(query, page), page, AnimeFilters::isAnimeSearchMatch);
+            default -> {
+                List<?> items = tmdbService.feedPage(feed.region(), page);
+                // trending anime is filtered here, so an empty page is not the end of it
+                yield new Chunk(items, items.isEmpty() && feed != Feed.TRENDING_ANIME ? page : LAST_TMDB_PAGE);
+            }
+        };
+    }
+
+    private static Chunk tvChunk(TvShowResponse response, int page, Predicate<TvShow> filter) {
+        if (response == null || response.getResults() == null) {
+            return new Chunk(List.of(), page);
+        }
+        List<TvShow> matches = response.getResults().stream().filter(filter).toList();
+        return new Chunk(matches, lastPage(response.getTotal_pages()));
+    }
+
+    private static int lastPage(int totalPages) {
+        return Math.max(1, Math.min(totalPages, LAST_TMDB_PAGE));
+    }
+
+    /**
+     * The items one TMDB page contributes to a feed, after filtering
+     *
+     * @param lastPage the last page of the feed, as far as this page tells
+     */
+    private record Chunk(List<?> items, int lastPage) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.catalog_service.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps hedged calls at a fraction of primary calls. Every
+ * primary call deposits {@code ratio} of a token and every hedge spends a whole
+ * one, so over time hedges stay within {@code ratio} of the traffic. The cap
+ * on saved tokens limits how large a burst of hedges a quiet period can buy.
+ */
+class HedgeBudget {
+
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens = new AtomicLong();
+
+    HedgeBudget(double ratio, int maxBurst) {
+        this.deposit = Math.round(ratio * UNIT);
+        this.capacity = maxBurst * UNIT;
+    }
+
+    void onPrimaryCall() {
+        tokens.accumulateAndGet(deposit, (current, add) -> Math.min(capacity, current + add));
+    }
+
+    boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - UNIT));
+        return true;
+    }
+}
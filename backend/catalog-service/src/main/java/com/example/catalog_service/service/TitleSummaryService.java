@@ -0,0 +1,92 @@
+package com.example.catalog_service.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.dto.TitleSummaries;
+import com.example.catalog_service.dto.TitleSummary;
+
+/**
+ * Summaries of many titles in one call, for services that show a list of
+ * titles (watchlist-service's full watchlist) instead of having the browser
+ * ask for each title's details. Titles are loaded in parallel through the
+ * same caches as the detail endpoints, so a summary usually costs a cache
+ * read and a title loaded here is cached for its detail page too.
+ */
+@Service
+public class TitleSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSummaryService.class);
+
+    // Ids of each kind one call may ask for
+    public static final int MAX_IDS = 200;
+
+    @Autowired
+    private TmdbService tmdbService;
+
+    @Autowired
+    private TmdbProperties tmdbProperties;
+
+    // Loads block on TMDB (or on a cache load), so each gets a virtual thread
+    private final ExecutorService summaryReader = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Summaries of the given movies and TV shows, as many as are loaded by the request deadline.
+     *
+     * @throws IllegalArgumentException when more than {@link #MAX_IDS} ids of a kind are asked for
+     */
+    public TitleSummaries getSummaries(Collection<Long> movieIds, Collection<Long> tvShowIds) {
+        if (movieIds.size() > MAX_IDS || tvShowIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " movies and " + MAX_IDS + " TV shows at once");
+        }
+        Map<Long, TitleSummary> movies = new ConcurrentHashMap<>();
+        Map<Long, TitleSummary> tvShows = new ConcurrentHashMap<>();
+        List<Callable<Void>> loads = new ArrayList<>();
+        for (Long id : movieIds.stream().distinct().toList()) {
+            loads.add(load("movie", id, movies,
+                movieId -> tmdbService.getMovieDetails(movieId).map(TitleSummary::of).orElse(null)));
+        }
+        for (Long id : tvShowIds.stream().distinct().toList()) {
+            loads.add(load("TV show", id, tvShows,
+                tvShowId -> tmdbService.getDetailedTvShowInfo(tvShowId).map(TitleSummary::of).orElse(null)));
+        }
+        TmdbRequestContext context = TmdbRequestContext.current();
+        long remainingNanos = context != null ? context.remainingNanos() : tmdbProperties.getRequestTimeout().toNanos();
+        try {
+            summaryReader.invokeAll(loads, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // copies, so a load finishing late can't change the maps while they are written out
+        return new TitleSummaries(Map.copyOf(movies), Map.copyOf(tvShows));
+    }
+
+    private static Callable<Void> load(String kind, Long id, Map<Long, TitleSummary> into,
+                                       Function<Long, TitleSummary> loader) {
+        return TmdbRequestContext.wrap(() -> {
+            try {
+                TitleSummary summary = loader.apply(id);
+                if (summary != null) {
+                    into.put(id, summary);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Error summarizing {} {}: {}", kind, id, e.getMessage());
+            }
+            return null;
+        });
+    }
+}
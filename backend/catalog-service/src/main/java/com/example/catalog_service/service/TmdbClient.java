@@ -0,0 +1,273 @@
+package com.example.catalog_service.service;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.exception.DeadlineExceededException;
+import com.example.catalog_service.exception.TmdbNotFoundException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The single way out to TMDB. Every call is timed as {@code tmdb.client.requests}
+ * tagged with a logical endpoint name (popular, discover, trending, search,
+ * details, credits, similar, videos, external_ids) and an outcome, and is
+ * counted against the incoming request's {@link TmdbRequestContext}.
+ *
+ * Outcomes: success, not_found, throttled, client_error, server_error, timeout,
+ * cancelled (the caller gave up at its deadline, or the call lost a hedge race),
+ * io_error, error. Calls that would start after the request's deadline are not
+ * sent at all; they throw {@link DeadlineExceededException} and count as
+ * {@code tmdb.client.deadline.exceeded}. A call started with less of the request's
+ * budget left than {@code tmdb.request-timeout} runs on a virtual thread and is
+ * cancelled when the deadline passes, throwing the same exception. A 404 is rethrown as {@link TmdbNotFoundException}
+ * so callers can tell a missing title from a failed call.
+ *
+ * With {@code tmdb.hedging.enabled}, a call still waiting after its endpoint's
+ * recent p95 gets a duplicate, and the first successful answer wins; the other
+ * is cancelled. Hedges are limited by a {@link HedgeBudget} and counted as
+ * {@code tmdb.hedge.sent} and {@code tmdb.hedge.won}.
+ *
+ * The calls sent in the last second are exposed as {@code tmdb.client.call.rate}
+ * so optional work such as prefetching can back off before TMDB starts answering 429.
+ */
+@Component
+public class TmdbClient {
+
+    private static final int HEDGE_MAX_BURST = 20;
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long requestTimeoutNanos;
+    private final TmdbProperties.Hedging hedging;
+    private final EndpointLatencyTracker latencies;
+    private final HedgeBudget hedgeBudget;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CallRateMeter callRate = new CallRateMeter(System::nanoTime);
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TmdbClient(RestTemplate restTemplate, MeterRegistry meterRegistry, TmdbProperties tmdbProperties) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.requestTimeoutNanos = tmdbProperties.getRequestTimeout().toNanos();
+        this.hedging = tmdbProperties.getHedging();
+        this.latencies = new EndpointLatencyTracker(hedging.getPercentile());
+        this.hedgeBudget = new HedgeBudget(hedging.getBudgetRatio(), HEDGE_MAX_BURST);
+        Gauge.builder("tmdb.client.call.rate", callRate, CallRateMeter::perSecond)
+            .description("TMDB calls made in the last second")
+            .register(meterRegistry);
+    }
+
+    /**
+     * TMDB calls sent in the last second, hedges included; compare with {@code tmdb.rate-limit}.
+     */
+    public long getRecentCallRate() {
+        return callRate.perSecond();
+    }
+
+    /**
+     * GET a TMDB resource and bind it to {@code type}.
+     */
+    public <T> T get(String endpoint, String url, Class<T> type) {
+        return call(endpoint, () -> restTemplate.getForObject(url, type));
+    }
+
+    /**
+     * GET a TMDB resource and read the body with {@code extractor} (e.g. the streaming parser).
+     */
+    public <T> T get(String endpoint, String url, ResponseExtractor<T> extractor) {
+        return call(endpoint, () -> restTemplate.execute(url, HttpMethod.GET, null, extractor));
+    }
+
+    private interface Call<T> {
+        T run();
+    }
+
+    private <T> T call(String endpoint, Call<T> call) {
+        if (!hedging.isEnabled()) {
+            return timed(endpoint, call);
+        }
+        hedgeBudget.onPrimaryCall();
+        long hedgeDelay = latencies.percentileNanos(endpoint, hedging.getMinSamples());
+        if (hedgeDelay < 0) {
+            return timed(endpoint, call);
+        }
+        return hedged(endpoint, call, Math.max(hedgeDelay, hedging.getMinDelay().toNanos()));
+    }
+
+    /**
+     * Run the call on a virtual thread; if it has not answered after {@code hedgeDelayNanos}
+     * and the budget allows, send a duplicate and return the first success.
+     */
+    private <T> T hedged(String endpoint, Call<T> call, long hedgeDelayNanos) {
+        ExecutorCompletionService<T> attempts = new ExecutorCompletionService<>(hedgeExecutor);
+        Future<T> primary = attempts.submit(TmdbRequestContext.wrap(() -> timed(endpoint, call)));
+        Future<T> hedge = null;
+        try {
+            Future<T> first = attempts.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            if (first == null) {
+                if (!hedgeBudget.tryAcquire()) {
+                    return result(primary);
+                }
+                meterRegistry.counter("tmdb.hedge.sent", "endpoint", endpoint).increment();
+                hedge = attempts.submit(TmdbRequestContext.wrap(() -> timed(endpoint, call)));
+                first = attempts.take();
+            }
+            RuntimeException firstFailure;
+            try {
+                return winner(endpoint, first, hedge);
+            } catch (RuntimeException e) {
+                if (hedge == null) {
+                    throw e;
+                }
+                firstFailure = e;
+            }
+            // one attempt failed, the other may still succeed
+            try {
+                return winner(endpoint, attempts.take(), hedge);
+            } catch (RuntimeException e) {
+                throw firstFailure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted waiting for TMDB " + endpoint + " call");
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private <T> T winner(String endpoint, Future<T> attempt, Future<T> hedge) throws InterruptedException {
+        T value = result(attempt);
+        if (attempt == hedge) {
+            meterRegistry.counter("tmdb.hedge.won", "endpoint", endpoint).increment();
+        }
+        return value;
+    }
+
+    private static <T> T result(Future<T> attempt) throws InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (CancellationException e) {
+            throw new ResourceAccessException("TMDB call cancelled");
+        }
+    }
+
+    private <T> T timed(String endpoint, Call<T> call) {
+        TmdbRequestContext context = TmdbRequestContext.current();
+        if (context != null) {
+            if (context.isExpired()) {
+                meterRegistry.counter("tmdb.client.deadline.exceeded", "endpoint", endpoint).increment();
+                throw new DeadlineExceededException("Request deadline passed before TMDB " + endpoint + " call");
+            }
+            context.recordTmdbCall();
+        }
+        callRate.record();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            // the read timeout alone would let a call outlive a deadline nearer than it
+            T result = context != null && context.remainingNanos() < requestTimeoutNanos
+                ? withinDeadline(context, endpoint, call)
+                : call.run();
+            if (hedging.isEnabled()) {
+                latencies.record(endpoint, System.nanoTime() - start);
+            }
+            return result;
+        } catch (HttpClientErrorException.NotFound e) {
+            outcome = "not_found";
+            throw new TmdbNotFoundException("TMDB " + endpoint + " not found", e);
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            timer(endpoint, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Run the call on a virtual thread and wait for it only until the request's
+     * deadline; a call still running then is cancelled, which interrupts its HTTP exchange.
+     */
+    private <T> T withinDeadline(TmdbRequestContext context, String endpoint, Call<T> call) {
+        Future<T> attempt = hedgeExecutor.submit(call::run);
+        try {
+            return attempt.get(Math.max(0, context.remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter("tmdb.client.deadline.exceeded", "endpoint", endpoint).increment();
+            throw new DeadlineExceededException("Request deadline passed during TMDB " + endpoint + " call");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted waiting for TMDB " + endpoint + " call");
+        } finally {
+            attempt.cancel(true);
+        }
+    }
+
+    private Timer timer(String endpoint, String outcome) {
+        return timers.computeIfAbsent(endpoint + ':' + outcome, key -> Timer.builder("tmdb.client.requests")
+            .description("Calls to the TMDB API")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(meterRegistry));
+    }
+
+    static String outcome(RuntimeException e) {
+        if (e instanceof HttpStatusCodeException status) {
+            int code = status.getStatusCode().value();
+            if (code == 404) {
+                return "not_found";
+            }
+            if (code == 429) {
+                return "throttled";
+            }
+            return code >= 500 ? "server_error" : "client_error";
+        }
+        if (e instanceof DeadlineExceededException || Thread.currentThread().isInterrupted()) {
+            return "cancelled";
+        }
+        if (e instanceof ResourceAccessException) {
+            Throwable cause = e.getCause();
+            return cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException ? "timeout" : "io_error";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.catalog_service.service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State for one incoming catalog request, shared by every TMDB call made on
+ * its behalf: the number of calls made so far and the deadline by which the
+ * response must be ready. The filter opens it on the request thread;
+ * {@link #wrap} carries it over to fan-out tasks so parallel sub-calls are
+ * counted and bounded too.
+ */
+public final class TmdbRequestContext {
+
+    private static final ThreadLocal<TmdbRequestContext> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger tmdbCalls = new AtomicInteger();
+    private final AtomicInteger degraded = new AtomicInteger();
+    private final long deadlineNanos;
+
+    private TmdbRequestContext(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Start a context on the current thread whose work must finish within {@code budget}.
+     * Callers must {@link #close()} it when the request ends.
+     */
+    public static TmdbRequestContext open(Duration budget) {
+        TmdbRequestContext context = new TmdbRequestContext(System.nanoTime() + budget.toNanos());
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * The context of the request being served, or null outside of one (e.g. a background task).
+     */
+    public static TmdbRequestContext current() {
+        return CURRENT.get();
+    }
+
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    void recordTmdbCall() {
+        tmdbCalls.incrementAndGet();
+    }
+
+    public int getTmdbCalls() {
+        return tmdbCalls.get();
+    }
+
+    /**
+     * Note that part of a response was left out (a sub-fetch failed or ran out of time),
+     * so whatever is being assembled must not be cached.
+     */
+    public void markDegraded() {
+        degraded.incrementAndGet();
+    }
+
+    public int getDegradedCount() {
+        return degraded.get();
+    }
+
+    /**
+     * Time left before the deadline; zero or negative once it has passed.
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Wrap a task so it runs with the context of the thread that wraps it.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        TmdbRequestContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            TmdbRequestContext previous = CURRENT.get();
+            CURRENT.set(context);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(TmdbRequestContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
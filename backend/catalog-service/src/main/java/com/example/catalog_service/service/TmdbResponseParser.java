@@ -0,0 +1,262 @@
+package com.example.catalog_service.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.MovieResponse;
+import com.example.catalog_service.model.StringPool;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.model.TvShowResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+
+/**
+ * Streaming parser for the hottest TMDB payloads.
+ *
+ * Reads only the fields the catalog actually uses and skips everything else
+ * token by token, so unknown subtrees are never materialised. The factory is
+ * shared and backed by a bounded buffer recycler pool, which lets the request
+ * threads and the fan-out executor reuse the same read buffers.
+ */
+@Component
+public class TmdbResponseParser {
+
+    private static final int RECYCLER_POOL_SIZE = 64;
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .recyclerPool(JsonRecyclerPools.newBoundedPool(RECYCLER_POOL_SIZE))
+            .build();
+
+    /**
+     * Extract {@code imdb_id} from a {@code /person/{id}/external_ids} response.
+     *
+     * @return the IMDb id, or null when absent or null in the payload
+     */
+    public String parseImdbId(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                if ("imdb_id".equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Find the first YouTube trailer or teaser in a {@code /videos} response.
+     *
+     * @return the YouTube video key, or null when none matches
+     */
+    public String parseTrailerKey(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        String key = readTrailerKey(parser);
+                        if (key != null) {
+                            return key;
+                        }
+                    }
+                    return null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads one video object and returns its key if it is a YouTube trailer or teaser.
+     */
+    private String readTrailerKey(JsonParser parser) throws IOException {
+        String key = null;
+        boolean youtube = false;
+        boolean trailer = false;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_STRING) {
+                switch (field) {
+                    case "key" -> key = parser.getText();
+                    case "site" -> youtube = "YouTube".equalsIgnoreCase(parser.getText());
+                    case "type" -> {
+                        String type = parser.getText();
+                        trailer = "Trailer".equalsIgnoreCase(type) || "Teaser".equalsIgnoreCase(type);
+                    }
+                    default -> { }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return youtube && trailer ? key : null;
+    }
+
+    /**
+     * Parse a paged movie list ({@code /movie/popular}, {@code /search/movie}).
+     */
+    public MovieResponse parseMoviePage(InputStream body) throws IOException {
+        MovieResponse response = new MovieResponse();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return response;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "page" -> response.setPage(parser.getValueAsInt());
+                    case "total_pages" -> response.setTotal_pages(parser.getValueAsInt());
+                    case "total_results" -> response.setTotal_results(parser.getValueAsInt());
+                    case "results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            List<Movie> movies = new ArrayList<>(20);
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                movies.add(readMovie(parser));
+                            }
+                            response.setResults(movies);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Parse a paged TV list ({@code /discover/tv}, {@code /trending/tv/week}, {@code /search/tv}).
+     */
+    public TvShowResponse parseTvShowPage(InputStream body) throws IOException {
+        TvShowResponse response = new TvShowResponse();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return response;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "page" -> response.setPage(parser.getValueAsInt());
+                    case "total_pages" -> response.setTotal_pages(parser.getValueAsInt());
+                    case "total_results" -> response.setTotal_results(parser.getValueAsInt());
+                    case "results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            List<TvShow> tvShows = new ArrayList<>(20);
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                tvShows.add(readTvShow(parser));
+                            }
+                            response.setResults(tvShows);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return response;
+    }
+
+    private Movie readMovie(JsonParser parser) throws IOException {
+        Movie movie = new Movie();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> movie.setId(parser.getValueAsLong());
+                case "title" -> movie.setTitle(parser.getText());
+                case "overview" -> movie.setOverview(parser.getText());
+                case "poster_path" -> movie.setPosterPath(parser.getText());
+                case "backdrop_path" -> movie.setBackdropPath(parser.getText());
+                case "release_date" -> movie.setReleaseDate(parser.getText());
+                case "vote_average" -> movie.setVoteAverage(parser.getValueAsDouble());
+                case "vote_count" -> movie.setVoteCount(parser.getValueAsInt());
+                case "genre_ids" -> movie.setGenreIds(readIntArray(parser));
+                case "original_language" -> movie.setOriginalLanguage(StringPool.SHARED.canonicalize(parser.getText()));
+                case "popularity" -> movie.setPopularity(parser.getValueAsDouble());
+                default -> parser.skipChildren();
+            }
+        }
+        return movie;
+    }
+
+    private TvShow readTvShow(JsonParser parser) throws IOException {
+        TvShow tvShow = new TvShow();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> tvShow.setId(parser.getValueAsLong());
+                case "name" -> tvShow.setName(parser.getText());
+                case "overview" -> tvShow.setOverview(parser.getText());
+                case "poster_path" -> tvShow.setPosterPath(parser.getText());
+                case "backdrop_path" -> tvShow.setBackdropPath(parser.getText());
+                case "first_air_date" -> tvShow.setFirstAirDate(parser.getText());
+                case "vote_average" -> tvShow.setVoteAverage(parser.getValueAsDouble());
+                case "vote_count" -> tvShow.setVoteCount(parser.getValueAsInt());
+                case "genre_ids" -> tvShow.setGenreIds(readIntArray(parser));
+                case "origin_country" -> tvShow.setOriginCountry(readStringArray(parser));
+                case "original_language" -> tvShow.setOriginalLanguage(StringPool.SHARED.canonicalize(parser.getText()));
+                case "original_name" -> tvShow.setOriginalName(parser.getText());
+                case "popularity" -> tvShow.setPopularity(parser.getValueAsDouble());
+                default -> parser.skipChildren();
+            }
+        }
+        return tvShow;
+    }
+
+    private List<Integer> readIntArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<Integer> values = new ArrayList<>(4);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getValueAsInt());
+        }
+        return values;
+    }
+
+    /**
+     * Reads an array of short codes (e.g. origin_country), canonicalizing each entry.
+     */
+    private List<String> readStringArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>(2);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(StringPool.SHARED.canonicalize(parser.getText()));
+        }
+        return values;
+    }
+}
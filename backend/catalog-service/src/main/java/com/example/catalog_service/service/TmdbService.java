@@ -1,41 +1,86 @@
 package com.example.catalog_service.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.catalog_service.cache.CacheRegion;
+import com.example.catalog_service.cache.CatalogCache;
+import com.example.catalog_service.cache.FeedPrefetcher;
+import com.example.catalog_service.config.AnimeIndexProperties;
 import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.exception.DeadlineExceededException;
 import com.example.catalog_service.model.DetailedMovie;
 import com.example.catalog_service.model.DetailedTvShow;
 import com.example.catalog_service.model.Movie;
 import com.example.catalog_service.model.MovieResponse;
 import com.example.catalog_service.model.TvShow;
 import com.example.catalog_service.model.TvShowResponse;
-import com.example.catalog_service.model.VideoResponse;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.catalog_service.similar.SimilarTitles;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class TmdbService {
     
+    private static final Logger logger = LoggerFactory.getLogger(TmdbService.class);
+    
+    // TMDB rejects list requests past page 500
+    private static final int MAX_TMDB_PAGE = 500;
+    
     @Autowired
-    private RestTemplate restTemplate;
+    private TmdbClient tmdbClient;
     
     @Autowired
     private TmdbProperties tmdbProperties;
     
+    @Autowired
+    private TmdbResponseParser responseParser;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private FeedPrefetcher feedPrefetcher;
+    
+    @Autowired
+    private AnimeIndex animeIndex;
+    
+    @Autowired
+    private AnimeIndexProperties animeIndexProperties;
+    
+    @Autowired
+    private SimilarTitles similarTitles;
+    
     private final ExecutorService executorService = Executors.newFixedThreadPool(10);
     
     public List<Movie> getPopularMovies(int page) {
+        try {
+            return cachedFeed(CacheRegion.POPULAR_MOVIES, page, this::loadPopularMovies);
+        } catch (Exception e) {
+            logger.warn("Error fetching popular movies page {}", page, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * One page of popular movies, with trailers
+     */
+    private List<Movie> loadPopularMovies(int page) {
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/movie/popular")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -43,21 +88,16 @@ public class TmdbService {
             .build()
             .toUriString();
             
-        try {
-            MovieResponse response = restTemplate.getForObject(url, MovieResponse.class);
-            if (response != null && response.getResults() != null) {
-                // Fetch trailer URLs for each movie
-                List<Movie> movies = response.getResults();
-                for (Movie movie : movies) {
-                    fetchAndSetTrailerUrl(movie);
-                }
-                return movies;
+        MovieResponse response = fetchMoviePage("popular", url);
+        if (response != null && response.getResults() != null) {
+            // Fetch trailer URLs for each movie
+            List<Movie> movies = response.getResults();
+            for (Movie movie : movies) {
+                fetchAndSetTrailerUrl(movie);
             }
-            return Collections.emptyList();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            return movies;
         }
+        return Collections.emptyList();
     }
     
     public Optional<Movie> getMovieDetails(Long movieId) {
@@ -68,13 +108,15 @@ public class TmdbService {
             .toUriString();
             
         try {
-            Movie movie = restTemplate.getForObject(url, Movie.class);
-            if (movie != null) {
-                fetchAndSetTrailerUrl(movie);
-            }
-            return Optional.ofNullable(movie);
+            return catalogCache.get(CacheRegion.MOVIE, movieId, () -> {
+                Movie movie = tmdbClient.get("details", url, Movie.class);
+                if (movie != null) {
+                    fetchAndSetTrailerUrl(movie);
+                }
+                return movie;
+            });
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.warn("Error fetching movie {}", movieId, e);
             return Optional.empty();
         }
     }
@@ -84,72 +126,79 @@ public class TmdbService {
      */
     public Optional<DetailedMovie> getDetailedMovieInfo(Long movieId) {
         try {
-            // 1. Get basic movie details
-            String movieUrl = UriComponentsBuilder
-                .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movieId)
-                .queryParam("api_key", tmdbProperties.getApiKey())
-                .build()
-                .toUriString();
-                
-            DetailedMovie movie = restTemplate.getForObject(movieUrl, DetailedMovie.class);
-            if (movie == null) {
-                return Optional.empty();
-            }
+            return catalogCache.get(CacheRegion.MOVIE_DETAILS, movieId, () -> loadDetailedMovie(movieId));
+        } catch (Exception e) {
+            logger.warn("Error fetching detailed movie {}", movieId, e);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Assemble a movie's details, credits, similar movies and trailer; null when TMDB has no such movie
+     */
+    private DetailedMovie loadDetailedMovie(Long movieId) {
+        // 1. Get basic movie details
+        String movieUrl = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movieId)
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .queryParam("append_to_response", "keywords")
+            .build()
+            .toUriString();
             
-            // 2. Get credits (cast and crew)
-            String creditsUrl = UriComponentsBuilder
-                .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movieId + "/credits")
-                .queryParam("api_key", tmdbProperties.getApiKey())
-                .build()
-                .toUriString();
-                
-            DetailedMovie.Credits credits = restTemplate.getForObject(creditsUrl, DetailedMovie.Credits.class);
-            if (credits != null) {
-                movie.setCredits(credits);
-                
-                // Fetch IMDb IDs for cast and crew in parallel (for better performance)
-                if (credits.getCast() != null) {                    List<CompletableFuture<Void>> castFutures = credits.getCast().stream()
-                        .map(castMember -> CompletableFuture.runAsync(() -> {
-                            fetchAndSetImdbId(castMember.getId(), id -> castMember.setImdbId(id));
-                        }, executorService))
-                        .toList();
-                    
-                    // Wait for all cast IMDb IDs to be fetched
-                    CompletableFuture.allOf(castFutures.toArray(new CompletableFuture[0])).join();
-                }
-                
-                if (credits.getCrew() != null) {                    List<CompletableFuture<Void>> crewFutures = credits.getCrew().stream()
-                        .map(crewMember -> CompletableFuture.runAsync(() -> {
-                            fetchAndSetImdbId(crewMember.getId(), id -> crewMember.setImdbId(id));
-                        }, executorService))
-                        .toList();
-                    
-                    // Wait for all crew IMDb IDs to be fetched
-                    CompletableFuture.allOf(crewFutures.toArray(new CompletableFuture[0])).join();
-                }
-            }
+        DetailedMovie movie = tmdbClient.get("details", movieUrl, DetailedMovie.class);
+        if (movie == null) {
+            return null;
+        }
+        
+        // 2. Get credits (cast and crew)
+        String creditsUrl = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movieId + "/credits")
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .build()
+            .toUriString();
             
-            // 3. Get similar movies
+        DetailedMovie.Credits credits = unlessDeadlinePassed(() -> tmdbClient.get("credits", creditsUrl, DetailedMovie.Credits.class));
+        if (credits != null) {
+            movie.setCredits(credits);
+            
+            // Fetch IMDb IDs for cast and crew in parallel, bounded by the request deadline
+            List<Runnable> lookups = new ArrayList<>();
+            if (credits.getCast() != null) {
+                credits.getCast().forEach(castMember ->
+                    lookups.add(() -> fetchAndSetImdbId(castMember.getId(), id -> castMember.setImdbId(id))));
+            }
+            if (credits.getCrew() != null) {
+                credits.getCrew().forEach(crewMember ->
+                    lookups.add(() -> fetchAndSetImdbId(crewMember.getId(), id -> crewMember.setImdbId(id))));
+            }
+            runFanOut("IMDb lookups for movie " + movieId, lookups);
+        }
+        
+        // 3. Get similar movies: ranked locally once enough movies have been seen, from TMDB until then
+        similarTitles.indexMovie(movie);
+        Optional<DetailedMovie.Similar> ranked = similarTitles.similarMovies(movieId);
+        if (ranked.isPresent()) {
+            movie.setSimilar(ranked.get());
+        } else {
             String similarUrl = UriComponentsBuilder
                 .fromUriString(tmdbProperties.getBaseUrl() + "/movie/" + movieId + "/similar")
                 .queryParam("api_key", tmdbProperties.getApiKey())
                 .build()
                 .toUriString();
                 
-            DetailedMovie.Similar similar = restTemplate.getForObject(similarUrl, DetailedMovie.Similar.class);
+            DetailedMovie.Similar similar = unlessDeadlinePassed(() -> tmdbClient.get("similar", similarUrl, DetailedMovie.Similar.class));
             if (similar != null) {
                 movie.setSimilar(similar);
             }
-            
-            // 4. Get trailer URL
-            fetchTrailerForDetailedMovie(movie);
-            
-            return Optional.of(movie);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Optional.empty();
         }
-    }    /**
+        
+        // 4. Get trailer URL
+        fetchTrailerForDetailedMovie(movie);
+        
+        return movie;
+    }
+    
+    /**
      * Fetch external IDs (including IMDb ID) for a person from TMDB API
      */
     private void fetchAndSetImdbId(Integer personId, Consumer<String> setter) {
@@ -164,12 +213,83 @@ public class TmdbService {
             .toUriString();
             
         try {
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            if (response != null && response.has("imdb_id") && !response.get("imdb_id").isNull()) {
-                setter.accept(response.get("imdb_id").asText());
-            }
+            // a person without an IMDb id is cached like a missing one
+            catalogCache.get(CacheRegion.PERSON_IMDB, personId, () -> tmdbClient.get("external_ids", url,
+                response -> responseParser.parseImdbId(response.getBody())))
+                .ifPresent(setter);
         } catch (Exception e) {
-            System.err.println("Error fetching IMDB ID for person " + personId + ": " + e.getMessage());
+            markDegraded();
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled at the request deadline; runFanOut already logged it once
+                logger.debug("IMDb ID lookup for person {} cancelled", personId);
+            } else {
+                logger.warn("Error fetching IMDb ID for person {}: {}", personId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * A home feed page from the cache; pages are refreshed in the background before they expire.
+     * Once it is served, the next page is prefetched in case the user keeps scrolling.
+     */
+    private <T> List<T> cachedFeed(CacheRegion region, int page, IntFunction<List<T>> loader) {
+        List<T> items = catalogCache.get(region, page, () -> loader.apply(page)).orElse(Collections.emptyList());
+        if (!items.isEmpty() && page < MAX_TMDB_PAGE) {
+            feedPrefetcher.prefetch(region, page + 1, () -> loader.apply(page + 1));
+        }
+        return items;
+    }
+    
+    /**
+     * Flag the current request as degraded so the page being assembled is not cached
+     */
+    private void markDegraded() {
+        TmdbRequestContext context = TmdbRequestContext.current();
+        if (context != null) {
+            context.markDegraded();
+        }
+    }
+    
+    /**
+     * Fetch an optional part of a page; once the request deadline has passed it is left out instead of failing the page
+     */
+    private <T> T unlessDeadlinePassed(Supplier<T> fetch) {
+        try {
+            return fetch.get();
+        } catch (DeadlineExceededException e) {
+            logger.debug(e.getMessage());
+            markDegraded();
+            return null;
+        }
+    }
+    
+    /**
+     * Run independent sub-fetches on the fan-out pool and wait until they finish
+     * or the request deadline passes, whichever comes first. Tasks still running
+     * at the deadline are cancelled (interrupting their TMDB call) and the caller
+     * continues with whatever was filled in, so the page renders with partial data.
+     */
+    private void runFanOut(String description, List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        TmdbRequestContext context = TmdbRequestContext.current();
+        long remainingNanos = context != null ? context.remainingNanos() : tmdbProperties.getRequestTimeout().toNanos();
+        List<Callable<Void>> callables = tasks.stream()
+            .map(task -> TmdbRequestContext.wrap(() -> {
+                task.run();
+                return (Void) null;
+            }))
+            .toList();
+        try {
+            List<Future<Void>> futures = executorService.invokeAll(callables, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            long cancelled = futures.stream().filter(Future::isCancelled).count();
+            if (cancelled > 0) {
+                markDegraded();
+                logger.warn("Request deadline passed: cancelled {} of {} {}", cancelled, tasks.size(), description);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
     
@@ -188,21 +308,14 @@ public class TmdbService {
             .toUriString();
             
         try {
-            VideoResponse videoResponse = restTemplate.getForObject(url, VideoResponse.class);
-            if (videoResponse != null && videoResponse.getResults() != null && !videoResponse.getResults().isEmpty()) {
-                // Find a YouTube trailer
-                videoResponse.getResults().stream()
-                    .filter(video -> "YouTube".equalsIgnoreCase(video.getSite()) && 
-                                    ("Trailer".equalsIgnoreCase(video.getType()) || "Teaser".equalsIgnoreCase(video.getType())))
-                    .findFirst()
-                    .ifPresent(video -> {
-                        String youtubeUrl = "https://www.youtube.com/watch?v=" + video.getKey();
-                        movie.setTrailerUrl(youtubeUrl);
-                    });
+            String trailerUrl = fetchTrailerUrl(url);
+            if (trailerUrl != null) {
+                movie.setTrailerUrl(trailerUrl);
             }
         } catch (Exception e) {
-            // Log error but continue
-            System.err.println("Error fetching trailer for movie " + movie.getId() + ": " + e.getMessage());
+            // Log error but continue, and keep the incomplete result out of the cache
+            markDegraded();
+            logger.warn("Error fetching trailer for movie {}: {}", movie.getId(), e.getMessage());
         }
     }
     
@@ -221,23 +334,109 @@ public class TmdbService {
             .toUriString();
             
         try {
-            VideoResponse videoResponse = restTemplate.getForObject(url, VideoResponse.class);
-            if (videoResponse != null && videoResponse.getResults() != null && !videoResponse.getResults().isEmpty()) {
-                // Find a YouTube trailer
-                videoResponse.getResults().stream()
-                    .filter(video -> "YouTube".equalsIgnoreCase(video.getSite()) && 
-                                    ("Trailer".equalsIgnoreCase(video.getType()) || 
-                                     "Teaser".equalsIgnoreCase(video.getType())))
-                    .findFirst()
-                    .ifPresent(video -> {
-                        String youtubeUrl = "https://www.youtube.com/watch?v=" + video.getKey();
-                        movie.setTrailerUrl(youtubeUrl);
-                    });
+            String trailerUrl = fetchTrailerUrl(url);
+            if (trailerUrl != null) {
+                movie.setTrailerUrl(trailerUrl);
             }
         } catch (Exception e) {
-            // Log error but continue
-            System.err.println("Error fetching trailer for movie " + movie.getId() + ": " + e.getMessage());
+            // Log error but continue, and keep the incomplete result out of the cache
+            markDegraded();
+            logger.warn("Error fetching trailer for movie {}: {}", movie.getId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Fetch a /videos payload and return the YouTube URL of its first trailer or teaser, if any
+     */
+    private String fetchTrailerUrl(String url) {
+        String key = tmdbClient.get("videos", url,
+            response -> responseParser.parseTrailerKey(response.getBody()));
+        return key != null ? "https://www.youtube.com/watch?v=" + key : null;
+    }
+    
+    /**
+     * One page of a home feed for {@link FeedService}; unlike the public getters, failures are thrown instead of
+     * read as an empty page
+     */
+    List<?> feedPage(CacheRegion region, int page) {
+        return switch (region) {
+            case POPULAR_MOVIES -> cachedFeed(region, page, this::loadPopularMovies);
+            case POPULAR_TV -> cachedFeed(region, page, this::loadPopularTvShows);
+            case TRENDING_TV -> cachedFeed(region, page, this::loadTrendingTvShows);
+            case ANIME -> cachedFeed(region, page, this::loadAnime);
+            case TRENDING_ANIME -> cachedFeed(region, page, this::loadTrendingAnime);
+            default -> throw new IllegalArgumentException(region.tag() + " is not a feed");
+        };
+    }
+    
+    /**
+     * One raw page of movie search results, without trailers
+     */
+    MovieResponse searchMoviePage(String query, int page) {
+        String url = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/search/movie")
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .queryParam("query", query)
+            .queryParam("page", page)
+            .build()
+            .toUriString();
+        return fetchMoviePage("search", url);
+    }
+    
+    /**
+     * One raw page of TV search results, without trailers; TV and anime searches filter it differently
+     */
+    TvShowResponse searchTvShowPage(String query, int page) {
+        String url = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/search/tv")
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .queryParam("query", query)
+            .queryParam("page", page)
+            .build()
+            .toUriString();
+        return fetchTvShowPage("search", url);
+    }
+    
+    /**
+     * Look up trailers for the given movies in parallel, bounded by the request deadline
+     */
+    void addMovieTrailers(List<Movie> movies, String description) {
+        List<Runnable> trailers = new ArrayList<>();
+        movies.forEach(movie -> trailers.add(() -> fetchAndSetTrailerUrl(movie)));
+        runFanOut("trailers for " + description, trailers);
+    }
+    
+    /**
+     * Look up trailers for the given TV shows in parallel, bounded by the request deadline
+     */
+    void addTvTrailers(List<TvShow> tvShows, String description) {
+        List<Runnable> trailers = new ArrayList<>();
+        tvShows.forEach(tvShow -> trailers.add(() -> fetchAndSetTvTrailerUrl(tvShow)));
+        runFanOut("trailers for " + description, trailers);
+    }
+    
+    /**
+     * Fetch a paged movie list, reading only the fields exposed by {@link Movie}
+     */
+    private MovieResponse fetchMoviePage(String endpoint, String url) {
+        MovieResponse page = tmdbClient.get(endpoint, url,
+            response -> responseParser.parseMoviePage(response.getBody()));
+        if (page != null) {
+            similarTitles.indexMovies(page.getResults());
+        }
+        return page;
+    }
+    
+    /**
+     * Fetch a paged TV show list, reading only the fields exposed by {@link TvShow}
+     */
+    private TvShowResponse fetchTvShowPage(String endpoint, String url) {
+        TvShowResponse page = tmdbClient.get(endpoint, url,
+            response -> responseParser.parseTvShowPage(response.getBody()));
+        if (page != null) {
+            similarTitles.indexTvShows(page.getResults());
         }
+        return page;
     }
     
     // TV SHOW METHODS
@@ -246,6 +445,18 @@ public class TmdbService {
      * Get popular TV shows
      */
     public List<TvShow> getPopularTvShows(int page) {
+        try {
+            return cachedFeed(CacheRegion.POPULAR_TV, page, this::loadPopularTvShows);
+        } catch (Exception e) {
+            logger.warn("Error fetching popular TV shows page {}", page, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * One page of popular non-animated TV shows, with trailers
+     */
+    private List<TvShow> loadPopularTvShows(int page) {
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/discover/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -256,27 +467,34 @@ public class TmdbService {
             .build()
             .toUriString();
             
-        try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
-            if (response != null && response.getResults() != null) {
-                // Fetch trailer URLs for each TV show
-                List<TvShow> tvShows = response.getResults();
-                for (TvShow tvShow : tvShows) {
-                    fetchAndSetTvTrailerUrl(tvShow);
-                }
-                return tvShows;
+        TvShowResponse response = fetchTvShowPage("discover", url);
+        if (response != null && response.getResults() != null) {
+            // Fetch trailer URLs for each TV show
+            List<TvShow> tvShows = response.getResults();
+            for (TvShow tvShow : tvShows) {
+                fetchAndSetTvTrailerUrl(tvShow);
             }
-            return Collections.emptyList();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            return tvShows;
         }
+        return Collections.emptyList();
     }
     
     /**
      * Get trending TV shows
      */
     public List<TvShow> getTrendingTvShows(int page) {
+        try {
+            return cachedFeed(CacheRegion.TRENDING_TV, page, this::loadTrendingTvShows);
+        } catch (Exception e) {
+            logger.warn("Error fetching trending TV shows page {}", page, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * One page of this week's trending TV shows, with trailers
+     */
+    private List<TvShow> loadTrendingTvShows(int page) {
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/trending/tv/week")
             .queryParam("api_key", tmdbProperties.getApiKey())
@@ -284,47 +502,28 @@ public class TmdbService {
             .build()
             .toUriString();
             
-        try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
-            if (response != null && response.getResults() != null) {
-                // Fetch trailer URLs for each TV show
-                List<TvShow> tvShows = response.getResults();
-                for (TvShow tvShow : tvShows) {
-                    fetchAndSetTvTrailerUrl(tvShow);
-                }
-                return tvShows;
+        TvShowResponse response = fetchTvShowPage("trending", url);
+        if (response != null && response.getResults() != null) {
+            // Fetch trailer URLs for each TV show
+            List<TvShow> tvShows = response.getResults();
+            for (TvShow tvShow : tvShows) {
+                fetchAndSetTvTrailerUrl(tvShow);
             }
-            return Collections.emptyList();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            return tvShows;
         }
+        return Collections.emptyList();
     }
     
     /**
      * Search for TV shows
      */
     public List<TvShow> searchTvShows(String query, int page) {
-        String url = UriComponentsBuilder
-            .fromUriString(tmdbProperties.getBaseUrl() + "/search/tv")
-            .queryParam("api_key", tmdbProperties.getApiKey())
-            .queryParam("query", query)
-            .queryParam("page", page)
-            .build()
-            .toUriString();
-            
         try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
+            TvShowResponse response = searchTvShowPage(query, page);
             if (response != null && response.getResults() != null) {
+                // Filter out only if it's both animated AND from Japan
                 List<TvShow> tvShows = response.getResults().stream()
-                    .filter(tvShow -> {
-                        List<Integer> genres = tvShow.getGenreIds();
-                        List<String> origin = tvShow.getOriginCountry();
-                        // Filter out only if it's both animated AND from Japan
-                        boolean isAnime = (genres != null && genres.contains(16)) &&
-                                        (origin != null && origin.contains("JP"));
-                        return !isAnime;
-                    })
+                    .filter(tvShow -> !AnimeFilters.isJapaneseAnimation(tvShow))
                     .collect(Collectors.toList());
                 for (TvShow tvShow : tvShows) {
                     fetchAndSetTvTrailerUrl(tvShow);
@@ -333,7 +532,7 @@ public class TmdbService {
             }
             return Collections.emptyList();
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.warn("Error searching TV shows for '{}'", query, e);
             return Collections.emptyList();
         }
     }
@@ -343,67 +542,71 @@ public class TmdbService {
      */
     public Optional<DetailedTvShow> getDetailedTvShowInfo(Long tvShowId) {
         try {
-            // 1. Get basic TV show details
-            String tvShowUrl = UriComponentsBuilder
-                .fromUriString(tmdbProperties.getBaseUrl() + "/tv/" + tvShowId)
+            return catalogCache.get(CacheRegion.TV_DETAILS, tvShowId, () -> loadDetailedTvShow(tvShowId));
+        } catch (Exception e) {
+            logger.warn("Error fetching detailed TV show {}", tvShowId, e);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Assemble a TV show's details, credits, similar shows and trailer; null when TMDB has no such show
+     */
+    private DetailedTvShow loadDetailedTvShow(Long tvShowId) {
+        // 1. Get basic TV show details; similar shows only when they can't be ranked locally yet
+        boolean rankLocally = similarTitles.canRankTvShows();
+        String tvShowUrl = UriComponentsBuilder
+            .fromUriString(tmdbProperties.getBaseUrl() + "/tv/" + tvShowId)
+            .queryParam("api_key", tmdbProperties.getApiKey())
+            .queryParam("append_to_response", rankLocally ? "credits,keywords" : "credits,similar,keywords")
+            .build()
+            .toUriString();
+            
+        DetailedTvShow tvShow = tmdbClient.get("details", tvShowUrl, DetailedTvShow.class);
+        if (tvShow == null) {
+            return null;
+        }
+        
+        // 2. Fetch IMDb IDs for creators, cast and crew in parallel, bounded by the request deadline
+        List<Runnable> lookups = new ArrayList<>();
+        if (tvShow.getCreatedBy() != null) {
+            tvShow.getCreatedBy().forEach(creator ->
+                lookups.add(() -> fetchAndSetImdbId(creator.getId(), id -> creator.setImdbId(id))));
+        }
+        if (tvShow.getCredits() != null) {
+            if (tvShow.getCredits().getCast() != null) {
+                tvShow.getCredits().getCast().forEach(castMember ->
+                    lookups.add(() -> fetchAndSetImdbId(castMember.getId(), id -> castMember.setImdbId(id))));
+            }
+            if (tvShow.getCredits().getCrew() != null) {
+                tvShow.getCredits().getCrew().forEach(crewMember ->
+                    lookups.add(() -> fetchAndSetImdbId(crewMember.getId(), id -> crewMember.setImdbId(id))));
+            }
+        }
+        runFanOut("IMDb lookups for TV show " + tvShowId, lookups);
+        
+        // 3. Rank similar shows locally, falling back to TMDB's
+        similarTitles.indexTvShow(tvShow);
+        Optional<DetailedTvShow.Similar> ranked = similarTitles.similarTvShows(tvShowId);
+        if (ranked.isPresent()) {
+            tvShow.setSimilar(ranked.get());
+        } else if (rankLocally) {
+            String similarUrl = UriComponentsBuilder
+                .fromUriString(tmdbProperties.getBaseUrl() + "/tv/" + tvShowId + "/similar")
                 .queryParam("api_key", tmdbProperties.getApiKey())
-                .queryParam("append_to_response", "credits,similar")
                 .build()
                 .toUriString();
                 
-            DetailedTvShow tvShow = restTemplate.getForObject(tvShowUrl, DetailedTvShow.class);
-            if (tvShow == null) {
-                return Optional.empty();
-            }
-            
-            // 2. Process creator IMDb IDs if available
-            if (tvShow.getCreatedBy() != null && !tvShow.getCreatedBy().isEmpty()) {
-                List<CompletableFuture<Void>> creatorFutures = tvShow.getCreatedBy().stream()
-                    .map(creator -> CompletableFuture.runAsync(() -> {
-                        // Use Consumer functional interface for TV show
-                        fetchAndSetImdbId(creator.getId(), id -> creator.setImdbId(id));
-                    }, executorService))
-                    .toList();
-                
-                // Wait for all creator IMDb IDs to be fetched
-                CompletableFuture.allOf(creatorFutures.toArray(new CompletableFuture[0])).join();
-            }
-            
-            // 3. Process cast and crew IMDb IDs
-            if (tvShow.getCredits() != null) {
-                if (tvShow.getCredits().getCast() != null) {
-                    List<CompletableFuture<Void>> castFutures = tvShow.getCredits().getCast().stream()
-                        .map(castMember -> CompletableFuture.runAsync(() -> {
-                            // Use Consumer functional interface for TV show
-                            fetchAndSetImdbId(castMember.getId(), id -> castMember.setImdbId(id));
-                        }, executorService))
-                        .toList();
-                    
-                    // Wait for all cast IMDb IDs to be fetched
-                    CompletableFuture.allOf(castFutures.toArray(new CompletableFuture[0])).join();
-                }
-                
-                if (tvShow.getCredits().getCrew() != null) {
-                    List<CompletableFuture<Void>> crewFutures = tvShow.getCredits().getCrew().stream()
-                        .map(crewMember -> CompletableFuture.runAsync(() -> {
-                            // Use Consumer functional interface for TV show
-                            fetchAndSetImdbId(crewMember.getId(), id -> crewMember.setImdbId(id));
-                        }, executorService))
-                        .toList();
-                    
-                    // Wait for all crew IMDb IDs to be fetched
-                    CompletableFuture.allOf(crewFutures.toArray(new CompletableFuture[0])).join();
-                }
+            DetailedTvShow.Similar similar = unlessDeadlinePassed(() -> tmdbClient.get("similar", similarUrl, DetailedTvShow.Similar.class));
+            if (similar != null) {
+                tvShow.setSimilar(similar);
             }
-            
-            // 4. Get trailer URL
-            fetchTrailerForDetailedTvShow(tvShow);
-            
-            return Optional.of(tvShow);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Optional.empty();
         }
+        
+        // 4. Get trailer URL
+        fetchTrailerForDetailedTvShow(tvShow);
+        
+        return tvShow;
     }
     
     /**
@@ -421,22 +624,14 @@ public class TmdbService {
             .toUriString();
             
         try {
-            VideoResponse videoResponse = restTemplate.getForObject(url, VideoResponse.class);
-            if (videoResponse != null && videoResponse.getResults() != null && !videoResponse.getResults().isEmpty()) {
-                // Find a YouTube trailer
-                videoResponse.getResults().stream()
-                    .filter(video -> "YouTube".equalsIgnoreCase(video.getSite()) && 
-                                    ("Trailer".equalsIgnoreCase(video.getType()) || 
-                                     "Teaser".equalsIgnoreCase(video.getType())))
-                    .findFirst()
-                    .ifPresent(video -> {
-                        String youtubeUrl = "https://www.youtube.com/watch?v=" + video.getKey();
-                        tvShow.setTrailerUrl(youtubeUrl);
-                    });
+            String trailerUrl = fetchTrailerUrl(url);
+            if (trailerUrl != null) {
+                tvShow.setTrailerUrl(trailerUrl);
             }
         } catch (Exception e) {
-            // Log error but continue
-            System.err.println("Error fetching trailer for TV show " + tvShow.getId() + ": " + e.getMessage());
+            // Log error but continue, and keep the incomplete result out of the cache
+            markDegraded();
+            logger.warn("Error fetching trailer for TV show {}: {}", tvShow.getId(), e.getMessage());
         }
     }
     
@@ -455,22 +650,14 @@ public class TmdbService {
             .toUriString();
             
         try {
-            VideoResponse videoResponse = restTemplate.getForObject(url, VideoResponse.class);
-            if (videoResponse != null && videoResponse.getResults() != null && !videoResponse.getResults().isEmpty()) {
-                // Find a YouTube trailer
-                videoResponse.getResults().stream()
-                    .filter(video -> "YouTube".equalsIgnoreCase(video.getSite()) && 
-                                    ("Trailer".equalsIgnoreCase(video.getType()) || 
-                                     "Teaser".equalsIgnoreCase(video.getType())))
-                    .findFirst()
-                    .ifPresent(video -> {
-                        String youtubeUrl = "https://www.youtube.com/watch?v=" + video.getKey();
-                        tvShow.setTrailerUrl(youtubeUrl);
-                    });
+            String trailerUrl = fetchTrailerUrl(url);
+            if (trailerUrl != null) {
+                tvShow.setTrailerUrl(trailerUrl);
             }
         } catch (Exception e) {
-            // Log error but continue
-            System.err.println("Error fetching trailer for TV show " + tvShow.getId() + ": " + e.getMessage());
+            // Log error but continue, and keep the incomplete result out of the cache
+            markDegraded();
+            logger.warn("Error fetching trailer for TV show {}: {}", tvShow.getId(), e.getMessage());
         }
     }
     
@@ -481,61 +668,77 @@ public class TmdbService {
      * Uses TV show endpoints with filtering for anime content
      */
     public List<TvShow> getAnime(int page) {
-        String url = UriComponentsBuilder
+        try {
+            return cachedFeed(CacheRegion.ANIME, page, this::loadAnime);
+        } catch (Exception e) {
+            logger.warn("Error fetching anime page {}", page, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * One page of popular recent anime, with trailers; from the anime index once it is built
+     */
+    private List<TvShow> loadAnime(int page) {
+        Optional<List<TvShow>> indexed = animeIndex.popular(page);
+        if (indexed.isPresent()) {
+            return withTvTrailers(indexed.get());
+        }
+        UriComponentsBuilder builder = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/discover/tv")
             .queryParam("api_key", tmdbProperties.getApiKey())
             .queryParam("with_original_language", "ja") // Japanese content
             .queryParam("with_genres", "16") // Animation genre
             .queryParam("sort_by", "popularity.desc") // Most popular (trending)
-            .queryParam("vote_count.gte", 100) // Only shows with enough votes
-            .queryParam("first_air_date.gte", "2023-01-01") // Only recent shows
+            .queryParam("vote_count.gte", animeIndexProperties.getMinVoteCount()); // Only shows with enough votes
+        String firstAirDateFrom = animeIndexProperties.getFirstAirDateFrom();
+        if (firstAirDateFrom != null && !firstAirDateFrom.isBlank()) {
+            builder.queryParam("first_air_date.gte", firstAirDateFrom); // Only recent shows
+        }
+        String url = builder
             .queryParam("page", page)
             .build()
             .toUriString();
             
-        try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
-            if (response != null && response.getResults() != null) {
-                List<TvShow> animeShows = response.getResults();
-                for (TvShow anime : animeShows) {
-                    fetchAndSetTvTrailerUrl(anime);
-                }
-                return animeShows;
+        TvShowResponse response = fetchTvShowPage("discover", url);
+        if (response != null && response.getResults() != null) {
+            List<TvShow> animeShows = response.getResults();
+            for (TvShow anime : animeShows) {
+                fetchAndSetTvTrailerUrl(anime);
             }
-            return Collections.emptyList();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            return animeShows;
         }
+        return Collections.emptyList();
+    }
+    
+    /**
+     * A page of indexed shows with trailers filled in. The trailers are set on copies of
+     * the shows, since the index's own are shared by every request reading it
+     */
+    private List<TvShow> withTvTrailers(List<TvShow> indexed) {
+        List<TvShow> tvShows = new ArrayList<>(indexed.size());
+        for (TvShow show : indexed) {
+            TvShow tvShow = show.copy();
+            fetchAndSetTvTrailerUrl(tvShow);
+            tvShows.add(tvShow);
+        }
+        return tvShows;
     }
     
     /**
      * Search for anime
      */
     public List<TvShow> searchAnime(String query, int page) {
-        String url = UriComponentsBuilder
-            .fromUriString(tmdbProperties.getBaseUrl() + "/search/tv")
-            .queryParam("api_key", tmdbProperties.getApiKey())
-            .queryParam("query", query)
-            .queryParam("page", page)
-            .build()
-            .toUriString();
-            
         try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
+            Optional<List<TvShow>> indexed = animeIndex.search(query, page);
+            if (indexed.isPresent()) {
+                return withTvTrailers(indexed.get());
+            }
+            TvShowResponse response = searchTvShowPage(query, page);
             if (response != null && response.getResults() != null) {
 
                 List<TvShow> animeShows = response.getResults().stream()
-                .filter(tvShow -> {
-                    List<Integer> genres = tvShow.getGenreIds();
-                    List<String> origin = tvShow.getOriginCountry();
-                    String lang = tvShow.getOriginalLanguage();
-
-                    boolean isAnimated = genres != null && genres.contains(16);
-                    boolean isJapaneseOrigin = (origin != null && origin.contains("JP")) || "ja".equalsIgnoreCase(lang);
-
-                    return isAnimated && isJapaneseOrigin;
-                })
+                .filter(AnimeFilters::isAnimeSearchMatch)
                 .collect(Collectors.toList());
 
                 for (TvShow anime : animeShows) {
@@ -545,7 +748,7 @@ public class TmdbService {
             }
             return Collections.emptyList();
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.warn("Error searching anime for '{}'", query, e);
             return Collections.emptyList();
         }
     }
@@ -554,6 +757,22 @@ public class TmdbService {
      * Get trending anime
      */
     public List<TvShow> getTrendingAnime(int page) {
+        try {
+            return cachedFeed(CacheRegion.TRENDING_ANIME, page, this::loadTrendingAnime);
+        } catch (Exception e) {
+            logger.warn("Error fetching trending anime page {}", page, e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * The anime among one page of this week's trending TV shows, with trailers; from the anime index once it is built
+     */
+    private List<TvShow> loadTrendingAnime(int page) {
+        Optional<List<TvShow>> indexed = animeIndex.trending(page);
+        if (indexed.isPresent()) {
+            return withTvTrailers(indexed.get());
+        }
         // First get trending TV shows
         String url = UriComponentsBuilder
             .fromUriString(tmdbProperties.getBaseUrl() + "/trending/tv/week")
@@ -562,25 +781,19 @@ public class TmdbService {
             .build()
             .toUriString();
             
-        try {
-            TvShowResponse response = restTemplate.getForObject(url, TvShowResponse.class);
-            if (response != null && response.getResults() != null) {
-                // Filter to only include Japanese animation
-                List<TvShow> trendingAnime = response.getResults().stream()
-                    .filter(show -> "ja".equals(show.getOriginalLanguage()) && 
-                                   (show.getGenreIds() != null && show.getGenreIds().contains(16)))
-                    .toList();
-                
-                for (TvShow anime : trendingAnime) {
-                    fetchAndSetTvTrailerUrl(anime);
-                }
-                return trendingAnime;
+        TvShowResponse response = fetchTvShowPage("trending", url);
+        if (response != null && response.getResults() != null) {
+            // Filter to only include Japanese animation
+            List<TvShow> trendingAnime = response.getResults().stream()
+                .filter(AnimeFilters::isTrendingAnime)
+                .toList();
+        
+            for (TvShow anime : trendingAnime) {
+                fetchAndSetTvTrailerUrl(anime);
             }
-            return Collections.emptyList();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
+            return trendingAnime;
         }
+        return Collections.emptyList();
     }
       /**
      * Get detailed anime information
@@ -591,12 +804,7 @@ public class TmdbService {
         
         // Verify it's actually an anime (Japanese animation)
         if (tvShowDetail.isPresent()) {
-            DetailedTvShow show = tvShowDetail.get();
-            boolean isJapanese = "ja".equals(show.getOriginalLanguage());
-            boolean isAnimation = show.getGenres() != null && 
-                                 show.getGenres().stream().anyMatch(genre -> genre.getId() == 16);
-                                 
-            if (isJapanese && isAnimation) {
+            if (AnimeFilters.isAnime(tvShowDetail.get())) {
                 return tvShowDetail;
             }
             return Optional.empty();
@@ -608,30 +816,17 @@ public class TmdbService {
      * Search for movies
      */
     public List<Movie> searchMovies(String query, int page) {
-        String url = UriComponentsBuilder
-            .fromUriString(tmdbProperties.getBaseUrl() + "/search/movie")
-            .queryParam("api_key", tmdbProperties.getApiKey())
-            .queryParam("query", query)
-            .queryParam("page", page)
-            .build()
-            .toUriString();
-            
         try {
-            MovieResponse response = restTemplate.getForObject(url, MovieResponse.class);
+            MovieResponse response = searchMoviePage(query, page);
             if (response != null && response.getResults() != null) {
-                // Fetch trailer URLs for each movie asynchronously
-                List<CompletableFuture<Void>> futures = response.getResults().stream()
-                    .map(movie -> CompletableFuture.runAsync(() -> fetchAndSetTrailerUrl(movie), executorService))
-                    .toList();
-                
-                // Wait for all trailer fetching to complete
-                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                // Fetch trailer URLs for each movie in parallel; movies left without one at the deadline keep none
+                addMovieTrailers(response.getResults(), "movie search '" + query + "'");
                 
                 return response.getResults();
             }
             return Collections.emptyList();
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.warn("Error searching movies for '{}'", query, e);
             return Collections.emptyList();
         }
     }
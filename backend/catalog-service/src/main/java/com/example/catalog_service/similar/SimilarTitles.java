@@ -0,0 +1,177 @@
+package com.example.catalog_service.similar;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.Movie;
+import com.example.catalog_service.model.TvShow;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Similar movies and TV shows for detail pages, ranked locally instead of with
+ * a TMDB {@code /similar} call per page.
+ *
+ * Every movie and show the service reads from TMDB (feed and search pages,
+ * detail pages, the anime index) is added to a {@link SimilarityIndex} as a
+ * {@link TitleFeatures} vector; detail pages bring keywords and replace the
+ * vector built from a list entry. A detail page gets its neighbours from the
+ * index once it holds {@code catalog.similar.min-titles} titles of that kind;
+ * before that, or when it finds none, the caller asks TMDB as before.
+ * Lookups are counted as {@code catalog.similar.requests} tagged with type and
+ * source (local or tmdb), and index sizes are the {@code catalog.similar.index.size} gauge.
+ */
+@Component
+public class SimilarTitles {
+
+    private final SimilarTitlesProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SimilarityIndex<DetailedMovie.SimilarMovie> movies;
+    private final SimilarityIndex<DetailedTvShow.SimilarTvShow> tvShows;
+
+    @Autowired
+    public SimilarTitles(SimilarTitlesProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.movies = new SimilarityIndex<>(properties.getMaxTitles());
+        this.tvShows = new SimilarityIndex<>(properties.getMaxTitles());
+        Gauge.builder("catalog.similar.index.size", movies, SimilarityIndex::size)
+            .description("Titles in the similar-titles index")
+            .tag("type", "movie")
+            .register(meterRegistry);
+        Gauge.builder("catalog.similar.index.size", tvShows, SimilarityIndex::size)
+            .description("Titles in the similar-titles index")
+            .tag("type", "tv")
+            .register(meterRegistry);
+    }
+
+    public void indexMovies(List<Movie> page) {
+        if (!properties.isEnabled() || page == null) {
+            return;
+        }
+        for (Movie movie : page) {
+            if (movie.getId() == null) {
+                continue;
+            }
+            float[] vector = TitleFeatures.vector(movie.getGenreIds(), null, movie.getOriginalLanguage(),
+                movie.getReleaseDate(), movie.getPopularity());
+            movies.put(movie.getId(), vector,
+                similarMovie(movie.getId(), movie.getTitle(), movie.getPosterPath(), movie.getVoteAverage()), false);
+        }
+    }
+
+    public void indexMovie(DetailedMovie movie) {
+        if (!properties.isEnabled() || movie.getId() == null) {
+            return;
+        }
+        List<Integer> genreIds = movie.getGenres() == null ? null
+            : movie.getGenres().stream().map(DetailedMovie.Genre::getId).filter(Objects::nonNull).toList();
+        List<Integer> keywordIds = movie.getKeywords() == null || movie.getKeywords().getKeywords() == null ? null
+            : movie.getKeywords().getKeywords().stream().map(DetailedMovie.Keyword::getId).filter(Objects::nonNull).toList();
+        float[] vector = TitleFeatures.vector(genreIds, keywordIds, movie.getOriginalLanguage(),
+            movie.getReleaseDate(), movie.getPopularity());
+        movies.put(movie.getId(), vector,
+            similarMovie(movie.getId(), movie.getTitle(), movie.getPosterPath(), movie.getVoteAverage()), true);
+    }
+
+    public void indexTvShows(List<TvShow> page) {
+        if (!properties.isEnabled() || page == null) {
+            return;
+        }
+        for (TvShow tvShow : page) {
+            if (tvShow.getId() == null) {
+                continue;
+            }
+            float[] vector = TitleFeatures.vector(tvShow.getGenreIds(), null, tvShow.getOriginalLanguage(),
+                tvShow.getFirstAirDate(), tvShow.getPopularity());
+            tvShows.put(tvShow.getId(), vector,
+                similarTvShow(tvShow.getId(), tvShow.getName(), tvShow.getPosterPath(), tvShow.getVoteAverage()), false);
+        }
+    }
+
+    public void indexTvShow(DetailedTvShow tvShow) {
+        if (!properties.isEnabled() || tvShow.getId() == null) {
+            return;
+        }
+        List<Integer> genreIds = tvShow.getGenres() == null ? null
+            : tvShow.getGenres().stream().map(DetailedTvShow.Genre::getId).filter(Objects::nonNull).toList();
+        List<Integer> keywordIds = tvShow.getKeywords() == null || tvShow.getKeywords().getResults() == null ? null
+            : tvShow.getKeywords().getResults().stream().map(DetailedTvShow.Keyword::getId).filter(Objects::nonNull).toList();
+        float[] vector = TitleFeatures.vector(genreIds, keywordIds, tvShow.getOriginalLanguage(),
+            tvShow.getFirstAirDate(), tvShow.getPopularity());
+        tvShows.put(tvShow.getId(), vector,
+            similarTvShow(tvShow.getId(), tvShow.getName(), tvShow.getPosterPath(), tvShow.getVoteAverage()), true);
+    }
+
+    /**
+     * Whether TV detail pages can skip asking TMDB for similar shows up front
+     */
+    public boolean canRankTvShows() {
+        return properties.isEnabled() && tvShows.size() >= properties.getMinTitles();
+    }
+
+    /**
+     * @return empty when the movie should get its similar movies from TMDB
+     */
+    public Optional<DetailedMovie.Similar> similarMovies(long movieId) {
+        List<DetailedMovie.SimilarMovie> nearest = nearest(movies, movieId);
+        count("movie", nearest);
+        if (nearest.isEmpty()) {
+            return Optional.empty();
+        }
+        DetailedMovie.Similar similar = new DetailedMovie.Similar();
+        similar.setResults(nearest);
+        return Optional.of(similar);
+    }
+
+    /**
+     * @return empty when the show should get its similar shows from TMDB
+     */
+    public Optional<DetailedTvShow.Similar> similarTvShows(long tvShowId) {
+        List<DetailedTvShow.SimilarTvShow> nearest = nearest(tvShows, tvShowId);
+        count("tv", nearest);
+        if (nearest.isEmpty()) {
+            return Optional.empty();
+        }
+        DetailedTvShow.Similar similar = new DetailedTvShow.Similar();
+        similar.setResults(nearest);
+        return Optional.of(similar);
+    }
+
+    private <T> List<T> nearest(SimilarityIndex<T> index, long id) {
+        if (!properties.isEnabled() || index.size() < properties.getMinTitles()) {
+            return List.of();
+        }
+        return index.nearest(id, properties.getResults());
+    }
+
+    private void count(String type, List<?> nearest) {
+        meterRegistry.counter("catalog.similar.requests", "type", type, "source", nearest.isEmpty() ? "tmdb" : "local")
+            .increment();
+    }
+
+    private static DetailedMovie.SimilarMovie similarMovie(Long id, String title, String posterPath, Double voteAverage) {
+        DetailedMovie.SimilarMovie similar = new DetailedMovie.SimilarMovie();
+        similar.setId(id.intValue());
+        similar.setTitle(title);
+        similar.setPosterPath(posterPath);
+        similar.setVoteAverage(voteAverage);
+        return similar;
+    }
+
+    private static DetailedTvShow.SimilarTvShow similarTvShow(Long id, String name, String posterPath, Double voteAverage) {
+        DetailedTvShow.SimilarTvShow similar = new DetailedTvShow.SimilarTvShow();
+        similar.setId(id.intValue());
+        similar.setName(name);
+        similar.setPosterPath(posterPath);
+        similar.setVoteAverage(voteAverage);
+        return similar;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.catalog_service.similar;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "catalog.similar")
+public class SimilarTitlesProperties {
+    private boolean enabled = true;
+    
+    // Titles held per index (movies, TV); the oldest are overwritten past this
+    private int maxTitles = 50_000;
+    
+    // Detail pages ask TMDB until an index has seen this many titles to choose from
+    private int minTitles = 500;
+    
+    // Similar titles per detail page, as many as a TMDB /similar page
+    private int results = 20;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getMaxTitles() {
+        return maxTitles;
+    }
+    
+    public void setMaxTitles(int maxTitles) {
+        this.maxTitles = maxTitles;
+    }
+    
+    public int getMinTitles() {
+        return minTitles;
+    }
+    
+    public void setMinTitles(int minTitles) {
+        this.minTitles = minTitles;
+    }
+    
+    public int getResults() {
+        return results;
+    }
+    
+    public void setResults(int results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.catalog_service.similar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exact nearest-neighbour search over unit-length {@link TitleFeatures} vectors.
+ *
+ * All vectors live in one flat {@code float[]} (slot i at {@code i * DIMENSIONS}),
+ * so a query is a single linear scan of dot products without boxing or pointer
+ * chasing; at 20,000 titles that is a few million multiply-adds. Each slot also
+ * carries the title's id and the item returned for it. Once {@code capacity}
+ * titles are held, new titles overwrite the oldest slots.
+ *
+ * @param <T> what a query returns per title (e.g. {@code DetailedMovie.SimilarMovie})
+ */
+public class SimilarityIndex<T> {
+
+    private static final int DIMENSIONS = TitleFeatures.DIMENSIONS;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private float[] vectors = new float[0];
+    private long[] ids = new long[0];
+    private Object[] items = new Object[0];
+    private int size;
+    // next slot to overwrite once full
+    private int oldest;
+
+    public SimilarityIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add a title, or replace its vector and item when {@code replace} is set and it is already indexed.
+     */
+    public void put(long id, float[] vector, T item, boolean replace) {
+        if (vector.length != DIMENSIONS) {
+            throw new IllegalArgumentException("Expected " + DIMENSIONS + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                if (replace) {
+                    store(slot, id, vector, item);
+                }
+                return;
+            }
+            if (size < capacity) {
+                grow();
+                slot = size++;
+            } else {
+                slot = oldest;
+                oldest = (oldest + 1) % capacity;
+                slots.remove(ids[slot]);
+            }
+            slots.put(id, slot);
+            store(slot, id, vector, item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} indexed titles most similar to title {@code id}, most similar first
+     *
+     * @return empty if {@code id} is not indexed
+     */
+    public List<T> nearest(long id, int k) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                return List.of();
+            }
+            return nearest(Arrays.copyOfRange(vectors, slot * DIMENSIONS, (slot + 1) * DIMENSIONS), slot, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} indexed titles most similar to {@code query}, most similar first
+     */
+    public List<T> nearest(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            return nearest(query, -1, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> nearest(float[] query, int excludedSlot, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // the best k so far, best first; insertion keeps them sorted
+        float[] bestScores = new float[k];
+        int[] bestSlots = new int[k];
+        int found = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (slot == excludedSlot) {
+                continue;
+            }
+            float score = dot(query, slot * DIMENSIONS);
+            if (score <= 0 || (found == k && score <= bestScores[k - 1])) {
+                continue;
+            }
+            int position = found < k ? found++ : k - 1;
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                bestSlots[position] = bestSlots[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            bestSlots[position] = slot;
+        }
+        List<T> nearest = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            nearest.add((T) items[bestSlots[i]]);
+        }
+        return nearest;
+    }
+
+    private float dot(float[] query, int offset) {
+        float sum = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sum += query[i] * vectors[offset + i];
+        }
+        return sum;
+    }
+
+    private void store(int slot, long id, float[] vector, T item) {
+        System.arraycopy(vector, 0, vectors, slot * DIMENSIONS, DIMENSIONS);
+        ids[slot] = id;
+        items[slot] = item;
+    }
+
+    private void grow() {
+        if (size < ids.length) {
+            return;
+        }
+        int length = Math.min(capacity, Math.max(INITIAL_SLOTS, ids.length * 2));
+        vectors = Arrays.copyOf(vectors, length * DIMENSIONS);
+        ids = Arrays.copyOf(ids, length);
+        items = Arrays.copyOf(items, length);
+    }
+}
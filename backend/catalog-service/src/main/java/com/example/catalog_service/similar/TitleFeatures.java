@@ -0,0 +1,134 @@
+package com.example.catalog_service.similar;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns what TMDB tells us about a title into a fixed-length, unit-length float
+ * vector, so the cosine similarity of two titles is the dot product of their vectors.
+ *
+ * The vector is made of blocks, each normalized on its own and then weighted:
+ * genres (one slot per TMDB genre), keywords (hashed into 64 slots), original
+ * language (hashed into 16 slots), era (one slot per decade, bleeding into the
+ * neighbouring decades) and popularity (on a log scale). A title without
+ * keywords, e.g. one only seen in a feed page, simply has an empty keyword block.
+ */
+public final class TitleFeatures {
+
+    // Movie and TV genre ids, sorted; unknown ids share the extra last slot
+    private static final int[] GENRES = {
+        12, 14, 16, 18, 27, 28, 35, 36, 37, 53, 80, 99, 878, 9648, 10402, 10749, 10751, 10752,
+        10759, 10762, 10763, 10764, 10765, 10766, 10767, 10768, 10770
+    };
+
+    private static final int GENRE_SLOTS = GENRES.length + 1;
+    private static final int KEYWORD_SLOTS = 64;
+    private static final int LANGUAGE_SLOTS = 16;
+    // before 1950, the 1950s, ..., the 2020s and later
+    private static final int ERA_SLOTS = 9;
+    private static final int POPULARITY_SLOTS = 2;
+
+    private static final int GENRE_OFFSET = 0;
+    private static final int KEYWORD_OFFSET = GENRE_OFFSET + GENRE_SLOTS;
+    private static final int LANGUAGE_OFFSET = KEYWORD_OFFSET + KEYWORD_SLOTS;
+    private static final int ERA_OFFSET = LANGUAGE_OFFSET + LANGUAGE_SLOTS;
+    private static final int POPULARITY_OFFSET = ERA_OFFSET + ERA_SLOTS;
+
+    public static final int DIMENSIONS = POPULARITY_OFFSET + POPULARITY_SLOTS;
+
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float KEYWORD_WEIGHT = 1.0f;
+    private static final float LANGUAGE_WEIGHT = 0.6f;
+    private static final float ERA_WEIGHT = 0.4f;
+    private static final float POPULARITY_WEIGHT = 0.25f;
+
+    // Popularity at which the popularity feature saturates
+    private static final double TOP_POPULARITY = 1000.0;
+
+    private TitleFeatures() {
+    }
+
+    /**
+     * @param genreIds TMDB genre ids, may be null
+     * @param keywordIds TMDB keyword ids, may be null
+     * @param originalLanguage ISO 639-1 code, may be null
+     * @param date release or first air date (yyyy-MM-dd), may be null
+     * @param popularity TMDB popularity, may be null
+     */
+    public static float[] vector(List<Integer> genreIds, List<Integer> keywordIds, String originalLanguage,
+            String date, Double popularity) {
+        float[] vector = new float[DIMENSIONS];
+        if (genreIds != null) {
+            for (Integer genreId : genreIds) {
+                if (genreId != null) {
+                    int slot = Arrays.binarySearch(GENRES, genreId);
+                    vector[GENRE_OFFSET + (slot >= 0 ? slot : GENRES.length)] = 1f;
+                }
+            }
+        }
+        if (keywordIds != null) {
+            for (Integer keywordId : keywordIds) {
+                if (keywordId != null) {
+                    vector[KEYWORD_OFFSET + Math.floorMod(keywordId * 0x9E3779B1, KEYWORD_SLOTS)] += 1f;
+                }
+            }
+        }
+        if (originalLanguage != null && !originalLanguage.isEmpty()) {
+            vector[LANGUAGE_OFFSET + Math.floorMod(originalLanguage.hashCode(), LANGUAGE_SLOTS)] = 1f;
+        }
+        int year = year(date);
+        if (year > 0) {
+            int era = Math.max(0, Math.min(ERA_SLOTS - 1, (year - 1940) / 10));
+            vector[ERA_OFFSET + era] = 1f;
+            if (era > 0) {
+                vector[ERA_OFFSET + era - 1] = 0.5f;
+            }
+            if (era < ERA_SLOTS - 1) {
+                vector[ERA_OFFSET + era + 1] = 0.5f;
+            }
+        }
+        if (popularity != null && popularity > 0) {
+            float level = (float) Math.min(1.0, Math.log1p(popularity) / Math.log1p(TOP_POPULARITY));
+            vector[POPULARITY_OFFSET] = level;
+            vector[POPULARITY_OFFSET + 1] = 1f - level;
+        }
+
+        scaleBlock(vector, GENRE_OFFSET, GENRE_SLOTS, GENRE_WEIGHT);
+        scaleBlock(vector, KEYWORD_OFFSET, KEYWORD_SLOTS, KEYWORD_WEIGHT);
+        scaleBlock(vector, LANGUAGE_OFFSET, LANGUAGE_SLOTS, LANGUAGE_WEIGHT);
+        scaleBlock(vector, ERA_OFFSET, ERA_SLOTS, ERA_WEIGHT);
+        scaleBlock(vector, POPULARITY_OFFSET, POPULARITY_SLOTS, POPULARITY_WEIGHT);
+        scaleBlock(vector, 0, DIMENSIONS, 1f);
+        return vector;
+    }
+
+    /**
+     * Scale {@code vector[offset .. offset + length)} to length {@code weight}, leaving an all-zero block alone
+     */
+    private static void scaleBlock(float[] vector, int offset, int length, float weight) {
+        double sumOfSquares = 0;
+        for (int i = offset; i < offset + length; i++) {
+            sumOfSquares += vector[i] * vector[i];
+        }
+        if (sumOfSquares == 0) {
+            return;
+        }
+        float scale = (float) (weight / Math.sqrt(sumOfSquares));
+        for (int i = offset; i < offset + length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    private static int year(String date) {
+        if (date == null || date.length() < 4) {
+            return 0;
+        }
+        try {
+            return LocalDate.parse(date).getYear();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
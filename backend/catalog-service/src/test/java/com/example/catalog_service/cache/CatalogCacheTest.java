@@ -0,0 +1,275 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.exception.TmdbNotFoundException;
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.StringPool;
+import com.example.catalog_service.service.TmdbRequestContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CatalogCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CatalogCacheProperties properties = new CatalogCacheProperties();
+    private final TmdbProperties tmdbProperties = new TmdbProperties();
+    // a draw of 1.0 never triggers an early refresh
+    private final CatalogCache cache = new CatalogCache(properties, tmdbProperties, registry, now::get, () -> 1.0, Runnable::run, List.of());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void remembersNotFoundForTheShortTtl() {
+        Supplier<String> missing = counted(() -> {
+            throw new TmdbNotFoundException("TMDB details not found", null);
+        });
+
+        assertFalse(cache.get(CacheRegion.MOVIE_DETAILS, 1L, missing).isPresent());
+        assertFalse(cache.get(CacheRegion.MOVIE_DETAILS, 1L, missing).isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("catalog.cache.requests")
+            .tags("region", "movie_details", "result", "negative_hit").counter().count());
+
+        advance(properties.getNotFoundTtl().plusSeconds(1));
+        cache.get(CacheRegion.MOVIE_DETAILS, 1L, missing);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void countsPooledStringsOnlyWhileTitlesAreCached() {
+        String job = StringPool.SHARED.canonicalize(new String("Cache test job " + System.nanoTime()));
+        long size = movieWithCrew(job).canonicalStringSavings();
+        long before = StringPool.SHARED.savedBytes();
+
+        cache.put(CacheRegion.MOVIE_DETAILS, 1L, movieWithCrew(job, job));
+        cache.put(CacheRegion.MOVIE_DETAILS, 2L, movieWithCrew(job));
+        assertEquals(before + 2 * size, StringPool.SHARED.savedBytes());
+        assertEquals(2 * size, registry.get("catalog.stringpool.title.saved")
+            .tags("region", "movie_details").summary().max());
+
+        // a refresh replaces the title rather than adding to it
+        cache.put(CacheRegion.MOVIE_DETAILS, 1L, movieWithCrew(job, job));
+        assertEquals(before + 2 * size, StringPool.SHARED.savedBytes());
+
+        cache.invalidate(CacheRegion.MOVIE_DETAILS, 1L);
+        cache.invalidate(CacheRegion.MOVIE_DETAILS, 2L);
+        assertEquals(before, StringPool.SHARED.savedBytes());
+    }
+
+    @Test
+    void treatsNullAsNotFound() {
+        Supplier<String> noImdbId = counted(() -> null);
+
+        cache.get(CacheRegion.PERSON_IMDB, 7, noImdbId);
+        cache.get(CacheRegion.PERSON_IMDB, 7, noImdbId);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void keepsValuesForTheRegionTtl() {
+        Supplier<String> found = counted(() -> "Fight Club");
+
+        assertEquals(Optional.of("Fight Club"), cache.get(CacheRegion.MOVIE_DETAILS, 550L, found));
+        advance(properties.getNotFoundTtl().plusSeconds(1));
+        assertEquals(Optional.of("Fight Club"), cache.get(CacheRegion.MOVIE_DETAILS, 550L, found));
+        assertEquals(1, loads.get());
+
+        advance(properties.getDetailsTtl());
+        cache.get(CacheRegion.MOVIE_DETAILS, 550L, found);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotCacheTransientFailures() {
+        Supplier<String> failing = counted(() -> {
+            throw new ResourceAccessException("Read timed out");
+        });
+
+        assertThrows(ResourceAccessException.class, () -> cache.get(CacheRegion.MOVIE, 2L, failing));
+        assertThrows(ResourceAccessException.class, () -> cache.get(CacheRegion.MOVIE, 2L, failing));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void doesNotCacheDegradedResults() {
+        TmdbRequestContext context = TmdbRequestContext.open(Duration.ofSeconds(5));
+        try {
+            cache.get(CacheRegion.TV_DETAILS, 3L, counted(() -> {
+                context.markDegraded();
+                return "partial";
+            }));
+            cache.get(CacheRegion.TV_DETAILS, 3L, counted(() -> "complete"));
+            cache.get(CacheRegion.TV_DETAILS, 3L, counted(() -> "complete"));
+        } finally {
+            context.close();
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void refreshesHotEntriesInTheBackgroundBeforeTheyExpire() {
+        Queue<Runnable> refreshThread = new ArrayDeque<>();
+        // -ln(0.01) = 4.6, so a 1s load is refreshed once less than 4.6s are left
+        CatalogCache early = new CatalogCache(properties, tmdbProperties, registry, now::get, () -> 0.01, refreshThread::add, List.of());
+        AtomicInteger version = new AtomicInteger();
+        Supplier<String> feed = counted(() -> {
+            advance(Duration.ofSeconds(1));
+            return "page v" + version.incrementAndGet();
+        });
+
+        early.get(CacheRegion.POPULAR_MOVIES, 1, feed);
+        advance(properties.getFeedTtl().minusSeconds(10));
+        early.get(CacheRegion.POPULAR_MOVIES, 1, feed);
+        assertTrue(refreshThread.isEmpty());
+
+        advance(Duration.ofSeconds(7));
+        assertEquals(Optional.of("page v1"), early.get(CacheRegion.POPULAR_MOVIES, 1, feed));
+        assertEquals(Optional.of("page v1"), early.get(CacheRegion.POPULAR_MOVIES, 1, feed));
+        assertEquals(1, refreshThread.size());
+
+        refreshThread.poll().run();
+        assertEquals(Optional.of("page v2"), early.get(CacheRegion.POPULAR_MOVIES, 1, feed));
+        assertEquals(2, loads.get());
+        assertEquals(1, registry.get("catalog.cache.refreshes")
+            .tags("region", "popular_movies", "outcome", "success").counter().count());
+    }
+
+    /**
+     * Replays 30 minutes of a hot home feed requested every 50ms, with a 2s recompute
+     * and a 5 minute TTL. The single refresh thread runs whatever was queued after each request.
+     */
+    @Test
+    void upstreamRateStaysFlatAcrossTtlBoundaries() {
+        List<Long> withEarlyRefresh = new ArrayList<>();
+        int foregroundLoads = simulateHotFeed(1.0, withEarlyRefresh);
+
+        // one cold miss, then every reload happens in the background shortly before expiry
+        assertEquals(1, foregroundLoads);
+        assertTrue(withEarlyRefresh.size() >= 6 && withEarlyRefresh.size() <= 7, "loads: " + withEarlyRefresh.size());
+        for (int i = 1; i < withEarlyRefresh.size(); i++) {
+            long interval = withEarlyRefresh.get(i) - withEarlyRefresh.get(i - 1);
+            assertTrue(interval > Duration.ofMinutes(4).toNanos() && interval <= Duration.ofSeconds(302).toNanos(),
+                "reload interval " + TimeUnit.NANOSECONDS.toSeconds(interval) + "s");
+        }
+
+        // without early refresh, every TTL boundary makes a reader wait for TMDB
+        List<Long> withoutEarlyRefresh = new ArrayList<>();
+        int foregroundWithoutEarlyRefresh = simulateHotFeed(0, withoutEarlyRefresh);
+        assertTrue(withoutEarlyRefresh.size() >= 6);
+        assertEquals(withoutEarlyRefresh.size(), foregroundWithoutEarlyRefresh);
+    }
+
+    private int simulateHotFeed(double beta, List<Long> loadTimes) {
+        properties.setFeedTtl(Duration.ofMinutes(5));
+        properties.setEarlyRefreshBeta(beta);
+        Random random = new Random(42);
+        Queue<Runnable> refreshThread = new ArrayDeque<>();
+        CatalogCache simulated = new CatalogCache(properties, tmdbProperties, new SimpleMeterRegistry(), now::get,
+            () -> 1.0 - random.nextDouble(), refreshThread::add, List.of());
+        Supplier<String> feed = () -> {
+            loadTimes.add(now.get());
+            advance(Duration.ofSeconds(2));
+            return "page";
+        };
+
+        long start = now.get();
+        long end = start + Duration.ofMinutes(30).toNanos();
+        int foregroundLoads = 0;
+        for (long next = start; next < end; next += Duration.ofMillis(50).toNanos()) {
+            now.set(Math.max(now.get(), next));
+            int before = loadTimes.size();
+            simulated.get(CacheRegion.POPULAR_MOVIES, 1, feed);
+            if (loadTimes.size() > before) {
+                foregroundLoads++;
+            }
+            for (Runnable refresh; (refresh = refreshThread.poll()) != null; ) {
+                refresh.run();
+            }
+        }
+        return foregroundLoads;
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CatalogCache realTime = new CatalogCache(properties, tmdbProperties, registry, System::nanoTime, () -> 1.0, Runnable::run, List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slowFeed = counted(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "page";
+        });
+
+        ExecutorService readers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(readers.submit(() -> realTime.get(CacheRegion.TRENDING_TV, 1, slowFeed)));
+            }
+            while (registry.counter("catalog.cache.requests", "region", "trending_tv", "result", "coalesced").count() < 15) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Optional<String>> result : results) {
+                assertEquals(Optional.of("page"), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    private <T> Supplier<T> counted(Supplier<T> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static DetailedMovie movieWithCrew(String... jobs) {
+        DetailedMovie.Credits credits = new DetailedMovie.Credits();
+        credits.setCrew(new ArrayList<>());
+        for (String job : jobs) {
+            DetailedMovie.Crew crewMember = new DetailedMovie.Crew();
+            crewMember.setJob(job);
+            credits.getCrew().add(crewMember);
+        }
+        DetailedMovie movie = new DetailedMovie();
+        movie.setCredits(credits);
+        return movie;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.Movie;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DiskCacheTierTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong wallClock = new AtomicLong(1_000_000);
+    private final CatalogCacheProperties properties = new CatalogCacheProperties();
+    private final List<DiskCacheTier> tiers = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties.getDisk().setEnabled(true);
+        properties.getDisk().setDirectory(directory.toString());
+        properties.getDisk().setSegmentSize(DataSize.ofKilobytes(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tiers.forEach(DiskCacheTier::close);
+    }
+
+    @Test
+    void restartedTierHasItsEntries() {
+        DiskCacheTier tier = open();
+        for (long id = 1; id <= 50; id++) {
+            tier.put(CacheRegion.MOVIE, String.valueOf(id), entry(movie(id, "v1")));
+        }
+        tier.put(CacheRegion.MOVIE, "404", new CacheTier.Entry(null, Duration.ofMinutes(1), 0));
+        tier.close();
+
+        DiskCacheTier restarted = open();
+
+        assertTrue(restarted.segmentCount() > 1);
+        for (long id = 1; id <= 50; id++) {
+            assertEquals("Movie " + id + " v1", title(restarted.get(CacheRegion.MOVIE, String.valueOf(id))));
+        }
+        CacheTier.Entry notFound = restarted.get(CacheRegion.MOVIE, "404").orElseThrow();
+        assertEquals(null, notFound.value());
+        assertEquals(Duration.ofMinutes(1), notFound.ttl());
+        assertFalse(restarted.get(CacheRegion.MOVIE_DETAILS, "1").isPresent());
+    }
+
+    @Test
+    void invalidationsSurviveRestart() {
+        DiskCacheTier tier = open();
+        tier.put(CacheRegion.MOVIE, "1", entry(movie(1, "v1")));
+        tier.put(CacheRegion.MOVIE, "2", entry(movie(2, "v1")));
+        tier.invalidate(CacheRegion.MOVIE, "1");
+        tier.put(CacheRegion.MOVIE, "2", entry(movie(2, "v2")));
+        tier.close();
+
+        DiskCacheTier restarted = open();
+
+        assertFalse(restarted.get(CacheRegion.MOVIE, "1").isPresent());
+        assertEquals("Movie 2 v2", title(restarted.get(CacheRegion.MOVIE, "2")));
+    }
+
+    @Test
+    void expiredEntriesAreNotLoaded() {
+        DiskCacheTier tier = open();
+        tier.put(CacheRegion.MOVIE, "1", new CacheTier.Entry(movie(1, "v1"), Duration.ofMinutes(1), 0));
+        tier.put(CacheRegion.MOVIE, "2", new CacheTier.Entry(movie(2, "v1"), Duration.ofHours(1), 0));
+        tier.close();
+        wallClock.addAndGet(Duration.ofMinutes(2).toMillis());
+
+        DiskCacheTier restarted = open();
+
+        assertFalse(restarted.get(CacheRegion.MOVIE, "1").isPresent());
+        CacheTier.Entry left = restarted.get(CacheRegion.MOVIE, "2").orElseThrow();
+        assertEquals(Duration.ofMinutes(58), left.ttl());
+        assertEquals(1.0, registry.get("catalog.cache.disk.entries").gauge().value());
+    }
+
+    @Test
+    void recordCutShortIsIgnoredAndOverwritten() throws Exception {
+        DiskCacheTier tier = open();
+        tier.put(CacheRegion.MOVIE, "1", entry(movie(1, "v1")));
+        Path segment = directory.resolve("segment-00000001.seg");
+        int end = lastNonZero(Files.readAllBytes(segment)) + 1;
+        tier.put(CacheRegion.MOVIE, "2", entry(movie(2, "v1")));
+        tier.close();
+        // as if the process died while the second record was being written
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[end + 20] ^= 0x5a;
+        Files.write(segment, bytes);
+
+        DiskCacheTier restarted = open();
+        assertEquals("Movie 1 v1", title(restarted.get(CacheRegion.MOVIE, "1")));
+        assertFalse(restarted.get(CacheRegion.MOVIE, "2").isPresent());
+        restarted.put(CacheRegion.MOVIE, "3", entry(movie(3, "v1")));
+        restarted.close();
+
+        DiskCacheTier again = open();
+        assertEquals("Movie 1 v1", title(again.get(CacheRegion.MOVIE, "1")));
+        assertEquals("Movie 3 v1", title(again.get(CacheRegion.MOVIE, "3")));
+    }
+
+    @Test
+    void compactionRewritesStaleSegments() {
+        DiskCacheTier tier = open();
+        for (int round = 1; round <= 20; round++) {
+            for (long id = 1; id <= 5; id++) {
+                tier.put(CacheRegion.MOVIE, String.valueOf(id), entry(movie(id, "v" + round)));
+            }
+        }
+        tier.invalidate(CacheRegion.MOVIE, "5");
+        int before = tier.segmentCount();
+
+        tier.compact();
+
+        assertTrue(tier.segmentCount() < before, tier.segmentCount() + " segments, " + before + " before");
+        assertTrue(registry.get("catalog.cache.disk.compactions").counter().count() > 0);
+        for (long id = 1; id <= 4; id++) {
+            assertEquals("Movie " + id + " v20", title(tier.get(CacheRegion.MOVIE, String.valueOf(id))));
+        }
+        tier.close();
+
+        DiskCacheTier restarted = open();
+        for (long id = 1; id <= 4; id++) {
+            assertEquals("Movie " + id + " v20", title(restarted.get(CacheRegion.MOVIE, String.valueOf(id))));
+        }
+        assertFalse(restarted.get(CacheRegion.MOVIE, "5").isPresent());
+    }
+
+    @Test
+    void compactionKeepsATitleCachedAgainAfterItWasForgotten() {
+        DiskCacheTier tier = open();
+        // a first segment of live entries, so the one compacted below isn't the oldest
+        long id = 0;
+        while (tier.segmentCount() == 1) {
+            id++;
+            tier.put(CacheRegion.MOVIE, String.valueOf(id), entry(movie(id, "v1")));
+        }
+        tier.put(CacheRegion.MOVIE, "1000", entry(movie(1000, "v1")));
+        tier.forget(CacheRegion.MOVIE, "1000");
+        for (int round = 1; tier.segmentCount() == 2; round++) {
+            tier.put(CacheRegion.MOVIE, "2000", entry(movie(2000, "v" + round)));
+        }
+        tier.put(CacheRegion.MOVIE, "1000", entry(movie(1000, "v2")));
+
+        tier.compact();
+        tier.close();
+
+        DiskCacheTier restarted = open();
+        assertEquals("Movie 1000 v2", title(restarted.get(CacheRegion.MOVIE, "1000")));
+    }
+
+    @Test
+    void dropsOldestSegmentPastTheLimit() {
+        properties.getDisk().setMaxSegments(3);
+        DiskCacheTier tier = open();
+        for (long id = 1; id <= 200; id++) {
+            tier.put(CacheRegion.MOVIE, String.valueOf(id), entry(movie(id, "v1")));
+        }
+
+        assertEquals(3, tier.segmentCount());
+        assertFalse(tier.get(CacheRegion.MOVIE, "1").isPresent());
+        assertEquals("Movie 200 v1", title(tier.get(CacheRegion.MOVIE, "200")));
+        assertTrue(registry.get("catalog.cache.disk.evictions").counter().count() > 0);
+    }
+
+    @Test
+    void restartedCacheAnswersFromDisk() {
+        CatalogCache before = cache(open());
+        before.get(CacheRegion.MOVIE, 603L, () -> movie(603, "v1"));
+        tiers.forEach(DiskCacheTier::close);
+
+        CatalogCache after = cache(open());
+
+        Movie movie = after.<Movie>get(CacheRegion.MOVIE, 603L, () -> fail("loaded again")).orElseThrow();
+        assertEquals("Movie 603 v1", movie.getTitle());
+        assertEquals(1, after.size());
+        assertEquals(1, registry.get("catalog.cache.requests").tags("region", "movie", "result", "l2_hit").counter().count());
+    }
+
+    @Test
+    void forgetAllEmptiesTheDirectory() throws Exception {
+        DiskCacheTier tier = open();
+        for (long id = 1; id <= 50; id++) {
+            tier.put(CacheRegion.MOVIE, String.valueOf(id), entry(movie(id, "v1")));
+        }
+
+        tier.forgetAll();
+        tier.close();
+
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        assertFalse(open().get(CacheRegion.MOVIE, "1").isPresent());
+    }
+
+    private DiskCacheTier open() {
+        registry = new SimpleMeterRegistry();
+        DiskCacheTier tier = new DiskCacheTier(properties.getDisk(), registry, wallClock::get);
+        tiers.add(tier);
+        return tier;
+    }
+
+    private CatalogCache cache(DiskCacheTier tier) {
+        return new CatalogCache(properties, new TmdbProperties(), registry, System::nanoTime, () -> 1.0, Runnable::run,
+            List.of(tier));
+    }
+
+    private static CacheTier.Entry entry(Object value) {
+        return new CacheTier.Entry(value, Duration.ofHours(1), 1_000);
+    }
+
+    private static String title(Optional<CacheTier.Entry> entry) {
+        return ((Movie) entry.orElseThrow().value()).getTitle();
+    }
+
+    private static int lastNonZero(byte[] bytes) {
+        int i = bytes.length - 1;
+        while (i >= 0 && bytes[i] == 0) {
+            i--;
+        }
+        return i;
+    }
+
+    private static Movie movie(long id, String version) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id + " " + version);
+        movie.setOverview("A movie about the number " + id);
+        movie.setPosterPath("/poster" + id + ".jpg");
+        movie.setOriginalLanguage("en");
+        return movie;
+    }
+}
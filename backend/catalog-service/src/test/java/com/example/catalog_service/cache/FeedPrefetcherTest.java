@@ -0,0 +1,97 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.catalog_service.config.TmdbProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeedPrefetcherTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong callRate = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CatalogCacheProperties properties = new CatalogCacheProperties();
+    private final CatalogCache cache =
+        new CatalogCache(properties, new TmdbProperties(), registry, now::get, () -> 1.0, Runnable::run, List.of());
+    private final FeedPrefetcher prefetcher =
+        new FeedPrefetcher(cache, properties.getPrefetch(), 40, callRate::get, now::get, registry, Runnable::run);
+
+    @Test
+    void prefetchedPageIsServedFromTheCache() {
+        prefetcher.prefetch(CacheRegion.ANIME, 2, page(2));
+        assertEquals(1, loads.get());
+
+        assertEquals(Optional.of("page 2"), cache.get(CacheRegion.ANIME, 2, page(2)));
+        cache.get(CacheRegion.ANIME, 2, page(2));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("catalog.prefetch.used").tags("feed", "anime").counter().count());
+    }
+
+    @Test
+    void doesNotReloadCachedPages() {
+        cache.get(CacheRegion.ANIME, 2, page(2));
+        prefetcher.prefetch(CacheRegion.ANIME, 2, page(2));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("catalog.prefetch.skipped").tags("feed", "anime", "reason", "cached").counter().count());
+    }
+
+    @Test
+    void backsOffNearTheTmdbRateLimit() {
+        callRate.set(30);
+        prefetcher.prefetch(CacheRegion.POPULAR_MOVIES, 2, page(2));
+
+        assertEquals(0, loads.get());
+        assertEquals(1, registry.get("catalog.prefetch.skipped")
+            .tags("feed", "popular_movies", "reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    void pausesFeedsWhosePrefetchesAreNotRead() {
+        properties.getPrefetch().setEvaluationWindow(4);
+        for (int page = 2; page <= 5; page++) {
+            prefetcher.prefetch(CacheRegion.TRENDING_TV, page, page(page));
+        }
+        assertEquals(0.0, registry.get("catalog.prefetch.hit.rate").tags("feed", "trending_tv").gauge().value());
+
+        prefetcher.prefetch(CacheRegion.TRENDING_TV, 6, page(6));
+        assertEquals(4, loads.get());
+
+        now.addAndGet(properties.getPrefetch().getCooldown().plus(Duration.ofSeconds(1)).toNanos());
+        prefetcher.prefetch(CacheRegion.TRENDING_TV, 6, page(6));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void keepsPrefetchingWhenPagesAreRead() {
+        properties.getPrefetch().setEvaluationWindow(4);
+        for (int page = 2; page <= 5; page++) {
+            prefetcher.prefetch(CacheRegion.TRENDING_TV, page, page(page));
+            cache.get(CacheRegion.TRENDING_TV, page, page(page));
+        }
+        // the window closes when the fourth page is prefetched, before anyone reads it
+        assertEquals(0.75, registry.get("catalog.prefetch.hit.rate").tags("feed", "trending_tv").gauge().value());
+
+        prefetcher.prefetch(CacheRegion.TRENDING_TV, 6, page(6));
+        assertEquals(5, loads.get());
+    }
+
+    private Supplier<String> page(int page) {
+        return () -> {
+            loads.incrementAndGet();
+            return "page " + page;
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.catalog_service.cache;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Redis stand-in for tests: GET, SET (PX, NX), DEL, PUBLISH, SUBSCRIBE,
+ * PING and AUTH over RESP2, one thread per connection.
+ */
+class MiniRespServer implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Map<String, Value> data = new ConcurrentHashMap<>();
+    private final Map<String, List<Client>> subscribers = new ConcurrentHashMap<>();
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final AtomicInteger commands = new AtomicInteger();
+
+    MiniRespServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().daemon().start(this::accept);
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    int commands() {
+        return commands.get();
+    }
+
+    int subscribers() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    boolean contains(String key) {
+        Value value = data.get(key);
+        return value != null && value.expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Drop every connection (as a restart would), keeping the data.
+     */
+    void disconnectAll() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        subscribers.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        disconnectAll();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                sockets.add(socket);
+                Thread.ofPlatform().daemon().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            Client client = new Client(socket.getOutputStream());
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                commands.incrementAndGet();
+                execute(client, command);
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void execute(Client client, List<byte[]> command) throws IOException {
+        String name = string(command.get(0)).toUpperCase();
+        switch (name) {
+            case "PING" -> client.write("+PONG\r\n");
+            case "AUTH" -> client.write("+OK\r\n");
+            case "GET" -> {
+                Value value = data.get(string(command.get(1)));
+                if (value == null || value.expiresAt <= System.currentTimeMillis()) {
+                    client.write("$-1\r\n");
+                } else {
+                    client.bulk(value.bytes);
+                }
+            }
+            case "SET" -> {
+                String key = string(command.get(1));
+                long expiresAt = Long.MAX_VALUE;
+                boolean onlyIfAbsent = false;
+                for (int i = 3; i < command.size(); i++) {
+                    String option = string(command.get(i)).toUpperCase();
+                    if (option.equals("PX")) {
+                        expiresAt = System.currentTimeMillis() + Long.parseLong(string(command.get(++i)));
+                    } else if (option.equals("NX")) {
+                        onlyIfAbsent = true;
+                    }
+                }
+                if (onlyIfAbsent && contains(key)) {
+                    client.write("$-1\r\n");
+                } else {
+                    data.put(key, new Value(command.get(2), expiresAt));
+                    client.write("+OK\r\n");
+                }
+            }
+            case "DEL" -> {
+                int removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    removed += data.remove(string(command.get(i))) != null ? 1 : 0;
+                }
+                client.write(":" + removed + "\r\n");
+            }
+            case "PUBLISH" -> {
+                List<Client> receivers = subscribers.getOrDefault(string(command.get(1)), List.of());
+                for (Client receiver : receivers) {
+                    receiver.push(command.get(1), command.get(2));
+                }
+                client.write(":" + receivers.size() + "\r\n");
+            }
+            case "SUBSCRIBE" -> {
+                client.write("*3\r\n$9\r\nsubscribe\r\n");
+                client.bulk(command.get(1));
+                client.write(":1\r\n");
+                subscribers.computeIfAbsent(string(command.get(1)), key -> new CopyOnWriteArrayList<>()).add(client);
+            }
+            default -> client.write("-ERR unknown command '" + name + "'\r\n");
+        }
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        expect(in, '*');
+        int count = Integer.parseInt(readLine(in));
+        byte[][] args = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            expect(in, '$');
+            int length = Integer.parseInt(readLine(in));
+            args[i] = in.readNBytes(length);
+            readLine(in);
+        }
+        return List.of(args);
+    }
+
+    private static void expect(InputStream in, char type) throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            throw new EOFException();
+        }
+        if (c != type) {
+            throw new IOException("Expected " + type + " but got " + (char) c);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c == -1) {
+                throw new EOFException();
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Value(byte[] bytes, long expiresAt) {
+    }
+
+    private static final class Client {
+        private final OutputStream out;
+
+        Client(OutputStream out) {
+            this.out = out;
+        }
+
+        synchronized void write(String reply) throws IOException {
+            out.write(reply.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        synchronized void bulk(byte[] bytes) throws IOException {
+            out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(bytes);
+            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        synchronized void push(byte[] channel, byte[] message) {
+            try {
+                write("*3\r\n$7\r\nmessage\r\n");
+                bulk(channel);
+                bulk(message);
+            } catch (IOException e) {
+                // subscriber went away
+            }
+        }
+    }
+}
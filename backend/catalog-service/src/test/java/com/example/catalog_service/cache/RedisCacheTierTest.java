@@ -0,0 +1,241 @@
+package com.example.catalog_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.Movie;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RedisCacheTierTest {
+
+    private final CatalogCacheProperties properties = new CatalogCacheProperties();
+    private final TmdbProperties tmdbProperties = new TmdbProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<RedisCacheTier> tiers = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private MiniRespServer redis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new MiniRespServer();
+        properties.getL2().setEnabled(true);
+        properties.getL2().setPort(redis.port());
+        properties.getL2().setTimeout(Duration.ofSeconds(1));
+        properties.getL2().setRetryAfter(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        tiers.forEach(RedisCacheTier::close);
+        redis.close();
+    }
+
+    @Test
+    void replicasShareOneLoad() {
+        CatalogCache first = replica();
+        CatalogCache second = replica();
+
+        DetailedMovie loaded = first.get(CacheRegion.MOVIE_DETAILS, 603L, counted(() -> detailedMovie(603, "The Matrix")))
+            .orElseThrow();
+        DetailedMovie shared = second.get(CacheRegion.MOVIE_DETAILS, 603L, counted(() -> detailedMovie(603, "other")))
+            .orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals("The Matrix", shared.getTitle());
+        assertEquals(loaded.getGenres().get(0).getName(), shared.getGenres().get(0).getName());
+        assertEquals(1, registry.get("catalog.cache.requests").tags("region", "movie_details", "result", "l2_hit")
+            .counter().count());
+        assertTrue(redis.contains("catalog-cache:movie_details:603"));
+    }
+
+    @Test
+    void sharesNotFound() {
+        CatalogCache first = replica();
+        CatalogCache second = replica();
+
+        assertFalse(first.get(CacheRegion.MOVIE, 999L, counted(() -> null)).isPresent());
+        assertFalse(second.get(CacheRegion.MOVIE, 999L, counted(() -> movie(999))).isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void concurrentMissesOnDifferentReplicasLoadOnce() throws Exception {
+        List<CatalogCache> replicas = List.of(replica(), replica(), replica());
+        Supplier<List<Movie>> slowPage = counted(() -> {
+            sleep(300);
+            return List.of(movie(1), movie(2));
+        });
+        ExecutorService requests = Executors.newFixedThreadPool(replicas.size());
+        try {
+            List<Future<Optional<List<Movie>>>> pages = new ArrayList<>();
+            for (CatalogCache replica : replicas) {
+                pages.add(requests.submit(() -> replica.get(CacheRegion.POPULAR_MOVIES, 1, slowPage)));
+            }
+            for (Future<Optional<List<Movie>>> page : pages) {
+                assertEquals(2, page.get().orElseThrow().size());
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void storesFromOneReplicaReplaceOtherReplicasCopies() {
+        CatalogCache first = replica();
+        CatalogCache second = replica();
+        awaitSubscribers(2);
+        first.get(CacheRegion.PERSON_IMDB, 6384L, () -> "nm0000206");
+        assertEquals("nm0000206", second.get(CacheRegion.PERSON_IMDB, 6384L, () -> fail("not shared")).orElseThrow());
+
+        first.put(CacheRegion.PERSON_IMDB, 6384L, "nm0000207");
+
+        eventually(() -> second.get(CacheRegion.PERSON_IMDB, 6384L, () -> fail("not shared"))
+            .filter("nm0000207"::equals).isPresent());
+    }
+
+    @Test
+    void invalidationsReachOtherReplicas() {
+        CatalogCache first = replica();
+        CatalogCache second = replica();
+        awaitSubscribers(2);
+        first.get(CacheRegion.MOVIE, 603L, () -> movie(603));
+        second.get(CacheRegion.MOVIE, 603L, () -> fail("not shared"));
+
+        first.invalidate(CacheRegion.MOVIE, 603L);
+
+        assertFalse(redis.contains("catalog-cache:movie:603"));
+        eventually(() -> second.size() == 0);
+    }
+
+    @Test
+    void dropsLocalEntriesAfterMissingInvalidations() throws Exception {
+        CatalogCache replica = replica();
+        awaitSubscribers(1);
+        replica.get(CacheRegion.MOVIE, 603L, () -> movie(603));
+        assertEquals(1, replica.size());
+
+        redis.disconnectAll();
+
+        eventually(() -> redis.subscribers() == 1 && replica.size() == 0);
+    }
+
+    @Test
+    void loadsWithoutRedisWhenItIsDown() throws Exception {
+        CatalogCache replica = replica();
+        redis.close();
+
+        assertEquals(603L, replica.get(CacheRegion.MOVIE, 603L, counted(() -> movie(603))).orElseThrow().getId());
+        assertEquals(603L, replica.get(CacheRegion.MOVIE, 603L, counted(() -> movie(603))).orElseThrow().getId());
+        assertEquals(1, loads.get());
+        assertTrue(registry.get("catalog.cache.l2.errors").counters().stream().mapToDouble(c -> c.count()).sum() > 0);
+    }
+
+    @Test
+    void encodesCompactlyAndHonoursExpiry() throws Exception {
+        AtomicLong wallClock = new AtomicLong(1_000_000);
+        CacheValueCodec codec = new CacheValueCodec(wallClock::get);
+        List<Movie> page = new ArrayList<>();
+        for (int id = 0; id < 20; id++) {
+            page.add(movie(id));
+        }
+
+        byte[] bytes = codec.encode(new CacheTier.Entry(page, Duration.ofMinutes(10), 5_000));
+        CacheTier.Entry decoded = codec.decode(CacheRegion.POPULAR_MOVIES, bytes);
+
+        assertTrue(bytes.length < new ObjectMapper().writeValueAsBytes(page).length * 0.75);
+        @SuppressWarnings("unchecked")
+        List<Movie> movies = (List<Movie>) decoded.value();
+        assertEquals(19L, movies.get(19).getId());
+        assertEquals("en", movies.get(19).getOriginalLanguage());
+        assertEquals(Duration.ofMinutes(10), decoded.ttl());
+        assertEquals(5_000, decoded.computeNanos());
+
+        wallClock.addAndGet(Duration.ofMinutes(10).toMillis());
+        assertNull(codec.decode(CacheRegion.POPULAR_MOVIES, bytes));
+    }
+
+    private CatalogCache replica() {
+        RedisCacheTier tier = new RedisCacheTier(properties, registry);
+        tiers.add(tier);
+        return new CatalogCache(properties, tmdbProperties, registry, System::nanoTime, () -> 1.0, Runnable::run, List.of(tier));
+    }
+
+    private <T> Supplier<T> counted(Supplier<T> loader) {
+        return () -> {
+            loads.incrementAndGet();
+            return loader.get();
+        };
+    }
+
+    private void awaitSubscribers(int count) {
+        eventually(() -> redis.subscribers() == count);
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("condition not met within 5s");
+            }
+            sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Movie movie(long id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setOverview("A movie about the number " + id);
+        movie.setPosterPath("/poster" + id + ".jpg");
+        movie.setReleaseDate("2024-01-01");
+        movie.setVoteAverage(7.5);
+        movie.setGenreIds(List.of(28, 878));
+        movie.setOriginalLanguage("en");
+        movie.setPopularity(42.0);
+        return movie;
+    }
+
+    private static DetailedMovie detailedMovie(long id, String title) {
+        DetailedMovie movie = new DetailedMovie();
+        movie.setId(id);
+        movie.setTitle(title);
+        DetailedMovie.Genre genre = new DetailedMovie.Genre();
+        genre.setId(878);
+        genre.setName("Science Fiction");
+        movie.setGenres(List.of(genre));
+        movie.setOriginalLanguage("en");
+        return movie;
+    }
+}
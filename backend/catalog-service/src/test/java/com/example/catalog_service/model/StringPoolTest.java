@@ -0,0 +1,88 @@
+package com.example.catalog_service.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StringPoolTest {
+
+    private final StringPool pool = new StringPool(8192, 64);
+
+    @Test
+    void sharesOneInstancePerValue() {
+        String first = pool.canonicalize(new String("Director"));
+
+        assertSame(first, pool.canonicalize(new String("Director")));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void stopsPoolingAtEightThousandOneHundredNinetyTwoEntries() {
+        for (int i = 0; i < 8192; i++) {
+            pool.canonicalize("value " + i);
+        }
+        String extra = new String("one too many");
+
+        assertSame(extra, pool.canonicalize(extra));
+        assertNotSame(extra, pool.canonicalize(new String("one too many")));
+        assertEquals(8192, pool.size());
+        // values already pooled are still shared
+        assertSame(pool.canonicalize("value 7"), pool.canonicalize(new String("value 7")));
+    }
+
+    @Test
+    void leavesValuesOverSixtyFourCharactersAlone() {
+        String longest = "x".repeat(64);
+        String tooLong = "x".repeat(65);
+
+        assertSame(pool.canonicalize(longest), pool.canonicalize(new String(longest)));
+        assertNotSame(pool.canonicalize(tooLong), pool.canonicalize(new String(tooLong)));
+        assertEquals(1, pool.size());
+        assertNull(pool.canonicalize(null));
+    }
+
+    @Test
+    void countsOnlyTheReferencesOfRetainedTitles() {
+        String drama = pool.canonicalize(new String("Drama"));
+        String en = pool.canonicalize(new String("en"));
+        PooledStrings first = action -> List.of(drama, drama, en).forEach(action);
+        // an equal copy that didn't come from the pool isn't shared
+        PooledStrings second = action -> List.of(drama, new String("en")).forEach(action);
+
+        assertEquals(0, pool.savedBytes());
+        assertEquals(2 * StringPool.retainedSize("Drama") + StringPool.retainedSize("en"), pool.retain(first));
+        pool.retain(second);
+        assertEquals(2 * StringPool.retainedSize("Drama"), pool.savedBytes());
+
+        pool.release(first);
+        assertEquals(0, pool.savedBytes());
+        // reading the same title again doesn't count until it is retained
+        pool.canonicalize(new String("Drama"));
+        assertEquals(0, pool.savedBytes());
+    }
+
+    @Test
+    void sharesStringsAcrossDeserializedTitles() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        String movie = """
+            {"id":%d,"status":"Released","original_language":"en","genres":[{"id":18,"name":"Drama"}],
+             "credits":{"crew":[{"id":1,"name":"Someone","job":"Director"}]}}
+            """;
+
+        DetailedMovie first = mapper.readValue(movie.formatted(603), DetailedMovie.class);
+        DetailedMovie second = mapper.readValue(movie.formatted(604), DetailedMovie.class);
+
+        assertSame(first.getStatus(), second.getStatus());
+        assertSame(first.getOriginalLanguage(), second.getOriginalLanguage());
+        assertSame(first.getGenres().get(0).getName(), second.getGenres().get(0).getName());
+        assertSame(first.getCredits().getCrew().get(0).getJob(), second.getCredits().getCrew().get(0).getJob());
+    }
+}
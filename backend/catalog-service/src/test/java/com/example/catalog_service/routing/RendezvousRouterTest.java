@@ -0,0 +1,96 @@
+package com.example.catalog_service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RendezvousRouterTest {
+
+    private static final List<String> REPLICAS =
+        List.of("http://catalog-1:8082", "http://catalog-2:8082", "http://catalog-3:8082", "http://catalog-4:8082");
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void spreadsTitlesEvenly() {
+        RendezvousRouter router = new RendezvousRouter(REPLICAS, 1.25, now::get);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int id = 0; id < 40_000; id++) {
+            owned.merge(router.owner("movie:" + id), 1, Integer::sum);
+        }
+
+        assertEquals(4, owned.size());
+        owned.values().forEach(count -> assertTrue(Math.abs(count - 10_000) < 500, owned.toString()));
+    }
+
+    @Test
+    void everyReplicaAgreesOnTheOwner() {
+        RendezvousRouter first = new RendezvousRouter(REPLICAS, 1.25, now::get);
+        RendezvousRouter second = new RendezvousRouter(REPLICAS.reversed(), 1.25, now::get);
+
+        for (int id = 0; id < 1_000; id++) {
+            assertEquals(first.owner("tv:" + id), second.owner("tv:" + id));
+        }
+    }
+
+    @Test
+    void removingAReplicaOnlyMovesItsTitles() {
+        RendezvousRouter four = new RendezvousRouter(REPLICAS, 1.25, now::get);
+        RendezvousRouter three = new RendezvousRouter(REPLICAS.subList(0, 3), 1.25, now::get);
+
+        for (int id = 0; id < 10_000; id++) {
+            String before = four.owner("movie:" + id);
+            if (!before.equals(REPLICAS.get(3))) {
+                assertEquals(before, three.owner("movie:" + id));
+            }
+        }
+    }
+
+    @Test
+    void hotTitleSpillsToTheNextReplica() {
+        RendezvousRouter router = new RendezvousRouter(REPLICAS, 1.25, now::get);
+        String owner = router.owner("movie:603");
+        List<String> held = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(router.acquire("movie:" + (1_000 + i)));
+        }
+
+        List<String> hot = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            hot.add(router.acquire("movie:603"));
+        }
+
+        assertEquals(owner, hot.get(0));
+        // nobody goes past 1.25 times an even share of the 23 requests in flight
+        for (String replica : REPLICAS) {
+            long load = hot.stream().filter(replica::equals).count() + held.stream().filter(replica::equals).count();
+            assertTrue(load <= Math.ceil(1.25 * 23 / 4), replica + " has " + load);
+        }
+        hot.forEach(router::release);
+        held.forEach(router::release);
+        assertEquals(owner, router.acquire("movie:603"));
+    }
+
+    @Test
+    void skipsReplicasMarkedDownUntilTheirTimeIsUp() {
+        RendezvousRouter router = new RendezvousRouter(REPLICAS, 1.25, now::get);
+        String owner = router.owner("movie:603");
+
+        router.markDown(owner, Duration.ofSeconds(10).toNanos());
+        String standIn = router.acquire("movie:603");
+        router.release(standIn);
+        assertNotEquals(owner, standIn);
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertEquals(owner, router.acquire("movie:603"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.catalog_service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TitleRoutingFilterTest {
+
+    private static final String SELF = "http://catalog-self.invalid:8082";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TitleRoutingProperties properties = new TitleRoutingProperties();
+    private final Queue<String> routedFrom = new ConcurrentLinkedQueue<>();
+    private HttpServer peer;
+    private String peerUrl;
+    private TitleRoutingFilter filter;
+
+    /**
+     * The other replica: answers every title with its path and remembers who forwarded it.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        peer.createContext("/", exchange -> {
+            routedFrom.add(String.valueOf(exchange.getRequestHeaders().getFirst(TitleRoutingFilter.ROUTED_HEADER)));
+            byte[] body = ("{\"path\":\"" + exchange.getRequestURI() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        peer.start();
+        peerUrl = "http://127.0.0.1:" + peer.getAddress().getPort();
+        properties.setEnabled(true);
+        properties.setSelf(SELF);
+        properties.setReplicas(List.of(SELF, peerUrl + "/"));
+        filter = new TitleRoutingFilter(properties, new TmdbProperties(), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.stop(0);
+    }
+
+    @Test
+    void forwardsTitlesOwnedByAnotherReplica() throws Exception {
+        long id = ownedBy(peerUrl, "movie:");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/catalog/movies/" + id + "?language=en"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"path\":\"/api/catalog/movies/" + id + "?language=en\"}", response.getContentAsString());
+        assertEquals(List.of(SELF), List.copyOf(routedFrom));
+        assertEquals(1, registry.get("catalog.routing.requests").tags("outcome", "forwarded").counter().count());
+    }
+
+    @Test
+    void servesItsOwnTitles() throws Exception {
+        long id = ownedBy(SELF, "tv:");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/catalog/tvshows/anime/" + id), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, routedFrom.size());
+    }
+
+    @Test
+    void servesForwardedRequestsWithoutForwardingAgain() throws Exception {
+        long id = ownedBy(peerUrl, "movie:");
+        MockHttpServletRequest request = get("/api/catalog/movies/" + id);
+        request.addHeader(TitleRoutingFilter.ROUTED_HEADER, peerUrl);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, routedFrom.size());
+    }
+
+    @Test
+    void leavesOtherRoutesAlone() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/catalog/movies/popular"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, routedFrom.size());
+    }
+
+    @Test
+    void servesLocallyWhileTheOwnerIsDown() throws Exception {
+        long first = ownedBy(peerUrl, "movie:");
+        peer.stop(0);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(get("/api/catalog/movies/" + first), new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        assertEquals(1, registry.get("catalog.routing.requests").tags("outcome", "fallback").counter().count());
+
+        // skipped without another attempt until retry-after has passed
+        MockFilterChain next = new MockFilterChain();
+        filter.doFilter(get("/api/catalog/movies/" + first), new MockHttpServletResponse(), next);
+        assertNotNull(next.getRequest());
+        assertEquals(1, registry.get("catalog.routing.requests").tags("outcome", "local").counter().count());
+        assertFalse(routedFrom.contains(SELF));
+    }
+
+    private long ownedBy(String replica, String prefix) {
+        RendezvousRouter router = filter.router();
+        long id = 1;
+        while (!router.owner(prefix + id).equals(replica)) {
+            id++;
+        }
+        return id;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        int query = uri.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", query < 0 ? uri : uri.substring(0, query));
+        if (query >= 0) {
+            request.setQueryString(uri.substring(query + 1));
+        }
+        return request;
+    }
+}
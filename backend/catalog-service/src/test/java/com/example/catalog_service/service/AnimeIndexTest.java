@@ -0,0 +1,185 @@
+package com.example.catalog_service.service;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.manyTimes;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.queryParam;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.catalog_service.config.AnimeIndexProperties;
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.similar.SimilarTitles;
+import com.example.catalog_service.similar.SimilarTitlesProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnimeIndexTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnimeIndexProperties properties = new AnimeIndexProperties();
+    // discover page -> JSON body; pages not in here fail
+    private final Map<Integer, String> discoverPages = new ConcurrentHashMap<>();
+    private MockRestServiceServer server;
+    private AnimeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        TmdbProperties tmdbProperties = new TmdbProperties();
+        tmdbProperties.setBaseUrl("http://tmdb");
+        properties.setIndexPages(3);
+        properties.setRefreshPages(1);
+        properties.setTrendingPages(1);
+        index = new AnimeIndex(new TmdbClient(restTemplate, registry, tmdbProperties), tmdbProperties,
+            new TmdbResponseParser(), properties, new SimilarTitles(new SimilarTitlesProperties(), registry), registry, now::get);
+
+        // 3 pages of 20 shows, popularity falling with the id; even ids aired in 2024, odd ones in 2010
+        for (int page = 1; page <= 3; page++) {
+            List<String> shows = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                int id = (page - 1) * 20 + i;
+                shows.add(show(id, "Show " + id, 1000 - id, id % 2 == 0 ? "2024-04-01" : "2010-04-01", "ja"));
+            }
+            discoverPages.put(page, page(shows, 3));
+        }
+        for (int page = 1; page <= 3; page++) {
+            int current = page;
+            server.expect(manyTimes(), requestTo(startsWith("http://tmdb/discover/tv")))
+                .andExpect(queryParam("page", String.valueOf(current)))
+                .andRespond(request -> discoverPages.containsKey(current)
+                    ? withSuccess(discoverPages.get(current), MediaType.APPLICATION_JSON).createResponse(request)
+                    : withServerError().createResponse(request));
+        }
+        server.expect(manyTimes(), requestTo(startsWith("http://tmdb/trending/tv/week")))
+            .andRespond(withSuccess(page(List.of(
+                show(7, "Show 7", 993, "2010-04-01", "ja"),
+                show(500, "Drama", 2000, "2024-01-01", "en"),
+                show(501, "Frieren", 5, "2023-09-29", "ja")), 1), MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void isEmptyUntilBuilt() {
+        assertEquals(Optional.empty(), index.popular(1));
+        assertEquals(Optional.empty(), index.trending(1));
+        assertEquals(Optional.empty(), index.search("show", 1));
+    }
+
+    @Test
+    void pagesThroughRecentAnimeByPopularity() {
+        index.refresh();
+
+        // 30 shows aired since 2023: ids 2, 4, ..., 60
+        assertEquals(ids(2, 40, 2), ids(index.popular(1)));
+        assertEquals(ids(42, 60, 2), ids(index.popular(2)));
+        assertEquals(List.of(), ids(index.popular(3)));
+        assertEquals(60.0, registry.get("catalog.anime.index.size").gauge().value());
+    }
+
+    @Test
+    void listsAllIndexedAnimeWithoutADateCutOff() {
+        properties.setFirstAirDateFrom("");
+        index.refresh();
+
+        assertEquals(ids(1, 20, 1), ids(index.popular(1)));
+        assertEquals(ids(41, 60, 1), ids(index.popular(3)));
+    }
+
+    @Test
+    void keepsTmdbTrendingOrderAndDropsNonAnime() {
+        index.refresh();
+
+        assertEquals(List.of(7L, 501L), ids(index.trending(1)));
+        assertEquals(List.of(), ids(index.trending(2)));
+    }
+
+    @Test
+    void searchesNamesByEveryWord() {
+        index.refresh();
+
+        assertEquals(List.of(5L, 50L, 51L, 52L, 53L, 54L, 55L, 56L, 57L, 58L, 59L), ids(index.search("SHOW 5", 1)));
+        assertEquals(List.of(12L), ids(index.search("12 show", 1)));
+        assertEquals(Optional.empty(), index.search("naruto", 1));
+    }
+
+    @Test
+    void refreshesTheTopPagesAndKeepsTheRest() {
+        index.refresh();
+        discoverPages.remove(2);
+        discoverPages.remove(3);
+        // show 40 shot up to first place
+        discoverPages.put(1, page(List.of(show(40, "Show 40", 5000, "2024-04-01", "ja")), 3));
+        now.addAndGet(Duration.ofMinutes(15).toNanos());
+
+        index.refresh();
+
+        assertEquals(40L, ids(index.popular(1)).get(0));
+        assertEquals(60.0, registry.get("catalog.anime.index.size").gauge().value());
+        assertEquals(1, registry.get("catalog.anime.index.builds").tags("type", "incremental", "outcome", "success")
+            .counter().count());
+    }
+
+    @Test
+    void keepsTheLastIndexWhenARebuildFails() {
+        index.refresh();
+        discoverPages.clear();
+        now.addAndGet(properties.getFullRebuildInterval().toNanos());
+
+        index.refresh();
+
+        assertEquals(ids(2, 40, 2), ids(index.popular(1)));
+        assertEquals(1, registry.get("catalog.anime.index.builds").tags("type", "full", "outcome", "failure")
+            .counter().count());
+    }
+
+    @Test
+    void staysEmptyWhenDisabled() {
+        properties.setIndexEnabled(false);
+        index.refresh();
+
+        assertTrue(index.popular(1).isEmpty());
+    }
+
+    private static String show(int id, String name, double popularity, String firstAirDate, String language) {
+        return """
+            {"id":%d,"name":"%s","original_name":"%s","popularity":%s,"first_air_date":"%s",
+             "original_language":"%s","genre_ids":[16],"origin_country":["JP"],"vote_count":500}"""
+            .formatted(id, name, name, popularity, firstAirDate, language);
+    }
+
+    private static String page(List<String> shows, int totalPages) {
+        return "{\"page\":1,\"total_pages\":" + totalPages + ",\"results\":[" + String.join(",", shows) + "]}";
+    }
+
+    private static List<Long> ids(long from, long to, long step) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id += step) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(Optional<List<TvShow>> shows) {
+        return shows.orElseThrow().stream().map(TvShow::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.catalog_service.cache.CacheRegion;
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.dto.FeedPage;
+import com.example.catalog_service.model.TvShow;
+import com.example.catalog_service.model.TvShowResponse;
+
+class FeedServiceTest {
+
+    private final Set<Integer> pagesRead = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> failingPages = ConcurrentHashMap.newKeySet();
+    private final List<Long> trailerLookups = new ArrayList<>();
+    private final FeedService feedService = new FeedService();
+
+    /**
+     * TMDB stand-in: trending anime pages hold 3 shows each; "naruto" searches have 3 pages of 20
+     * TV shows of which every fourth is anime.
+     */
+    @BeforeEach
+    void setUp() {
+        TmdbService tmdbService = new TmdbService() {
+            @Override
+            List<?> feedPage(CacheRegion region, int page) {
+                read(page);
+                return shows(page, 3);
+            }
+
+            @Override
+            TvShowResponse searchTvShowPage(String query, int page) {
+                read(page);
+                TvShowResponse response = new TvShowResponse();
+                List<TvShow> results = shows(page, 20);
+                for (int i = 0; i < results.size(); i++) {
+                    if (i % 4 == 0) {
+                        results.get(i).setOriginalLanguage("ja");
+                        results.get(i).setGenreIds(List.of(16));
+                    }
+                }
+                response.setResults(results);
+                response.setTotal_pages(3);
+                return response;
+            }
+
+            @Override
+            void addTvTrailers(List<TvShow> tvShows, String description) {
+                tvShows.forEach(tvShow -> trailerLookups.add(tvShow.getId()));
+            }
+        };
+        ReflectionTestUtils.setField(feedService, "tmdbService", tmdbService);
+        ReflectionTestUtils.setField(feedService, "tmdbProperties", new TmdbProperties());
+    }
+
+    @Test
+    void fillsAScreenFromSeveralPagesAndContinuesWhereItStopped() {
+        FeedPage first = feedService.getFeed(Feed.TRENDING_ANIME, null, 10, null);
+        assertEquals(ids(101, 102, 103, 201, 202, 203, 301, 302, 303, 401), ids(first));
+        assertNotNull(first.nextCursor());
+
+        FeedPage second = feedService.getFeed(Feed.TRENDING_ANIME, null, 4, first.nextCursor());
+        assertEquals(ids(402, 403, 501, 502), ids(second));
+    }
+
+    @Test
+    void filtersBeforeLookingUpTrailersAndEndsAtTheLastPage() {
+        FeedPage page = feedService.getFeed(Feed.ANIME_SEARCH, "naruto", 50, null);
+
+        // 5 anime on each of the 3 pages
+        assertEquals(15, page.items().size());
+        assertNull(page.nextCursor());
+        assertEquals(Set.of(1, 2, 3), pagesRead);
+        assertEquals(ids(page), trailerLookups);
+    }
+
+    @Test
+    void stopsAtAFailedPageAndRetriesItNextTime() {
+        failingPages.add(3);
+        FeedPage first = feedService.getFeed(Feed.TRENDING_ANIME, null, 12, null);
+        assertEquals(ids(101, 102, 103, 201, 202, 203), ids(first));
+
+        failingPages.clear();
+        FeedPage second = feedService.getFeed(Feed.TRENDING_ANIME, null, 3, first.nextCursor());
+        assertEquals(ids(301, 302, 303), ids(second));
+    }
+
+    @Test
+    void boundsPagesReadPerRequest() {
+        feedService.getFeed(Feed.TRENDING_ANIME, null, 100, null);
+
+        assertEquals(FeedService.MAX_PAGES_PER_REQUEST, pagesRead.size());
+    }
+
+    @Test
+    void rejectsCursorsOfOtherFeeds() {
+        String cursor = FeedCursor.start(Feed.ANIME).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> feedService.getFeed(Feed.TRENDING_ANIME, null, 10, cursor));
+        assertThrows(IllegalArgumentException.class, () -> feedService.getFeed(Feed.TRENDING_ANIME, null, 10, "not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> feedService.getFeed(Feed.ANIME_SEARCH, " ", 10, null));
+    }
+
+    private void read(int page) {
+        pagesRead.add(page);
+        if (failingPages.contains(page)) {
+            throw new ResourceAccessException("Read timed out");
+        }
+    }
+
+    /**
+     * Shows with ids page * 100 + 1, page * 100 + 2, ...
+     */
+    private static List<TvShow> shows(int page, int count) {
+        return IntStream.rangeClosed(1, count)
+            .mapToObj(i -> {
+                TvShow tvShow = new TvShow();
+                tvShow.setId((long) (page * 100 + i));
+                return tvShow;
+            })
+            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    private static List<Long> ids(long... ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    private static List<Long> ids(FeedPage page) {
+        return page.items().stream().map(item -> ((TvShow) item).getId()).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.dto.TitleSummaries;
+import com.example.catalog_service.model.DetailedTvShow;
+import com.example.catalog_service.model.Movie;
+
+class TitleSummaryServiceTest {
+
+    private final Set<Long> loaded = ConcurrentHashMap.newKeySet();
+    private final TmdbProperties tmdbProperties = new TmdbProperties();
+    private final TitleSummaryService summaryService = new TitleSummaryService();
+
+    /**
+     * TMDB stand-in: movie 404 doesn't exist, movie 500 fails, TV show 777 takes longer than any deadline.
+     */
+    @BeforeEach
+    void setUp() {
+        TmdbService tmdbService = new TmdbService() {
+            @Override
+            public Optional<Movie> getMovieDetails(Long movieId) {
+                loaded.add(movieId);
+                if (movieId == 500) {
+                    throw new IllegalStateException("TMDB is down");
+                }
+                if (movieId == 404) {
+                    return Optional.empty();
+                }
+                Movie movie = new Movie();
+                movie.setId(movieId);
+                movie.setTitle("Movie " + movieId);
+                return Optional.of(movie);
+            }
+
+            @Override
+            public Optional<DetailedTvShow> getDetailedTvShowInfo(Long tvShowId) {
+                if (tvShowId == 777) {
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        return Optional.empty();
+                    }
+                }
+                DetailedTvShow tvShow = new DetailedTvShow();
+                tvShow.setId(tvShowId);
+                tvShow.setName("Show " + tvShowId);
+                tvShow.setNumberOfSeasons(3);
+                return Optional.of(tvShow);
+            }
+        };
+        ReflectionTestUtils.setField(summaryService, "tmdbService", tmdbService);
+        ReflectionTestUtils.setField(summaryService, "tmdbProperties", tmdbProperties);
+    }
+
+    @Test
+    void summarizesMoviesAndTvShowsById() {
+        TitleSummaries summaries = summaryService.getSummaries(List.of(603L, 604L, 603L), List.of(1399L));
+
+        assertEquals(Set.of(603L, 604L), summaries.movies().keySet());
+        assertEquals("Movie 603", summaries.movies().get(603L).title());
+        assertNull(summaries.movies().get(603L).name());
+        assertEquals("Show 1399", summaries.tvShows().get(1399L).name());
+        assertEquals(3, summaries.tvShows().get(1399L).numberOfSeasons());
+        assertEquals(Set.of(603L, 604L), loaded);
+    }
+
+    @Test
+    void leavesOutTitlesThatAreMissingOrFail() {
+        TitleSummaries summaries = summaryService.getSummaries(List.of(603L, 404L, 500L), List.of());
+
+        assertEquals(Set.of(603L), summaries.movies().keySet());
+        assertTrue(summaries.tvShows().isEmpty());
+    }
+
+    @Test
+    void answersByTheDeadlineWithoutSlowTitles() {
+        tmdbProperties.setRequestTimeout(Duration.ofMillis(200));
+
+        long started = System.nanoTime();
+        TitleSummaries summaries = summaryService.getSummaries(List.of(), List.of(1399L, 777L));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(Set.of(1399L), summaries.tvShows().keySet());
+    }
+
+    @Test
+    void rejectsTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, TitleSummaryService.MAX_IDS + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> summaryService.getSummaries(ids, List.of()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.catalog_service.CatalogServiceApplication;
+import com.example.catalog_service.config.TmdbProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TmdbClientHedgingTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger slowRequests = new AtomicInteger();
+    private HttpServer tmdb;
+    private TmdbClient client;
+    private String baseUrl;
+
+    /**
+     * A TMDB stand-in where the first request for /person/999 hangs and every other request answers at once.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        tmdb = HttpServer.create(new InetSocketAddress(0), 0);
+        tmdb.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        tmdb.createContext("/", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/person/999/external_ids")
+                    && slowRequests.getAndIncrement() == 0) {
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            send(exchange, "{\"imdb_id\":\"nm0000001\"}");
+        });
+        tmdb.start();
+        baseUrl = "http://localhost:" + tmdb.getAddress().getPort();
+
+        TmdbProperties properties = new TmdbProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinSamples(20);
+        properties.getHedging().setBudgetRatio(0.1);
+        properties.getHedging().setMinDelay(Duration.ofMillis(50));
+        client = new TmdbClient(new CatalogServiceApplication().restTemplate(properties), registry, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        tmdb.stop(0);
+    }
+
+    @Test
+    void hedgeAnswersWhenThePrimaryStalls() {
+        // warm up the latency window and earn some hedge budget
+        for (int i = 0; i < 40; i++) {
+            client.get("external_ids", baseUrl + "/person/" + i + "/external_ids", String.class);
+        }
+        // a warm-up call may itself have been hedged on a cold JVM, so only count what follows
+        double sentBefore = registry.counter("tmdb.hedge.sent", "endpoint", "external_ids").count();
+        double wonBefore = registry.counter("tmdb.hedge.won", "endpoint", "external_ids").count();
+
+        long start = System.nanoTime();
+        String body = client.get("external_ids", baseUrl + "/person/999/external_ids", String.class);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(body.contains("nm0000001"));
+        assertTrue(elapsedMillis < 5000, "took " + elapsedMillis + " ms");
+        assertEquals(2, slowRequests.get());
+        assertEquals(sentBefore + 1, registry.counter("tmdb.hedge.sent", "endpoint", "external_ids").count());
+        assertEquals(wonBefore + 1, registry.counter("tmdb.hedge.won", "endpoint", "external_ids").count());
+    }
+
+    @Test
+    void budgetCapsHedges() {
+        HedgeBudget budget = new HedgeBudget(0.05, 20);
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.onPrimaryCall();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+        assertEquals(50, hedges);
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
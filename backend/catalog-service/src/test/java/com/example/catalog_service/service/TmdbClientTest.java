@@ -0,0 +1,103 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.exception.DeadlineExceededException;
+import com.example.catalog_service.exception.TmdbNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TmdbClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TmdbClient client;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        client = new TmdbClient(restTemplate, registry, new TmdbProperties());
+    }
+
+    @Test
+    void timesCallsByEndpointAndOutcome() {
+        server.expect(requestTo("http://tmdb/person/1/external_ids"))
+            .andRespond(withSuccess("{\"imdb_id\":\"nm1\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://tmdb/person/2/external_ids"))
+            .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+
+        client.get("external_ids", "http://tmdb/person/1/external_ids", String.class);
+        assertThrows(HttpClientErrorException.class,
+            () -> client.get("external_ids", "http://tmdb/person/2/external_ids", String.class));
+
+        assertEquals(1, registry.get("tmdb.client.requests")
+            .tags("endpoint", "external_ids", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("tmdb.client.requests")
+            .tags("endpoint", "external_ids", "outcome", "throttled").timer().count());
+    }
+
+    @Test
+    void reportsMissingResourcesAsNotFound() {
+        server.expect(requestTo("http://tmdb/movie/404")).andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThrows(TmdbNotFoundException.class, () -> client.get("details", "http://tmdb/movie/404", String.class));
+
+        assertEquals(1, registry.get("tmdb.client.requests")
+            .tags("endpoint", "details", "outcome", "not_found").timer().count());
+    }
+
+    @Test
+    void countsFanOutAcrossExecutorThreads() throws InterruptedException {
+        server.expect(requestTo("http://tmdb/movie/1/credits")).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://tmdb/person/1/external_ids")).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://tmdb/person/2/external_ids")).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        TmdbRequestContext context = TmdbRequestContext.open(Duration.ofSeconds(5));
+        try {
+            client.get("credits", "http://tmdb/movie/1/credits", String.class);
+            pool.invokeAll(List.of(
+                TmdbRequestContext.wrap(() -> client.get("external_ids", "http://tmdb/person/1/external_ids", String.class)),
+                TmdbRequestContext.wrap(() -> client.get("external_ids", "http://tmdb/person/2/external_ids", String.class))));
+        } finally {
+            context.close();
+            pool.shutdown();
+        }
+
+        assertEquals(3, context.getTmdbCalls());
+    }
+
+    @Test
+    void refusesCallsAfterTheDeadline() {
+        TmdbRequestContext context = TmdbRequestContext.open(Duration.ZERO);
+        try {
+            assertThrows(DeadlineExceededException.class,
+                () -> client.get("similar", "http://tmdb/movie/1/similar", String.class));
+        } finally {
+            context.close();
+        }
+
+        assertEquals(0, context.getTmdbCalls());
+        assertEquals(1, registry.get("tmdb.client.deadline.exceeded").tags("endpoint", "similar").counter().count());
+        server.verify();
+    }
+}
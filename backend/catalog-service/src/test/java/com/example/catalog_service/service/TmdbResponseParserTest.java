@@ -0,0 +1,126 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.catalog_service.model.MovieResponse;
+import com.example.catalog_service.model.TvShowResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Each page fixture is read by both the streaming parser and databind, and the results must serialize the same.
+ */
+class TmdbResponseParserTest {
+
+    private static final String MOVIE_PAGE = """
+        {"page":2,"results":[
+          {"adult":false,"backdrop_path":"/b.jpg","genre_ids":[28,878],"id":603,"original_language":"en",
+           "original_title":"The Matrix","overview":"Neo","popularity":83.5,"poster_path":"/p.jpg",
+           "release_date":"1999-03-31","title":"The Matrix","video":false,"vote_average":8.2,"vote_count":26000,
+           "belongs_to_collection":{"id":2344,"parts":[{"id":603,"tags":["a",{"deep":[1,2,{"x":null}]}]}]},
+           "keywords":[[1,2],[3]]},
+          {"id":604,"title":null,"poster_path":null,"genre_ids":[],"original_language":null},
+          {"id":605}
+        ],"total_pages":500,"total_results":10000,"dates":{"maximum":"2026-10-19","minimum":"2026-09-01"}}
+        """;
+
+    private static final String TV_PAGE = """
+        {"page":1,"results":[
+          {"backdrop_path":"/b.jpg","first_air_date":"2011-04-17","genre_ids":[10765,18],"id":1399,
+           "name":"Game of Thrones","origin_country":["US"],"original_language":"en",
+           "original_name":"Game of Thrones","overview":"Seven noble families","popularity":346.1,
+           "poster_path":"/p.jpg","vote_average":8.4,"vote_count":21000,
+           "networks":[{"id":49,"logo":{"path":"/hbo.png","sizes":[1,2]}}],"created_by":[]},
+          {"id":1400,"name":"Seinfeld","origin_country":null,"first_air_date":null,"extra":{"a":[{"b":{}}]}},
+          {"id":1401,"origin_country":[],"vote_average":null}
+        ],"total_pages":3,"total_results":60}
+        """;
+
+    private final TmdbResponseParser parser = new TmdbResponseParser();
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void readsImdbId() throws IOException {
+        assertEquals("nm0000206", parser.parseImdbId(json("""
+            {"id":6384,"freebase_mid":"/m/0d","tvrage_id":{"nested":[1]},"imdb_id":"nm0000206"}
+            """)));
+    }
+
+    @Test
+    void readsNullOrMissingImdbIdAsNull() throws IOException {
+        assertNull(parser.parseImdbId(json("{\"id\":6384,\"imdb_id\":null}")));
+        assertNull(parser.parseImdbId(json("{\"id\":6384,\"wikidata_id\":\"Q1\"}")));
+        assertNull(parser.parseImdbId(json("[]")));
+    }
+
+    @Test
+    void findsTheFirstYouTubeTrailer() throws IOException {
+        assertEquals("trailerKey", parser.parseTrailerKey(json("""
+            {"id":603,"results":[
+              {"key":"clipKey","site":"YouTube","type":"Clip","size":1080},
+              {"key":"vimeoKey","site":"Vimeo","type":"Trailer"},
+              {"iso_639_1":"en","tags":{"a":[1]},"type":"Trailer","site":"YouTube","key":"trailerKey"},
+              {"key":"laterKey","site":"YouTube","type":"Trailer"}
+            ]}
+            """)));
+    }
+
+    @Test
+    void acceptsATeaserWhenThereIsNoTrailer() throws IOException {
+        assertEquals("teaserKey", parser.parseTrailerKey(json("""
+            {"results":[{"key":"featuretteKey","site":"YouTube","type":"Featurette"},
+                        {"key":"teaserKey","site":"youtube","type":"teaser"}],"id":1399}
+            """)));
+    }
+
+    @Test
+    void findsNoTrailerInEmptyOrMissingResults() throws IOException {
+        assertNull(parser.parseTrailerKey(json("{\"id\":603,\"results\":[]}")));
+        assertNull(parser.parseTrailerKey(json("{\"id\":603}")));
+        assertNull(parser.parseTrailerKey(json("{\"results\":[{\"key\":null,\"site\":\"YouTube\",\"type\":\"Trailer\"}]}")));
+    }
+
+    @Test
+    void readsMoviePagesLikeDatabind() throws IOException {
+        MovieResponse streamed = parser.parseMoviePage(json(MOVIE_PAGE));
+
+        assertEquals(mapper.valueToTree(mapper.readValue(MOVIE_PAGE, MovieResponse.class)), mapper.valueToTree(streamed));
+        assertEquals(3, streamed.getResults().size());
+        assertEquals(500, streamed.getTotal_pages());
+        assertNull(streamed.getResults().get(1).getTitle());
+        assertNull(streamed.getResults().get(2).getGenreIds());
+    }
+
+    @Test
+    void readsTvShowPagesLikeDatabind() throws IOException {
+        TvShowResponse streamed = parser.parseTvShowPage(json(TV_PAGE));
+
+        assertEquals(mapper.valueToTree(mapper.readValue(TV_PAGE, TvShowResponse.class)), mapper.valueToTree(streamed));
+        assertEquals(3, streamed.getResults().size());
+        assertNull(streamed.getResults().get(1).getOriginCountry());
+        assertNull(streamed.getResults().get(2).getVoteAverage());
+    }
+
+    @Test
+    void sharesCodeStringsBetweenTitles() throws IOException {
+        TvShowResponse streamed = parser.parseTvShowPage(json(TV_PAGE));
+        TvShowResponse again = parser.parseTvShowPage(json(TV_PAGE));
+
+        assertSame(streamed.getResults().get(0).getOriginalLanguage(), again.getResults().get(0).getOriginalLanguage());
+        assertSame(streamed.getResults().get(0).getOriginCountry().get(0), again.getResults().get(0).getOriginCountry().get(0));
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.catalog_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.catalog_service.CatalogServiceApplication;
+import com.example.catalog_service.cache.CacheTier;
+import com.example.catalog_service.cache.CatalogCache;
+import com.example.catalog_service.cache.CatalogCacheProperties;
+import com.example.catalog_service.config.TmdbProperties;
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.similar.SimilarTitles;
+import com.example.catalog_service.similar.SimilarTitlesProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TmdbServiceDeadlineTest {
+
+    private HttpServer tmdb;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final TmdbService tmdbService = new TmdbService();
+    private final CatalogCache catalogCache =
+        new CatalogCache(new CatalogCacheProperties(), new TmdbProperties(), new SimpleMeterRegistry(),
+            new StaticListableBeanFactory().getBeanProvider(CacheTier.class));
+
+    /**
+     * A TMDB stand-in whose external_ids endpoint, and movie 2's credits, hang until the test ends.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        tmdb = HttpServer.create(new InetSocketAddress(0), 0);
+        tmdb.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        tmdb.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/external_ids") || path.endsWith("/movie/2/credits")) {
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, "{\"imdb_id\":\"nm0000001\"}");
+            } else if (path.endsWith("/credits")) {
+                send(exchange, "{\"id\":1,\"cast\":[{\"id\":10},{\"id\":11},{\"id\":12}],\"crew\":[{\"id\":20}]}");
+            } else if (path.endsWith("/similar")) {
+                send(exchange, "{\"page\":1,\"results\":[]}");
+            } else if (path.endsWith("/videos")) {
+                send(exchange, "{\"results\":[]}");
+            } else {
+                send(exchange, "{\"id\":1,\"title\":\"Stuck\"}");
+            }
+        });
+        tmdb.start();
+
+        TmdbProperties properties = new TmdbProperties();
+        properties.setApiKey("test");
+        properties.setBaseUrl("http://localhost:" + tmdb.getAddress().getPort());
+        TmdbClient tmdbClient = new TmdbClient(new CatalogServiceApplication().restTemplate(properties),
+            new SimpleMeterRegistry(), properties);
+        ReflectionTestUtils.setField(tmdbService, "tmdbClient", tmdbClient);
+        ReflectionTestUtils.setField(tmdbService, "tmdbProperties", properties);
+        ReflectionTestUtils.setField(tmdbService, "responseParser", new TmdbResponseParser());
+        ReflectionTestUtils.setField(tmdbService, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(tmdbService, "similarTitles",
+            new SimilarTitles(new SimilarTitlesProperties(), new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        tmdb.stop(0);
+    }
+
+    @Test
+    void returnsPartialDetailsWhenLookupsOutliveTheDeadline() {
+        TmdbRequestContext context = TmdbRequestContext.open(Duration.ofMillis(1500));
+        long start = System.nanoTime();
+        Optional<DetailedMovie> movie;
+        try {
+            movie = tmdbService.getDetailedMovieInfo(1L);
+        } finally {
+            context.close();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(movie.isPresent());
+        assertEquals("Stuck", movie.get().getTitle());
+        assertEquals(3, movie.get().getCredits().getCast().size());
+        movie.get().getCredits().getCast().forEach(castMember -> assertNull(castMember.getImdbId()));
+        assertTrue(elapsedMillis < 4000, "took " + elapsedMillis + " ms");
+        // the partial page must not be served from the cache later
+        assertEquals(0, catalogCache.size());
+    }
+
+    @Test
+    void endsACallAlreadyRunningAtTheDeadline() {
+        TmdbRequestContext context = TmdbRequestContext.open(Duration.ofMillis(1000));
+        long start = System.nanoTime();
+        Optional<DetailedMovie> movie;
+        try {
+            movie = tmdbService.getDetailedMovieInfo(2L);
+        } finally {
+            context.close();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // the credits call started in time, so only tmdb.request-timeout would have ended it
+        assertTrue(movie.isPresent());
+        assertNull(movie.get().getCredits());
+        assertTrue(elapsedMillis < 2500, "took " + elapsedMillis + " ms");
+        assertEquals(0, catalogCache.size());
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
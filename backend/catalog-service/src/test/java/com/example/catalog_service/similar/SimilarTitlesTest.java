@@ -0,0 +1,123 @@
+package com.example.catalog_service.similar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.catalog_service.model.DetailedMovie;
+import com.example.catalog_service.model.Movie;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SimilarTitlesTest {
+
+    private static final int SCIENCE_FICTION = 878;
+    private static final int ROMANCE = 10749;
+    private static final int ANIMATION = 16;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SimilarTitlesProperties properties = new SimilarTitlesProperties();
+    private SimilarTitles similarTitles;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMinTitles(5);
+        properties.setResults(3);
+        similarTitles = new SimilarTitles(properties, registry);
+    }
+
+    @Test
+    void ranksByGenreLanguageAndEra() {
+        similarTitles.indexMovies(List.of(
+            movie(1, List.of(SCIENCE_FICTION), "en", "1999-03-31", 80.0),
+            movie(2, List.of(SCIENCE_FICTION), "en", "2003-05-15", 60.0),
+            movie(3, List.of(SCIENCE_FICTION), "en", "1968-04-02", 20.0),
+            movie(4, List.of(ROMANCE), "en", "2001-04-25", 50.0),
+            movie(5, List.of(ANIMATION, SCIENCE_FICTION), "ja", "1988-07-16", 40.0),
+            movie(6, List.of(ROMANCE), "fr", "1960-01-01", 5.0)));
+
+        Optional<DetailedMovie.Similar> similar = similarTitles.similarMovies(1);
+
+        assertTrue(similar.isPresent());
+        assertEquals(List.of(2, 3, 5), ids(similar.get()));
+        assertEquals(1, registry.get("catalog.similar.requests").tags("type", "movie", "source", "local").counter().count());
+    }
+
+    @Test
+    void keywordsFromDetailPagesOutrankTheRest() {
+        List<Movie> page = new ArrayList<>();
+        for (int id = 1; id <= 6; id++) {
+            page.add(movie(id, List.of(SCIENCE_FICTION), "en", "2010-01-01", 50.0));
+        }
+        similarTitles.indexMovies(page);
+        similarTitles.indexMovie(detailed(1, List.of(9882, 4565)));
+        similarTitles.indexMovie(detailed(5, List.of(9882, 4565, 310)));
+
+        assertEquals(5, ids(similarTitles.similarMovies(1).orElseThrow()).get(0));
+    }
+
+    @Test
+    void leavesSmallIndexesAndUnknownTitlesToTmdb() {
+        similarTitles.indexMovies(List.of(
+            movie(1, List.of(SCIENCE_FICTION), "en", "1999-03-31", 80.0),
+            movie(2, List.of(SCIENCE_FICTION), "en", "2003-05-15", 60.0)));
+        assertEquals(Optional.empty(), similarTitles.similarMovies(1));
+
+        properties.setMinTitles(1);
+        assertEquals(Optional.empty(), similarTitles.similarMovies(99));
+        assertEquals(2, registry.get("catalog.similar.requests").tags("type", "movie", "source", "tmdb").counter().count());
+    }
+
+    @Test
+    void overwritesTheOldestTitlesWhenFull() {
+        SimilarityIndex<String> index = new SimilarityIndex<>(2);
+        float[] vector = TitleFeatures.vector(List.of(SCIENCE_FICTION), null, "en", "2000-01-01", 10.0);
+        index.put(1, vector, "one", false);
+        index.put(2, vector, "two", false);
+        index.put(3, vector, "three", false);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("three"), index.nearest(2, 5));
+        assertEquals(List.of(), index.nearest(1, 5));
+    }
+
+    private static Movie movie(long id, List<Integer> genreIds, String language, String releaseDate, Double popularity) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setGenreIds(genreIds);
+        movie.setOriginalLanguage(language);
+        movie.setReleaseDate(releaseDate);
+        movie.setPopularity(popularity);
+        return movie;
+    }
+
+    private static DetailedMovie detailed(long id, List<Integer> keywordIds) {
+        DetailedMovie movie = new DetailedMovie();
+        movie.setId(id);
+        DetailedMovie.Genre genre = new DetailedMovie.Genre();
+        genre.setId(SCIENCE_FICTION);
+        movie.setGenres(List.of(genre));
+        movie.setOriginalLanguage("en");
+        movie.setReleaseDate("2010-01-01");
+        movie.setPopularity(50.0);
+        DetailedMovie.Keywords keywords = new DetailedMovie.Keywords();
+        keywords.setKeywords(keywordIds.stream().map(keywordId -> {
+            DetailedMovie.Keyword keyword = new DetailedMovie.Keyword();
+            keyword.setId(keywordId);
+            return keyword;
+        }).toList());
+        movie.setKeywords(keywords);
+        return movie;
+    }
+
+    private static List<Integer> ids(DetailedMovie.Similar similar) {
+        return similar.getResults().stream().map(DetailedMovie.SimilarMovie::getId).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.load_tests;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares two JSON reports from {@link LoadTestMain}, e.g. a run on main
+ * against a run on a branch:
+ *
+ * <pre>
+ * java -cp target/load-tests.jar com.example.load_tests.CompareReports load-reports/main.json load-reports/branch.json [--threshold=10] [--fail-on-regression]
+ * </pre>
+ *
+ * A request is flagged when its p95 or p99 grew, or its throughput dropped,
+ * by more than the threshold percentage (default 10), or when its error rate
+ * went up. With {@code --fail-on-regression} the exit code is 1 if anything was flagged.
+ */
+public class CompareReports {
+
+    public static void main(String[] args) throws IOException {
+        List<Path> reports = new ArrayList<>();
+        double threshold = 10;
+        boolean failOnRegression = false;
+        for (String arg : args) {
+            if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if ("--fail-on-regression".equals(arg)) {
+                failOnRegression = true;
+            } else {
+                reports.add(Path.of(arg));
+            }
+        }
+        if (reports.size() != 2) {
+            throw new IllegalArgumentException("Usage: CompareReports <baseline.json> <candidate.json> [--threshold=10] [--fail-on-regression]");
+        }
+
+        Comparison comparison = compare(LoadReport.read(reports.get(0)), LoadReport.read(reports.get(1)), threshold);
+        System.out.print(comparison.text());
+        if (failOnRegression && !comparison.regressions().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param text the comparison table
+     * @param regressions names of the flagged requests
+     */
+    public record Comparison(String text, List<String> regressions) {
+    }
+
+    public static Comparison compare(LoadReport baseline, LoadReport candidate, double threshold) {
+        StringBuilder out = new StringBuilder();
+        List<String> regressions = new ArrayList<>();
+        out.append(String.format("Baseline '%s' (%d users, %.0f s) vs candidate '%s' (%d users, %.0f s)%n%n",
+            baseline.label(), baseline.users(), baseline.measuredSeconds(),
+            candidate.label(), candidate.users(), candidate.measuredSeconds()));
+        out.append(String.format("%-30s %18s %18s %18s %18s %13s%n",
+            "request", "req/s", "p50 ms", "p95 ms", "p99 ms", "error %"));
+
+        Set<String> names = new LinkedHashSet<>();
+        baseline.endpoints().forEach(endpoint -> names.add(endpoint.name()));
+        candidate.endpoints().forEach(endpoint -> names.add(endpoint.name()));
+        for (String name : names) {
+            LoadReport.Endpoint before = baseline.endpoint(name);
+            LoadReport.Endpoint after = candidate.endpoint(name);
+            if (before == null || after == null) {
+                out.append(String.format("%-30s only in %s%n", name, before == null ? "candidate" : "baseline"));
+                continue;
+            }
+            boolean regressed = change(after.p95(), before.p95()) > threshold
+                || change(after.p99(), before.p99()) > threshold
+                || change(after.throughput(), before.throughput()) < -threshold
+                || errorRate(after) > errorRate(before);
+            if (regressed) {
+                regressions.add(name);
+            }
+            out.append(String.format("%-30s %18s %18s %18s %18s %13s%s%n", name,
+                pair(before.throughput(), after.throughput()),
+                pair(before.p50(), after.p50()),
+                pair(before.p95(), after.p95()),
+                pair(before.p99(), after.p99()),
+                String.format("%.1f→%.1f", errorRate(before), errorRate(after)),
+                regressed ? "  REGRESSION" : ""));
+        }
+        out.append(String.format("%n%d of %d requests regressed by more than %.0f%%%n", regressions.size(), names.size(), threshold));
+        return new Comparison(out.toString(), regressions);
+    }
+
+    private static String pair(double before, double after) {
+        return String.format("%.1f→%.1f (%+.0f%%)", before, after, change(after, before));
+    }
+
+    /**
+     * Percentage change from before to after; 0 when there is no baseline to compare with.
+     */
+    static double change(double after, double before) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    private static double errorRate(LoadReport.Endpoint endpoint) {
+        return endpoint.count() == 0 ? 0 : endpoint.errorCount() * 100.0 / endpoint.count();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.load_tests;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and error counts per request name, shared by every
+ * virtual user. Nothing is recorded until {@link #startMeasuring()} so the
+ * ramp-up does not skew the percentiles.
+ */
+public class LoadMetrics {
+
+    /** Highest latency tracked; slower requests are clamped to it. */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+    private volatile long measureStartNanos;
+    private volatile long measureEndNanos;
+
+    public void startMeasuring() {
+        measureStartNanos = System.nanoTime();
+        measuring = true;
+    }
+
+    /**
+     * Ends the measured window; requests still in flight (and session cleanup) are not recorded.
+     */
+    public void stopMeasuring() {
+        measureEndNanos = System.nanoTime();
+        measuring = false;
+    }
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    /**
+     * Length of the measured window so far, or of the whole window once stopped.
+     */
+    public long measuredNanos() {
+        if (measureStartNanos == 0) {
+            return 0;
+        }
+        return (measuring ? System.nanoTime() : measureEndNanos) - measureStartNanos;
+    }
+
+    public void recordSuccess(String name, long latencyNanos) {
+        if (measuring) {
+            series(name).record(latencyNanos);
+        }
+    }
+
+    /**
+     * @param reason short error class, e.g. {@code status:500}, {@code timeout} or {@code io}
+     */
+    public void recordFailure(String name, long latencyNanos, String reason) {
+        if (measuring) {
+            Series target = series(name);
+            target.record(latencyNanos);
+            target.errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+        }
+    }
+
+    private Series series(String name) {
+        return series.computeIfAbsent(name, key -> new Series());
+    }
+
+    /**
+     * Copies of the histograms and error counts, keyed by request name.
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        series.forEach((name, data) -> {
+            Map<String, Long> errors = new TreeMap<>();
+            data.errors.forEach((reason, count) -> errors.put(reason, count.sum()));
+            snapshot.put(name, new Snapshot(data.histogram.copy(), errors));
+        });
+        return snapshot;
+    }
+
+    /**
+     * @param histogram latencies in microseconds, failures included
+     * @param errors failure count per reason
+     */
+    public record Snapshot(Histogram histogram, Map<String, Long> errors) {
+    }
+
+    private static final class Series {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void record(long latencyNanos) {
+            histogram.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, latencyNanos / 1000)));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.load_tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Result of one load run: throughput and latency percentiles per request name.
+ * Written as JSON (for {@link CompareReports}) and as a plain-text table.
+ * Latencies are in milliseconds.
+ *
+ * @param label run name given with {@code --label}, e.g. a commit hash
+ * @param startedAt ISO-8601 start of the measured window
+ * @param users concurrent virtual users
+ * @param measuredSeconds length of the measured window
+ * @param endpoints one row per request or page name
+ */
+public record LoadReport(String label, String startedAt, int users, double measuredSeconds, List<Endpoint> endpoints) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param throughput requests per second over the measured window
+     * @param errors failures by reason ({@code status:500}, {@code timeout}, {@code io}, {@code partial})
+     */
+    public record Endpoint(String name, long count, long errorCount, double throughput, double mean,
+                           double p50, double p90, double p95, double p99, double p999, double max,
+                           Map<String, Long> errors) {
+    }
+
+    public static LoadReport from(String label, String startedAt, int users, LoadMetrics metrics) {
+        double seconds = metrics.measuredNanos() / 1e9;
+        List<Endpoint> endpoints = new ArrayList<>();
+        metrics.snapshot().forEach((name, snapshot) -> {
+            Histogram histogram = snapshot.histogram();
+            long errorCount = snapshot.errors().values().stream().mapToLong(Long::longValue).sum();
+            endpoints.add(new Endpoint(
+                name,
+                histogram.getTotalCount(),
+                errorCount,
+                seconds > 0 ? histogram.getTotalCount() / seconds : 0,
+                histogram.getMean() / 1000.0,
+                millis(histogram, 50),
+                millis(histogram, 90),
+                millis(histogram, 95),
+                millis(histogram, 99),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0,
+                snapshot.errors()));
+        });
+        return new LoadReport(label, startedAt, users, seconds, endpoints);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    public void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public Endpoint endpoint(String name) {
+        return endpoints.stream().filter(endpoint -> endpoint.name().equals(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * Fixed-width table, one row per request name.
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Load run '%s' started %s: %d users, %.1f s measured%n%n",
+            label, startedAt, users, measuredSeconds));
+        out.append(String.format("%-30s %8s %7s %8s %8s %8s %8s %8s %8s %8s%n",
+            "request", "count", "errors", "req/s", "p50", "p90", "p95", "p99", "p99.9", "max"));
+        for (Endpoint endpoint : endpoints) {
+            out.append(String.format("%-30s %8d %7d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                endpoint.name(), endpoint.count(), endpoint.errorCount(), endpoint.throughput(),
+                endpoint.p50(), endpoint.p90(), endpoint.p95(), endpoint.p99(), endpoint.p999(), endpoint.max()));
+        }
+        out.append(String.format("%nLatencies in ms.%n"));
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.errors().isEmpty()) {
+                out.append(String.format("%s errors: %s%n", endpoint.name(), endpoint.errors()));
+            }
+        }
+        return out.toString();
+    }
+}
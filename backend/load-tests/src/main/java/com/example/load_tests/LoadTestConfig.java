@@ -0,0 +1,202 @@
+package com.example.load_tests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link LoadTestMain}. Every option can be given as a
+ * {@code --name=value} argument or a {@code load.name} system property:
+ *
+ * <pre>
+ * target          base URL of nginx, used for every service (default http://localhost:8080)
+ * auth-url        auth-service base URL, overrides target (e.g. http://localhost:8081)
+ * catalog-url     catalog-service base URL, overrides target
+ * watchlist-url   watchlist-service base URL, overrides target
+ * users           concurrent virtual users (default 20)
+ * duration        measured run length in seconds, after ramp-up (default 60)
+ * ramp-up         seconds over which users are started (default 10)
+ * think-min       minimum think time between steps in ms (default 300)
+ * think-max       maximum think time between steps in ms (default 1500)
+ * timeout         per-request timeout in ms (default 10000)
+ * label           name for the run, e.g. a commit hash (default "run")
+ * report-dir      directory for the text and JSON reports (default load-reports)
+ * seed            random seed for reproducible sessions
+ * </pre>
+ */
+public class LoadTestConfig {
+
+    private String authUrl = "http://localhost:8080";
+    private String catalogUrl = "http://localhost:8080";
+    private String watchlistUrl = "http://localhost:8080";
+    private int users = 20;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration rampUp = Duration.ofSeconds(10);
+    private long thinkMinMillis = 300;
+    private long thinkMaxMillis = 1500;
+    private Duration timeout = Duration.ofSeconds(10);
+    private String label = "run";
+    private Path reportDir = Path.of("load-reports");
+    private Long seed;
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        System.getProperties().stringPropertyNames().stream()
+            .filter(name -> name.startsWith("load."))
+            .forEach(name -> options.put(name.substring("load.".length()), System.getProperty(name)));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig();
+        // target first so the per-service URLs can override it
+        String target = options.remove("target");
+        if (target != null) {
+            config.target(target);
+        }
+        options.forEach((name, value) -> {
+            switch (name) {
+                case "auth-url" -> config.authUrl(value);
+                case "catalog-url" -> config.catalogUrl(value);
+                case "watchlist-url" -> config.watchlistUrl(value);
+                case "users" -> config.users(Integer.parseInt(value));
+                case "duration" -> config.duration(Duration.ofSeconds(Long.parseLong(value)));
+                case "ramp-up" -> config.rampUp(Duration.ofSeconds(Long.parseLong(value)));
+                case "think-min" -> config.thinkTime(Long.parseLong(value), config.thinkMaxMillis);
+                case "think-max" -> config.thinkTime(config.thinkMinMillis, Long.parseLong(value));
+                case "timeout" -> config.timeout(Duration.ofMillis(Long.parseLong(value)));
+                case "label" -> config.label(value);
+                case "report-dir" -> config.reportDir(Path.of(value));
+                case "seed" -> config.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        });
+        return config;
+    }
+
+    /**
+     * Send every service's traffic through one base URL (nginx).
+     */
+    public LoadTestConfig target(String baseUrl) {
+        return authUrl(baseUrl).catalogUrl(baseUrl).watchlistUrl(baseUrl);
+    }
+
+    public LoadTestConfig authUrl(String authUrl) {
+        this.authUrl = trimSlash(authUrl);
+        return this;
+    }
+
+    public LoadTestConfig catalogUrl(String catalogUrl) {
+        this.catalogUrl = trimSlash(catalogUrl);
+        return this;
+    }
+
+    public LoadTestConfig watchlistUrl(String watchlistUrl) {
+        this.watchlistUrl = trimSlash(watchlistUrl);
+        return this;
+    }
+
+    public LoadTestConfig users(int users) {
+        if (users < 1) {
+            throw new IllegalArgumentException("users must be at least 1");
+        }
+        this.users = users;
+        return this;
+    }
+
+    public LoadTestConfig duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadTestConfig rampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    public LoadTestConfig thinkTime(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Think time needs 0 <= min <= max");
+        }
+        this.thinkMinMillis = minMillis;
+        this.thinkMaxMillis = maxMillis;
+        return this;
+    }
+
+    public LoadTestConfig timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public LoadTestConfig label(String label) {
+        this.label = label;
+        return this;
+    }
+
+    public LoadTestConfig reportDir(Path reportDir) {
+        this.reportDir = reportDir;
+        return this;
+    }
+
+    public LoadTestConfig seed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public String getAuthUrl() {
+        return authUrl;
+    }
+
+    public String getCatalogUrl() {
+        return catalogUrl;
+    }
+
+    public String getWatchlistUrl() {
+        return watchlistUrl;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public long getThinkMinMillis() {
+        return thinkMinMillis;
+    }
+
+    public long getThinkMaxMillis() {
+        return thinkMaxMillis;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Path getReportDir() {
+        return reportDir;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+}
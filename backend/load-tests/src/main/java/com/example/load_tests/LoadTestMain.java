@@ -0,0 +1,86 @@
+package com.example.load_tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs {@link UserSession}s against the services and writes a report.
+ *
+ * Users start evenly spread over the ramp-up, each on its own virtual
+ * thread, and keep cycling through their session until the run ends. Only the
+ * window after the ramp-up is measured. Reports land in
+ * {@code <report-dir>/<label>.json} and {@code <label>.txt}; compare two runs
+ * with {@link CompareReports}.
+ *
+ * <pre>
+ * java -jar target/load-tests.jar --target=http://localhost:8080 --users=50 --duration=120 --label=$(git rev-parse --short HEAD)
+ * </pre>
+ *
+ * See {@link LoadTestConfig} for every option.
+ */
+public class LoadTestMain {
+
+    /** How long users get to finish their current step and clean up after the run. */
+    private static final long SHUTDOWN_GRACE_SECONDS = 30;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        LoadReport report = run(config);
+        String text = report.render();
+        System.out.print(text);
+
+        Path dir = config.getReportDir();
+        report.write(dir.resolve(config.getLabel() + ".json"));
+        Files.writeString(dir.resolve(config.getLabel() + ".txt"), text);
+        System.out.println("Reports written to " + dir.toAbsolutePath());
+    }
+
+    public static LoadReport run(LoadTestConfig config) throws InterruptedException {
+        LoadMetrics metrics = new LoadMetrics();
+        TimedHttpClient http = new TimedHttpClient(metrics, config.getTimeout());
+        ObjectMapper mapper = new ObjectMapper();
+        SplittableRandom seeds = config.getSeed() != null ? new SplittableRandom(config.getSeed()) : new SplittableRandom();
+
+        long rampUpNanos = config.getRampUp().toNanos();
+        long start = System.nanoTime();
+        long measureStart = start + rampUpNanos;
+        long deadline = measureStart + config.getDuration().toNanos();
+        long stagger = rampUpNanos / config.getUsers();
+
+        System.out.printf("Starting %d users over %d s, measuring for %d s (catalog %s)%n",
+            config.getUsers(), config.getRampUp().toSeconds(), config.getDuration().toSeconds(), config.getCatalogUrl());
+
+        ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < config.getUsers(); i++) {
+            sleepUntil(start + i * stagger);
+            users.execute(new UserSession(config, http, metrics, mapper, seeds.split(), deadline));
+        }
+        sleepUntil(measureStart);
+        metrics.startMeasuring();
+        String startedAt = Instant.now().toString();
+
+        sleepUntil(deadline);
+        metrics.stopMeasuring();
+
+        users.shutdown();
+        if (!users.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+        return LoadReport.from(config.getLabel(), startedAt, config.getUsers(), metrics);
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.load_tests;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Thin wrapper over the JDK HttpClient that times every request under a
+ * logical name and records it in {@link LoadMetrics}. Non-2xx responses,
+ * timeouts and I/O errors count as failures; callers get null back for them.
+ */
+public class TimedHttpClient {
+
+    private final HttpClient client;
+    private final LoadMetrics metrics;
+    private final Duration timeout;
+
+    public TimedHttpClient(LoadMetrics metrics, Duration timeout) {
+        this.metrics = metrics;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    public byte[] get(String name, String url) {
+        return send(name, request(url).GET());
+    }
+
+    public byte[] post(String name, String url, byte[] json) {
+        return send(name, request(url)
+            .header("Content-Type", "application/json")
+            .POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(json)));
+    }
+
+    public byte[] put(String name, String url, byte[] json) {
+        return send(name, request(url)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(json)));
+    }
+
+    public byte[] delete(String name, String url) {
+        return send(name, request(url).DELETE());
+    }
+
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("Accept", "application/json");
+    }
+
+    private byte[] send(String name, HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() / 100 != 2) {
+                metrics.recordFailure(name, elapsed, "status:" + response.statusCode());
+                return null;
+            }
+            metrics.recordSuccess(name, elapsed);
+            return response.body();
+        } catch (HttpTimeoutException e) {
+            metrics.recordFailure(name, System.nanoTime() - start, "timeout");
+        } catch (IOException e) {
+            metrics.recordFailure(name, System.nanoTime() - start, "io");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
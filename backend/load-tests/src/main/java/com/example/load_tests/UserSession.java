@@ -0,0 +1,295 @@
+package com.example.load_tests;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One virtual user, replaying the requests the frontend makes:
+ *
+ * <ol>
+ * <li>guest login ({@code POST /api/auth/guest}); the username is the JWT subject</li>
+ * <li>home page: the three feeds and both watchlists in parallel, then one
+ *     detail request per watchlist item, one after another (as the home page hydrates them)</li>
+ * <li>on the first visit, add a couple of the listed titles to the watchlist</li>
+ * <li>search, then one to three detail pages (movie, TV show or anime)</li>
+ * <li>now and then, bump the episode progress of a TV show on the watchlist</li>
+ * </ol>
+ *
+ * Steps 2 to 5 repeat with think time until the run ends; the watchlist
+ * entries added by the session are then deleted again.
+ *
+ * Besides the individual requests, whole pages are timed as {@code page.home},
+ * {@code page.search} and {@code page.detail}; a page counts as failed when any
+ * of its requests failed.
+ */
+public class UserSession implements Runnable {
+
+    private static final List<String> SEARCH_TERMS = List.of(
+        "star", "love", "night", "war", "dragon", "girl", "dark", "king", "blue", "ghost",
+        "city", "last", "house", "space", "attack", "hero", "one piece", "breaking", "the");
+
+    private final LoadTestConfig config;
+    private final TimedHttpClient http;
+    private final LoadMetrics metrics;
+    private final ObjectMapper mapper;
+    private final SplittableRandom random;
+    private final long deadlineNanos;
+
+    private String username;
+    private final List<Long> movieIds = new ArrayList<>();
+    private final List<Long> tvShowIds = new ArrayList<>();
+    private final List<Long> animeIds = new ArrayList<>();
+    private final List<Long> addedMovies = new ArrayList<>();
+    private final List<Long> addedTvShows = new ArrayList<>();
+    private int episode;
+
+    public UserSession(LoadTestConfig config, TimedHttpClient http, LoadMetrics metrics, ObjectMapper mapper,
+                       SplittableRandom random, long deadlineNanos) {
+        this.config = config;
+        this.http = http;
+        this.metrics = metrics;
+        this.mapper = mapper;
+        this.random = random;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        try (ExecutorService pageLoader = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (!login()) {
+                return;
+            }
+            boolean firstVisit = true;
+            while (!expired()) {
+                homePage(pageLoader);
+                if (firstVisit) {
+                    addToWatchlist();
+                    firstVisit = false;
+                }
+                think();
+                searchPage();
+                int details = 1 + random.nextInt(3);
+                for (int i = 0; i < details && !expired(); i++) {
+                    think();
+                    detailPage();
+                }
+                if (!addedTvShows.isEmpty() && random.nextInt(5) == 0) {
+                    updateProgress();
+                }
+                think();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cleanUp();
+        }
+    }
+
+    private boolean login() {
+        JsonNode body = json(http.post("auth.guest", config.getAuthUrl() + "/api/auth/guest", null));
+        String token = body == null ? null : body.path("token").asText(null);
+        if (token == null) {
+            return false;
+        }
+        username = subject(token);
+        return username != null;
+    }
+
+    /**
+     * Reads {@code sub} from the JWT payload; the signature is the services' business, not ours.
+     */
+    private String subject(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        JsonNode payload = json(Base64.getUrlDecoder().decode(parts[1]));
+        return payload == null ? null : payload.path("sub").asText(null);
+    }
+
+    private void homePage(ExecutorService pageLoader) throws InterruptedException {
+        long start = System.nanoTime();
+        String catalog = config.getCatalogUrl() + "/api/catalog";
+        String watchlist = config.getWatchlistUrl() + "/api/watchlist";
+        Map<String, Future<byte[]>> feeds = Map.of(
+            "movies", pageLoader.submit(() -> http.get("catalog.movies.popular", catalog + "/movies/popular?page=1")),
+            "tvshows", pageLoader.submit(() -> http.get("catalog.tvshows.popular", catalog + "/tvshows/popular?page=1")),
+            "anime", pageLoader.submit(() -> http.get("catalog.tvshows.anime", catalog + "/tvshows/anime?page=1")),
+            "watchedMovies", pageLoader.submit(() -> http.get("watchlist.movies.list", watchlist + "/movies/" + username)),
+            "watchedTvShows", pageLoader.submit(() -> http.get("watchlist.tvshows.list", watchlist + "/tvshows/" + username)));
+
+        boolean ok = true;
+        ok &= collectIds(await(feeds.get("movies")), movieIds);
+        ok &= collectIds(await(feeds.get("tvshows")), tvShowIds);
+        ok &= collectIds(await(feeds.get("anime")), animeIds);
+
+        JsonNode watchedMovies = json(await(feeds.get("watchedMovies")));
+        JsonNode watchedTvShows = json(await(feeds.get("watchedTvShows")));
+        ok &= watchedMovies != null && watchedTvShows != null;
+        if (watchedMovies != null) {
+            for (JsonNode item : watchedMovies) {
+                ok &= http.get("catalog.movies.detail", catalog + "/movies/" + item.path("movieId").asText()) != null;
+            }
+        }
+        if (watchedTvShows != null) {
+            for (JsonNode item : watchedTvShows) {
+                ok &= http.get("catalog.tvshows.detail", catalog + "/tvshows/" + item.path("tvShowId").asText()) != null;
+            }
+        }
+        recordPage("page.home", start, ok);
+    }
+
+    private void searchPage() {
+        long start = System.nanoTime();
+        String term = SEARCH_TERMS.get(random.nextInt(SEARCH_TERMS.size()));
+        byte[] body = http.get("catalog.search",
+            config.getCatalogUrl() + "/api/catalog/search?query=" + URLEncoder.encode(term, StandardCharsets.UTF_8));
+        recordPage("page.search", start, body != null);
+    }
+
+    private void detailPage() {
+        String catalog = config.getCatalogUrl() + "/api/catalog";
+        int kind = random.nextInt(3);
+        byte[] body;
+        long start = System.nanoTime();
+        if (kind == 0 && !movieIds.isEmpty()) {
+            body = http.get("catalog.movies.detail", catalog + "/movies/" + pick(movieIds));
+        } else if (kind == 1 && !animeIds.isEmpty()) {
+            body = http.get("catalog.tvshows.anime.detail", catalog + "/tvshows/anime/" + pick(animeIds));
+        } else if (!tvShowIds.isEmpty()) {
+            body = http.get("catalog.tvshows.detail", catalog + "/tvshows/" + pick(tvShowIds));
+        } else {
+            return;
+        }
+        recordPage("page.detail", start, body != null);
+    }
+
+    private void addToWatchlist() {
+        String watchlist = config.getWatchlistUrl() + "/api/watchlist";
+        int movies = Math.min(movieIds.size(), 1 + random.nextInt(2));
+        for (int i = 0; i < movies; i++) {
+            long id = movieIds.get(i);
+            byte[] created = http.post("watchlist.movies.add", watchlist + "/movies", write(Map.of(
+                "username", username,
+                "movieId", String.valueOf(id),
+                "status", "PLAN_TO_WATCH")));
+            if (created != null) {
+                addedMovies.add(id);
+            }
+        }
+        if (!tvShowIds.isEmpty()) {
+            long id = pick(tvShowIds);
+            byte[] created = http.post("watchlist.tvshows.add", watchlist + "/tvshows", write(Map.of(
+                "username", username,
+                "tvShowId", String.valueOf(id),
+                "status", "CURRENTLY_WATCHING",
+                "currentSeason", 1,
+                "currentEpisode", 0)));
+            if (created != null) {
+                addedTvShows.add(id);
+            }
+        }
+    }
+
+    private void updateProgress() {
+        long id = pick(addedTvShows);
+        http.put("watchlist.tvshows.update",
+            config.getWatchlistUrl() + "/api/watchlist/tvshows/" + username + "/" + id,
+            write(Map.of("status", "CURRENTLY_WATCHING", "currentSeason", 1, "currentEpisode", ++episode)));
+    }
+
+    /**
+     * Leaves the database as we found it. Runs after the measured window, so it is not recorded.
+     */
+    private void cleanUp() {
+        if (username == null) {
+            return;
+        }
+        String watchlist = config.getWatchlistUrl() + "/api/watchlist";
+        for (long id : addedMovies) {
+            http.delete("watchlist.movies.delete", watchlist + "/movies/" + username + "/" + id);
+        }
+        for (long id : addedTvShows) {
+            http.delete("watchlist.tvshows.delete", watchlist + "/tvshows/" + username + "/" + id);
+        }
+    }
+
+    private void think() throws InterruptedException {
+        long min = config.getThinkMinMillis();
+        long max = config.getThinkMaxMillis();
+        long millis = max > min ? random.nextLong(min, max + 1) : min;
+        long remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000;
+        if (millis > 0 && remainingMillis > 0) {
+            Thread.sleep(Math.min(millis, remainingMillis));
+        }
+    }
+
+    private boolean expired() {
+        return System.nanoTime() >= deadlineNanos || Thread.currentThread().isInterrupted();
+    }
+
+    private void recordPage(String name, long startNanos, boolean ok) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (ok) {
+            metrics.recordSuccess(name, elapsed);
+        } else {
+            metrics.recordFailure(name, elapsed, "partial");
+        }
+    }
+
+    private boolean collectIds(byte[] body, List<Long> ids) {
+        JsonNode list = json(body);
+        if (list == null) {
+            return false;
+        }
+        ids.clear();
+        for (JsonNode item : list) {
+            ids.add(item.path("id").asLong());
+        }
+        return true;
+    }
+
+    private long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static byte[] await(Future<byte[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private JsonNode json(byte[] body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
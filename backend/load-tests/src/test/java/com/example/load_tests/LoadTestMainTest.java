@@ -0,0 +1,123 @@
+package com.example.load_tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class LoadTestMainTest {
+
+    private HttpServer services;
+
+    /**
+     * Stands in for nginx and the three services with canned responses.
+     */
+    @BeforeEach
+    void startServices() throws IOException {
+        services = HttpServer.create(new InetSocketAddress(0), 0);
+        String payload = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"sub\":\"guest-42\"}".getBytes(StandardCharsets.UTF_8));
+        services.createContext("/api/auth/guest", exchange ->
+            send(exchange, 200, "{\"token\":\"e30." + payload + ".sig\",\"expiresIn\":86400000}"));
+        services.createContext("/api/catalog", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            boolean list = path.endsWith("/popular") || path.endsWith("/anime");
+            send(exchange, 200, list ? "[{\"id\":1},{\"id\":2}]" : "{\"id\":1}");
+        });
+        services.createContext("/api/watchlist", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/api/watchlist/movies/guest-42")) {
+                send(exchange, 200, "[{\"movieId\":\"1\"}]");
+            } else if (path.equals("/api/watchlist/tvshows/guest-42") && "GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 500, "{}");
+            } else {
+                send(exchange, 200, "{}");
+            }
+        });
+        services.start();
+    }
+
+    @AfterEach
+    void stopServices() {
+        services.stop(0);
+    }
+
+    @Test
+    void replaysSessionsAndReportsPercentiles(@TempDir Path reports) throws Exception {
+        LoadTestConfig config = new LoadTestConfig()
+            .target("http://localhost:" + services.getAddress().getPort() + "/")
+            .users(2)
+            .rampUp(Duration.ZERO)
+            .duration(Duration.ofSeconds(1))
+            .thinkTime(5, 20)
+            .label("test")
+            .seed(7L);
+
+        LoadReport report = LoadTestMain.run(config);
+
+        assertEquals(2, report.users());
+        LoadReport.Endpoint popular = report.endpoint("catalog.movies.popular");
+        assertNotNull(popular);
+        assertTrue(popular.count() > 0);
+        assertEquals(0, popular.errorCount());
+        assertTrue(popular.p99() >= popular.p50());
+        assertNotNull(report.endpoint("catalog.search"));
+        assertNotNull(report.endpoint("page.detail"));
+
+        // the TV watchlist answers 500, so every home page is partial
+        LoadReport.Endpoint tvWatchlist = report.endpoint("watchlist.tvshows.list");
+        assertEquals(tvWatchlist.count(), tvWatchlist.errors().get("status:500"));
+        LoadReport.Endpoint home = report.endpoint("page.home");
+        assertEquals(home.count(), home.errors().get("partial"));
+
+        Path json = reports.resolve("test.json");
+        report.write(json);
+        assertEquals(report.endpoints().size(), LoadReport.read(json).endpoints().size());
+    }
+
+    @Test
+    void compareFlagsSlowerPercentiles() {
+        LoadReport baseline = new LoadReport("main", "t0", 10, 60, List.of(
+            endpoint("catalog.search", 100, 10, 20),
+            endpoint("catalog.movies.popular", 100, 10, 20)));
+        LoadReport candidate = new LoadReport("branch", "t1", 10, 60, List.of(
+            endpoint("catalog.search", 100, 10, 30),
+            endpoint("catalog.movies.popular", 100, 10, 21)));
+
+        CompareReports.Comparison comparison = CompareReports.compare(baseline, candidate, 10);
+
+        assertEquals(List.of("catalog.search"), comparison.regressions());
+    }
+
+    private static LoadReport.Endpoint endpoint(String name, long count, double p95, double p99) {
+        return new LoadReport.Endpoint(name, count, 0, count / 60.0, p95 / 2, p95 / 2, p95, p95, p99, p99, p99, Map.of());
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
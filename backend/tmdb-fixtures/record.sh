@@ -0,0 +1,30 @@
+#!/usr/bin/env sh
+# Re-record the TMDB fixtures from the live API.
+# Usage: TMDB_API_KEY=... ./record.sh
+set -eu
+
+: "${TMDB_API_KEY:?TMDB_API_KEY must be set}"
+BASE_URL="${TMDB_BASE_URL:-https://api.themoviedb.org/3}"
+DIR="$(cd "$(dirname "$0")" && pwd)"
+
+fetch() {
+    out="$DIR/$1.json"
+    mkdir -p "$(dirname "$out")"
+    curl -sf "$BASE_URL/$1?api_key=$TMDB_API_KEY$2" | python3 -m json.tool --no-ensure-ascii > "$out"
+    echo "recorded $1"
+}
+
+fetch movie/popular "&page=1"
+fetch search/movie "&query=night&page=1"
+fetch discover/tv "&sort_by=popularity.desc&page=1"
+fetch trending/tv/week "&page=1"
+fetch search/tv "&query=night&page=1"
+fetch movie/550 ""
+fetch movie/550/credits ""
+fetch movie/550/similar ""
+fetch movie/550/videos ""
+fetch tv/1399 "&append_to_response=credits,similar"
+fetch tv/1399/videos ""
+fetch tv/37854 "&append_to_response=credits,similar"
+fetch tv/37854/videos ""
+fetch person/287/external_ids ""
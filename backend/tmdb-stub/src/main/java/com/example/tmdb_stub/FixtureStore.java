@@ -0,0 +1,214 @@
+package com.example.tmdb_stub;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Fixtures keyed by request path ({@code movie/550/credits}). Ids that have
+ * no fixture of their own are served from a template of the same shape with
+ * the id rewritten, so any title or person id resolves.
+ */
+public class FixtureStore {
+
+    private static final String MOVIE_TEMPLATE = "movie/550";
+    private static final String TV_TEMPLATE = "tv/1399";
+    private static final String ANIME_TEMPLATE = "tv/37854";
+    private static final String PERSON_TEMPLATE = "person/287/external_ids";
+    private static final int ANIMATION_GENRE_ID = 16;
+    private static final long PAGE_ID_STRIDE = 10_000_000L;
+
+    private final ObjectMapper mapper;
+    private final Map<String, JsonNode> fixtures;
+    private final Set<Long> animeIds;
+
+    private FixtureStore(ObjectMapper mapper, Map<String, JsonNode> fixtures) {
+        this.mapper = mapper;
+        this.fixtures = fixtures;
+        this.animeIds = collectAnimeIds(fixtures);
+    }
+
+    /**
+     * Load fixtures from a directory, or from the copy bundled on the classpath when null.
+     */
+    public static FixtureStore load(Path directory, ObjectMapper mapper) {
+        try {
+            if (directory != null) {
+                return new FixtureStore(mapper, readAll(directory, mapper));
+            }
+            URL bundled = FixtureStore.class.getResource("/fixtures");
+            if (bundled == null) {
+                throw new IllegalStateException("No fixtures directory given and none bundled");
+            }
+            URI uri = bundled.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+                    return new FixtureStore(mapper, readAll(jar.getPath("/fixtures"), mapper));
+                }
+            }
+            return new FixtureStore(mapper, readAll(Path.of(uri), mapper));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, JsonNode> readAll(Path root, ObjectMapper mapper) throws IOException {
+        Map<String, JsonNode> fixtures = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".json"))::iterator) {
+                String key = root.relativize(file).toString().replace('\\', '/');
+                fixtures.put(key.substring(0, key.length() - ".json".length()), mapper.readTree(Files.readAllBytes(file)));
+            }
+        }
+        return fixtures;
+    }
+
+    /**
+     * Ids that appear as anime (animation genre, Japanese) in the list fixtures,
+     * so their detail pages are served from the anime template.
+     */
+    private static Set<Long> collectAnimeIds(Map<String, JsonNode> fixtures) {
+        Set<Long> ids = new HashSet<>();
+        fixtures.values().forEach(fixture -> fixture.path("results").forEach(result -> {
+            boolean animated = false;
+            for (JsonNode genre : result.path("genre_ids")) {
+                animated |= genre.asInt() == ANIMATION_GENRE_ID;
+            }
+            if (animated && "ja".equals(result.path("original_language").asText())) {
+                ids.add(result.path("id").asLong());
+            }
+        }));
+        return ids;
+    }
+
+    public int size() {
+        return fixtures.size();
+    }
+
+    /**
+     * The body TMDB would answer a {@code /3/...} request with, or null where it would answer 404.
+     * For serving fixtures in-process, without the HTTP server.
+     */
+    public JsonNode respond(URI uri) {
+        TmdbStubServer.Route route = TmdbStubServer.Route.resolve(uri.getPath());
+        return route != null ? lookup(route, uri) : null;
+    }
+
+    JsonNode lookup(TmdbStubServer.Route route, URI uri) {
+        return switch (route.endpoint()) {
+            case "popular", "discover", "trending", "search" -> page(route.fixture(), pageParam(uri));
+            case "details" -> title(route.type(), route.id(), null);
+            case "credits", "similar", "videos" -> title(route.type(), route.id(), route.endpoint());
+            case "external_ids" -> externalIds(route.id());
+            default -> null;
+        };
+    }
+
+    /**
+     * A list page. Pages past the first reuse the fixture with ids shifted, so
+     * each page returns distinct titles; pages past total_pages are empty.
+     */
+    public JsonNode page(String path, int page) {
+        JsonNode fixture = fixtures.get(path);
+        if (fixture == null) {
+            return null;
+        }
+        ObjectNode copy = fixture.deepCopy();
+        copy.put("page", page);
+        ArrayNode results = (ArrayNode) copy.path("results");
+        if (page > copy.path("total_pages").asInt(1)) {
+            results.removeAll();
+        } else if (page > 1) {
+            for (JsonNode result : results) {
+                ((ObjectNode) result).put("id", result.path("id").asLong() + (page - 1) * PAGE_ID_STRIDE);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Title details, or a title sub-resource such as {@code credits}, {@code similar} or {@code videos}.
+     *
+     * @param type "movie" or "tv"
+     * @param subResource null for the details themselves
+     */
+    public JsonNode title(String type, long id, String subResource) {
+        String suffix = subResource == null ? "" : "/" + subResource;
+        JsonNode exact = fixtures.get(type + "/" + id + suffix);
+        if (exact != null) {
+            return exact;
+        }
+        String template;
+        if ("movie".equals(type)) {
+            template = MOVIE_TEMPLATE;
+        } else {
+            template = animeIds.contains(id) || animeIds.contains(id % PAGE_ID_STRIDE) ? ANIME_TEMPLATE : TV_TEMPLATE;
+        }
+        JsonNode fixture = fixtures.get(template + suffix);
+        if (fixture == null && "tv".equals(type) && subResource != null) {
+            fixture = fixtures.get(MOVIE_TEMPLATE + suffix);
+        }
+        if (fixture == null) {
+            return null;
+        }
+        ObjectNode copy = fixture.deepCopy();
+        copy.put("id", id);
+        return copy;
+    }
+
+    /**
+     * {@code /person/{id}/external_ids} with a distinct IMDb id per person.
+     */
+    public JsonNode externalIds(long personId) {
+        JsonNode exact = fixtures.get("person/" + personId + "/external_ids");
+        if (exact != null) {
+            return exact;
+        }
+        ObjectNode copy = fixtures.get(PERSON_TEMPLATE).deepCopy();
+        copy.put("id", personId);
+        copy.put("imdb_id", String.format("nm%07d", personId));
+        return copy;
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    private static int pageParam(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return 1;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith("page=")) {
+                try {
+                    return Math.max(1, Integer.parseInt(URLDecoder.decode(pair.substring(5), StandardCharsets.UTF_8)));
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
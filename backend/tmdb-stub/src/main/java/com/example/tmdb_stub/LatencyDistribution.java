@@ -0,0 +1,62 @@
+package com.example.tmdb_stub;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Artificial response delay. Parsed from specs such as {@code none},
+ * {@code fixed:50}, {@code uniform:20:80} or {@code lognormal:40:400}
+ * (median and p99 in milliseconds).
+ */
+public interface LatencyDistribution {
+
+    long sampleMillis(RandomGenerator random);
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        switch (parts[0]) {
+            case "none":
+                return random -> 0;
+            case "fixed":
+                return new Fixed(Long.parseLong(parts[1]));
+            case "uniform":
+                return new Uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            case "lognormal":
+                return LogNormal.fromPercentiles(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    record Fixed(long millis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return millis;
+        }
+    }
+
+    record Uniform(long minMillis, long maxMillis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return minMillis >= maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1);
+        }
+    }
+
+    /**
+     * Long-tailed latency, the usual shape of a remote API: most calls near the
+     * median, a few far out in the tail.
+     */
+    record LogNormal(double mu, double sigma) implements LatencyDistribution {
+
+        private static final double Z_99 = 2.326;
+
+        static LogNormal fromPercentiles(double p50Millis, double p99Millis) {
+            double mu = Math.log(p50Millis);
+            return new LogNormal(mu, Math.max(0, (Math.log(p99Millis) - mu) / Z_99));
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+    }
+}
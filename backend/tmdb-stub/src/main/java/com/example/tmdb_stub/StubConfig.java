@@ -0,0 +1,168 @@
+package com.example.tmdb_stub;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings for {@link TmdbStubServer}. Every option can be given as a
+ * {@code --name=value} argument or a {@code tmdb.stub.name} system property:
+ *
+ * <pre>
+ * port            listen port, 0 for a random one (default 8089)
+ * fixtures        fixture directory (default: the copy bundled in the jar)
+ * latency         default latency distribution (default none)
+ * latency.NAME    latency for one endpoint, e.g. latency.external_ids=fixed:15
+ * error-rate      fraction of requests answered with 500 (default 0)
+ * throttle-rate   fraction of requests answered with 429 (default 0)
+ * rate-limit      requests per second before every request gets 429 (default 0 = off)
+ * retry-after     Retry-After seconds sent with 429s (default 1)
+ * missing-ids     comma separated title/person ids answered with 404
+ * seed            random seed for reproducible fault injection
+ * </pre>
+ *
+ * Endpoint names are popular, discover, trending, search, details, credits,
+ * similar, videos and external_ids.
+ */
+public class StubConfig {
+
+    private int port = 8089;
+    private Path fixturesDir;
+    private LatencyDistribution defaultLatency = LatencyDistribution.parse("none");
+    private final Map<String, LatencyDistribution> endpointLatency = new HashMap<>();
+    private double errorRate;
+    private double throttleRate;
+    private int rateLimitPerSecond;
+    private int retryAfterSeconds = 1;
+    private final Set<Long> missingIds = new HashSet<>();
+    private Long seed;
+
+    public static StubConfig fromArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        System.getProperties().stringPropertyNames().stream()
+            .filter(name -> name.startsWith("tmdb.stub."))
+            .forEach(name -> options.put(name.substring("tmdb.stub.".length()), System.getProperty(name)));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        StubConfig config = new StubConfig();
+        options.forEach((name, value) -> {
+            if (name.startsWith("latency.")) {
+                config.latency(name.substring("latency.".length()), LatencyDistribution.parse(value));
+                return;
+            }
+            switch (name) {
+                case "port" -> config.port(Integer.parseInt(value));
+                case "fixtures" -> config.fixturesDir(Path.of(value));
+                case "latency" -> config.latency(LatencyDistribution.parse(value));
+                case "error-rate" -> config.errorRate(Double.parseDouble(value));
+                case "throttle-rate" -> config.throttleRate(Double.parseDouble(value));
+                case "rate-limit" -> config.rateLimitPerSecond(Integer.parseInt(value));
+                case "retry-after" -> config.retryAfterSeconds(Integer.parseInt(value));
+                case "missing-ids" -> {
+                    for (String id : value.split(",")) {
+                        if (!id.isBlank()) {
+                            config.missingId(Long.parseLong(id.trim()));
+                        }
+                    }
+                }
+                case "seed" -> config.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        });
+        return config;
+    }
+
+    public StubConfig port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public StubConfig fixturesDir(Path fixturesDir) {
+        this.fixturesDir = fixturesDir;
+        return this;
+    }
+
+    public StubConfig latency(LatencyDistribution latency) {
+        this.defaultLatency = latency;
+        return this;
+    }
+
+    public StubConfig latency(String endpoint, LatencyDistribution latency) {
+        this.endpointLatency.put(endpoint, latency);
+        return this;
+    }
+
+    public StubConfig errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public StubConfig throttleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    public StubConfig rateLimitPerSecond(int rateLimitPerSecond) {
+        this.rateLimitPerSecond = rateLimitPerSecond;
+        return this;
+    }
+
+    public StubConfig retryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    public StubConfig missingId(long id) {
+        this.missingIds.add(id);
+        return this;
+    }
+
+    public StubConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public Path getFixturesDir() {
+        return fixturesDir;
+    }
+
+    public LatencyDistribution latencyFor(String endpoint) {
+        return endpointLatency.getOrDefault(endpoint, defaultLatency);
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public int getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public boolean isMissing(long id) {
+        return missingIds.contains(id);
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.tmdb_stub;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the TMDB v3 API. Serves the fixtures for every endpoint
+ * TmdbService calls, with configurable latency, 500s and 429s, so the catalog
+ * can be load-tested and integration-tested without touching the real API.
+ *
+ * Point catalog-service at it with {@code tmdb.base-url=http://localhost:8089/3}
+ * (the {@code offline} profile does this). Can also be embedded in a test:
+ *
+ * <pre>
+ * try (TmdbStubServer stub = TmdbStubServer.start(new StubConfig().port(0))) {
+ *     String baseUrl = stub.baseUrl();
+ * }
+ * </pre>
+ *
+ * {@code GET /__stub/stats} returns request counts per endpoint and status;
+ * {@code POST /__stub/reset} clears them.
+ */
+public class TmdbStubServer implements AutoCloseable {
+
+    private static final String API_PREFIX = "/3/";
+
+    private final StubConfig config;
+    private final FixtureStore fixtures;
+    private final ObjectMapper mapper;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Random seededRandom;
+    private final Map<String, LongAdder> stats = new ConcurrentHashMap<>();
+    private final AtomicLong rateWindow = new AtomicLong();
+    private final AtomicLong rateWindowCount = new AtomicLong();
+
+    private TmdbStubServer(StubConfig config) throws IOException {
+        this.config = config;
+        this.mapper = new ObjectMapper();
+        this.fixtures = FixtureStore.load(config.getFixturesDir(), mapper);
+        this.seededRandom = config.getSeed() != null ? new Random(config.getSeed()) : null;
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public static TmdbStubServer start(StubConfig config) throws IOException {
+        TmdbStubServer stub = new TmdbStubServer(config);
+        stub.server.start();
+        return stub;
+    }
+
+    public static void main(String[] args) throws IOException {
+        TmdbStubServer stub = start(StubConfig.fromArgs(args));
+        System.out.println("TMDB stub serving " + stub.fixtures.size() + " fixtures at " + stub.baseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Value for {@code tmdb.base-url}.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + port() + "/3";
+    }
+
+    /**
+     * Requests served so far, keyed by {@code endpoint} and {@code endpoint:status}.
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        stats.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+
+    public void resetStats() {
+        stats.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/__stub/")) {
+                handleAdmin(exchange, path);
+                return;
+            }
+            Route route = Route.resolve(path);
+            if (route == null) {
+                record("unknown", 404);
+                send(exchange, 404, statusBody(34, "The resource you requested could not be found."));
+                return;
+            }
+
+            sleep(config.latencyFor(route.endpoint()).sampleMillis(random()));
+
+            if (overRateLimit() || chance(config.getThrottleRate())) {
+                record(route.endpoint(), 429);
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(config.getRetryAfterSeconds()));
+                send(exchange, 429, statusBody(25, "Your request count is over the allowed limit."));
+                return;
+            }
+            if (chance(config.getErrorRate())) {
+                record(route.endpoint(), 500);
+                send(exchange, 500, statusBody(11, "Internal error: Something went wrong, contact TMDB."));
+                return;
+            }
+
+            JsonNode body = route.id() != null && config.isMissing(route.id()) ? null : fixtures.lookup(route, exchange.getRequestURI());
+            if (body == null) {
+                record(route.endpoint(), 404);
+                send(exchange, 404, statusBody(34, "The resource you requested could not be found."));
+                return;
+            }
+            record(route.endpoint(), 200);
+            send(exchange, 200, mapper.writeValueAsBytes(body));
+        }
+    }
+
+    private void handleAdmin(HttpExchange exchange, String path) throws IOException {
+        if ("/__stub/stats".equals(path)) {
+            send(exchange, 200, mapper.writeValueAsBytes(stats()));
+        } else if ("/__stub/reset".equals(path) && "POST".equals(exchange.getRequestMethod())) {
+            resetStats();
+            send(exchange, 204, null);
+        } else {
+            send(exchange, 404, null);
+        }
+    }
+
+    /**
+     * Fixed one-second window, like TMDB's own per-IP limit.
+     */
+    private boolean overRateLimit() {
+        int limit = config.getRateLimitPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long window = rateWindow.get();
+        if (window != second && rateWindow.compareAndSet(window, second)) {
+            rateWindowCount.set(0);
+        }
+        return rateWindowCount.incrementAndGet() > limit;
+    }
+
+    private boolean chance(double probability) {
+        return probability > 0 && random().nextDouble() < probability;
+    }
+
+    /**
+     * The seeded generator when a seed is configured (reproducible, shared), otherwise a per-thread one.
+     */
+    private RandomGenerator random() {
+        return seededRandom != null ? seededRandom : ThreadLocalRandom.current();
+    }
+
+    private void record(String endpoint, int status) {
+        stats.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        stats.computeIfAbsent(endpoint + ":" + status, key -> new LongAdder()).increment();
+    }
+
+    private byte[] statusBody(int statusCode, String message) throws IOException {
+        return mapper.writeValueAsBytes(Map.of(
+            "success", false,
+            "status_code", statusCode,
+            "status_message", message));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A TMDB request mapped onto a logical endpoint name and fixture.
+     *
+     * @param endpoint logical endpoint (popular, discover, trending, search, details, credits, similar, videos, external_ids)
+     * @param fixture fixture path for list endpoints
+     * @param type "movie", "tv" or "person"
+     * @param id title or person id, null for list endpoints
+     */
+    record Route(String endpoint, String fixture, String type, Long id) {
+
+        static Route resolve(String path) {
+            if (!path.startsWith(API_PREFIX)) {
+                return null;
+            }
+            String[] segments = path.substring(API_PREFIX.length()).split("/");
+            String joined = String.join("/", segments);
+            switch (joined) {
+                case "movie/popular":
+                    return new Route("popular", joined, "movie", null);
+                case "discover/tv":
+                    return new Route("discover", joined, "tv", null);
+                case "trending/tv/week":
+                    return new Route("trending", joined, "tv", null);
+                case "search/movie":
+                    return new Route("search", joined, "movie", null);
+                case "search/tv":
+                    return new Route("search", joined, "tv", null);
+                default:
+                    break;
+            }
+            if (segments.length < 2 || !isNumber(segments[1])) {
+                return null;
+            }
+            String type = segments[0];
+            long id = Long.parseLong(segments[1]);
+            if ("person".equals(type)) {
+                return segments.length == 3 && "external_ids".equals(segments[2])
+                    ? new Route("external_ids", null, type, id)
+                    : null;
+            }
+            if (!"movie".equals(type) && !"tv".equals(type)) {
+                return null;
+            }
+            if (segments.length == 2) {
+                return new Route("details", null, type, id);
+            }
+            if (segments.length == 3 && ("credits".equals(segments[2]) || "similar".equals(segments[2])
+                    || "videos".equals(segments[2]))) {
+                return new Route(segments[2], null, type, id);
+            }
+            return null;
+        }
+
+        private static boolean isNumber(String segment) {
+            return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+        }
+    }
+}
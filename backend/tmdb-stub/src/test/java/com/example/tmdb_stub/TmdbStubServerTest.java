@@ -0,0 +1,76 @@
+package com.example.tmdb_stub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class TmdbStubServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void servesEveryEndpointTmdbServiceCalls() throws Exception {
+        try (TmdbStubServer stub = TmdbStubServer.start(new StubConfig().port(0))) {
+            String base = stub.baseUrl();
+            for (String path : new String[] {
+                    "/movie/popular?page=1", "/discover/tv?page=1", "/trending/tv/week", "/search/movie?query=a",
+                    "/search/tv?query=a", "/movie/42", "/movie/42/credits", "/movie/42/similar",
+                    "/movie/42/videos", "/tv/7?append_to_response=credits,similar", "/tv/7/videos",
+                    "/person/99/external_ids" }) {
+                assertEquals(200, get(base + path).statusCode(), path);
+            }
+
+            JsonNode movie = mapper.readTree(get(base + "/movie/42").body());
+            assertEquals(42, movie.path("id").asLong());
+            JsonNode person = mapper.readTree(get(base + "/person/99/external_ids").body());
+            assertEquals("nm0000099", person.path("imdb_id").asText());
+            assertNull(stub.stats().get("unknown"));
+            assertEquals(2L, stub.stats().get("external_ids:200"));
+        }
+    }
+
+    @Test
+    void laterPagesReturnDistinctTitles() throws Exception {
+        try (TmdbStubServer stub = TmdbStubServer.start(new StubConfig().port(0))) {
+            JsonNode first = mapper.readTree(get(stub.baseUrl() + "/movie/popular?page=1").body());
+            JsonNode second = mapper.readTree(get(stub.baseUrl() + "/movie/popular?page=2").body());
+            assertEquals(2, second.path("page").asInt());
+            assertTrue(first.path("results").get(0).path("id").asLong()
+                != second.path("results").get(0).path("id").asLong());
+        }
+    }
+
+    @Test
+    void injectsThrottlingErrorsAndMissingIds() throws Exception {
+        StubConfig throttled = new StubConfig().port(0).throttleRate(1.0).retryAfterSeconds(3);
+        try (TmdbStubServer stub = TmdbStubServer.start(throttled)) {
+            HttpResponse<String> response = get(stub.baseUrl() + "/movie/popular");
+            assertEquals(429, response.statusCode());
+            assertEquals("3", response.headers().firstValue("Retry-After").orElse(null));
+        }
+        try (TmdbStubServer stub = TmdbStubServer.start(new StubConfig().port(0).errorRate(1.0))) {
+            assertEquals(500, get(stub.baseUrl() + "/movie/550").statusCode());
+            assertEquals(1L, stub.stats().get("details:500"));
+        }
+        try (TmdbStubServer stub = TmdbStubServer.start(new StubConfig().port(0).missingId(404))) {
+            assertEquals(404, get(stub.baseUrl() + "/movie/404").statusCode());
+            assertEquals(404, get(stub.baseUrl() + "/person/404/external_ids").statusCode());
+            assertEquals(404, get(stub.baseUrl() + "/movie/1/reviews").statusCode());
+        }
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.watchlist_service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link WatchlistChanges} within one process, for running a single replica
+ * ({@code watchlist.cache.broadcast: local}) and for tests, where
+ * {@link #replica()} stands in for another instance.
+ */
+@Component
+@ConditionalOnProperty(prefix = "watchlist.cache", name = "broadcast", havingValue = "local")
+public class LocalWatchlistChanges implements WatchlistChanges {
+
+    private final List<LocalWatchlistChanges> replicas;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public LocalWatchlistChanges() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LocalWatchlistChanges(List<LocalWatchlistChanges> replicas) {
+        this.replicas = replicas;
+        replicas.add(this);
+    }
+
+    /**
+     * Another replica, hearing what this one publishes and the other way round.
+     */
+    LocalWatchlistChanges replica() {
+        return new LocalWatchlistChanges(replicas);
+    }
+
+    @Override
+    public void publish(String username) {
+        long sentAt = System.currentTimeMillis();
+        for (LocalWatchlistChanges replica : replicas) {
+            if (replica != this) {
+                replica.listeners.forEach(listener -> listener.changed(username, sentAt));
+            }
+        }
+    }
+
+    @Override
+    public void listen(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * As if this replica's connection had dropped and come back.
+     */
+    void reconnect() {
+        listeners.forEach(Listener::reset);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.watchlist_service.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import com.example.watchlist_service.config.WatchlistCacheProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link WatchlistChanges} over Postgres LISTEN/NOTIFY on the watchlist
+ * database, so replicas need nothing they don't already share. Changes are sent
+ * as {@code pg_notify(channel, '<instance> <sentAt> <username>')}; each replica
+ * keeps one connection of its own (outside the pool) listening on the channel
+ * and reconnects after {@code retry-after} when it drops. Failures are counted
+ * as {@code watchlist.cache.broadcast.errors} tagged with operation.
+ */
+@Component
+@ConditionalOnProperty(prefix = "watchlist.cache", name = "broadcast", havingValue = "postgres", matchIfMissing = true)
+public class PostgresWatchlistChanges implements WatchlistChanges, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresWatchlistChanges.class);
+
+    // How long one wait for notifications blocks, so closing is noticed
+    private static final int POLL_MILLIS = 1_000;
+
+    private final WatchlistCacheProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String instance = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+    private Thread listener;
+
+    public PostgresWatchlistChanges(WatchlistCacheProperties properties, DataSourceProperties dataSourceProperties,
+                                    JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(String username) {
+        try {
+            jdbcTemplate.query("select pg_notify(?, ?)", (ResultSetExtractor<Void>) rows -> null,
+                properties.getChannel(), instance + " " + System.currentTimeMillis() + " " + username);
+        } catch (DataAccessException e) {
+            // the other replicas see the change once their copy expires
+            count("publish");
+            logger.warn("Could not tell other replicas that {}'s watchlist changed: {}", username, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void listen(Listener listener) {
+        listeners.add(listener);
+        if (this.listener == null) {
+            this.listener = Thread.ofPlatform().name("watchlist-changes").daemon().start(this::receive);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Stay listening on the channel, reconnecting after failures. Whatever was sent
+     * while the connection was down is lost, so listeners are reset once it is back.
+     */
+    private void receive() {
+        boolean missed = false;
+        while (!closed) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen \"" + properties.getChannel().replace("\"", "\"\"") + "\"");
+                }
+                if (missed) {
+                    listeners.forEach(Listener::reset);
+                }
+                logger.info("Listening for watchlist changes on {}", properties.getChannel());
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (!closed) {
+                    PGNotification[] received = notifications.getNotifications(POLL_MILLIS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            received(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (closed) {
+                    return;
+                }
+                missed = true;
+                count("listen");
+                logger.warn("Watchlist changes from other replicas unavailable, retrying in {}: {}",
+                    properties.getRetryAfter(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getRetryAfter().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void received(String message) {
+        String[] parts = message.split(" ", 3);
+        if (parts.length != 3 || parts[0].equals(instance)) {
+            return;
+        }
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        listeners.forEach(listener -> listener.changed(parts[2], sentAt));
+    }
+
+    private void count(String operation) {
+        meterRegistry.counter("watchlist.cache.broadcast.errors", "operation", operation).increment();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.watchlist_service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.watchlist_service.config.WatchlistCacheProperties;
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Recently read watchlists, one {@link WatchlistSnapshot} per user, so the
+ * whole-list reads a client makes on every screen don't each go to Postgres.
+ *
+ * Every write goes through here after it is committed: a write that returns
+ * the row (add, status and progress changes) is applied to the cached snapshot
+ * unless the row cached is as new or newer, a removal drops the title from it, and bulk writes drop the snapshot. Each is
+ * then published on {@link WatchlistChanges}, and other replicas drop their copy.
+ * A read racing a write never caches what it read from before the write. At
+ * most {@code max-users} snapshots are kept, least recently read dropped first,
+ * each for at most {@code ttl}; watchlists over {@code max-titles-per-user}
+ * aren't kept.
+ *
+ * Metrics: {@code watchlist.cache.requests} tagged hit or miss, the age of the
+ * snapshots served as {@code watchlist.cache.age}, {@code watchlist.cache.invalidations}
+ * tagged local or remote, the time from a write on another replica until it was
+ * dropped here as {@code watchlist.cache.invalidation.lag}, and
+ * {@code watchlist.cache.users}.
+ */
+@Component
+public class WatchlistCache implements WatchlistChanges.Listener {
+
+    private final WatchlistCacheProperties properties;
+    private final WatchlistChanges changes;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public WatchlistCache(WatchlistCacheProperties properties, WatchlistChanges changes,
+                          MeterRegistry meterRegistry) {
+        this(properties, changes, meterRegistry, System::currentTimeMillis);
+    }
+
+    WatchlistCache(WatchlistCacheProperties properties, WatchlistChanges changes, MeterRegistry meterRegistry,
+                   LongSupplier clock) {
+        this.properties = properties;
+        this.changes = changes;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > properties.getMaxUsers();
+            }
+        };
+        Gauge.builder("watchlist.cache.users", this, WatchlistCache::size).register(meterRegistry);
+        changes.listen(this);
+    }
+
+    /**
+     * The user's watchlists, from memory when they were read recently, otherwise from {@code loader}.
+     */
+    public WatchlistSnapshot get(String username, Supplier<FullWatchlist> loader) {
+        long now = clock.getAsLong();
+        if (!properties.isEnabled()) {
+            return WatchlistSnapshot.of(loader.get(), now);
+        }
+        Entry loading = new Entry(null);
+        synchronized (entries) {
+            Entry cached = entries.get(username);
+            if (cached != null && cached.snapshot != null
+                    && now - cached.snapshot.loadedAt() < properties.getTtl().toMillis()) {
+                count("hit");
+                meterRegistry.timer("watchlist.cache.age")
+                    .record(now - cached.snapshot.loadedAt(), TimeUnit.MILLISECONDS);
+                return cached.snapshot;
+            }
+            if (cached == null || cached.snapshot != null) {
+                entries.put(username, loading);
+            } else {
+                // another request is reading it already; read it too, but leave caching to that one
+                loading = null;
+            }
+        }
+        count("miss");
+        WatchlistSnapshot loaded = null;
+        try {
+            loaded = WatchlistSnapshot.of(loader.get(), now);
+            return loaded;
+        } finally {
+            if (loading != null) {
+                replace(username, loading,
+                    loaded == null || loaded.size() > properties.getMaxTitlesPerUser() ? null : new Entry(loaded));
+            }
+        }
+    }
+
+    /**
+     * A movie was added or changed; {@code movie} is the row as written.
+     */
+    public void putMovie(String username, MovieWatchlist movie) {
+        update(username, snapshot -> snapshot.withMovie(movie));
+    }
+
+    public void removeMovie(String username, String movieId) {
+        update(username, snapshot -> snapshot.withoutMovie(movieId));
+    }
+
+    /**
+     * A TV show was added or changed; {@code tvShow} is the row as written.
+     */
+    public void putTvShow(String username, TvShowWatchlist tvShow) {
+        update(username, snapshot -> snapshot.withTvShow(tvShow));
+    }
+
+    public void removeTvShow(String username, String tvShowId) {
+        update(username, snapshot -> snapshot.withoutTvShow(tvShowId));
+    }
+
+    /**
+     * Many titles changed at once; the next read goes to the database.
+     */
+    public void invalidate(String username) {
+        update(username, snapshot -> null);
+    }
+
+    @Override
+    public void changed(String username, long sentAt) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+        meterRegistry.counter("watchlist.cache.invalidations", "source", "remote").increment();
+        meterRegistry.timer("watchlist.cache.invalidation.lag")
+            .record(Math.max(0, clock.getAsLong() - sentAt), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void reset() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Apply a committed write to the cached snapshot, if any, and tell the other replicas.
+     * The change is made outside the lock and kept only if no other write got in first;
+     * a snapshot still being read is dropped, since the read may have missed the write.
+     */
+    private void update(String username, UnaryOperator<WatchlistSnapshot> change) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        while (true) {
+            Entry cached;
+            synchronized (entries) {
+                cached = entries.get(username);
+            }
+            if (cached == null) {
+                break;
+            }
+            WatchlistSnapshot changed = cached.snapshot == null ? null : change.apply(cached.snapshot);
+            if (replace(username, cached,
+                    changed == null || changed.size() > properties.getMaxTitlesPerUser() ? null : new Entry(changed))) {
+                break;
+            }
+        }
+        meterRegistry.counter("watchlist.cache.invalidations", "source", "local").increment();
+        changes.publish(username);
+    }
+
+    /**
+     * Swap the user's entry for {@code next} (or drop it when null), if it is still {@code expected}.
+     */
+    private boolean replace(String username, Entry expected, Entry next) {
+        synchronized (entries) {
+            if (entries.get(username) != expected) {
+                return false;
+            }
+            if (next == null) {
+                entries.remove(username);
+            } else {
+                entries.put(username, next);
+            }
+            return true;
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("watchlist.cache.requests", "result", result).increment();
+    }
+
+    /**
+     * A cached snapshot, or with a null snapshot, a read in progress.
+     */
+    private record Entry(WatchlistSnapshot snapshot) {
+    }
+}
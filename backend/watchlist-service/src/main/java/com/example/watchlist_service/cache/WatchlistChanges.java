@@ -0,0 +1,29 @@
+package com.example.watchlist_service.cache;
+
+/**
+ * Tells every other replica of watchlist-service whose watchlist changed, so
+ * they drop their cached copy of it. A replica doesn't hear its own changes;
+ * it has already updated its cache.
+ */
+public interface WatchlistChanges {
+
+    /**
+     * The user's watchlist was written; called after the write is committed.
+     */
+    void publish(String username);
+
+    void listen(Listener listener);
+
+    interface Listener {
+
+        /**
+         * Another replica changed this user's watchlist at {@code sentAt} (epoch millis).
+         */
+        void changed(String username, long sentAt);
+
+        /**
+         * Changes may have been missed (the connection dropped), so nothing cached can be trusted.
+         */
+        void reset();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.watchlist_service.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.repository.WatchlistSort;
+
+/**
+ * Both of a user's watchlists as read at {@code loadedAt}, most recently updated
+ * first. Never changed once made: a write makes a new snapshot, so a request can
+ * keep reading the one it got.
+ */
+public record WatchlistSnapshot(List<MovieWatchlist> movies, List<TvShowWatchlist> tvShows, long loadedAt) {
+
+    private static final Comparator<MovieWatchlist> MOVIES_BY_UPDATED_AT = newestFirst(MovieWatchlist::getUpdatedAt,
+        MovieWatchlist::getId);
+    private static final Comparator<MovieWatchlist> MOVIES_BY_CREATED_AT = newestFirst(MovieWatchlist::getCreatedAt,
+        MovieWatchlist::getId);
+    private static final Comparator<TvShowWatchlist> TV_SHOWS_BY_UPDATED_AT = newestFirst(
+        TvShowWatchlist::getUpdatedAt, TvShowWatchlist::getId);
+    private static final Comparator<TvShowWatchlist> TV_SHOWS_BY_CREATED_AT = newestFirst(
+        TvShowWatchlist::getCreatedAt, TvShowWatchlist::getId);
+
+    public WatchlistSnapshot {
+        movies = List.copyOf(movies);
+        tvShows = List.copyOf(tvShows);
+    }
+
+    static WatchlistSnapshot of(FullWatchlist watchlist, long loadedAt) {
+        return new WatchlistSnapshot(watchlist.getMovies(), watchlist.getTvShows(), loadedAt);
+    }
+
+    public int size() {
+        return movies.size() + tvShows.size();
+    }
+
+    /**
+     * The movies with {@code status} (all of them when null), newest first by {@code sort}.
+     */
+    public List<MovieWatchlist> movies(WatchStatus status, WatchlistSort sort) {
+        return select(movies, movie -> status == null || movie.getStatus() == status,
+            sort == WatchlistSort.CREATED_AT ? MOVIES_BY_CREATED_AT : null);
+    }
+
+    /**
+     * The TV shows with {@code status} (all of them when null), newest first by {@code sort}.
+     */
+    public List<TvShowWatchlist> tvShows(WatchStatus status, WatchlistSort sort) {
+        return select(tvShows, tvShow -> status == null || tvShow.getStatus() == status,
+            sort == WatchlistSort.CREATED_AT ? TV_SHOWS_BY_CREATED_AT : null);
+    }
+
+    /**
+     * This snapshot with {@code movie} in place of the row for the same title, unless the row here
+     * is as new or newer: writes can finish in one order and reach the cache in the other.
+     */
+    WatchlistSnapshot withMovie(MovieWatchlist movie) {
+        if (hasNewer(movies, other -> other.getMovieId().equals(movie.getMovieId()), MovieWatchlist::getUpdatedAt,
+                movie.getUpdatedAt())) {
+            return this;
+        }
+        List<MovieWatchlist> changed = without(movies, other -> other.getMovieId().equals(movie.getMovieId()));
+        changed.add(movie);
+        changed.sort(MOVIES_BY_UPDATED_AT);
+        return new WatchlistSnapshot(changed, tvShows, loadedAt);
+    }
+
+    WatchlistSnapshot withoutMovie(String movieId) {
+        return new WatchlistSnapshot(without(movies, movie -> movie.getMovieId().equals(movieId)), tvShows, loadedAt);
+    }
+
+    /**
+     * This snapshot with {@code tvShow} in place of the row for the same title, in the same way as
+     * {@link #withMovie}.
+     */
+    WatchlistSnapshot withTvShow(TvShowWatchlist tvShow) {
+        if (hasNewer(tvShows, other -> other.getTvShowId().equals(tvShow.getTvShowId()),
+                TvShowWatchlist::getUpdatedAt, tvShow.getUpdatedAt())) {
+            return this;
+        }
+        List<TvShowWatchlist> changed = without(tvShows, other -> other.getTvShowId().equals(tvShow.getTvShowId()));
+        changed.add(tvShow);
+        changed.sort(TV_SHOWS_BY_UPDATED_AT);
+        return new WatchlistSnapshot(movies, changed, loadedAt);
+    }
+
+    WatchlistSnapshot withoutTvShow(String tvShowId) {
+        return new WatchlistSnapshot(movies, without(tvShows, tvShow -> tvShow.getTvShowId().equals(tvShowId)),
+            loadedAt);
+    }
+
+    private static <T> List<T> select(List<T> rows, Predicate<T> filter, Comparator<T> order) {
+        if (order == null) {
+            return rows.stream().filter(filter).toList();
+        }
+        return rows.stream().filter(filter).sorted(order).toList();
+    }
+
+    /**
+     * Whether the row matching {@code match} was updated at or after {@code updatedAt}, which
+     * as updated_at grows with every write means it is the same write or a later one.
+     */
+    private static <T> boolean hasNewer(List<T> rows, Predicate<T> match, Function<T, Long> updatedAtOf,
+                                        Long updatedAt) {
+        if (updatedAt == null) {
+            return false;
+        }
+        for (T row : rows) {
+            if (match.test(row)) {
+                Long current = updatedAtOf.apply(row);
+                return current != null && current >= updatedAt;
+            }
+        }
+        return false;
+    }
+
+    private static <T> List<T> without(List<T> rows, Predicate<T> match) {
+        List<T> rest = new ArrayList<>(rows.size() + 1);
+        for (T row : rows) {
+            if (!match.test(row)) {
+                rest.add(row);
+            }
+        }
+        return rest;
+    }
+
+    private static <T> Comparator<T> newestFirst(Function<T, Long> time, Function<T, Long> id) {
+        return Comparator.comparing(time, Comparator.nullsLast(Comparator.<Long>reverseOrder()))
+            .thenComparing(id, Comparator.nullsLast(Comparator.<Long>reverseOrder()));
+    }
+}
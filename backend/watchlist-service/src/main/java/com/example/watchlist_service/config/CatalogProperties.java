@@ -0,0 +1,32 @@
+package com.example.watchlist_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Component
+@ConfigurationProperties(prefix = "watchlist.catalog")
+@Data
+public class CatalogProperties {
+    
+    // catalog-service, for title summaries
+    private String baseUrl = "http://localhost:8082";
+    
+    // A summary request that takes longer is given up, and its titles are sent without details
+    private Duration timeout = Duration.ofSeconds(3);
+    
+    // How long a title's summary is reused before it is asked for again
+    private Duration summaryTtl = Duration.ofHours(1);
+    
+    // Summaries held at once; past this, new ones are not kept until old ones expire
+    private int maxSummaries = 50_000;
+    
+    // Movies and TV shows per summary request, sent in parallel; catalog-service takes at most 200
+    private int batchSize = 100;
+    
+    // Summary requests in flight at once for one watchlist
+    private int concurrency = 4;
+}
@@ -0,0 +1,20 @@
+package com.example.watchlist_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Component
+@ConfigurationProperties(prefix = "watchlist.idempotency")
+@Data
+public class IdempotencyProperties {
+    
+    // How long a retry with the same Idempotency-Key gets the first result back
+    private Duration ttl = Duration.ofHours(24);
+    
+    // Keys remembered at once; past this, new keys are not remembered until old ones expire
+    private int maxKeys = 100_000;
+}
@@ -0,0 +1,39 @@
+package com.example.watchlist_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Component
+@ConfigurationProperties(prefix = "watchlist.recommendations")
+@Data
+public class RecommendationProperties {
+    
+    private boolean enabled = true;
+    
+    // Read by @Scheduled as ${watchlist.recommendations.refresh-interval}
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    
+    // A full rebuild also picks up deletes made through other instances
+    private Duration fullRebuildInterval = Duration.ofHours(24);
+    
+    // Neighbours kept per title
+    private int neighbours = 50;
+    
+    // Users two titles must share before they count as neighbours
+    private int minSupport = 2;
+    
+    // Most recent titles of a watchlist that are counted, bounding the pairs one user adds
+    private int maxTitlesPerUser = 200;
+    
+    // Changed users per fork/join task
+    private int partitionSize = 256;
+    
+    // Rows read per query during a full rebuild
+    private int pageSize = 10_000;
+    
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
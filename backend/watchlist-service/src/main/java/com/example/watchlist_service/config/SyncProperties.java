@@ -0,0 +1,27 @@
+package com.example.watchlist_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Component
+@ConfigurationProperties(prefix = "watchlist.sync")
+@Data
+public class SyncProperties {
+    
+    // How long removals are remembered; a client that last synced longer ago gets the whole watchlist again
+    private Duration tombstoneTtl = Duration.ofDays(30);
+    
+    // Read by @Scheduled as ${watchlist.sync.compaction-interval}
+    private Duration compactionInterval = Duration.ofHours(1);
+    
+    // Tombstones deleted per statement while compacting, so no statement holds locks for long
+    private int compactionBatchSize = 10_000;
+    
+    // How far before the read nextSince is set, covering writes committed after their updated_at was taken
+    // and clock differences between replicas; changes within it are sent again
+    private Duration overlap = Duration.ofSeconds(5);
+}
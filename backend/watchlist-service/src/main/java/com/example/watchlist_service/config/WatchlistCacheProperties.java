@@ -0,0 +1,36 @@
+package com.example.watchlist_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Component
+@ConfigurationProperties(prefix = "watchlist.cache")
+@Data
+public class WatchlistCacheProperties {
+
+    // Serve whole-watchlist reads from memory
+    private boolean enabled = true;
+
+    // Users whose watchlists are held at once; the least recently read are dropped first
+    private int maxUsers = 10_000;
+
+    // Larger watchlists are always read from the database, so a few users can't fill the memory
+    private int maxTitlesPerUser = 2_000;
+
+    // A watchlist is read again after this long even if no change was heard of, which bounds
+    // how stale a lost invalidation can leave it
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // How changes reach the other replicas: postgres (NOTIFY on the watchlist database) or local (a single replica)
+    private String broadcast = "postgres";
+
+    // NOTIFY channel shared by all replicas
+    private String channel = "watchlist_changed";
+
+    // Wait before listening again after the connection is lost
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
@@ -1,60 +1,149 @@
 package com.example.watchlist_service.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.ImportResult;
 import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.Recommendation;
 import com.example.watchlist_service.model.TvShowWatchlist;
 import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistChangeSet;
+import com.example.watchlist_service.model.WatchlistPage;
+import com.example.watchlist_service.repository.WatchlistSort;
+import com.example.watchlist_service.service.RecommendationService;
+import com.example.watchlist_service.service.WatchlistConflictException;
+import com.example.watchlist_service.service.WatchlistImportExportService;
 import com.example.watchlist_service.service.WatchlistService;
+import com.example.watchlist_service.service.WatchlistSyncService;
 
 @RestController
 @RequestMapping("/api/watchlist")
 @CrossOrigin
 public class WatchlistController {
 
+    // Retries of an add sent with the same key get the first result back
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    // Entries per page when a cursor is sent without a limit, and the most a page may have
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Where the next page starts; absent on the last page
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    // Titles one batch status change may name
+    private static final int MAX_BATCH_IDS = 10_000;
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final WatchlistService watchlistService;
+    private final WatchlistImportExportService importExportService;
+    private final RecommendationService recommendationService;
+    private final WatchlistSyncService syncService;
 
-    public WatchlistController(WatchlistService watchlistService) {
+    public WatchlistController(WatchlistService watchlistService, WatchlistImportExportService importExportService,
+                               RecommendationService recommendationService, WatchlistSyncService syncService) {
         this.watchlistService = watchlistService;
+        this.importExportService = importExportService;
+        this.recommendationService = recommendationService;
+        this.syncService = syncService;
+    }
+
+    // Both watchlists with the catalog's summary of each title, in place of 2 + one request per title
+    @GetMapping("/{username}/full")
+    public ResponseEntity<FullWatchlist> getFullWatchlist(@PathVariable String username) {
+        return ResponseEntity.ok(watchlistService.getFullWatchlist(username));
+    }
+
+    // What changed since the nextSince of the client's last sync; everything, flagged fullResync, without one
+    @GetMapping("/{username}/changes")
+    public ResponseEntity<WatchlistChangeSet> getChanges(
+            @PathVariable String username,
+            @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(syncService.getChanges(username, since));
     }
 
     // Movie watchlist endpoints
+    // Newest first; the whole list unless a limit or cursor is given
     @GetMapping("/movies/{username}")
-    public ResponseEntity<List<MovieWatchlist>> getMovieWatchlist(@PathVariable String username) {
-        return ResponseEntity.ok(watchlistService.getMovieWatchlistForUser(username));
+    public ResponseEntity<List<MovieWatchlist>> getMovieWatchlist(
+            @PathVariable String username,
+            @RequestParam(required = false) WatchStatus status,
+            @RequestParam(defaultValue = "updatedAt") String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        
+        try {
+            return page(watchlistService.getMovieWatchlistForUser(
+                username, status, WatchlistSort.fromParameter(sort), cursor, pageSize(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PostMapping("/movies")
-    public ResponseEntity<MovieWatchlist> addMovieToWatchlist(@RequestBody MovieWatchlist movieWatchlist) {
-        return new ResponseEntity<>(watchlistService.addMovieToWatchlist(movieWatchlist), HttpStatus.CREATED);
+    public ResponseEntity<MovieWatchlist> addMovieToWatchlist(
+            @RequestBody MovieWatchlist movieWatchlist,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return new ResponseEntity<>(watchlistService.addMovieToWatchlist(movieWatchlist, idempotencyKey),
+            HttpStatus.CREATED);
     }
 
     @PutMapping("/movies/{username}/{movieId}")
-    public ResponseEntity<MovieWatchlist> updateMovieWatchStatus(
+    public ResponseEntity<?> updateMovieWatchStatus(
             @PathVariable String username,
             @PathVariable String movieId,
-            @RequestBody Map<String, String> statusUpdate) {
-        
-        WatchStatus status = WatchStatus.valueOf(statusUpdate.get("status"));
-        MovieWatchlist updated = watchlistService.updateMovieWatchStatus(username, movieId, status);
+            @RequestBody Map<String, Object> statusUpdate) {
         
-        if (updated != null) {
-            return ResponseEntity.ok(updated);
+        WatchStatus status = WatchStatus.valueOf((String) statusUpdate.get("status"));
+        try {
+            MovieWatchlist updated = watchlistService.updateMovieWatchStatus(
+                username, movieId, status, expectedUpdatedAt(statusUpdate));
+            
+            if (updated != null) {
+                return ResponseEntity.ok(updated);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (WatchlistConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getCurrent());
         }
-        return ResponseEntity.notFound().build();
+    }
+
+    // Same status for many movies, e.g. {"status": "COMPLETED", "movieIds": ["603", "604"]}
+    @PatchMapping("/movies/{username}")
+    public ResponseEntity<Map<String, Object>> updateMovieWatchStatuses(
+            @PathVariable String username,
+            @RequestBody Map<String, Object> batchUpdate) {
+        
+        WatchStatus status = WatchStatus.valueOf((String) batchUpdate.get("status"));
+        List<String> movieIds = ids(batchUpdate.get("movieIds"));
+        int updated = importExportService.updateMovieStatuses(username, movieIds, status);
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     @DeleteMapping("/movies/{username}/{movieId}")
@@ -68,27 +157,72 @@ public class WatchlistController {
 
     // TV Show watchlist endpoints
     @GetMapping("/tvshows/{username}")
-    public ResponseEntity<List<TvShowWatchlist>> getTvShowWatchlist(@PathVariable String username) {
-        return ResponseEntity.ok(watchlistService.getTvShowWatchlistForUser(username));
+    public ResponseEntity<List<TvShowWatchlist>> getTvShowWatchlist(
+            @PathVariable String username,
+            @RequestParam(required = false) WatchStatus status,
+            @RequestParam(defaultValue = "updatedAt") String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        
+        try {
+            return page(watchlistService.getTvShowWatchlistForUser(
+                username, status, WatchlistSort.fromParameter(sort), cursor, pageSize(limit, cursor)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @PostMapping("/tvshows")
-    public ResponseEntity<TvShowWatchlist> addTvShowToWatchlist(@RequestBody TvShowWatchlist tvShowWatchlist) {
-        return new ResponseEntity<>(watchlistService.addTvShowToWatchlist(tvShowWatchlist), HttpStatus.CREATED);
+    public ResponseEntity<TvShowWatchlist> addTvShowToWatchlist(
+            @RequestBody TvShowWatchlist tvShowWatchlist,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return new ResponseEntity<>(watchlistService.addTvShowToWatchlist(tvShowWatchlist, idempotencyKey),
+            HttpStatus.CREATED);
     }
 
     @PutMapping("/tvshows/{username}/{tvShowId}")
-    public ResponseEntity<TvShowWatchlist> updateTvShowWatchStatus(
+    public ResponseEntity<?> updateTvShowWatchStatus(
             @PathVariable String username,
             @PathVariable String tvShowId,
             @RequestBody Map<String, Object> statusUpdate) {
         
-        WatchStatus status = WatchStatus.valueOf((String) statusUpdate.get("status"));
+        String status = (String) statusUpdate.get("status");
         Integer currentSeason = (Integer) statusUpdate.get("currentSeason");
         Integer currentEpisode = (Integer) statusUpdate.get("currentEpisode");
         
-        TvShowWatchlist updated = watchlistService.updateTvShowWatchStatus(
-            username, tvShowId, status, currentSeason, currentEpisode);
+        try {
+            TvShowWatchlist updated = watchlistService.updateTvShowWatchStatus(
+                username, tvShowId, status == null ? null : WatchStatus.valueOf(status), currentSeason, currentEpisode,
+                expectedUpdatedAt(statusUpdate));
+            
+            if (updated != null) {
+                return ResponseEntity.ok(updated);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (WatchlistConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getCurrent());
+        }
+    }
+
+    // Same status for many TV shows, e.g. {"status": "COMPLETED", "tvShowIds": ["1399"]}
+    @PatchMapping("/tvshows/{username}")
+    public ResponseEntity<Map<String, Object>> updateTvShowWatchStatuses(
+            @PathVariable String username,
+            @RequestBody Map<String, Object> batchUpdate) {
+        
+        WatchStatus status = WatchStatus.valueOf((String) batchUpdate.get("status"));
+        List<String> tvShowIds = ids(batchUpdate.get("tvShowIds"));
+        int updated = importExportService.updateTvShowStatuses(username, tvShowIds, status);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    // Atomic "watched one more episode", safe to send from several devices at once
+    @PostMapping("/tvshows/{username}/{tvShowId}/next-episode")
+    public ResponseEntity<TvShowWatchlist> advanceTvShowEpisode(
+            @PathVariable String username,
+            @PathVariable String tvShowId) {
+        
+        TvShowWatchlist updated = watchlistService.advanceTvShowEpisode(username, tvShowId);
         
         if (updated != null) {
             return ResponseEntity.ok(updated);
@@ -104,4 +238,83 @@ public class WatchlistController {
         watchlistService.removeTvShowFromWatchlist(username, tvShowId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // Both watchlists from a CSV file or one JSON title per line; titles already there are updated
+    @PostMapping(value = "/import/{username}", consumes = { TEXT_CSV, APPLICATION_NDJSON })
+    public ResponseEntity<ImportResult> importWatchlist(
+            @PathVariable String username,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV));
+        return ResponseEntity.ok(importExportService.importWatchlist(username, body, csv));
+    }
+
+    // Both watchlists, written out as they are read
+    @GetMapping("/export/{username}")
+    public ResponseEntity<StreamingResponseBody> exportWatchlist(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = output -> importExportService.exportWatchlist(username, output, csv);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(csv ? TEXT_CSV : APPLICATION_NDJSON))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(username + "-watchlist." + (csv ? "csv" : "ndjson")).build().toString())
+            .body(body);
+    }
+
+    // Recommendations from other users' watchlists
+    @GetMapping("/recommendations/{username}")
+    public ResponseEntity<List<Recommendation>> getRecommendations(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(recommendationService.getRecommendations(username, limit));
+    }
+
+    /**
+     * The {@code updatedAt} an update was based on, if the client sent one; the update then
+     * only applies if the entry hasn't changed since.
+     */
+    private static Long expectedUpdatedAt(Map<String, Object> update) {
+        Object updatedAt = update.get("updatedAt");
+        return updatedAt instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * No limit for a client that asks for neither a limit nor a cursor, as before lists were paged.
+     */
+    private static Integer pageSize(Integer limit, String cursor) {
+        if (limit == null) {
+            return cursor == null ? null : DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1 to " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private static <T> ResponseEntity<List<T>> page(WatchlistPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * The title ids of a batch status change, at most {@link #MAX_BATCH_IDS} of them.
+     */
+    private static List<String> ids(Object ids) {
+        if (!(ids instanceof List<?> list) || list.isEmpty() || list.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Expected a list of 1 to " + MAX_BATCH_IDS + " title ids");
+        }
+        return list.stream().map(String::valueOf).distinct().toList();
+    }
+}
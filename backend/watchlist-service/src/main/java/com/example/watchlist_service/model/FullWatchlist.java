@@ -0,0 +1,25 @@
+package com.example.watchlist_service.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.Data;
+
+/**
+ * Both of a user's watchlists with what the catalog knows of each title, for drawing them in one request
+ */
+@Data
+public class FullWatchlist {
+    
+    // Most recently updated first
+    private List<MovieWatchlist> movies = new ArrayList<>();
+    private List<TvShowWatchlist> tvShows = new ArrayList<>();
+    
+    // Catalog summaries by title id; titles the catalog couldn't summarize in time are missing
+    private Map<String, JsonNode> movieDetails = new LinkedHashMap<>();
+    private Map<String, JsonNode> tvShowDetails = new LinkedHashMap<>();
+}
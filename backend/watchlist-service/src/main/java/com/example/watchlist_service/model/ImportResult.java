@@ -0,0 +1,22 @@
+package com.example.watchlist_service.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * What an import wrote, and why the rows it skipped were skipped
+ */
+@Data
+public class ImportResult {
+    
+    private int movies;
+    
+    private int tvShows;
+    
+    private int skipped;
+    
+    // "line 12: unknown status WATCHED", for the first rows skipped
+    private List<String> errors = new ArrayList<>();
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,8 +20,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class MovieWatchlist {
     
+    // From a sequence so Hibernate can batch inserts; shared with the upserts, see WatchlistSchema
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_watchlist_seq")
+    @SequenceGenerator(name = "movie_watchlist_seq", sequenceName = "movie_watchlist_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -0,0 +1,21 @@
+package com.example.watchlist_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A title recommended from other users' watchlists
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recommendation {
+    
+    // "movie" or "tv"
+    private String type;
+    
+    private String titleId;
+    
+    private double score;
+}
@@ -0,0 +1,19 @@
+package com.example.watchlist_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A title taken off a watchlist, as sent to syncing clients
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemovedTitle {
+    
+    // The movie or TV show id
+    private String id;
+    
+    private Long deletedAt;
+}
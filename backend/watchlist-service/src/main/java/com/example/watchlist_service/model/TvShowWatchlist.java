@@ -12,8 +12,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class TvShowWatchlist {
     
+    // From a sequence so Hibernate can batch inserts; shared with the upserts, see WatchlistSchema
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tv_show_watchlist_seq")
+    @SequenceGenerator(name = "tv_show_watchlist_seq", sequenceName = "tv_show_watchlist_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
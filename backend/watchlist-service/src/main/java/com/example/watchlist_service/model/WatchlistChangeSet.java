@@ -0,0 +1,28 @@
+package com.example.watchlist_service.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * What changed on both of a user's watchlists since a client last synced
+ */
+@Data
+public class WatchlistChangeSet {
+    
+    // True when the client's copy is too old to be brought up to date: the lists below are then whole
+    // and replace it, and there are no removals
+    private boolean fullResync;
+    
+    // Send as since next time; a little before this response was read, so changes committed late aren't missed
+    private long nextSince;
+    
+    // Added or changed since, oldest change first
+    private List<MovieWatchlist> movies = new ArrayList<>();
+    private List<TvShowWatchlist> tvShows = new ArrayList<>();
+    
+    // Removed since and not added back
+    private List<RemovedTitle> removedMovies = new ArrayList<>();
+    private List<RemovedTitle> removedTvShows = new ArrayList<>();
+}
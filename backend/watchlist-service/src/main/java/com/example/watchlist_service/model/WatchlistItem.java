@@ -0,0 +1,32 @@
+package com.example.watchlist_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One title of a watchlist as it is imported and exported, movies and TV shows alike
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WatchlistItem {
+    
+    // "movie" or "tv"
+    private String type;
+    
+    private String id;
+    
+    private WatchStatus status;
+    
+    // TV shows only
+    private Integer currentSeason;
+    private Integer currentEpisode;
+    
+    // Set on export, ignored on import
+    private Long createdAt;
+    private Long updatedAt;
+}
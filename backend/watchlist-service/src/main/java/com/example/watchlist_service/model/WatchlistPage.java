@@ -0,0 +1,19 @@
+package com.example.watchlist_service.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of a watchlist, and the cursor for the page after it
+ */
+@Data
+@AllArgsConstructor
+public class WatchlistPage<T> {
+    
+    private List<T> items;
+    
+    // Null on the last page
+    private String nextCursor;
+}
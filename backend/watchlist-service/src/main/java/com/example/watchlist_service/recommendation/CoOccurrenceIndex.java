@@ -0,0 +1,318 @@
+package com.example.watchlist_service.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Item-item co-occurrence over users' watchlists, kept up to date
+ * incrementally, with a top-k neighbour table per title for serving.
+ *
+ * Titles are keys like {@code movie:550} or {@code tv:1399}. For every pair of
+ * titles the index counts the users who have both; the similarity of two
+ * titles is that count over the geometric mean of their user counts (cosine
+ * over the user vectors), and pairs shared by fewer than {@code minSupport}
+ * users are ignored as noise.
+ *
+ * {@link #update} takes the new watchlists of the users that changed and only
+ * touches the pairs that involve titles added to or removed from those lists,
+ * so a run costs what changed, not the size of the table. Pair deltas are
+ * computed in parallel over partitions of the changed users on a
+ * {@link ForkJoinPool}, merged, applied, and the neighbour lists of the titles
+ * they touched are recomputed. Neighbour lists are immutable and published in
+ * a concurrent map, so {@link #recommend} never waits for an update.
+ *
+ * A touched title's neighbours are exact; an untouched title's scores for a
+ * neighbour whose user count changed stay as they were until it is touched
+ * again or the index is rebuilt.
+ */
+public class CoOccurrenceIndex {
+
+    private final int neighbours;
+    private final int minSupport;
+    private final int maxTitlesPerUser;
+    private final int partitionSize;
+    private final ForkJoinPool pool;
+
+    // everything below except the neighbour table belongs to the thread running update()
+    private final Map<String, Integer> titleIds = new HashMap<>();
+    private final List<String> titles = new ArrayList<>();
+    private int[] titleUsers = new int[1024];
+    private final List<LongIntHashMap> coOccurrences = new ArrayList<>();
+    private final Map<String, int[]> userTitles = new HashMap<>();
+
+    private final Map<String, Neighbours> neighbourTable = new ConcurrentHashMap<>();
+
+    /**
+     * @param neighbours neighbours kept per title
+     * @param minSupport users two titles must share to count as neighbours
+     * @param maxTitlesPerUser titles of one watchlist that are counted (the first ones given)
+     * @param partitionSize changed users per fork/join task
+     */
+    public CoOccurrenceIndex(int neighbours, int minSupport, int maxTitlesPerUser, int partitionSize, ForkJoinPool pool) {
+        this.neighbours = neighbours;
+        this.minSupport = Math.max(1, minSupport);
+        this.maxTitlesPerUser = maxTitlesPerUser;
+        this.partitionSize = partitionSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Replace the watchlists of some users; an empty list removes a user.
+     *
+     * @param watchlists title keys per username, most relevant first
+     * @return the number of titles whose neighbours were recomputed
+     */
+    public synchronized int update(Map<String, List<String>> watchlists) {
+        List<Change> changes = new ArrayList<>(watchlists.size());
+        for (Map.Entry<String, List<String>> watchlist : watchlists.entrySet()) {
+            int[] before = userTitles.getOrDefault(watchlist.getKey(), new int[0]);
+            int[] after = titleIds(watchlist.getValue());
+            if (Arrays.equals(before, after)) {
+                continue;
+            }
+            if (after.length == 0) {
+                userTitles.remove(watchlist.getKey());
+            } else {
+                userTitles.put(watchlist.getKey(), after);
+            }
+            changes.add(new Change(before, after));
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        Set<Integer> touched = new HashSet<>();
+        for (Change change : changes) {
+            for (int title : difference(change.after, change.before)) {
+                titleUsers[title]++;
+                touched.add(title);
+            }
+            for (int title : difference(change.before, change.after)) {
+                titleUsers[title]--;
+                touched.add(title);
+            }
+        }
+        LongIntHashMap pairDeltas = pool.invoke(new PairDeltas(changes, 0, changes.size()));
+        pairDeltas.forEach((pair, delta) -> {
+            int first = (int) (pair >>> 32);
+            int second = (int) pair;
+            coOccurrences.get(first).add(second, delta);
+            coOccurrences.get(second).add(first, delta);
+            touched.add(first);
+            touched.add(second);
+        });
+
+        pool.submit(() -> touched.parallelStream().forEach(this::rank)).join();
+        return touched.size();
+    }
+
+    /**
+     * Titles most often watchlisted together with {@code watched}, best first, leaving out the watched ones
+     */
+    public List<Scored> recommend(Collection<String> watched, int limit) {
+        Set<String> seen = new LinkedHashSet<>(watched);
+        Map<String, Double> scores = new HashMap<>();
+        for (String title : seen) {
+            Neighbours list = neighbourTable.get(title);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.titles.length; i++) {
+                if (!seen.contains(list.titles[i])) {
+                    scores.merge(list.titles[i], (double) list.scores[i], Double::sum);
+                }
+            }
+        }
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(entry -> new Scored(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    /**
+     * The neighbours of one title, best first; empty if it has none
+     */
+    public List<Scored> neighbours(String title) {
+        Neighbours list = neighbourTable.get(title);
+        if (list == null) {
+            return List.of();
+        }
+        List<Scored> scored = new ArrayList<>(list.titles.length);
+        for (int i = 0; i < list.titles.length; i++) {
+            scored.add(new Scored(list.titles[i], list.scores[i]));
+        }
+        return scored;
+    }
+
+    public synchronized int users() {
+        return userTitles.size();
+    }
+
+    public int titlesWithNeighbours() {
+        return neighbourTable.size();
+    }
+
+    /**
+     * Ids of a watchlist's titles, deduplicated and capped, in ascending order
+     */
+    private int[] titleIds(List<String> watchlist) {
+        int[] ids = watchlist.stream()
+            .distinct()
+            .limit(maxTitlesPerUser)
+            .mapToInt(this::titleId)
+            .toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private int titleId(String title) {
+        Integer id = titleIds.get(title);
+        if (id != null) {
+            return id;
+        }
+        int newId = titles.size();
+        titleIds.put(title, newId);
+        titles.add(title);
+        coOccurrences.add(new LongIntHashMap());
+        if (newId == titleUsers.length) {
+            titleUsers = Arrays.copyOf(titleUsers, newId * 2);
+        }
+        return newId;
+    }
+
+    /**
+     * Recompute the neighbour list of one title from its co-occurrence counts
+     */
+    private void rank(int title) {
+        LongIntHashMap counts = coOccurrences.get(title);
+        int[] bestTitles = new int[neighbours];
+        float[] bestScores = new float[neighbours];
+        int[] found = {0};
+        counts.forEach((other, count) -> {
+            if (count < minSupport) {
+                return;
+            }
+            float score = (float) (count / Math.sqrt((double) titleUsers[title] * titleUsers[(int) other]));
+            if (found[0] == neighbours && score <= bestScores[neighbours - 1]) {
+                return;
+            }
+            int position = found[0] < neighbours ? found[0]++ : neighbours - 1;
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                bestTitles[position] = bestTitles[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            bestTitles[position] = (int) other;
+        });
+        if (found[0] == 0) {
+            neighbourTable.remove(titles.get(title));
+            return;
+        }
+        String[] keys = new String[found[0]];
+        for (int i = 0; i < found[0]; i++) {
+            keys[i] = titles.get(bestTitles[i]);
+        }
+        neighbourTable.put(titles.get(title), new Neighbours(keys, Arrays.copyOf(bestScores, found[0])));
+    }
+
+    /**
+     * Items of sorted {@code a} that are not in sorted {@code b}
+     */
+    private static int[] difference(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int count = 0;
+        int j = 0;
+        for (int value : a) {
+            while (j < b.length && b[j] < value) {
+                j++;
+            }
+            if (j == b.length || b[j] != value) {
+                result[count++] = value;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long pair(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    /**
+     * Co-occurrence changes of a range of changed users. Only pairs with an added or
+     * removed title change: added titles pair up with the kept ones and with each other
+     * (+1), removed titles likewise (-1).
+     */
+    private final class PairDeltas extends RecursiveTask<LongIntHashMap> {
+        private final List<Change> changes;
+        private final int from;
+        private final int to;
+
+        PairDeltas(List<Change> changes, int from, int to) {
+            this.changes = changes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongIntHashMap compute() {
+            if (to - from > partitionSize) {
+                int middle = (from + to) >>> 1;
+                PairDeltas left = new PairDeltas(changes, from, middle);
+                left.fork();
+                LongIntHashMap right = new PairDeltas(changes, middle, to).compute();
+                LongIntHashMap merged = left.join();
+                if (merged.size() < right.size()) {
+                    right.addAll(merged);
+                    return right;
+                }
+                merged.addAll(right);
+                return merged;
+            }
+            LongIntHashMap deltas = new LongIntHashMap();
+            for (int i = from; i < to; i++) {
+                Change change = changes.get(i);
+                int[] added = difference(change.after, change.before);
+                int[] removed = difference(change.before, change.after);
+                int[] kept = difference(change.after, added);
+                addPairs(deltas, added, kept, 1);
+                addPairs(deltas, removed, kept, -1);
+            }
+            return deltas;
+        }
+
+        private static void addPairs(LongIntHashMap deltas, int[] changed, int[] kept, int delta) {
+            for (int i = 0; i < changed.length; i++) {
+                for (int title : kept) {
+                    deltas.add(pair(changed[i], title), delta);
+                }
+                for (int j = i + 1; j < changed.length; j++) {
+                    deltas.add(pair(changed[i], changed[j]), delta);
+                }
+            }
+        }
+    }
+
+    private record Change(int[] before, int[] after) {
+    }
+
+    private record Neighbours(String[] titles, float[] scores) {
+    }
+
+    /**
+     * A title and how strongly it is recommended
+     */
+    public record Scored(String title, double score) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.watchlist_service.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative long keys to int counts, without
+ * boxing. Counts are only ever adjusted with {@link #add}; entries that drop
+ * to zero are skipped by {@link #forEach} and dropped on the next resize.
+ */
+final class LongIntHashMap {
+
+    private static final long FREE = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int used;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Add {@code delta} to the count of {@code key} and return the new count.
+     */
+    int add(long key, int delta) {
+        int slot = slot(key);
+        if (keys[slot] == FREE) {
+            if (delta == 0) {
+                return 0;
+            }
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++used * 4 > keys.length * 3) {
+                rehash();
+            }
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        return keys[slot] == FREE ? 0 : values[slot];
+    }
+
+    /**
+     * Add every count of {@code other} to this map.
+     */
+    void addAll(LongIntHashMap other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Visit every key with a non-zero count.
+     */
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE && values[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Number of slots in use, zero counts included; an upper bound on the keys {@link #forEach} visits.
+     */
+    int size() {
+        return used;
+    }
+
+    private int slot(long key) {
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int live = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE && oldValues[i] != 0) {
+                live++;
+            }
+        }
+        // grow only when most slots hold live counts; otherwise dropping the zeros makes room
+        int capacity = live * 2 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length;
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new int[capacity];
+        mask = capacity - 1;
+        used = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE && oldValues[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used++;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long key, int count);
+    }
+}
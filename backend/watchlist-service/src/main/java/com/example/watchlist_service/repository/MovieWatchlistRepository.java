@@ -1,9 +1,13 @@
 package com.example.watchlist_service.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.watchlist_service.model.MovieWatchlist;
@@ -12,4 +16,12 @@ import com.example.watchlist_service.model.MovieWatchlist;
 public interface MovieWatchlistRepository extends JpaRepository<MovieWatchlist, Long> {
     List<MovieWatchlist> findByUsername(String username);
     Optional<MovieWatchlist> findByUsernameAndMovieId(String username, String movieId);
-}
\ No newline at end of file
+    List<MovieWatchlist> findByUsernameIn(Collection<String> usernames);
+
+    // Keyset pages over the whole table, for rebuilding recommendations
+    @Query("select w from MovieWatchlist w where w.id > :afterId order by w.id")
+    List<MovieWatchlist> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select distinct w.username from MovieWatchlist w where w.updatedAt > :since")
+    List<String> findUsernamesUpdatedSince(@Param("since") Long since);
+}
@@ -1,9 +1,13 @@
 package com.example.watchlist_service.repository;
 
 import com.example.watchlist_service.model.TvShowWatchlist;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,12 @@ import java.util.Optional;
 public interface TvShowWatchlistRepository extends JpaRepository<TvShowWatchlist, Long> {
     List<TvShowWatchlist> findByUsername(String username);
     Optional<TvShowWatchlist> findByUsernameAndTvShowId(String username, String tvShowId);
-}
\ No newline at end of file
+    List<TvShowWatchlist> findByUsernameIn(Collection<String> usernames);
+
+    // Keyset pages over the whole table, for rebuilding recommendations
+    @Query("select w from TvShowWatchlist w where w.id > :afterId order by w.id")
+    List<TvShowWatchlist> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select distinct w.username from TvShowWatchlist w where w.updatedAt > :since")
+    List<String> findUsernamesUpdatedSince(@Param("since") Long since);
+}
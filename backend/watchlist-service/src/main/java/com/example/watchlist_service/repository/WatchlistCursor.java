@@ -0,0 +1,31 @@
+package com.example.watchlist_service.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Where a watchlist page ended: the sort value and id of its last entry. Sent
+ * to clients as an opaque string, which also records the sort it belongs to.
+ */
+public record WatchlistCursor(WatchlistSort sort, long value, long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((sort.name() + ":" + value + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException for a string that isn't a cursor, or is one for another sort
+     */
+    public static WatchlistCursor decode(String cursor, WatchlistSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length == 3 && parts[0].equals(sort.name())) {
+                return new WatchlistCursor(sort, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            // not base64 or not numbers; same answer as below
+        }
+        throw new IllegalArgumentException("Invalid cursor for sort " + sort);
+    }
+}
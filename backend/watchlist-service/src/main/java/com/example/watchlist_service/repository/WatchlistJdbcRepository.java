@@ -0,0 +1,451 @@
+package com.example.watchlist_service.repository;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.RemovedTitle;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistChangeSet;
+import com.example.watchlist_service.model.WatchlistItem;
+
+/**
+ * Watchlist writes done as one SQL statement each, where the JPA repositories
+ * would read a row before writing it. Relies on the unique (username, title id)
+ * indexes created by {@link WatchlistSchema}.
+ *
+ * Updates take an optional {@code expectedUpdatedAt}: when given, the row is
+ * only changed if it still has that {@code updated_at}, so a client can't
+ * overwrite a change it hasn't seen. Every update, including an upsert of a
+ * title already on the list, moves {@code updated_at} forward by at least a
+ * millisecond, so two writes never leave the same value.
+ *
+ * Removals leave a tombstone in {@code watchlist_tombstone}, written by the
+ * same statement as the delete, so {@link #findChanges} can tell syncing
+ * clients what was removed.
+ */
+@Repository
+public class WatchlistJdbcRepository {
+
+    private static final RowMapper<MovieWatchlist> MOVIE_ROW = BeanPropertyRowMapper.newInstance(MovieWatchlist.class);
+    private static final RowMapper<TvShowWatchlist> TV_SHOW_ROW = BeanPropertyRowMapper.newInstance(TvShowWatchlist.class);
+
+    private static final String MOVIE_UPSERT = """
+        insert into movie_watchlist (username, movie_id, status, created_at, updated_at)
+        values (:username, :movieId, :status, :now, :now)
+        on conflict (username, movie_id) do update
+            set status = excluded.status,
+                updated_at = greatest(excluded.updated_at, coalesce(movie_watchlist.updated_at, 0) + 1)
+        """;
+    private static final String TV_SHOW_UPSERT = """
+        insert into tv_show_watchlist
+            (username, tv_show_id, status, current_season, current_episode, created_at, updated_at)
+        values (:username, :tvShowId, :status, :currentSeason, :currentEpisode, :now, :now)
+        on conflict (username, tv_show_id) do update
+            set status = excluded.status,
+                current_season = coalesce(excluded.current_season, tv_show_watchlist.current_season),
+                current_episode = coalesce(excluded.current_episode, tv_show_watchlist.current_episode),
+                updated_at = greatest(excluded.updated_at, coalesce(tv_show_watchlist.updated_at, 0) + 1)
+        """;
+
+    // Rows fetched per round trip while exporting, through a server-side cursor
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    // Title ids per statement in batch status changes
+    private static final int IDS_PER_STATEMENT = 1_000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public WatchlistJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(EXPORT_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    /**
+     * Add a movie to a watchlist, or set its status if it is already there (keeping when it was added).
+     */
+    public MovieWatchlist upsertMovie(String username, String movieId, WatchStatus status, long now) {
+        return jdbcTemplate.queryForObject(MOVIE_UPSERT + " returning *",
+            movieParameters(username, movieId, status, now), MOVIE_ROW);
+    }
+
+    /**
+     * Add a TV show to a watchlist, or set its status if it is already there. Progress
+     * left out of the request keeps its current value.
+     */
+    public TvShowWatchlist upsertTvShow(String username, String tvShowId, WatchStatus status,
+                                        Integer currentSeason, Integer currentEpisode, long now) {
+        return jdbcTemplate.queryForObject(TV_SHOW_UPSERT + " returning *",
+            tvShowParameters(username, tvShowId, status, currentSeason, currentEpisode, now), TV_SHOW_ROW);
+    }
+
+    /**
+     * Add or update many movies as one JDBC batch, with the same rules as {@link #upsertMovie}.
+     */
+    @Transactional
+    public void upsertMovies(String username, List<WatchlistItem> movies, long now) {
+        jdbcTemplate.batchUpdate(MOVIE_UPSERT, movies.stream()
+            .map(movie -> movieParameters(username, movie.getId(), movie.getStatus(), now))
+            .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Add or update many TV shows as one JDBC batch, with the same rules as {@link #upsertTvShow}.
+     */
+    @Transactional
+    public void upsertTvShows(String username, List<WatchlistItem> tvShows, long now) {
+        jdbcTemplate.batchUpdate(TV_SHOW_UPSERT, tvShows.stream()
+            .map(tvShow -> tvShowParameters(username, tvShow.getId(), tvShow.getStatus(),
+                tvShow.getCurrentSeason(), tvShow.getCurrentEpisode(), now))
+            .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Set a movie's status.
+     *
+     * @return the updated row; empty when there is no such row or it has changed since {@code expectedUpdatedAt}
+     */
+    public Optional<MovieWatchlist> updateMovieStatus(String username, String movieId, WatchStatus status,
+                                                      Long expectedUpdatedAt, long now) {
+        List<MovieWatchlist> updated = jdbcTemplate.query("""
+                update movie_watchlist
+                set status = coalesce(:status, status),
+                    updated_at = greatest(:now, coalesce(updated_at, 0) + 1)
+                where username = :username and movie_id = :movieId
+                    and (cast(:expectedUpdatedAt as bigint) is null or updated_at = :expectedUpdatedAt)
+                returning *
+                """,
+            new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("movieId", movieId)
+                .addValue("status", status == null ? null : status.name(), Types.VARCHAR)
+                .addValue("expectedUpdatedAt", expectedUpdatedAt, Types.BIGINT)
+                .addValue("now", now),
+            MOVIE_ROW);
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * Set a TV show's status and progress; what is null keeps its current value.
+     *
+     * @return the updated row; empty when there is no such row or it has changed since {@code expectedUpdatedAt}
+     */
+    public Optional<TvShowWatchlist> updateTvShowProgress(String username, String tvShowId, WatchStatus status,
+                                                          Integer currentSeason, Integer currentEpisode,
+                                                          Long expectedUpdatedAt, long now) {
+        List<TvShowWatchlist> updated = jdbcTemplate.query("""
+                update tv_show_watchlist
+                set status = coalesce(:status, status),
+                    current_season = coalesce(:currentSeason, current_season),
+                    current_episode = coalesce(:currentEpisode, current_episode),
+                    updated_at = greatest(:now, coalesce(updated_at, 0) + 1)
+                where username = :username and tv_show_id = :tvShowId
+                    and (cast(:expectedUpdatedAt as bigint) is null or updated_at = :expectedUpdatedAt)
+                returning *
+                """,
+            new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("tvShowId", tvShowId)
+                .addValue("status", status == null ? null : status.name(), Types.VARCHAR)
+                .addValue("currentSeason", currentSeason, Types.INTEGER)
+                .addValue("currentEpisode", currentEpisode, Types.INTEGER)
+                .addValue("expectedUpdatedAt", expectedUpdatedAt, Types.BIGINT)
+                .addValue("now", now),
+            TV_SHOW_ROW);
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * Move a TV show on to its next episode, in place, so two devices marking episodes watched
+     * at the same time both count. A show not started yet begins at season 1, episode 1 and
+     * becomes currently watching.
+     *
+     * @return the updated row; empty when the show isn't on the watchlist
+     */
+    public Optional<TvShowWatchlist> advanceEpisode(String username, String tvShowId, long now) {
+        List<TvShowWatchlist> updated = jdbcTemplate.query("""
+                update tv_show_watchlist
+                set current_season = coalesce(current_season, 1),
+                    current_episode = coalesce(current_episode, 0) + 1,
+                    status = case when status = 'PLAN_TO_WATCH' then 'CURRENTLY_WATCHING' else status end,
+                    updated_at = greatest(:now, coalesce(updated_at, 0) + 1)
+                where username = :username and tv_show_id = :tvShowId
+                returning *
+                """,
+            new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("tvShowId", tvShowId)
+                .addValue("now", now),
+            TV_SHOW_ROW);
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * Both of a user's watchlists, most recently updated first, read with one query.
+     */
+    public FullWatchlist findWatchlist(String username) {
+        FullWatchlist watchlist = new FullWatchlist();
+        jdbcTemplate.query("""
+                select 'movie' as type, id, movie_id as title_id, status, null as current_season,
+                    null as current_episode, created_at, updated_at
+                from movie_watchlist where username = :username
+                union all
+                select 'tv', id, tv_show_id, status, current_season, current_episode, created_at, updated_at
+                from tv_show_watchlist where username = :username
+                order by updated_at desc, id desc
+                """,
+            new MapSqlParameterSource("username", username),
+            (RowCallbackHandler) row -> {
+                WatchStatus status = WatchStatus.valueOf(row.getString("status"));
+                Long createdAt = row.getObject("created_at", Long.class);
+                Long updatedAt = row.getObject("updated_at", Long.class);
+                if (row.getString("type").equals("movie")) {
+                    watchlist.getMovies().add(new MovieWatchlist(row.getLong("id"), username,
+                        row.getString("title_id"), status, createdAt, updatedAt));
+                } else {
+                    watchlist.getTvShows().add(new TvShowWatchlist(row.getLong("id"), username,
+                        row.getString("title_id"), row.getObject("current_season", Integer.class),
+                        row.getObject("current_episode", Integer.class), status, createdAt, updatedAt));
+                }
+            });
+        return watchlist;
+    }
+
+    /**
+     * Take a movie off a watchlist, leaving a tombstone, in one statement.
+     *
+     * @return whether it was on the watchlist
+     */
+    public boolean removeMovie(String username, String movieId, long now) {
+        return remove("movie_watchlist", "movie_id", "movie", username, movieId, now);
+    }
+
+    /**
+     * Take a TV show off a watchlist, leaving a tombstone, in one statement.
+     *
+     * @return whether it was on the watchlist
+     */
+    public boolean removeTvShow(String username, String tvShowId, long now) {
+        return remove("tv_show_watchlist", "tv_show_id", "tv", username, tvShowId, now);
+    }
+
+    /**
+     * Add to {@code changes} the titles changed after {@code since} and those removed after it and
+     * not added back, all read from one snapshot of the database. Each part is one index range scan
+     * per status or per kind of title, so the cost follows the number of changes, not the list size.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void findChanges(String username, long since, WatchlistChangeSet changes) {
+        changes.getMovies().addAll(findChanged("movie_watchlist", MOVIE_ROW, username, since));
+        changes.getTvShows().addAll(findChanged("tv_show_watchlist", TV_SHOW_ROW, username, since));
+        changes.getRemovedMovies().addAll(findRemoved("movie_watchlist", "movie_id", "movie", username, since));
+        changes.getRemovedTvShows().addAll(findRemoved("tv_show_watchlist", "tv_show_id", "tv", username, since));
+    }
+
+    /**
+     * Users who took a title off their watchlists after {@code since}, while its tombstone is kept.
+     */
+    public List<String> findUsernamesRemovedSince(long since) {
+        return jdbcTemplate.queryForList("select distinct username from watchlist_tombstone where deleted_at > :since",
+            new MapSqlParameterSource("since", since), String.class);
+    }
+
+    /**
+     * Delete up to {@code limit} tombstones older than {@code horizon}.
+     *
+     * @return how many were deleted; fewer than {@code limit} when none are left
+     */
+    public int deleteTombstonesBefore(long horizon, int limit) {
+        return jdbcTemplate.update("""
+                delete from watchlist_tombstone where (username, type, title_id) in (
+                    select username, type, title_id from watchlist_tombstone where deleted_at < :horizon limit :limit)
+                """,
+            new MapSqlParameterSource().addValue("horizon", horizon).addValue("limit", limit));
+    }
+
+    /**
+     * A page of a user's movies, newest first by {@code sort}, starting after {@code after}.
+     *
+     * @param status only movies with this status, or null for all
+     * @param after the end of the previous page, or null for the first page
+     * @param limit at most this many, or null for all of them
+     */
+    public List<MovieWatchlist> findMovies(String username, WatchStatus status, WatchlistSort sort,
+                                           WatchlistCursor after, Integer limit) {
+        return findPage("movie_watchlist", MOVIE_ROW, username, status, sort, after, limit);
+    }
+
+    /**
+     * A page of a user's TV shows, in the same way as {@link #findMovies}.
+     */
+    public List<TvShowWatchlist> findTvShows(String username, WatchStatus status, WatchlistSort sort,
+                                             WatchlistCursor after, Integer limit) {
+        return findPage("tv_show_watchlist", TV_SHOW_ROW, username, status, sort, after, limit);
+    }
+
+    /**
+     * Set the status of many of a user's movies, a thousand ids per statement.
+     *
+     * @return how many were on the watchlist and updated
+     */
+    public int updateMovieStatuses(String username, List<String> movieIds, WatchStatus status, long now) {
+        return updateStatuses("movie_watchlist", "movie_id", username, movieIds, status, now);
+    }
+
+    /**
+     * Set the status of many of a user's TV shows, a thousand ids per statement.
+     *
+     * @return how many were on the watchlist and updated
+     */
+    public int updateTvShowStatuses(String username, List<String> tvShowIds, WatchStatus status, long now) {
+        return updateStatuses("tv_show_watchlist", "tv_show_id", username, tvShowIds, status, now);
+    }
+
+    /**
+     * Hand each title of a user's watchlists to {@code consumer}, movies first, reading them
+     * through a cursor so the whole list is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamWatchlist(String username, Consumer<WatchlistItem> consumer) {
+        streamingJdbcTemplate.query("""
+                select 'movie' as type, movie_id as id, status, null as current_season, null as current_episode,
+                    created_at, updated_at
+                from movie_watchlist where username = :username
+                union all
+                select 'tv', tv_show_id, status, current_season, current_episode, created_at, updated_at
+                from tv_show_watchlist where username = :username
+                """,
+            new MapSqlParameterSource("username", username),
+            (RowCallbackHandler) row -> consumer.accept(new WatchlistItem(
+                row.getString("type"),
+                row.getString("id"),
+                WatchStatus.valueOf(row.getString("status")),
+                row.getObject("current_season", Integer.class),
+                row.getObject("current_episode", Integer.class),
+                row.getObject("created_at", Long.class),
+                row.getObject("updated_at", Long.class))));
+    }
+
+    /**
+     * One index range scan per status on (username, status, sort column, id), each stopping after
+     * {@code limit} rows, merged into one page; so a page costs the same however long the list is.
+     */
+    private <T> List<T> findPage(String table, RowMapper<T> rows, String username, WatchStatus status,
+                                 WatchlistSort sort, WatchlistCursor after, Integer limit) {
+        String order = " order by " + sort.column() + " desc, id desc limit :limit";
+        String keyset = after == null ? "" : " and (" + sort.column() + ", id) < (:afterValue, :afterId)";
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("username", username)
+            .addValue("limit", limit, Types.INTEGER);
+        if (after != null) {
+            parameters.addValue("afterValue", after.value()).addValue("afterId", after.id());
+        }
+        List<WatchStatus> statuses = status == null ? List.of(WatchStatus.values()) : List.of(status);
+        StringJoiner sql = new StringJoiner(" union all ", "", statuses.size() > 1 ? order : "");
+        for (WatchStatus each : statuses) {
+            sql.add("(select * from " + table + " where username = :username and status = :" + each.name()
+                + keyset + order + ")");
+            parameters.addValue(each.name(), each.name());
+        }
+        return jdbcTemplate.query(sql.toString(), parameters, rows);
+    }
+
+    private boolean remove(String table, String titleColumn, String type, String username, String titleId,
+                           long now) {
+        return jdbcTemplate.update("with removed as (delete from " + table
+                + " where username = :username and " + titleColumn + " = :titleId returning " + titleColumn + ")"
+                + " insert into watchlist_tombstone (username, type, title_id, deleted_at)"
+                + " select :username, :type, " + titleColumn + ", :now from removed"
+                + " on conflict (username, type, title_id) do update set deleted_at = excluded.deleted_at",
+            new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("titleId", titleId)
+                .addValue("type", type)
+                .addValue("now", now)) > 0;
+    }
+
+    /**
+     * Rows updated after {@code since}, oldest first, from one range scan per status.
+     */
+    private <T> List<T> findChanged(String table, RowMapper<T> rows, String username, long since) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("username", username)
+            .addValue("since", since);
+        StringJoiner sql = new StringJoiner(" union all ", "", " order by updated_at, id");
+        for (WatchStatus status : WatchStatus.values()) {
+            sql.add("(select * from " + table + " where username = :username and status = :" + status.name()
+                + " and updated_at > :since)");
+            parameters.addValue(status.name(), status.name());
+        }
+        return jdbcTemplate.query(sql.toString(), parameters, rows);
+    }
+
+    private List<RemovedTitle> findRemoved(String table, String titleColumn, String type, String username,
+                                           long since) {
+        return jdbcTemplate.query("select title_id, deleted_at from watchlist_tombstone t"
+                + " where t.username = :username and t.deleted_at > :since and t.type = :type"
+                + " and not exists (select 1 from " + table + " w"
+                + " where w.username = t.username and w." + titleColumn + " = t.title_id)"
+                + " order by deleted_at",
+            new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("since", since)
+                .addValue("type", type),
+            (row, rowNum) -> new RemovedTitle(row.getString("title_id"), row.getLong("deleted_at")));
+    }
+
+    private int updateStatuses(String table, String titleColumn, String username, List<String> ids,
+                               WatchStatus status, long now) {
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += IDS_PER_STATEMENT) {
+            updated += jdbcTemplate.update("update " + table
+                    + " set status = :status, updated_at = greatest(:now, coalesce(updated_at, 0) + 1)"
+                    + " where username = :username and " + titleColumn + " in (:ids)",
+                new MapSqlParameterSource()
+                    .addValue("status", status.name())
+                    .addValue("now", now)
+                    .addValue("username", username)
+                    .addValue("ids", ids.subList(from, Math.min(from + IDS_PER_STATEMENT, ids.size()))));
+        }
+        return updated;
+    }
+
+    private static MapSqlParameterSource movieParameters(String username, String movieId, WatchStatus status,
+                                                         long now) {
+        return new MapSqlParameterSource()
+            .addValue("username", username)
+            .addValue("movieId", movieId)
+            .addValue("status", status == null ? null : status.name(), Types.VARCHAR)
+            .addValue("now", now);
+    }
+
+    private static MapSqlParameterSource tvShowParameters(String username, String tvShowId, WatchStatus status,
+                                                          Integer currentSeason, Integer currentEpisode, long now) {
+        return new MapSqlParameterSource()
+            .addValue("username", username)
+            .addValue("tvShowId", tvShowId)
+            .addValue("status", status == null ? null : status.name(), Types.VARCHAR)
+            .addValue("currentSeason", currentSeason, Types.INTEGER)
+            .addValue("currentEpisode", currentEpisode, Types.INTEGER)
+            .addValue("now", now);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.watchlist_service.repository;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Makes (username, title id) unique in both watchlist tables, which the
+ * upserts in {@link WatchlistJdbcRepository} rely on. Hibernate's
+ * {@code ddl-auto: update} can't add the index while duplicate rows from
+ * earlier double-clicks exist, so this removes them first, keeping the most
+ * recently updated row of each, then creates the index. Runs once the
+ * tables exist and before the web server takes requests; with the index in
+ * place it is a single catalog lookup per table.
+ *
+ * It also points each table's {@code id} default at the sequence the
+ * entities allocate ids from, so rows inserted by the upserts and by
+ * Hibernate draw from the same sequence. Tables created when ids were
+ * identity columns have the identity dropped and the sequence moved past
+ * their highest id. Hibernate takes blocks of 50 values from a sequence
+ * stepping by 50, and an upsert takes one value, so the two never collide.
+ *
+ * Watchlist pages are read from covering indexes on (username, status,
+ * updated_at or created_at, id) that include the remaining columns, so a
+ * page is an index-only scan. Rows from before timestamps were always set
+ * get them filled in first, as keyset comparisons skip nulls.
+ *
+ * Removed titles leave a row in {@code watchlist_tombstone}, so clients that
+ * sync changes since a point in time hear of removals too. They are indexed
+ * by (username, deleted_at) for the sync and by deleted_at for compaction.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class WatchlistSchema {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistSchema.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public WatchlistSchema(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void ensureSchema() {
+        ensureUnique("movie_watchlist", "movie_id");
+        ensureUnique("tv_show_watchlist", "tv_show_id");
+        ensureSequenceIds("movie_watchlist");
+        ensureSequenceIds("tv_show_watchlist");
+        ensurePageIndexes("movie_watchlist", "movie_id");
+        ensurePageIndexes("tv_show_watchlist", "tv_show_id, current_season, current_episode");
+        ensureTombstones();
+    }
+
+    private void ensureUnique(String table, String titleColumn) {
+        String index = "uk_" + table + "_username_" + titleColumn;
+        if (indexExists(table, index)) {
+            return;
+        }
+        int removed = transactionTemplate.execute(status -> {
+            // another instance starting at the same time waits here, and writes wait for the index
+            jdbcTemplate.execute("lock table " + table + " in share row exclusive mode");
+            int deleted = jdbcTemplate.update("delete from " + table + " a using " + table + " b"
+                + " where a.username = b.username and a." + titleColumn + " = b." + titleColumn
+                + " and (coalesce(a.updated_at, 0), a.id) < (coalesce(b.updated_at, 0), b.id)");
+            jdbcTemplate.execute("create unique index if not exists " + index
+                + " on " + table + " (username, " + titleColumn + ")");
+            return deleted;
+        });
+        logger.info("Created unique index {} after removing {} duplicate rows", index, removed);
+    }
+
+    private void ensureSequenceIds(String table) {
+        String sequence = table + "_seq";
+        String nextval = "nextval('" + sequence + "'::regclass)";
+        String current = jdbcTemplate.queryForObject("select column_default from information_schema.columns"
+            + " where table_name = ? and column_name = 'id'", String.class, table);
+        if (nextval.equals(current)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("lock table " + table + " in share row exclusive mode");
+            jdbcTemplate.execute("alter table " + table + " alter column id drop identity if exists");
+            jdbcTemplate.execute("create sequence if not exists " + sequence + " increment by 50");
+            // the next block Hibernate takes starts past the highest id, and never at the sequence's first value,
+            // which its optimizer would take as the start of a block rather than the end
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            Map<String, Object> position = jdbcTemplate.queryForMap("select last_value, is_called from " + sequence);
+            long highest = maxId == null ? 1 : Math.max(maxId, 1);
+            if (!(Boolean) position.get("is_called") || highest >= (Long) position.get("last_value")) {
+                jdbcTemplate.queryForObject("select setval(?, ?)", Long.class, sequence, highest);
+            }
+            jdbcTemplate.execute("alter table " + table + " alter column id set default " + nextval);
+        });
+        logger.info("Moved {}.id to sequence {}", table, sequence);
+    }
+
+    private void ensurePageIndexes(String table, String titleColumns) {
+        String byUpdated = "ix_" + table + "_username_status_updated_at";
+        String byCreated = "ix_" + table + "_username_status_created_at";
+        if (indexExists(table, byUpdated) && indexExists(table, byCreated)) {
+            return;
+        }
+        int filled = jdbcTemplate.update("update " + table
+            + " set created_at = coalesce(created_at, updated_at, 0), updated_at = coalesce(updated_at, created_at, 0)"
+            + " where created_at is null or updated_at is null");
+        // concurrently, so writes go on while a large table is indexed
+        jdbcTemplate.execute("create index concurrently if not exists " + byUpdated + " on " + table
+            + " (username, status, updated_at, id) include (" + titleColumns + ", created_at)");
+        jdbcTemplate.execute("create index concurrently if not exists " + byCreated + " on " + table
+            + " (username, status, created_at, id) include (" + titleColumns + ", updated_at)");
+        logger.info("Created page indexes on {} after filling in timestamps of {} rows", table, filled);
+    }
+
+    private void ensureTombstones() {
+        jdbcTemplate.execute("""
+            create table if not exists watchlist_tombstone (
+                username varchar(255) not null,
+                type varchar(8) not null,
+                title_id varchar(255) not null,
+                deleted_at bigint not null,
+                primary key (username, type, title_id))
+            """);
+        jdbcTemplate.execute("create index if not exists ix_watchlist_tombstone_username_deleted_at"
+            + " on watchlist_tombstone (username, deleted_at)");
+        jdbcTemplate.execute("create index if not exists ix_watchlist_tombstone_deleted_at"
+            + " on watchlist_tombstone (deleted_at)");
+    }
+
+    private boolean indexExists(String table, String index) {
+        Integer existing = jdbcTemplate.queryForObject(
+            "select count(*) from pg_indexes where tablename = ? and indexname = ?", Integer.class, table, index);
+        return existing != null && existing > 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.watchlist_service.repository;
+
+/**
+ * Orders a watchlist page, newest first, with the id breaking ties.
+ */
+public enum WatchlistSort {
+    UPDATED_AT("updated_at"),
+    CREATED_AT("created_at");
+
+    private final String column;
+
+    WatchlistSort(String column) {
+        this.column = column;
+    }
+
+    String column() {
+        return column;
+    }
+
+    /**
+     * The sort named as in the API, {@code updatedAt} or {@code createdAt}.
+     *
+     * @throws IllegalArgumentException for any other name
+     */
+    public static WatchlistSort fromParameter(String name) {
+        return switch (name) {
+            case "updatedAt" -> UPDATED_AT;
+            case "createdAt" -> CREATED_AT;
+            default -> throw new IllegalArgumentException("sort must be updatedAt or createdAt");
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.watchlist_service.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.watchlist_service.config.CatalogProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Card-sized title summaries from catalog-service's {@code /api/catalog/summaries},
+ * kept in memory for {@code watchlist.catalog.summary-ttl} so a watchlist that
+ * hasn't changed is drawn without calling the catalog at all.
+ *
+ * Titles not held here are asked for in batches of {@code batch-size} movies
+ * and TV shows, {@code concurrency} batches at a time. A batch that fails or
+ * takes longer than {@code timeout} only leaves its titles without a summary,
+ * and no new batches are sent once {@code timeout} has passed; titles left
+ * without a summary are asked for again next time.
+ */
+@Component
+public class CatalogClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogClient.class);
+
+    private final CatalogProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final LongSupplier clock;
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CatalogClient(CatalogProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, HttpClient.newBuilder().connectTimeout(properties.getTimeout()).build(),
+            System::currentTimeMillis);
+    }
+
+    CatalogClient(CatalogProperties properties, ObjectMapper objectMapper, HttpClient httpClient, LongSupplier clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
+        this.clock = clock;
+    }
+
+    /**
+     * Summaries of the given titles by id; titles the catalog doesn't know or didn't summarize in time are missing.
+     */
+    public Summaries summarize(Collection<String> movieIds, Collection<String> tvShowIds) {
+        Map<String, JsonNode> movies = new HashMap<>();
+        Map<String, JsonNode> tvShows = new HashMap<>();
+        List<String> missingMovies = cached("movie:", movieIds, movies);
+        List<String> missingTvShows = cached("tv:", tvShowIds, tvShows);
+
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<CompletableFuture<JsonNode>> wave = new ArrayList<>();
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        for (int from = 0; from < Math.max(missingMovies.size(), missingTvShows.size()); from += batchSize) {
+            wave.add(fetch(slice(missingMovies, from, batchSize), slice(missingTvShows, from, batchSize)));
+            if (wave.size() >= properties.getConcurrency()) {
+                keepAll(wave, movies, tvShows);
+                if (System.nanoTime() - deadline >= 0) {
+                    // out of time; the rest go without details this time
+                    return new Summaries(movies, tvShows);
+                }
+            }
+        }
+        keepAll(wave, movies, tvShows);
+        return new Summaries(movies, tvShows);
+    }
+
+    /**
+     * Wait for a wave of batches and keep what they found.
+     */
+    private void keepAll(List<CompletableFuture<JsonNode>> wave, Map<String, JsonNode> movies,
+                         Map<String, JsonNode> tvShows) {
+        long expiresAt = clock.getAsLong() + properties.getSummaryTtl().toMillis();
+        for (CompletableFuture<JsonNode> batch : wave) {
+            JsonNode found = batch.join();
+            if (found != null) {
+                keep("movie:", found.path("movies"), movies, expiresAt);
+                keep("tv:", found.path("tvShows"), tvShows, expiresAt);
+            }
+        }
+        wave.clear();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        summaries.values().removeIf(summary -> summary.expiresAt - now <= 0);
+    }
+
+    int size() {
+        return summaries.size();
+    }
+
+    /**
+     * Put the summaries held here into {@code into}.
+     *
+     * @return the numeric ids that aren't held; others can't be catalog titles
+     */
+    private List<String> cached(String prefix, Collection<String> ids, Map<String, JsonNode> into) {
+        long now = clock.getAsLong();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            Summary summary = summaries.get(prefix + id);
+            if (summary != null && summary.expiresAt - now > 0) {
+                into.put(id, summary.value);
+            } else if (!id.isEmpty() && id.chars().allMatch(Character::isDigit)) {
+                missing.add(id);
+            }
+        }
+        return new ArrayList<>(missing);
+    }
+
+    private void keep(String prefix, JsonNode found, Map<String, JsonNode> into, long expiresAt) {
+        found.properties().forEach(entry -> {
+            into.put(entry.getKey(), entry.getValue());
+            if (summaries.size() < properties.getMaxSummaries()) {
+                summaries.put(prefix + entry.getKey(), new Summary(entry.getValue(), expiresAt));
+            }
+        });
+    }
+
+    /**
+     * One summary request; completes with null instead of failing.
+     */
+    private CompletableFuture<JsonNode> fetch(List<String> movieIds, List<String> tvShowIds) {
+        URI uri = URI.create(properties.getBaseUrl() + "/api/catalog/summaries?movies="
+            + String.join(",", movieIds) + "&tvshows=" + String.join(",", tvShowIds));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(properties.getTimeout())
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("catalog-service answered " + response.statusCode());
+                }
+                try {
+                    return objectMapper.readTree(response.body());
+                } catch (IOException e) {
+                    throw new IllegalStateException("unreadable summaries", e);
+                }
+            })
+            .exceptionally(e -> {
+                logger.warn("No catalog summaries for {} movies and {} TV shows: {}", movieIds.size(),
+                    tvShowIds.size(), e.getCause() != null ? e.getCause().toString() : e.toString());
+                return null;
+            });
+    }
+
+    private static List<String> slice(List<String> ids, int from, int size) {
+        return from >= ids.size() ? List.of() : ids.subList(from, Math.min(from + size, ids.size()));
+    }
+
+    /**
+     * Summaries by title id.
+     */
+    public record Summaries(Map<String, JsonNode> movies, Map<String, JsonNode> tvShows) {
+    }
+
+    private record Summary(JsonNode value, long expiresAt) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.watchlist_service.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.watchlist_service.config.IdempotencyProperties;
+
+/**
+ * Remembers the result of writes sent with an {@code Idempotency-Key} header,
+ * so a client that retries one (after a timeout, or a double click) gets the
+ * first result back instead of writing again. Without it a retried add could
+ * undo a status change made in between. A retry that arrives while the first
+ * attempt is still running waits for it. Failed attempts are forgotten, so
+ * they can be retried.
+ *
+ * Keys are scoped per user and kind of write, held in memory for
+ * {@code watchlist.idempotency.ttl}, and reusing one for a different request
+ * is rejected with 422.
+ */
+@Component
+public class IdempotentRequests {
+
+    private final IdempotencyProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotentRequests(IdempotencyProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    IdempotentRequests(IdempotencyProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Run {@code write} unless a request with the same key already did.
+     *
+     * @param scope whose keys these are, e.g. {@code movies:alice}
+     * @param key the client's Idempotency-Key, or null to always write
+     * @param request what is being asked for, to tell a retry from a reused key
+     */
+    public <T> T execute(String scope, String key, String request, Supplier<T> write) {
+        if (key == null || key.isBlank()) {
+            return write.get();
+        }
+        String id = scope + "\n" + key;
+        Outcome mine = new Outcome(request, clock.getAsLong() + properties.getTtl().toMillis());
+        Outcome first;
+        while ((first = outcomes.putIfAbsent(id, mine)) != null && first.expiresAt - clock.getAsLong() <= 0) {
+            outcomes.remove(id, first);
+        }
+        if (first != null) {
+            if (!first.request.equals(request)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+            }
+            return awaitResult(first);
+        }
+        try {
+            T result = write.get();
+            mine.result.complete(result);
+            if (outcomes.size() > properties.getMaxKeys()) {
+                outcomes.remove(id, mine);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            outcomes.remove(id, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        outcomes.values().removeIf(outcome -> outcome.expiresAt - now <= 0);
+    }
+
+    int size() {
+        return outcomes.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T awaitResult(Outcome first) {
+        try {
+            return (T) first.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Outcome {
+        private final String request;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Outcome(String request, long expiresAt) {
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.watchlist_service.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.watchlist_service.config.RecommendationProperties;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.Recommendation;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.recommendation.CoOccurrenceIndex;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+
+/**
+ * Recommends titles from what other users keep on their watchlists, using a
+ * {@link CoOccurrenceIndex} built in the background.
+ *
+ * The first run, and every {@code full-rebuild-interval} after that, reads both
+ * watchlist tables in keyset pages and builds a fresh index, which replaces the
+ * served one when it is complete. Runs in between only re-read the watchlists of
+ * users that changed: those written through this instance, plus those with rows
+ * updated or tombstones written since the previous run.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    // Re-read rows updated shortly before the previous run, in case they were committed after it
+    private static final long WATERMARK_OVERLAP_MILLIS = 60_000;
+
+    // Usernames per IN query when re-reading changed watchlists
+    private static final int USER_BATCH = 1_000;
+
+    static final int MAX_LIMIT = 100;
+
+    private final MovieWatchlistRepository movieWatchlistRepository;
+    private final TvShowWatchlistRepository tvShowWatchlistRepository;
+    private final WatchlistJdbcRepository watchlistJdbcRepository;
+    private final RecommendationProperties properties;
+    private final ForkJoinPool pool;
+    private final Set<String> changedUsers = ConcurrentHashMap.newKeySet();
+
+    private volatile CoOccurrenceIndex index;
+    private long watermark;
+    private long lastFullBuild;
+
+    public RecommendationService(MovieWatchlistRepository movieWatchlistRepository,
+                                 TvShowWatchlistRepository tvShowWatchlistRepository,
+                                 WatchlistJdbcRepository watchlistJdbcRepository,
+                                 RecommendationProperties properties) {
+        this.movieWatchlistRepository = movieWatchlistRepository;
+        this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+        this.watchlistJdbcRepository = watchlistJdbcRepository;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+    }
+
+    /**
+     * Note that a user's watchlist changed, so the next run re-reads it.
+     */
+    public void markChanged(String username) {
+        changedUsers.add(username);
+    }
+
+    /**
+     * Titles other users keep alongside the ones on this user's watchlists, best first.
+     * Empty until the first build completes.
+     */
+    public List<Recommendation> getRecommendations(String username, int limit) {
+        CoOccurrenceIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        List<String> watched = new ArrayList<>();
+        movieWatchlistRepository.findByUsername(username).forEach(entry -> watched.add(movieKey(entry.getMovieId())));
+        tvShowWatchlistRepository.findByUsername(username).forEach(entry -> watched.add(tvKey(entry.getTvShowId())));
+        return current.recommend(watched, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+            .map(scored -> {
+                int separator = scored.title().indexOf(':');
+                return new Recommendation(scored.title().substring(0, separator),
+                    scored.title().substring(separator + 1), scored.score());
+            })
+            .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${watchlist.recommendations.refresh-interval:5m}")
+    public synchronized void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            if (index == null || start - lastFullBuild >= properties.getFullRebuildInterval().toMillis()) {
+                rebuild(start);
+            } else {
+                updateChangedUsers(start);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Error refreshing recommendations, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild(long start) {
+        // writes from here on are re-read by the next incremental run
+        changedUsers.clear();
+        Map<String, List<Entry>> entries = new HashMap<>();
+        Long afterId = 0L;
+        List<MovieWatchlist> movies;
+        do {
+            movies = movieWatchlistRepository.findPageAfter(afterId, PageRequest.of(0, properties.getPageSize()));
+            for (MovieWatchlist movie : movies) {
+                add(entries, movie.getUsername(), movieKey(movie.getMovieId()), movie.getUpdatedAt());
+                afterId = movie.getId();
+            }
+        } while (movies.size() == properties.getPageSize());
+        afterId = 0L;
+        List<TvShowWatchlist> tvShows;
+        do {
+            tvShows = tvShowWatchlistRepository.findPageAfter(afterId, PageRequest.of(0, properties.getPageSize()));
+            for (TvShowWatchlist tvShow : tvShows) {
+                add(entries, tvShow.getUsername(), tvKey(tvShow.getTvShowId()), tvShow.getUpdatedAt());
+                afterId = tvShow.getId();
+            }
+        } while (tvShows.size() == properties.getPageSize());
+
+        CoOccurrenceIndex fresh = new CoOccurrenceIndex(properties.getNeighbours(), properties.getMinSupport(),
+            properties.getMaxTitlesPerUser(), properties.getPartitionSize(), pool);
+        fresh.update(mostRecentFirst(entries));
+        index = fresh;
+        watermark = start - WATERMARK_OVERLAP_MILLIS;
+        lastFullBuild = start;
+        logger.info("Rebuilt recommendations from {} users in {} ms: {} titles with neighbours",
+            fresh.users(), System.currentTimeMillis() - start, fresh.titlesWithNeighbours());
+    }
+
+    private void updateChangedUsers(long start) {
+        Set<String> users = new HashSet<>();
+        for (Iterator<String> changed = changedUsers.iterator(); changed.hasNext(); ) {
+            users.add(changed.next());
+            changed.remove();
+        }
+        users.addAll(movieWatchlistRepository.findUsernamesUpdatedSince(watermark));
+        users.addAll(tvShowWatchlistRepository.findUsernamesUpdatedSince(watermark));
+        // removals leave no row behind, only a tombstone
+        users.addAll(watchlistJdbcRepository.findUsernamesRemovedSince(watermark));
+        if (users.isEmpty()) {
+            watermark = start - WATERMARK_OVERLAP_MILLIS;
+            return;
+        }
+
+        Map<String, List<Entry>> entries = new HashMap<>();
+        // users whose watchlists are now empty stay in the map, so they are removed
+        users.forEach(username -> entries.put(username, new ArrayList<>()));
+        List<String> batch = new ArrayList<>(USER_BATCH);
+        for (String username : users) {
+            batch.add(username);
+            if (batch.size() == USER_BATCH) {
+                readWatchlists(batch, entries);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            readWatchlists(batch, entries);
+        }
+
+        int titles = index.update(mostRecentFirst(entries));
+        watermark = start - WATERMARK_OVERLAP_MILLIS;
+        logger.debug("Updated recommendations for {} users in {} ms: {} titles re-ranked",
+            users.size(), System.currentTimeMillis() - start, titles);
+    }
+
+    private void readWatchlists(List<String> usernames, Map<String, List<Entry>> entries) {
+        movieWatchlistRepository.findByUsernameIn(usernames).forEach(movie ->
+            add(entries, movie.getUsername(), movieKey(movie.getMovieId()), movie.getUpdatedAt()));
+        tvShowWatchlistRepository.findByUsernameIn(usernames).forEach(tvShow ->
+            add(entries, tvShow.getUsername(), tvKey(tvShow.getTvShowId()), tvShow.getUpdatedAt()));
+    }
+
+    private static void add(Map<String, List<Entry>> entries, String username, String title, Long updatedAt) {
+        entries.computeIfAbsent(username, key -> new ArrayList<>())
+            .add(new Entry(title, updatedAt != null ? updatedAt : 0L));
+    }
+
+    /**
+     * Title keys per user, most recently updated first, so the per-user cap keeps the recent ones
+     */
+    private static Map<String, List<String>> mostRecentFirst(Map<String, List<Entry>> entries) {
+        Map<String, List<String>> watchlists = new HashMap<>(entries.size() * 2);
+        entries.forEach((username, titles) -> watchlists.put(username, titles.stream()
+            .sorted(Comparator.comparingLong(Entry::updatedAt).reversed())
+            .map(Entry::title)
+            .toList()));
+        return watchlists;
+    }
+
+    private static String movieKey(String movieId) {
+        return "movie:" + movieId;
+    }
+
+    private static String tvKey(String tvShowId) {
+        return "tv:" + tvShowId;
+    }
+
+    private record Entry(String title, long updatedAt) {
+    }
+}
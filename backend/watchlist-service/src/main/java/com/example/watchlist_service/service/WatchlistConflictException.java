@@ -0,0 +1,21 @@
+package com.example.watchlist_service.service;
+
+/**
+ * An update was made against a version of a watchlist entry that has since changed.
+ */
+public class WatchlistConflictException extends RuntimeException {
+
+    private final transient Object current;
+
+    public WatchlistConflictException(Object current) {
+        super("Watchlist entry was changed by another request");
+        this.current = current;
+    }
+
+    /**
+     * The entry as it is now, for the client to retry against.
+     */
+    public Object getCurrent() {
+        return current;
+    }
+}
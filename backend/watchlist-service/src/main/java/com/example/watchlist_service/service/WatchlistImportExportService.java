@@ -0,0 +1,190 @@
+package com.example.watchlist_service.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.watchlist_service.cache.WatchlistCache;
+import com.example.watchlist_service.model.ImportResult;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistItem;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+import com.example.watchlist_service.service.WatchlistItemReader.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Moves whole watchlists in and out as CSV or newline-delimited JSON without
+ * holding them in memory: imports are read line by line and written as JDBC
+ * batches of upserts, so importing the same file twice changes nothing the
+ * second time, and exports are written out as rows come off a database cursor.
+ */
+@Service
+public class WatchlistImportExportService {
+
+    // Titles per JDBC batch while importing
+    static final int BATCH_SIZE = 500;
+
+    // Skipped rows reported back, so a wholly wrong file doesn't give a huge response
+    static final int MAX_ERRORS = 100;
+
+    static final String CSV_HEADER = "type,id,status,currentSeason,currentEpisode,createdAt,updatedAt\n";
+
+    private final WatchlistJdbcRepository watchlistJdbcRepository;
+    private final RecommendationService recommendationService;
+    private final WatchlistCache watchlistCache;
+    private final ObjectMapper objectMapper;
+
+    public WatchlistImportExportService(WatchlistJdbcRepository watchlistJdbcRepository,
+                                        RecommendationService recommendationService,
+                                        WatchlistCache watchlistCache,
+                                        ObjectMapper objectMapper) {
+        this.watchlistJdbcRepository = watchlistJdbcRepository;
+        this.recommendationService = recommendationService;
+        this.watchlistCache = watchlistCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Add every title in {@code input} to the user's watchlists, updating those already there.
+     * Lines that aren't titles are skipped and reported; the rest are still imported.
+     */
+    public ImportResult importWatchlist(String username, InputStream input, boolean csv) throws IOException {
+        ImportResult result = new ImportResult();
+        List<WatchlistItem> movies = new ArrayList<>(BATCH_SIZE);
+        List<WatchlistItem> tvShows = new ArrayList<>(BATCH_SIZE);
+        WatchlistItemReader reader = new WatchlistItemReader(
+            new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)),
+            csv ? Format.CSV : Format.NDJSON, objectMapper);
+        try {
+            while (true) {
+                WatchlistItem item;
+                try {
+                    item = reader.next();
+                } catch (IllegalStateException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    if (result.getErrors().size() < MAX_ERRORS) {
+                        result.getErrors().add("line " + reader.lineNumber() + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+                if (item == null) {
+                    break;
+                }
+                if ("movie".equals(item.getType())) {
+                    movies.add(item);
+                    if (movies.size() == BATCH_SIZE) {
+                        writeMovies(username, movies, result);
+                    }
+                } else {
+                    tvShows.add(item);
+                    if (tvShows.size() == BATCH_SIZE) {
+                        writeTvShows(username, tvShows, result);
+                    }
+                }
+            }
+            writeMovies(username, movies, result);
+            writeTvShows(username, tvShows, result);
+        } finally {
+            // also when the upload breaks off, for the batches already written
+            if (result.getMovies() + result.getTvShows() > 0) {
+                watchlistCache.invalidate(username);
+                recommendationService.markChanged(username);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the user's watchlists to {@code output}, movies first.
+     */
+    public void exportWatchlist(String username, OutputStream output, boolean csv) throws IOException {
+        if (csv) {
+            output.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            watchlistJdbcRepository.streamWatchlist(username, item -> {
+                try {
+                    output.write(csv ? csvLine(item) : jsonLine(item));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // the client went away; stop reading rows for it
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Set the status of many of the user's movies at once.
+     *
+     * @return how many of them were on the watchlist
+     */
+    public int updateMovieStatuses(String username, List<String> movieIds, WatchStatus status) {
+        int updated = watchlistJdbcRepository.updateMovieStatuses(
+            username, movieIds, status, System.currentTimeMillis());
+        watchlistCache.invalidate(username);
+        recommendationService.markChanged(username);
+        return updated;
+    }
+
+    /**
+     * Set the status of many of the user's TV shows at once.
+     *
+     * @return how many of them were on the watchlist
+     */
+    public int updateTvShowStatuses(String username, List<String> tvShowIds, WatchStatus status) {
+        int updated = watchlistJdbcRepository.updateTvShowStatuses(
+            username, tvShowIds, status, System.currentTimeMillis());
+        watchlistCache.invalidate(username);
+        recommendationService.markChanged(username);
+        return updated;
+    }
+
+    private void writeMovies(String username, List<WatchlistItem> movies, ImportResult result) {
+        if (!movies.isEmpty()) {
+            watchlistJdbcRepository.upsertMovies(username, movies, System.currentTimeMillis());
+            result.setMovies(result.getMovies() + movies.size());
+            movies.clear();
+        }
+    }
+
+    private void writeTvShows(String username, List<WatchlistItem> tvShows, ImportResult result) {
+        if (!tvShows.isEmpty()) {
+            watchlistJdbcRepository.upsertTvShows(username, tvShows, System.currentTimeMillis());
+            result.setTvShows(result.getTvShows() + tvShows.size());
+            tvShows.clear();
+        }
+    }
+
+    private byte[] jsonLine(WatchlistItem item) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(item);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static byte[] csvLine(WatchlistItem item) {
+        return (item.getType() + "," + item.getId() + "," + item.getStatus() + ","
+            + blankIfNull(item.getCurrentSeason()) + "," + blankIfNull(item.getCurrentEpisode()) + ","
+            + blankIfNull(item.getCreatedAt()) + "," + blankIfNull(item.getUpdatedAt()) + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String blankIfNull(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.watchlist_service.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads watchlist titles one line at a time from CSV or newline-delimited JSON,
+ * so an import never holds more than the batch being written.
+ *
+ * CSV needs a header row naming its columns, the same names as the JSON
+ * fields ({@code type,id,status,currentSeason,currentEpisode}); columns it
+ * doesn't know, such as the timestamps in an export, are ignored. Values can't
+ * contain commas, which ids and statuses never do. A missing status means
+ * {@code PLAN_TO_WATCH}.
+ */
+class WatchlistItemReader {
+
+    enum Format { CSV, NDJSON }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private int lineNumber;
+
+    WatchlistItemReader(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The next title, or null at the end of the input.
+     *
+     * @throws IllegalArgumentException for a line that isn't a title; reading can go on with the next line
+     * @throws IllegalStateException when the CSV header doesn't name the columns needed
+     */
+    WatchlistItem next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        if (format == Format.NDJSON) {
+            return validate(readJson(line));
+        }
+        if (columns == null) {
+            columns = header(line);
+            return next();
+        }
+        return validate(readCsv(line));
+    }
+
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    private WatchlistItem readJson(String line) {
+        try {
+            return objectMapper.readValue(line, WatchlistItem.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("not a watchlist entry");
+        }
+    }
+
+    private static Map<String, Integer> header(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i), i);
+        }
+        if (!columns.containsKey("type") || !columns.containsKey("id")) {
+            throw new IllegalStateException("The CSV header must name at least the type and id columns");
+        }
+        return columns;
+    }
+
+    private WatchlistItem readCsv(String line) {
+        List<String> values = split(line);
+        WatchlistItem item = new WatchlistItem();
+        item.setType(value(values, "type"));
+        item.setId(value(values, "id"));
+        String status = value(values, "status");
+        if (status != null) {
+            try {
+                item.setStatus(WatchStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown status " + status);
+            }
+        }
+        item.setCurrentSeason(number(values, "currentSeason"));
+        item.setCurrentEpisode(number(values, "currentEpisode"));
+        return item;
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private Integer number(List<String> values, String column) {
+        String value = value(values, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static WatchlistItem validate(WatchlistItem item) {
+        if (!"movie".equals(item.getType()) && !"tv".equals(item.getType())) {
+            throw new IllegalArgumentException("type must be movie or tv");
+        }
+        if (item.getId() == null || item.getId().isBlank()) {
+            throw new IllegalArgumentException("missing id");
+        }
+        if (item.getStatus() == null) {
+            item.setStatus(WatchStatus.PLAN_TO_WATCH);
+        }
+        return item;
+    }
+
+    private static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        for (String value : line.split(",", -1)) {
+            value = value.trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -2,96 +2,233 @@ package com.example.watchlist_service.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
+import com.example.watchlist_service.cache.WatchlistCache;
+import com.example.watchlist_service.cache.WatchlistSnapshot;
+import com.example.watchlist_service.model.FullWatchlist;
 import com.example.watchlist_service.model.MovieWatchlist;
 import com.example.watchlist_service.model.TvShowWatchlist;
 import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistPage;
 import com.example.watchlist_service.repository.MovieWatchlistRepository;
 import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+import com.example.watchlist_service.repository.WatchlistCursor;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+import com.example.watchlist_service.repository.WatchlistSort;
 
 @Service
 public class WatchlistService {
 
     private final MovieWatchlistRepository movieWatchlistRepository;
     private final TvShowWatchlistRepository tvShowWatchlistRepository;
+    private final WatchlistJdbcRepository watchlistJdbcRepository;
+    private final RecommendationService recommendationService;
+    private final IdempotentRequests idempotentRequests;
+    private final CatalogClient catalogClient;
+    private final WatchlistCache watchlistCache;
 
     public WatchlistService(MovieWatchlistRepository movieWatchlistRepository, 
-                          TvShowWatchlistRepository tvShowWatchlistRepository) {
+                          TvShowWatchlistRepository tvShowWatchlistRepository,
+                          WatchlistJdbcRepository watchlistJdbcRepository,
+                          RecommendationService recommendationService,
+                          IdempotentRequests idempotentRequests,
+                          CatalogClient catalogClient,
+                          WatchlistCache watchlistCache) {
         this.movieWatchlistRepository = movieWatchlistRepository;
         this.tvShowWatchlistRepository = tvShowWatchlistRepository;
+        this.watchlistJdbcRepository = watchlistJdbcRepository;
+        this.recommendationService = recommendationService;
+        this.idempotentRequests = idempotentRequests;
+        this.catalogClient = catalogClient;
+        this.watchlistCache = watchlistCache;
+    }
+
+    /**
+     * Both watchlists in one query, with a catalog summary of each title, so a client draws them
+     * in one request instead of one per title.
+     */
+    public FullWatchlist getFullWatchlist(String username) {
+        WatchlistSnapshot snapshot = snapshot(username);
+        FullWatchlist watchlist = new FullWatchlist();
+        watchlist.setMovies(snapshot.movies());
+        watchlist.setTvShows(snapshot.tvShows());
+        CatalogClient.Summaries summaries = catalogClient.summarize(
+            watchlist.getMovies().stream().map(MovieWatchlist::getMovieId).toList(),
+            watchlist.getTvShows().stream().map(TvShowWatchlist::getTvShowId).toList());
+        watchlist.getMovies().forEach(movie -> {
+            if (summaries.movies().containsKey(movie.getMovieId())) {
+                watchlist.getMovieDetails().put(movie.getMovieId(), summaries.movies().get(movie.getMovieId()));
+            }
+        });
+        watchlist.getTvShows().forEach(tvShow -> {
+            if (summaries.tvShows().containsKey(tvShow.getTvShowId())) {
+                watchlist.getTvShowDetails().put(tvShow.getTvShowId(), summaries.tvShows().get(tvShow.getTvShowId()));
+            }
+        });
+        return watchlist;
     }
 
     // Movie watchlist methods
-    public List<MovieWatchlist> getMovieWatchlistForUser(String username) {
-        return movieWatchlistRepository.findByUsername(username);
+    /**
+     * A page of the user's movies, newest first by {@code sort}.
+     *
+     * @param after the previous page's {@code nextCursor}, or null for the first page
+     * @param limit at most this many, or null for the whole list
+     * @throws IllegalArgumentException when {@code after} isn't a cursor for {@code sort}
+     */
+    public WatchlistPage<MovieWatchlist> getMovieWatchlistForUser(String username, WatchStatus status,
+                                                                  WatchlistSort sort, String after, Integer limit) {
+        if (after == null && limit == null) {
+            return new WatchlistPage<>(snapshot(username).movies(status, sort), null);
+        }
+        List<MovieWatchlist> movies = watchlistJdbcRepository.findMovies(username, status, sort,
+            after == null ? null : WatchlistCursor.decode(after, sort), limit == null ? null : limit + 1);
+        return page(movies, limit, movie -> new WatchlistCursor(sort,
+            sort == WatchlistSort.CREATED_AT ? movie.getCreatedAt() : movie.getUpdatedAt(), movie.getId()));
     }
 
-    public MovieWatchlist addMovieToWatchlist(MovieWatchlist movieWatchlist) {
-        // Set timestamp
-        long currentTime = System.currentTimeMillis();
-        movieWatchlist.setCreatedAt(currentTime);
-        movieWatchlist.setUpdatedAt(currentTime);
-        return movieWatchlistRepository.save(movieWatchlist);
+    /**
+     * Add a movie, or update its status if it is already on the watchlist, in one statement.
+     * A retry with the same {@code idempotencyKey} returns the first result without writing again.
+     */
+    public MovieWatchlist addMovieToWatchlist(MovieWatchlist movieWatchlist, String idempotencyKey) {
+        String username = movieWatchlist.getUsername();
+        String request = movieWatchlist.getMovieId() + ":" + movieWatchlist.getStatus();
+        return idempotentRequests.execute("movies:" + username, idempotencyKey, request, () -> {
+            MovieWatchlist saved = watchlistJdbcRepository.upsertMovie(username, movieWatchlist.getMovieId(),
+                movieWatchlist.getStatus(), System.currentTimeMillis());
+            watchlistCache.putMovie(username, saved);
+            recommendationService.markChanged(username);
+            return saved;
+        });
     }
 
-    public MovieWatchlist updateMovieWatchStatus(String username, String movieId, WatchStatus status) {
-        Optional<MovieWatchlist> existingEntry = movieWatchlistRepository.findByUsernameAndMovieId(username, movieId);
-        
-        if (existingEntry.isPresent()) {
-            MovieWatchlist movieWatchlist = existingEntry.get();
-            movieWatchlist.setStatus(status);
-            movieWatchlist.setUpdatedAt(System.currentTimeMillis());
-            return movieWatchlistRepository.save(movieWatchlist);
+    /**
+     * Set a movie's status in one statement.
+     *
+     * @param expectedUpdatedAt the {@code updatedAt} the client last saw, or null to update regardless
+     * @return null when the movie isn't on the watchlist
+     * @throws WatchlistConflictException when it has changed since {@code expectedUpdatedAt}
+     */
+    public MovieWatchlist updateMovieWatchStatus(String username, String movieId, WatchStatus status,
+                                                 Long expectedUpdatedAt) {
+        Optional<MovieWatchlist> updated = watchlistJdbcRepository.updateMovieStatus(
+            username, movieId, status, expectedUpdatedAt, System.currentTimeMillis());
+        updated.ifPresent(movie -> watchlistCache.putMovie(username, movie));
+        if (updated.isPresent() || expectedUpdatedAt == null) {
+            return updated.orElse(null);
+        }
+        // only a failed compare-and-set needs a second look, to tell a conflict from a missing row
+        MovieWatchlist current = movieWatchlistRepository.findByUsernameAndMovieId(username, movieId).orElse(null);
+        if (current != null) {
+            throw new WatchlistConflictException(current);
         }
-        
         return null;
     }
 
+    /**
+     * Take a movie off the watchlist in one statement, leaving a tombstone for clients that sync changes.
+     */
     public void removeMovieFromWatchlist(String username, String movieId) {
-        Optional<MovieWatchlist> existingEntry = movieWatchlistRepository.findByUsernameAndMovieId(username, movieId);
-        existingEntry.ifPresent(movieWatchlistRepository::delete);
+        if (watchlistJdbcRepository.removeMovie(username, movieId, System.currentTimeMillis())) {
+            watchlistCache.removeMovie(username, movieId);
+        }
+        recommendationService.markChanged(username);
     }
 
     // TV Show watchlist methods
-    public List<TvShowWatchlist> getTvShowWatchlistForUser(String username) {
-        return tvShowWatchlistRepository.findByUsername(username);
+    /**
+     * A page of the user's TV shows, in the same way as {@link #getMovieWatchlistForUser}.
+     */
+    public WatchlistPage<TvShowWatchlist> getTvShowWatchlistForUser(String username, WatchStatus status,
+                                                                    WatchlistSort sort, String after, Integer limit) {
+        if (after == null && limit == null) {
+            return new WatchlistPage<>(snapshot(username).tvShows(status, sort), null);
+        }
+        List<TvShowWatchlist> tvShows = watchlistJdbcRepository.findTvShows(username, status, sort,
+            after == null ? null : WatchlistCursor.decode(after, sort), limit == null ? null : limit + 1);
+        return page(tvShows, limit, tvShow -> new WatchlistCursor(sort,
+            sort == WatchlistSort.CREATED_AT ? tvShow.getCreatedAt() : tvShow.getUpdatedAt(), tvShow.getId()));
     }
 
-    public TvShowWatchlist addTvShowToWatchlist(TvShowWatchlist tvShowWatchlist) {
-        // Set timestamp
-        long currentTime = System.currentTimeMillis();
-        tvShowWatchlist.setCreatedAt(currentTime);
-        tvShowWatchlist.setUpdatedAt(currentTime);
-        return tvShowWatchlistRepository.save(tvShowWatchlist);
+    /**
+     * Add a TV show, or update its status and progress if it is already on the watchlist, in one
+     * statement. A retry with the same {@code idempotencyKey} returns the first result without writing again.
+     */
+    public TvShowWatchlist addTvShowToWatchlist(TvShowWatchlist tvShowWatchlist, String idempotencyKey) {
+        String username = tvShowWatchlist.getUsername();
+        String request = tvShowWatchlist.getTvShowId() + ":" + tvShowWatchlist.getStatus() + ":"
+            + tvShowWatchlist.getCurrentSeason() + ":" + tvShowWatchlist.getCurrentEpisode();
+        return idempotentRequests.execute("tvshows:" + username, idempotencyKey, request, () -> {
+            TvShowWatchlist saved = watchlistJdbcRepository.upsertTvShow(username, tvShowWatchlist.getTvShowId(),
+                tvShowWatchlist.getStatus(), tvShowWatchlist.getCurrentSeason(), tvShowWatchlist.getCurrentEpisode(),
+                System.currentTimeMillis());
+            watchlistCache.putTvShow(username, saved);
+            recommendationService.markChanged(username);
+            return saved;
+        });
     }
 
-    public TvShowWatchlist updateTvShowWatchStatus(String username, String tvShowId, 
-                                              WatchStatus status, Integer currentSeason, Integer currentEpisode) {
-        Optional<TvShowWatchlist> existingEntry = tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId);
-        
-        if (existingEntry.isPresent()) {
-            TvShowWatchlist tvShowWatchlist = existingEntry.get();
-            tvShowWatchlist.setStatus(status);
-            
-            if (currentSeason != null) {
-                tvShowWatchlist.setCurrentSeason(currentSeason);
-            }
-            
-            if (currentEpisode != null) {
-                tvShowWatchlist.setCurrentEpisode(currentEpisode);
-            }
-            
-            tvShowWatchlist.setUpdatedAt(System.currentTimeMillis());
-            return tvShowWatchlistRepository.save(tvShowWatchlist);
+    /**
+     * Set a TV show's status and progress in one statement; null arguments keep their current value.
+     *
+     * @param expectedUpdatedAt the {@code updatedAt} the client last saw, or null to update regardless
+     * @return null when the show isn't on the watchlist
+     * @throws WatchlistConflictException when it has changed since {@code expectedUpdatedAt}
+     */
+    public TvShowWatchlist updateTvShowWatchStatus(String username, String tvShowId, WatchStatus status,
+                                                   Integer currentSeason, Integer currentEpisode,
+                                                   Long expectedUpdatedAt) {
+        Optional<TvShowWatchlist> updated = watchlistJdbcRepository.updateTvShowProgress(
+            username, tvShowId, status, currentSeason, currentEpisode, expectedUpdatedAt, System.currentTimeMillis());
+        updated.ifPresent(tvShow -> watchlistCache.putTvShow(username, tvShow));
+        if (updated.isPresent() || expectedUpdatedAt == null) {
+            return updated.orElse(null);
+        }
+        TvShowWatchlist current = tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId).orElse(null);
+        if (current != null) {
+            throw new WatchlistConflictException(current);
         }
-        
         return null;
     }
 
+    /**
+     * Count one more episode watched, atomically.
+     *
+     * @return null when the show isn't on the watchlist
+     */
+    public TvShowWatchlist advanceTvShowEpisode(String username, String tvShowId) {
+        Optional<TvShowWatchlist> advanced = watchlistJdbcRepository.advanceEpisode(
+            username, tvShowId, System.currentTimeMillis());
+        advanced.ifPresent(tvShow -> watchlistCache.putTvShow(username, tvShow));
+        return advanced.orElse(null);
+    }
+
+    /**
+     * Take a TV show off the watchlist in one statement, leaving a tombstone for clients that sync changes.
+     */
     public void removeTvShowFromWatchlist(String username, String tvShowId) {
-        Optional<TvShowWatchlist> existingEntry = tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId);
-        existingEntry.ifPresent(tvShowWatchlistRepository::delete);
+        if (watchlistJdbcRepository.removeTvShow(username, tvShowId, System.currentTimeMillis())) {
+            watchlistCache.removeTvShow(username, tvShowId);
+        }
+        recommendationService.markChanged(username);
+    }
+
+    private WatchlistSnapshot snapshot(String username) {
+        return watchlistCache.get(username, () -> watchlistJdbcRepository.findWatchlist(username));
+    }
+
+    /**
+     * The first {@code limit} of {@code rows}, which has one more row than that when there is a next page.
+     */
+    private static <T> WatchlistPage<T> page(List<T> rows, Integer limit, Function<T, WatchlistCursor> cursorOf) {
+        if (limit == null || rows.size() <= limit) {
+            return new WatchlistPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new WatchlistPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.example.watchlist_service.service;
+
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.watchlist_service.config.SyncProperties;
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.WatchlistChangeSet;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+
+/**
+ * Lets a client keep its own copy of a watchlist up to date by asking only for
+ * what changed since it last synced: titles whose {@code updatedAt} is later,
+ * and titles removed since, from the tombstones removals leave behind.
+ *
+ * Tombstones are kept for {@code watchlist.sync.tombstone-ttl} and deleted in
+ * the background after that. A client whose last sync is older than that (or
+ * that has never synced) might have missed a removal, so it is sent the whole
+ * watchlist with {@code fullResync} set instead. That is read from the database,
+ * not the watchlist cache: a cached copy may be older than {@code nextSince}, and
+ * writes made since it was read would never reach the client.
+ */
+@Service
+public class WatchlistSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistSyncService.class);
+
+    private final WatchlistJdbcRepository watchlistJdbcRepository;
+    private final SyncProperties properties;
+    private final LongSupplier clock;
+
+    @Autowired
+    public WatchlistSyncService(WatchlistJdbcRepository watchlistJdbcRepository, SyncProperties properties) {
+        this(watchlistJdbcRepository, properties, System::currentTimeMillis);
+    }
+
+    WatchlistSyncService(WatchlistJdbcRepository watchlistJdbcRepository, SyncProperties properties,
+                         LongSupplier clock) {
+        this.watchlistJdbcRepository = watchlistJdbcRepository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * What changed on the user's watchlists after {@code since}.
+     *
+     * @param since the {@code nextSince} of the client's last sync, or null for everything
+     */
+    public WatchlistChangeSet getChanges(String username, Long since) {
+        long now = clock.getAsLong();
+        WatchlistChangeSet changes = new WatchlistChangeSet();
+        changes.setNextSince(now - properties.getOverlap().toMillis());
+        if (since == null || since < now - properties.getTombstoneTtl().toMillis()) {
+            // read after now was taken, so it has every write nextSince leaves out
+            FullWatchlist watchlist = watchlistJdbcRepository.findWatchlist(username);
+            changes.setFullResync(true);
+            changes.getMovies().addAll(watchlist.getMovies());
+            changes.getTvShows().addAll(watchlist.getTvShows());
+            return changes;
+        }
+        watchlistJdbcRepository.findChanges(username, since, changes);
+        return changes;
+    }
+
+    /**
+     * Delete tombstones past their TTL, a batch at a time. Every replica runs this; they only
+     * ever delete the same rows.
+     */
+    @Scheduled(fixedDelayString = "${watchlist.sync.compaction-interval:1h}")
+    public void compactTombstones() {
+        long horizon = clock.getAsLong() - properties.getTombstoneTtl().toMillis();
+        int deleted = 0;
+        try {
+            int batch;
+            do {
+                batch = watchlistJdbcRepository.deleteTombstonesBefore(horizon, properties.getCompactionBatchSize());
+                deleted += batch;
+            } while (batch == properties.getCompactionBatchSize());
+        } catch (RuntimeException e) {
+            logger.warn("Error compacting watchlist tombstones, retrying next time: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} watchlist tombstones older than {}", deleted, properties.getTombstoneTtl());
+        }
+    }
+}
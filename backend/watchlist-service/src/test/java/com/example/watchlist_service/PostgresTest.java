@@ -0,0 +1,60 @@
+package com.example.watchlist_service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Runs the whole service against a Postgres started once for all the tests
+ * that extend this, with the schema made the same way as in production:
+ * Hibernate creates the tables and {@code WatchlistSchema} adds the rest.
+ * Tests share the database, so each uses usernames of its own.
+ */
+@SpringBootTest(properties = {
+    "jwt.secret=test-secret-test-secret-test-secret-test-secret",
+    "tmdb.api-key=test",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+public abstract class PostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /**
+     * A username no other test has used.
+     */
+    protected static String newUser() {
+        return "user" + USERS.incrementAndGet();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // the JVM is exiting; the data directory is temporary anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
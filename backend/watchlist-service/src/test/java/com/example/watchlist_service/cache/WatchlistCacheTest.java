@@ -0,0 +1,159 @@
+package com.example.watchlist_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.watchlist_service.config.WatchlistCacheProperties;
+import com.example.watchlist_service.model.FullWatchlist;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.repository.WatchlistSort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WatchlistCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger reads = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WatchlistCacheProperties properties = new WatchlistCacheProperties();
+    private final LocalWatchlistChanges changes = new LocalWatchlistChanges();
+    private WatchlistCache cache;
+    private WatchlistCache otherReplica;
+
+    @BeforeEach
+    void setUp() {
+        properties.setTtl(Duration.ofMinutes(1));
+        cache = new WatchlistCache(properties, changes, registry, now::get);
+        otherReplica = new WatchlistCache(properties, changes.replica(), new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void servesRepeatedReadsFromMemoryUntilTheyExpire() {
+        cache.get("ann", this::read);
+        now.addAndGet(59_000);
+        WatchlistSnapshot snapshot = cache.get("ann", this::read);
+
+        assertEquals(1, reads.get());
+        assertEquals(List.of("604", "603"), movieIds(snapshot));
+        assertEquals(1, registry.get("watchlist.cache.requests").tags("result", "hit").counter().count());
+        assertEquals(59_000, registry.get("watchlist.cache.age").timer().max(TimeUnit.MILLISECONDS));
+
+        now.addAndGet(1_000);
+        cache.get("ann", this::read);
+        assertEquals(2, reads.get());
+        assertEquals(2, registry.get("watchlist.cache.requests").tags("result", "miss").counter().count());
+    }
+
+    @Test
+    void appliesWritesToTheCachedCopyAndDropsOtherReplicasCopies() {
+        cache.get("ann", this::read);
+        otherReplica.get("ann", this::read);
+
+        cache.putMovie("ann", movie(9, "605", WatchStatus.COMPLETED, 5_000));
+        cache.removeMovie("ann", "603");
+        cache.putTvShow("ann", new TvShowWatchlist(3L, "ann", "1399", 2, 4, WatchStatus.CURRENTLY_WATCHING, 1L, 6_000L));
+
+        WatchlistSnapshot snapshot = cache.get("ann", this::read);
+        assertEquals(2, reads.get());
+        assertEquals(List.of("605", "604"), movieIds(snapshot));
+        assertEquals(4, snapshot.tvShows().get(0).getCurrentEpisode());
+        assertEquals(0, otherReplica.size());
+
+        otherReplica.get("ann", this::read);
+        assertEquals(3, reads.get());
+    }
+
+    @Test
+    void filtersAndSortsTheCachedCopy() {
+        WatchlistSnapshot snapshot = cache.get("ann", this::read);
+
+        assertEquals(List.of("603", "604"), snapshot.movies(null, WatchlistSort.CREATED_AT).stream()
+            .map(MovieWatchlist::getMovieId).toList());
+        assertEquals(List.of("603"), snapshot.movies(WatchStatus.COMPLETED, WatchlistSort.UPDATED_AT).stream()
+            .map(MovieWatchlist::getMovieId).toList());
+    }
+
+    @Test
+    void keepsTheNewerRowWhenWritesReachItOutOfOrder() {
+        cache.get("ann", this::read);
+
+        cache.putMovie("ann", movie(1, "603", WatchStatus.CURRENTLY_WATCHING, 6_000));
+        cache.putMovie("ann", movie(1, "603", WatchStatus.PLAN_TO_WATCH, 5_000));
+        cache.putTvShow("ann", new TvShowWatchlist(3L, "ann", "1399", 1, 5, WatchStatus.CURRENTLY_WATCHING, 1L, 8_000L));
+        cache.putTvShow("ann", new TvShowWatchlist(3L, "ann", "1399", 1, 4, WatchStatus.CURRENTLY_WATCHING, 1L, 7_000L));
+
+        WatchlistSnapshot snapshot = cache.get("ann", this::read);
+        assertEquals(1, reads.get());
+        assertEquals(WatchStatus.CURRENTLY_WATCHING, snapshot.movies().get(0).getStatus());
+        assertEquals(6_000, snapshot.movies().get(0).getUpdatedAt());
+        assertEquals(5, snapshot.tvShows().get(0).getCurrentEpisode());
+    }
+
+    @Test
+    void doesNotKeepAReadThatAWriteRacedPast() {
+        cache.get("ann", () -> {
+            FullWatchlist before = read();
+            cache.putMovie("ann", movie(9, "605", WatchStatus.COMPLETED, 5_000));
+            return before;
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void dropsEverythingWhenChangesMayHaveBeenMissed() {
+        cache.get("ann", this::read);
+        cache.get("bob", this::read);
+
+        changes.reconnect();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentlyReadUsersAndSmallWatchlists() {
+        properties.setMaxUsers(2);
+        properties.setMaxTitlesPerUser(3);
+        cache.get("ann", this::read);
+        cache.get("bob", this::read);
+        cache.get("ann", this::read);
+        cache.get("cat", this::read);
+        assertEquals(2, cache.size());
+
+        reads.set(0);
+        cache.get("ann", this::read);
+        cache.get("bob", this::read);
+        assertEquals(1, reads.get());
+
+        cache.putMovie("ann", movie(9, "605", WatchStatus.COMPLETED, 5_000));
+        cache.putMovie("ann", movie(10, "606", WatchStatus.COMPLETED, 6_000));
+        cache.get("ann", this::read);
+        assertEquals(2, reads.get());
+    }
+
+    private FullWatchlist read() {
+        reads.incrementAndGet();
+        FullWatchlist watchlist = new FullWatchlist();
+        watchlist.getMovies().add(new MovieWatchlist(2L, "ann", "604", WatchStatus.PLAN_TO_WATCH, 200L, 400L));
+        watchlist.getMovies().add(new MovieWatchlist(1L, "ann", "603", WatchStatus.COMPLETED, 300L, 300L));
+        return watchlist;
+    }
+
+    private static MovieWatchlist movie(long id, String movieId, WatchStatus status, long updatedAt) {
+        return new MovieWatchlist(id, "ann", movieId, status, updatedAt, updatedAt);
+    }
+
+    private static List<String> movieIds(WatchlistSnapshot snapshot) {
+        return snapshot.movies().stream().map(MovieWatchlist::getMovieId).toList();
+    }
+}
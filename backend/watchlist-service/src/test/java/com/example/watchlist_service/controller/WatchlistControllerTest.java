@@ -0,0 +1,149 @@
+package com.example.watchlist_service.controller;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.watchlist_service.PostgresTest;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+
+class WatchlistControllerTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WatchlistJdbcRepository watchlistJdbcRepository;
+
+    @Autowired
+    private MovieWatchlistRepository movieWatchlistRepository;
+
+    @Autowired
+    private TvShowWatchlistRepository tvShowWatchlistRepository;
+
+    @Test
+    void updatesAMovieWhoseUpdatedAtStillMatches() throws Exception {
+        String user = newUser();
+        MovieWatchlist movie = watchlistJdbcRepository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, 1_000);
+
+        mockMvc.perform(put("/api/watchlist/movies/{username}/603", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"COMPLETED\",\"updatedAt\":" + movie.getUpdatedAt() + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.updatedAt", greaterThan(movie.getUpdatedAt())));
+
+        assertEquals(WatchStatus.COMPLETED, currentMovie(user, "603").getStatus());
+    }
+
+    @Test
+    void rejectsAMovieUpdateMadeAgainstAStaleUpdatedAt() throws Exception {
+        String user = newUser();
+        MovieWatchlist seen = watchlistJdbcRepository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, 1_000);
+        MovieWatchlist changed = watchlistJdbcRepository.updateMovieStatus(user, "603",
+            WatchStatus.CURRENTLY_WATCHING, null, 2_000).orElseThrow();
+
+        mockMvc.perform(put("/api/watchlist/movies/{username}/603", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"COMPLETED\",\"updatedAt\":" + seen.getUpdatedAt() + "}"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.status").value("CURRENTLY_WATCHING"))
+            .andExpect(jsonPath("$.updatedAt").value(changed.getUpdatedAt()));
+
+        MovieWatchlist current = currentMovie(user, "603");
+        assertEquals(WatchStatus.CURRENTLY_WATCHING, current.getStatus());
+        assertEquals(changed.getUpdatedAt(), current.getUpdatedAt());
+    }
+
+    @Test
+    void rejectsATvShowUpdateMadeAgainstAStaleUpdatedAt() throws Exception {
+        String user = newUser();
+        TvShowWatchlist seen = watchlistJdbcRepository.upsertTvShow(user, "1399", WatchStatus.CURRENTLY_WATCHING,
+            1, 3, 1_000);
+        watchlistJdbcRepository.advanceEpisode(user, "1399", 2_000);
+
+        mockMvc.perform(put("/api/watchlist/tvshows/{username}/1399", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentEpisode\":5,\"updatedAt\":" + seen.getUpdatedAt() + "}"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.currentEpisode").value(4));
+
+        assertEquals(4, currentTvShow(user, "1399").getCurrentEpisode());
+    }
+
+    @Test
+    void answersNotFoundForATitleThatIsNotOnTheWatchlist() throws Exception {
+        String user = newUser();
+
+        mockMvc.perform(put("/api/watchlist/movies/{username}/603", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"COMPLETED\",\"updatedAt\":1000}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/watchlist/movies/{username}/603", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"COMPLETED\"}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/watchlist/tvshows/{username}/1399", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentEpisode\":2,\"updatedAt\":1000}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/watchlist/tvshows/{username}/1399/next-episode", user))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void startsAShowNotYetStartedAtTheFirstEpisode() throws Exception {
+        String user = newUser();
+        watchlistJdbcRepository.upsertTvShow(user, "1399", WatchStatus.PLAN_TO_WATCH, null, null, 1_000);
+
+        mockMvc.perform(post("/api/watchlist/tvshows/{username}/1399/next-episode", user))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentSeason").value(1))
+            .andExpect(jsonPath("$.currentEpisode").value(1))
+            .andExpect(jsonPath("$.status").value("CURRENTLY_WATCHING"));
+    }
+
+    @Test
+    void keepsCountingInTheSameSeasonAfterItsLastEpisode() throws Exception {
+        String user = newUser();
+        // the service doesn't know how long seasons are; the client moves on to the next one with a PUT
+        TvShowWatchlist show = watchlistJdbcRepository.upsertTvShow(user, "1399", WatchStatus.CURRENTLY_WATCHING,
+            1, 10, 1_000);
+
+        mockMvc.perform(post("/api/watchlist/tvshows/{username}/1399/next-episode", user))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentSeason").value(1))
+            .andExpect(jsonPath("$.currentEpisode").value(11))
+            .andExpect(jsonPath("$.status").value("CURRENTLY_WATCHING"))
+            .andExpect(jsonPath("$.updatedAt", greaterThan(show.getUpdatedAt())));
+
+        TvShowWatchlist advanced = currentTvShow(user, "1399");
+        mockMvc.perform(put("/api/watchlist/tvshows/{username}/1399", user)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentSeason\":2,\"currentEpisode\":1,\"updatedAt\":" + advanced.getUpdatedAt() + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentSeason").value(2))
+            .andExpect(jsonPath("$.currentEpisode").value(1));
+    }
+
+    private MovieWatchlist currentMovie(String username, String movieId) {
+        return movieWatchlistRepository.findByUsernameAndMovieId(username, movieId).orElseThrow();
+    }
+
+    private TvShowWatchlist currentTvShow(String username, String tvShowId) {
+        return tvShowWatchlistRepository.findByUsernameAndTvShowId(username, tvShowId).orElseThrow();
+    }
+}
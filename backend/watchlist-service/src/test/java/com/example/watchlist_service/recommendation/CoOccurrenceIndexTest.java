@@ -0,0 +1,126 @@
+package com.example.watchlist_service.recommendation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoOccurrenceIndexTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    // two users per task, so updates with more users are split
+    private final CoOccurrenceIndex index = new CoOccurrenceIndex(10, 2, 200, 2, pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void ranksTitlesWatchlistedTogether() {
+        index.update(Map.of(
+            "ann", List.of("movie:603", "movie:604", "tv:1399"),
+            "bob", List.of("movie:603", "movie:604"),
+            "cat", List.of("movie:603", "movie:604", "movie:605"),
+            "dan", List.of("movie:603", "tv:1399"),
+            "eve", List.of("tv:1399", "tv:1396")));
+
+        List<CoOccurrenceIndex.Scored> neighbours = index.neighbours("movie:603");
+
+        assertEquals(List.of("movie:604", "tv:1399"), titles(neighbours));
+        assertEquals(3 / Math.sqrt(4 * 3), neighbours.get(0).score(), 1e-6);
+        assertEquals(5, index.users());
+    }
+
+    @Test
+    void ignoresPairsBelowMinimumSupport() {
+        index.update(Map.of(
+            "ann", List.of("movie:603", "movie:605"),
+            "bob", List.of("movie:603", "movie:604"),
+            "cat", List.of("movie:603", "movie:604")));
+
+        assertEquals(List.of("movie:604"), titles(index.neighbours("movie:603")));
+        assertEquals(List.of(), index.neighbours("movie:605"));
+    }
+
+    @Test
+    void updatesIncrementallyAsWatchlistsChange() {
+        Map<String, List<String>> watchlists = new HashMap<>();
+        for (int user = 0; user < 9; user++) {
+            watchlists.put("user" + user, List.of("movie:603", "movie:604"));
+        }
+        index.update(watchlists);
+        assertEquals(List.of("movie:604"), titles(index.neighbours("movie:603")));
+
+        // every user but one swaps 604 for 605
+        Map<String, List<String>> changes = new HashMap<>();
+        for (int user = 1; user < 9; user++) {
+            changes.put("user" + user, List.of("movie:603", "movie:605"));
+        }
+        index.update(changes);
+        assertEquals(List.of("movie:605"), titles(index.neighbours("movie:603")));
+        assertEquals(List.of(), index.neighbours("movie:604"));
+
+        // emptied watchlists remove their users
+        Map<String, List<String>> removals = new HashMap<>();
+        for (int user = 1; user < 9; user++) {
+            removals.put("user" + user, List.of());
+        }
+        index.update(removals);
+        assertEquals(1, index.users());
+        assertEquals(0, index.titlesWithNeighbours());
+    }
+
+    @Test
+    void matchesAFreshBuildAfterUpdates() {
+        Map<String, List<String>> first = new HashMap<>();
+        Map<String, List<String>> second = new HashMap<>();
+        for (int user = 0; user < 40; user++) {
+            first.put("user" + user, List.of("movie:" + user % 5, "movie:" + user % 7, "tv:" + user % 3));
+            second.put("user" + user, user % 2 == 0
+                ? List.of("movie:" + user % 5, "tv:" + user % 4)
+                : List.of("movie:" + user % 7, "tv:" + user % 3, "tv:" + user % 4));
+        }
+        index.update(first);
+        index.update(second);
+
+        CoOccurrenceIndex fresh = new CoOccurrenceIndex(10, 2, 200, 2, pool);
+        fresh.update(second);
+
+        for (String title : List.of("movie:0", "movie:3", "movie:6", "tv:0", "tv:1", "tv:3")) {
+            assertEquals(scores(fresh.neighbours(title)), scores(index.neighbours(title)), title);
+        }
+    }
+
+    @Test
+    void recommendsNeighboursTheUserDoesNotHave() {
+        index.update(Map.of(
+            "ann", List.of("movie:603", "movie:604", "tv:1399"),
+            "bob", List.of("movie:603", "movie:604", "tv:1399"),
+            "cat", List.of("movie:604", "movie:605"),
+            "dan", List.of("movie:604", "movie:605")));
+
+        List<CoOccurrenceIndex.Scored> recommended = index.recommend(List.of("movie:603", "movie:605"), 10);
+
+        assertEquals(List.of("movie:604", "tv:1399"), titles(recommended));
+        assertTrue(recommended.get(0).score() > recommended.get(1).score());
+        assertEquals(List.of("movie:604"), titles(index.recommend(List.of("movie:603", "movie:605"), 1)));
+    }
+
+    // equal scores may come in either order, so compare rounded scores per title
+    private static Map<String, Long> scores(List<CoOccurrenceIndex.Scored> scored) {
+        Map<String, Long> scores = new HashMap<>();
+        scored.forEach(entry -> scores.put(entry.title(), Math.round(entry.score() * 1e5)));
+        return scores;
+    }
+
+    private static List<String> titles(List<CoOccurrenceIndex.Scored> scored) {
+        return scored.stream().map(CoOccurrenceIndex.Scored::title).toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.watchlist_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class WatchlistCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        WatchlistCursor cursor = new WatchlistCursor(WatchlistSort.CREATED_AT, 1792418553285L, 158);
+
+        assertEquals(cursor, WatchlistCursor.decode(cursor.encode(), WatchlistSort.CREATED_AT));
+    }
+
+    @Test
+    void rejectsCursorsForAnotherSort() {
+        String cursor = new WatchlistCursor(WatchlistSort.UPDATED_AT, 1792418553285L, 158).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> WatchlistCursor.decode(cursor, WatchlistSort.CREATED_AT));
+    }
+
+    @Test
+    void rejectsStringsThatAreNotCursors() {
+        assertThrows(IllegalArgumentException.class, () -> WatchlistCursor.decode("garbage!", WatchlistSort.UPDATED_AT));
+        assertThrows(IllegalArgumentException.class, () -> WatchlistCursor.decode("VVBEQVRFRF9BVDp4Onk", WatchlistSort.UPDATED_AT));
+    }
+}
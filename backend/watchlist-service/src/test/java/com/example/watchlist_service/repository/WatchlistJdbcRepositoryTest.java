@@ -0,0 +1,109 @@
+package com.example.watchlist_service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.watchlist_service.PostgresTest;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.RemovedTitle;
+import com.example.watchlist_service.model.TvShowWatchlist;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistChangeSet;
+
+class WatchlistJdbcRepositoryTest extends PostgresTest {
+
+    // Tombstones are dated from now, so the compaction the service runs at startup leaves them
+    private static final long NOW = System.currentTimeMillis();
+
+    @Autowired
+    private WatchlistJdbcRepository repository;
+
+    @Test
+    void reAddingATitleMovesItsUpdatedAtForwardEvenInTheSameMillisecond() {
+        String user = newUser();
+        MovieWatchlist added = repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, 1_000);
+        MovieWatchlist again = repository.upsertMovie(user, "603", WatchStatus.COMPLETED, 1_000);
+        // a clock that went backwards doesn't move it back either
+        MovieWatchlist earlier = repository.upsertMovie(user, "603", WatchStatus.CURRENTLY_WATCHING, 500);
+
+        assertTrue(again.getUpdatedAt() > added.getUpdatedAt());
+        assertTrue(earlier.getUpdatedAt() > again.getUpdatedAt());
+        assertEquals(1_000, earlier.getCreatedAt());
+        assertEquals(WatchStatus.CURRENTLY_WATCHING, earlier.getStatus());
+
+        TvShowWatchlist show = repository.upsertTvShow(user, "1399", WatchStatus.PLAN_TO_WATCH, null, null, 1_000);
+        TvShowWatchlist showAgain = repository.upsertTvShow(user, "1399", WatchStatus.CURRENTLY_WATCHING, 1, 2, 1_000);
+
+        assertTrue(showAgain.getUpdatedAt() > show.getUpdatedAt());
+        assertEquals(2, showAgain.getCurrentEpisode());
+    }
+
+    @Test
+    void removingATitleLeavesATombstone() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, NOW + 1_000);
+        repository.upsertTvShow(user, "1399", WatchStatus.PLAN_TO_WATCH, null, null, NOW + 1_000);
+
+        assertTrue(repository.removeMovie(user, "603", NOW + 2_000));
+        assertTrue(repository.removeTvShow(user, "1399", NOW + 3_000));
+        assertFalse(repository.removeMovie(user, "604", NOW + 4_000));
+
+        WatchlistChangeSet changes = changesSince(user, NOW + 1_500);
+        assertEquals(List.of(new RemovedTitle("603", NOW + 2_000)), changes.getRemovedMovies());
+        assertEquals(List.of(new RemovedTitle("1399", NOW + 3_000)), changes.getRemovedTvShows());
+        assertEquals(List.of(), changes.getMovies());
+        assertEquals(List.of(), changesSince(user, NOW + 3_000).getRemovedTvShows());
+    }
+
+    @Test
+    void reAddingATitleHidesItsTombstone() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, NOW + 1_000);
+        repository.removeMovie(user, "603", NOW + 2_000);
+        MovieWatchlist readded = repository.upsertMovie(user, "603", WatchStatus.COMPLETED, NOW + 3_000);
+
+        WatchlistChangeSet changes = changesSince(user, NOW + 1_500);
+        assertEquals(List.of(), changes.getRemovedMovies());
+        assertEquals(List.of(readded), changes.getMovies());
+    }
+
+    @Test
+    void findsTheUsersWhoRemovedTitlesSince() {
+        String before = newUser();
+        String after = newUser();
+        repository.upsertMovie(before, "603", WatchStatus.PLAN_TO_WATCH, NOW + 1_000);
+        repository.upsertTvShow(after, "1399", WatchStatus.PLAN_TO_WATCH, null, null, NOW + 1_000);
+        repository.removeMovie(before, "603", NOW + 2_000);
+        repository.removeTvShow(after, "1399", NOW + 4_000);
+
+        List<String> removed = repository.findUsernamesRemovedSince(NOW + 3_000);
+
+        assertTrue(removed.contains(after));
+        assertFalse(removed.contains(before));
+    }
+
+    @Test
+    void changesAreOnlyThoseAfterSinceOldestFirst() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, NOW + 1_000);
+        repository.upsertMovie(user, "604", WatchStatus.COMPLETED, NOW + 3_000);
+        repository.updateMovieStatus(user, "603", WatchStatus.CURRENTLY_WATCHING, null, NOW + 2_000);
+
+        assertEquals(List.of("603", "604"), changesSince(user, NOW + 1_000).getMovies().stream()
+            .map(MovieWatchlist::getMovieId).toList());
+        assertEquals(List.of("604"), changesSince(user, NOW + 2_000).getMovies().stream()
+            .map(MovieWatchlist::getMovieId).toList());
+    }
+
+    private WatchlistChangeSet changesSince(String username, long since) {
+        WatchlistChangeSet changes = new WatchlistChangeSet();
+        repository.findChanges(username, since, changes);
+        return changes;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.watchlist_service.config.CatalogProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+class CatalogClientTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CatalogProperties properties = new CatalogProperties();
+    private final Queue<String> queries = new ConcurrentLinkedQueue<>();
+    private HttpServer catalog;
+    private CatalogClient client;
+
+    /**
+     * The catalog: knows every movie and TV show except id 404, and takes two seconds over movie 999.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        catalog = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        catalog.setExecutor(Executors.newCachedThreadPool());
+        catalog.createContext("/api/catalog/summaries", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            if (query.contains("999")) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = ("{\"movies\":" + titles(query, "movies", "title") + ",\"tvShows\":"
+                + titles(query, "tvshows", "name") + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        catalog.start();
+        properties.setBaseUrl("http://127.0.0.1:" + catalog.getAddress().getPort());
+        properties.setTimeout(Duration.ofMillis(500));
+        properties.setBatchSize(2);
+        client = new CatalogClient(properties, new ObjectMapper(), HttpClient.newHttpClient(), now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.stop(0);
+    }
+
+    @Test
+    void summarizesInParallelBatches() {
+        CatalogClient.Summaries summaries = client.summarize(List.of("603", "604", "605"), List.of("1399", "404"));
+
+        assertEquals(Set.of("603", "604", "605"), summaries.movies().keySet());
+        assertEquals("Title 604", summaries.movies().get("604").path("title").asText());
+        assertEquals(Set.of("1399"), summaries.tvShows().keySet());
+        assertEquals(Set.of("movies=603,604&tvshows=1399,404", "movies=605&tvshows="), Set.copyOf(queries));
+    }
+
+    @Test
+    void reusesSummariesUntilTheyExpire() {
+        client.summarize(List.of("603"), List.of("1399"));
+        CatalogClient.Summaries again = client.summarize(List.of("603"), List.of("1399"));
+
+        assertEquals(1, queries.size());
+        assertEquals(Set.of("603"), again.movies().keySet());
+
+        now.addAndGet(properties.getSummaryTtl().toMillis());
+        client.summarize(List.of("603"), List.of());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void leavesOutTitlesOfBatchesThatTimeOut() {
+        CatalogClient.Summaries summaries = client.summarize(List.of("603", "604", "999"), List.of());
+
+        assertEquals(Set.of("603", "604"), summaries.movies().keySet());
+        assertEquals(2, client.size());
+    }
+
+    @Test
+    void skipsIdsThatAreNotCatalogIds() {
+        CatalogClient.Summaries summaries = client.summarize(List.of("tt0133093", ""), List.of());
+
+        assertTrue(summaries.movies().isEmpty());
+        assertTrue(queries.isEmpty());
+    }
+
+    private static String titles(String query, String kind, String field) {
+        StringBuilder json = new StringBuilder("{");
+        for (String param : query.split("&")) {
+            if (param.startsWith(kind + "=") && param.length() > kind.length() + 1) {
+                for (String id : param.substring(kind.length() + 1).split(",")) {
+                    if (!id.equals("404")) {
+                        json.append(json.length() > 1 ? "," : "")
+                            .append("\"").append(id).append("\":{\"id\":").append(id)
+                            .append(",\"").append(field).append("\":\"Title ").append(id).append("\"}");
+                    }
+                }
+            }
+        }
+        return json.append("}").toString();
+    }
+}
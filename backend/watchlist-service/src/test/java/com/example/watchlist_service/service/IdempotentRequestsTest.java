@@ -0,0 +1,120 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.watchlist_service.config.IdempotencyProperties;
+
+class IdempotentRequestsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final IdempotentRequests requests = new IdempotentRequests(properties, now::get);
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void retryGetsTheFirstResult() {
+        Object first = requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+        Object retry = requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+
+        assertSame(first, retry);
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void writesEveryTimeWithoutAKey() {
+        requests.execute("movies:ann", null, "603:WATCHING", write());
+        requests.execute("movies:ann", " ", "603:WATCHING", write());
+
+        assertEquals(2, writes.get());
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+        requests.execute("movies:bob", "key-1", "603:WATCHING", write());
+
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    void rejectsAKeyReusedForAnotherRequest() {
+        requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> requests.execute("movies:ann", "key-1", "604:WATCHING", write()));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void forgetsFailedWritesAndExpiredKeys() {
+        assertThrows(IllegalStateException.class, () -> requests.execute("movies:ann", "key-1", "603:WATCHING", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+        assertEquals(1, writes.get());
+
+        now.addAndGet(properties.getTtl().plus(Duration.ofSeconds(1)).toMillis());
+        requests.execute("movies:ann", "key-1", "603:WATCHING", write());
+        assertEquals(2, writes.get());
+
+        now.addAndGet(properties.getTtl().plus(Duration.ofSeconds(1)).toMillis());
+        requests.evictExpired();
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstAttempt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = clients.submit(() -> requests.execute("tvshows:ann", "key-1", "1399", () -> {
+                started.countDown();
+                await(finish);
+                return write().get();
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Object> retry = clients.submit(() -> requests.execute("tvshows:ann", "key-1", "1399", write()));
+            finish.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, writes.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private Supplier<Object> write() {
+        return () -> {
+            writes.incrementAndGet();
+            return new Object();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
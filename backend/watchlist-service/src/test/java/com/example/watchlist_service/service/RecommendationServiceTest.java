@@ -0,0 +1,58 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.watchlist_service.PostgresTest;
+import com.example.watchlist_service.config.RecommendationProperties;
+import com.example.watchlist_service.model.Recommendation;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.repository.MovieWatchlistRepository;
+import com.example.watchlist_service.repository.TvShowWatchlistRepository;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+
+class RecommendationServiceTest extends PostgresTest {
+
+    @Autowired
+    private MovieWatchlistRepository movieWatchlistRepository;
+
+    @Autowired
+    private TvShowWatchlistRepository tvShowWatchlistRepository;
+
+    @Autowired
+    private WatchlistJdbcRepository repository;
+
+    @Test
+    void anIncrementalRefreshSeesRemovalsMadeElsewhere() {
+        RecommendationService recommendations = new RecommendationService(movieWatchlistRepository,
+            tvShowWatchlistRepository, repository, new RecommendationProperties());
+        // added well before the refreshes, so only the removal shows which watchlist changed
+        long added = System.currentTimeMillis() - 600_000;
+        // titles no other test uses, so the shared database doesn't change their pairs
+        String first = newUser();
+        String second = newUser();
+        String asking = newUser();
+        for (String user : List.of(first, second)) {
+            repository.upsertMovie(user, "9001", WatchStatus.PLAN_TO_WATCH, added);
+            repository.upsertMovie(user, "9002", WatchStatus.PLAN_TO_WATCH, added);
+        }
+        repository.upsertMovie(asking, "9001", WatchStatus.PLAN_TO_WATCH, added);
+        recommendations.refresh();
+        assertEquals(List.of("9002"), titleIds(recommendations.getRecommendations(asking, 10)));
+
+        // as if through another instance, so this one is not told
+        repository.removeMovie(second, "9002", System.currentTimeMillis());
+        recommendations.refresh();
+
+        assertTrue(recommendations.getRecommendations(asking, 10).isEmpty());
+    }
+
+    private static List<String> titleIds(List<Recommendation> recommendations) {
+        return recommendations.stream().map(Recommendation::getTitleId).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistItem;
+import com.example.watchlist_service.service.WatchlistItemReader.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class WatchlistItemReaderTest {
+
+    @Test
+    void readsCsvColumnsByName() throws IOException {
+        WatchlistItemReader reader = reader(Format.CSV, """
+            id,type,currentEpisode,status,createdAt
+            603,movie,,completed,1792418553285
+
+            1399,tv,5,,
+            """);
+
+        assertEquals(new WatchlistItem("movie", "603", WatchStatus.COMPLETED, null, null, null, null), reader.next());
+        assertEquals(new WatchlistItem("tv", "1399", WatchStatus.PLAN_TO_WATCH, null, 5, null, null), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsLinesThatAreNotTitles() throws IOException {
+        WatchlistItemReader reader = reader(Format.CSV, """
+            type,id,status
+            book,1,COMPLETED
+            movie,605,WATCHED
+            movie,606,
+            """);
+
+        assertEquals("type must be movie or tv", assertThrows(IllegalArgumentException.class, reader::next).getMessage());
+        assertEquals(2, reader.lineNumber());
+        assertEquals("unknown status WATCHED", assertThrows(IllegalArgumentException.class, reader::next).getMessage());
+        assertEquals("606", reader.next().getId());
+    }
+
+    @Test
+    void rejectsCsvWithoutTheNeededColumns() {
+        WatchlistItemReader reader = reader(Format.CSV, "title,rating\nThe Matrix,5\n");
+
+        assertThrows(IllegalStateException.class, reader::next);
+    }
+
+    @Test
+    void readsOneJsonTitlePerLine() throws IOException {
+        WatchlistItemReader reader = reader(Format.NDJSON, """
+            {"type":"tv","id":"1399","status":"CURRENTLY_WATCHING","currentSeason":2,"currentEpisode":5}
+            not json
+            {"type":"movie","id":"603"}
+            """);
+
+        assertEquals(new WatchlistItem("tv", "1399", WatchStatus.CURRENTLY_WATCHING, 2, 5, null, null), reader.next());
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals(WatchStatus.PLAN_TO_WATCH, reader.next().getStatus());
+        assertNull(reader.next());
+    }
+
+    private static WatchlistItemReader reader(Format format, String input) {
+        return new WatchlistItemReader(new BufferedReader(new StringReader(input)), format, new ObjectMapper());
+    }
+}
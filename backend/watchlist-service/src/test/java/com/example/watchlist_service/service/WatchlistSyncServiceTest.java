@@ -0,0 +1,141 @@
+package com.example.watchlist_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.watchlist_service.PostgresTest;
+import com.example.watchlist_service.cache.WatchlistCache;
+import com.example.watchlist_service.config.SyncProperties;
+import com.example.watchlist_service.model.MovieWatchlist;
+import com.example.watchlist_service.model.RemovedTitle;
+import com.example.watchlist_service.model.WatchStatus;
+import com.example.watchlist_service.model.WatchlistChangeSet;
+import com.example.watchlist_service.repository.WatchlistJdbcRepository;
+
+class WatchlistSyncServiceTest extends PostgresTest {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    @Autowired
+    private WatchlistJdbcRepository repository;
+
+    @Autowired
+    private WatchlistCache watchlistCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // from the real clock, as the compaction the service runs at startup uses it
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final SyncProperties properties = new SyncProperties();
+    private WatchlistSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setTombstoneTtl(Duration.ofDays(30));
+        properties.setOverlap(Duration.ofSeconds(5));
+        properties.setCompactionBatchSize(2);
+        syncService = new WatchlistSyncService(repository, properties, now::get);
+    }
+
+    @Test
+    void sendsOnlyWhatChangedSinceARecentSync() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, daysAgo(10));
+        repository.upsertMovie(user, "604", WatchStatus.PLAN_TO_WATCH, daysAgo(10));
+        MovieWatchlist changed = repository.upsertMovie(user, "603", WatchStatus.COMPLETED, daysAgo(1));
+        repository.removeMovie(user, "604", daysAgo(1));
+
+        WatchlistChangeSet changes = syncService.getChanges(user, daysAgo(5));
+
+        assertFalse(changes.isFullResync());
+        assertEquals(List.of(changed), changes.getMovies());
+        assertEquals(List.of(new RemovedTitle("604", daysAgo(1))), changes.getRemovedMovies());
+    }
+
+    @Test
+    void nextSinceStartsTheOverlapBeforeNow() {
+        WatchlistChangeSet changes = syncService.getChanges(newUser(), daysAgo(1));
+
+        assertEquals(now.get() - 5_000, changes.getNextSince());
+    }
+
+    @Test
+    void sendsEverythingToAClientThatNeverSynced() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, daysAgo(90));
+        repository.upsertTvShow(user, "1399", WatchStatus.CURRENTLY_WATCHING, 1, 2, daysAgo(80));
+
+        WatchlistChangeSet changes = syncService.getChanges(user, null);
+
+        assertTrue(changes.isFullResync());
+        assertEquals(1, changes.getMovies().size());
+        assertEquals(1, changes.getTvShows().size());
+        assertEquals(now.get() - 5_000, changes.getNextSince());
+    }
+
+    @Test
+    void aFullResyncFromAStaleCachedCopyMissesNothing() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, daysAgo(10));
+        watchlistCache.get(user, () -> repository.findWatchlist(user));
+        // written without the cache hearing of it, as after a lost notification
+        repository.upsertMovie(user, "604", WatchStatus.PLAN_TO_WATCH, now.get() - 60_000);
+
+        WatchlistChangeSet full = syncService.getChanges(user, null);
+        MovieWatchlist later = repository.upsertMovie(user, "605", WatchStatus.PLAN_TO_WATCH, now.get() + 1_000);
+        now.addAndGet(60_000);
+        WatchlistChangeSet next = syncService.getChanges(user, full.getNextSince());
+
+        assertEquals(List.of("604", "603"), full.getMovies().stream().map(MovieWatchlist::getMovieId).toList());
+        assertEquals(List.of(later), next.getMovies());
+    }
+
+    @Test
+    void sendsEverythingToAClientThatLastSyncedBeforeTheTombstoneTtl() {
+        String user = newUser();
+        repository.upsertMovie(user, "603", WatchStatus.PLAN_TO_WATCH, daysAgo(90));
+        repository.upsertMovie(user, "604", WatchStatus.PLAN_TO_WATCH, daysAgo(90));
+        // its tombstone may already be gone, so the client can't be told about it; it gets the whole list instead
+        repository.removeMovie(user, "604", daysAgo(40));
+
+        WatchlistChangeSet changes = syncService.getChanges(user, daysAgo(30) - 1);
+
+        assertTrue(changes.isFullResync());
+        assertEquals(List.of("603"), changes.getMovies().stream().map(MovieWatchlist::getMovieId).toList());
+        assertEquals(List.of(), changes.getRemovedMovies());
+        assertFalse(syncService.getChanges(user, daysAgo(30)).isFullResync());
+    }
+
+    @Test
+    void compactionDeletesOnlyTombstonesPastTheTtl() {
+        String user = newUser();
+        for (int i = 0; i < 5; i++) {
+            repository.upsertMovie(user, "60" + i, WatchStatus.PLAN_TO_WATCH, daysAgo(90));
+        }
+        // four past the 30 day TTL, more than one batch of two, and one inside it
+        for (int i = 0; i < 4; i++) {
+            repository.removeMovie(user, "60" + i, daysAgo(40) + i);
+        }
+        repository.removeMovie(user, "604", daysAgo(29));
+
+        syncService.compactTombstones();
+
+        assertEquals(List.of(daysAgo(29)), jdbcTemplate.queryForList(
+            "select deleted_at from watchlist_tombstone where username = ?", Long.class, user));
+    }
+
+    private long daysAgo(int days) {
+        return now.get() - days * DAY;
+    }
+}
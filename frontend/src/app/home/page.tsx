@@ -8,7 +8,7 @@ import { useAuth } from '@/contexts/AuthContext';
 import { FaFilm, FaTv, FaList, FaSignOutAlt, FaUserCircle, FaSearch, FaPlay, FaChevronRight, FaChevronLeft, FaPlus, FaCalendarAlt, FaCog, FaStar, FaCheckCircle, FaRegClock, FaRegEye, FaTimes } from 'react-icons/fa';
 import { motion } from 'framer-motion';
 import { MovieWatchlistItem, TvShowWatchlistItem, WatchStatus } from '@/types';
-import { getMovieWatchlist, getTvShowWatchlist, updateTvShowWatchStatus, removeMovieFromWatchlist, removeTvShowFromWatchlist, updateMovieWatchStatus } from '@/utils/watchlistApi';
+import { getFullWatchlist, updateTvShowWatchStatus, removeMovieFromWatchlist, removeTvShowFromWatchlist, updateMovieWatchStatus } from '@/utils/watchlistApi';
 import debounce from 'lodash/debounce';
 
 // Define Movie interface based on the API response
@@ -109,42 +109,6 @@ export default function Home() {
   // Add a ref map for season buttons
   const seasonButtonRefs = useRef<{ [key: string]: HTMLButtonElement | null }>({});
 
-  // Function to fetch movie details for watchlist items
-  const fetchWatchlistMovieDetails = async (watchlistItems: MovieWatchlistItem[]) => {
-    const movieDetails: {[id: string]: Movie} = {};
-    
-    for (const item of watchlistItems) {
-      try {
-        const response = await fetch(`/api/catalog/movies/${item.movieId}`);
-        if (response.ok) {
-          const data = await response.json();
-          movieDetails[item.movieId] = data;
-        }
-      } catch (error) {
-        console.error(`Error fetching details for movie ${item.movieId}:`, error);
-      }
-    }
-    
-    setWatchlistMovieDetails(movieDetails);
-  };
-    // Function to fetch TV show details for watchlist items
-  const fetchWatchlistTvShowDetails = async (watchlistItems: TvShowWatchlistItem[]) => {
-    const tvShowDetails: {[id: string]: TvShow} = {};
-    
-    for (const item of watchlistItems) {
-      try {
-        const response = await fetch(`/api/catalog/tvshows/${item.tvShowId}`);
-        if (response.ok) {
-          const data = await response.json();
-          tvShowDetails[item.tvShowId] = data;
-        }
-      } catch (error) {
-        console.error(`Error fetching details for TV show ${item.tvShowId}:`, error);
-      }
-    }
-    
-    setWatchlistTvShowDetails(tvShowDetails);
-  };
     // Handle episode progress increment
   const incrementEpisode = async (item: TvShowWatchlistItem, event: React.MouseEvent) => {
     event.preventDefault();
@@ -203,35 +167,22 @@ export default function Home() {
     }
   };
   
-  // Fetch both movie and TV show watchlists
+  // Fetch both movie and TV show watchlists, with details of each title, in one request
   const fetchUserWatchlists = async () => {
     if (!user || isGuest) return;
     
-    // Fetch movie watchlist
     setIsLoadingMovieWatchlist(true);
-    try {
-      const movieList = await getMovieWatchlist(user.username);
-      setMovieWatchlist(movieList);
-      
-      // Fetch details for each movie in watchlist
-      fetchWatchlistMovieDetails(movieList);
-    } catch (error) {
-      console.error('Error fetching movie watchlist:', error);
-    } finally {
-      setIsLoadingMovieWatchlist(false);
-    }
-    
-    // Fetch TV show watchlist
     setIsLoadingTvShowWatchlist(true);
     try {
-      const tvShowList = await getTvShowWatchlist(user.username);
-      setTvShowWatchlist(tvShowList);
-      
-      // Fetch details for each TV show in watchlist
-      fetchWatchlistTvShowDetails(tvShowList);
+      const watchlist = await getFullWatchlist(user.username);
+      setMovieWatchlist(watchlist.movies);
+      setTvShowWatchlist(watchlist.tvShows);
+      setWatchlistMovieDetails(watchlist.movieDetails);
+      setWatchlistTvShowDetails(watchlist.tvShowDetails);
     } catch (error) {
-      console.error('Error fetching TV show watchlist:', error);
+      console.error('Error fetching watchlists:', error);
     } finally {
+      setIsLoadingMovieWatchlist(false);
       setIsLoadingTvShowWatchlist(false);
     }
   };
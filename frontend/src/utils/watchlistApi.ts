@@ -1,5 +1,29 @@
 // Watchlist Service API functions
-import { WatchStatus } from '../types';
+import { MovieWatchlistItem, TvShowWatchlistItem, WatchStatus } from '../types';
+
+// Both watchlists with catalog details of each title, in one request
+export interface FullWatchlist {
+  movies: MovieWatchlistItem[];
+  tvShows: TvShowWatchlistItem[];
+  movieDetails: { [movieId: string]: any };
+  tvShowDetails: { [tvShowId: string]: any };
+}
+
+export async function getFullWatchlist(username: string): Promise<FullWatchlist> {
+  try {
+    const response = await fetch(`/api/watchlist/${username}/full`, {
+      credentials: 'include',
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to fetch watchlist');
+    }
+    return await response.json();
+  } catch (error) {
+    console.error('Error fetching watchlist:', error);
+    return { movies: [], tvShows: [], movieDetails: {}, tvShowDetails: {} };
+  }
+}
 
 // Movie Watchlist API functions
 export async function getMovieWatchlist(username: string): Promise<any[]> {